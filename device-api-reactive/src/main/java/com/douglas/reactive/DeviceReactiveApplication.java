@@ -0,0 +1,24 @@
+package com.douglas.reactive;
+
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Entry point for the reactive Device API. It serves the same {@code /devices} contract as {@code
+ * device-api} on WebFlux and R2DBC, for deployments that hold many long-lived connections. The
+ * {@code devices} schema is owned by the Flyway migrations of {@code device-persistence}, which
+ * {@code device-api} applies on startup. The DTOs, entity tags, exceptions and request constraints
+ * of that contract come from {@code device-contract}, shared with {@code device-api}.
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan("com.douglas.reactive")
+@Import({DeviceDtoMapper.class, DeviceRequestValidator.class})
+public class DeviceReactiveApplication {
+  public static void main(String[] args) {
+    SpringApplication.run(DeviceReactiveApplication.class, args);
+  }
+}
@@ -0,0 +1,72 @@
+package com.douglas.reactive.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Listing, streaming, batch and history settings, bound from {@code devices.*} with the same keys
+ * and defaults as {@code device-api}.
+ *
+ * @param pagination default and maximum page sizes
+ * @param streaming settings for streamed listings
+ * @param batch chunk size and request limit for bulk creation
+ * @param history months of state history partitions prepared on startup
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices")
+public record DevicesProperties(
+    @DefaultValue @Valid Pagination pagination,
+    @DefaultValue @Valid Streaming streaming,
+    @DefaultValue @Valid Batch batch,
+    @DefaultValue @Valid History history) {
+
+  /**
+   * Page size settings.
+   *
+   * @param defaultLimit page size used when the client does not ask for one
+   * @param maxLimit hard upper bound for the page size requested by clients
+   */
+  public record Pagination(
+      @DefaultValue("50") @Positive int defaultLimit, @DefaultValue("500") @Positive int maxLimit) {
+
+    /**
+     * Resolves the effective page size for a request.
+     *
+     * @param requested the page size asked by the client, or {@code null}
+     * @return the requested size bounded to {@code [1, maxLimit]}, or the default size
+     */
+    public int resolve(Integer requested) {
+      if (requested == null) {
+        return Math.min(defaultLimit, maxLimit);
+      }
+      return Math.max(1, Math.min(requested, maxLimit));
+    }
+  }
+
+  /**
+   * Streaming settings.
+   *
+   * @param fetchSize rows fetched from the database cursor per demand signal
+   */
+  public record Streaming(@DefaultValue("500") @Positive int fetchSize) {}
+
+  /**
+   * Bulk creation settings.
+   *
+   * @param chunkSize devices inserted per transaction
+   * @param maxItems maximum number of devices accepted in one request
+   */
+  public record Batch(
+      @DefaultValue("500") @Positive int chunkSize,
+      @DefaultValue("10000") @Positive int maxItems) {}
+
+  /**
+   * State history settings.
+   *
+   * @param partitionsAhead months after the current one whose partitions are created on startup
+   */
+  public record History(@DefaultValue("12") @Positive int partitionsAhead) {}
+}
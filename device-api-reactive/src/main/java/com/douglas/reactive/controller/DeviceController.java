@@ -0,0 +1,330 @@
+package com.douglas.reactive.controller;
+
+import com.douglas.contract.dto.DeviceBatchResponseDto;
+import com.douglas.contract.dto.DeviceBulkResultDto;
+import com.douglas.contract.dto.DeviceBulkStateDto;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.http.DeviceETags;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.reactive.service.DeviceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller exposing the same {@code /devices} contract as the {@code device-api}
+ * controller: paths, parameters, bodies, status codes and conditional-request headers are
+ * identical, so clients can switch deployments without changes.
+ *
+ * <p>Single-device responses carry the device version as a strong {@code ETag}. A {@code GET} whose
+ * {@code If-None-Match} matches is answered with 304 and no body, and {@code PUT}, {@code PATCH}
+ * and {@code DELETE} honor {@code If-Match}, answering 412 when the device has changed.
+ */
+@RestController
+@RequestMapping("/devices")
+@Tag(name = "Devices", description = "Operations related to device management")
+public class DeviceController {
+
+  private final DeviceService deviceService;
+
+  /**
+   * Constructs a new {@code DeviceController} with the given {@link DeviceService}.
+   *
+   * @param deviceService service layer used for device operations
+   */
+  public DeviceController(DeviceService deviceService) {
+    this.deviceService = deviceService;
+  }
+
+  /**
+   * Creates a new device.
+   *
+   * @param request DTO containing the new device data
+   * @return the created device
+   */
+  @Operation(summary = "Create a new device", description = "Register a new device in the system.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Device created successfully",
+            content = @Content(schema = @Schema(implementation = DeviceResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request body")
+      })
+  @PostMapping
+  public Mono<ResponseEntity<DeviceResponseDto>> createDevice(
+      @RequestBody DeviceRequestDto request) {
+    return deviceService.createDevice(request).map(DeviceController::withETag);
+  }
+
+  /**
+   * Creates many devices in one request.
+   *
+   * @param requests the devices to create
+   * @return the outcome of each device, in request order
+   */
+  @Operation(
+      summary = "Create devices in bulk",
+      description =
+          "Registers up to devices.batch.max-items devices in one call. Invalid devices are"
+              + " reported individually; valid ones are inserted in pipelined batches.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Per-item results",
+            content = @Content(schema = @Schema(implementation = DeviceBatchResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+      })
+  @PostMapping("/batch")
+  public Mono<ResponseEntity<DeviceBatchResponseDto>> createDevices(
+      @RequestBody List<DeviceRequestDto> requests) {
+    return deviceService.createDevices(requests).map(ResponseEntity::ok);
+  }
+
+  /**
+   * Retrieves a device by its unique ID.
+   *
+   * @param id the UUID of the device
+   * @return the device data
+   */
+  @Operation(
+      summary = "Get device by ID",
+      description =
+          "Retrieve a device by its unique ID. Send the last ETag in If-None-Match to get a 304"
+              + " when the device has not changed.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Device found"),
+        @ApiResponse(responseCode = "304", description = "Device unchanged since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Device not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid UUID format")
+      })
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<DeviceResponseDto>> getDeviceById(@PathVariable UUID id) {
+    return deviceService.getDeviceById(id).map(DeviceController::withETag);
+  }
+
+  /**
+   * Retrieves a page of devices optionally filtered by name, brand or state. Each filter may be
+   * repeated to match any of several values.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param sort optional ordering: {@code creationTime}, {@code -creationTime}, {@code name} or
+   *     {@code -name}
+   * @param cursor optional cursor returned as {@code next} by the previous page
+   * @param limit optional page size
+   * @return the page of matching devices
+   */
+  @Operation(
+      summary = "Get all devices",
+      description =
+          "Returns the registered devices page by page, optionally filtered. Repeat a parameter to"
+              + " match any of several values, e.g. ?brand=Acme&brand=Globex. Pass the returned"
+              + " next cursor to fetch the following page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Page of devices"),
+        @ApiResponse(responseCode = "400", description = "Invalid sort or cursor")
+      })
+  @GetMapping
+  public Mono<ResponseEntity<DevicePageDto>> listDevices(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return deviceService
+        .listDevices(DeviceFilter.of(name, brand, state), sort, cursor, limit)
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Streams every device matching the filters as newline-delimited JSON. Each device is encoded and
+   * written as soon as it is read, and rows are only fetched from the database as the client
+   * consumes them, so the response can be arbitrarily large without growing server memory.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param sort optional ordering; devices are returned in database order when absent
+   * @return the matching devices, one per line
+   */
+  @Operation(
+      summary = "Stream all devices",
+      description =
+          "Returns every matching device as newline-delimited JSON when requested with"
+              + " Accept: application/x-ndjson. Intended for consumers that need the full result.")
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<DeviceResponseDto> streamDevices(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestParam(required = false) String sort) {
+    return deviceService.streamDevices(
+        DeviceFilter.of(name, brand, state), deviceService.parseSort(sort));
+  }
+
+  /**
+   * Updates all fields of a device by its ID.
+   *
+   * @param id the UUID of the device to update
+   * @param ifMatch optional ETag the device must still have
+   * @param request DTO containing the updated device data
+   * @return the updated device
+   */
+  @Operation(
+      summary = "Update device completely",
+      description = "Update all fields of a device by ID.")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
+  @PutMapping("/{id}")
+  public Mono<ResponseEntity<DeviceResponseDto>> updateDevice(
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody DeviceRequestDto request) {
+    return Mono.defer(
+            () -> deviceService.updateDevice(id, request, DeviceETags.parseIfMatch(ifMatch)))
+        .map(DeviceController::withETag);
+  }
+
+  /**
+   * Partially updates fields of a device by its ID.
+   *
+   * @param id the UUID of the device to update
+   * @param ifMatch optional ETag the device must still have
+   * @param patch DTO containing the fields to be updated
+   * @return the updated device
+   */
+  @Operation(
+      summary = "Partially update a device",
+      description = "Update one or more fields of a device.")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
+  @PatchMapping("/{id}")
+  public Mono<ResponseEntity<DeviceResponseDto>> patchDevice(
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody DevicePatchDto patch) {
+    return Mono.defer(() -> deviceService.patchDevice(id, patch, DeviceETags.parseIfMatch(ifMatch)))
+        .map(DeviceController::withETag);
+  }
+
+  /**
+   * Moves every device matching the filters to a new state in a single statement. Devices in use
+   * are left untouched and counted as skipped.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param request DTO containing the new state
+   * @return the number of changed and skipped devices
+   */
+  @Operation(
+      summary = "Change the state of devices in bulk",
+      description =
+          "Sets the state of every device matching the filters, e.g."
+              + " ?brand=Acme to mark all Acme devices INACTIVE. At least one filter is required."
+              + " Devices in use are skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Number of changed and skipped devices",
+            content = @Content(schema = @Schema(implementation = DeviceBulkResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing filter or state")
+      })
+  @PatchMapping
+  public Mono<ResponseEntity<DeviceBulkResultDto>> changeStateMatching(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestBody DeviceBulkStateDto request) {
+    return deviceService
+        .changeStateMatching(DeviceFilter.of(name, brand, state), request.state())
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Deletes every device matching the filters in a single statement. Devices in use are left
+   * untouched and counted as skipped.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @return the number of deleted and skipped devices
+   */
+  @Operation(
+      summary = "Delete devices in bulk",
+      description =
+          "Deletes every device matching the filters, e.g. ?brand=Acme&state=INACTIVE. At least"
+              + " one filter is required. Devices in use are skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Number of deleted and skipped devices",
+            content = @Content(schema = @Schema(implementation = DeviceBulkResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing filter")
+      })
+  @DeleteMapping
+  public Mono<ResponseEntity<DeviceBulkResultDto>> deleteMatching(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state) {
+    return deviceService
+        .deleteMatching(DeviceFilter.of(name, brand, state))
+        .map(ResponseEntity::ok);
+  }
+
+  /**
+   * Deletes a device by its ID.
+   *
+   * @param id the UUID of the device to delete
+   * @param ifMatch optional ETag the device must still have
+   * @return HTTP 204 No Content if deletion is successful
+   */
+  @Operation(summary = "Delete device", description = "Remove a device from the system by ID.")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
+  @DeleteMapping("/{id}")
+  public Mono<ResponseEntity<Void>> deleteDevice(
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return Mono.defer(() -> deviceService.deleteDevice(id, DeviceETags.parseIfMatch(ifMatch)))
+        .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+  }
+
+  /**
+   * Wraps a device in a 200 response tagged with its version. For a {@code GET}, WebFlux compares
+   * the tag with {@code If-None-Match} and answers 304 without writing the body.
+   */
+  private static ResponseEntity<DeviceResponseDto> withETag(DeviceResponseDto device) {
+    return ResponseEntity.ok().eTag(DeviceETags.of(device.version())).body(device);
+  }
+}
@@ -0,0 +1,81 @@
+package com.douglas.reactive.exception;
+
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Maps errors to the same JSON bodies and status codes as {@code device-api}. Error bodies are
+ * always written as JSON, even when the client asked for NDJSON.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+  @ExceptionHandler(DeviceNotFoundException.class)
+  public ResponseEntity<Map<String, Object>> handleNotFound(DeviceNotFoundException ex) {
+    return respond(HttpStatus.NOT_FOUND, ex.getMessage());
+  }
+
+  @ExceptionHandler(DeviceInUseException.class)
+  public ResponseEntity<Map<String, Object>> handleInUse(DeviceInUseException ex) {
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<Map<String, Object>> handleInvalidRequest(InvalidRequestException ex) {
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler({ServerWebInputException.class, DecodingException.class})
+  public ResponseEntity<Map<String, Object>> handleUnreadableInput(Exception ex) {
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<Map<String, Object>> handlePreconditionFailed(
+      PreconditionFailedException ex) {
+    return respond(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+  }
+
+  /**
+   * Answers a device changed by another request while this one was writing it: 412 with {@code
+   * If-Match}, 409 without, as {@code device-api} does.
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex, ServerWebExchange exchange) {
+    HttpStatus status =
+        exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_MATCH)
+            ? HttpStatus.PRECONDITION_FAILED
+            : HttpStatus.CONFLICT;
+    return respond(status, "Device was modified concurrently");
+  }
+
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
+    return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error: " + ex.getMessage());
+  }
+
+  private ResponseEntity<Map<String, Object>> respond(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(
+            Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", status.value(),
+                "error", message));
+  }
+}
@@ -0,0 +1,45 @@
+package com.douglas.reactive.persistence;
+
+import com.douglas.reactive.config.DevicesProperties;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares the monthly partitions of the state history on startup, like {@code device-api} does, so
+ * that state changes made through this deployment are written to their month's partition even when
+ * no {@code device-api} instance maintains them. There is no default partition, so the months
+ * prepared must cover the time until the next restart or {@code device-api} maintenance. Detaching
+ * expired months is left to {@code device-api}.
+ */
+@Component
+public class DeviceHistoryPartitions implements SmartInitializingSingleton {
+
+  private final DatabaseClient client;
+  private final DevicesProperties properties;
+
+  /**
+   * Creates the startup job.
+   *
+   * @param client the client the partitions are created through
+   * @param properties how many months to prepare
+   */
+  public DeviceHistoryPartitions(DatabaseClient client, DevicesProperties properties) {
+    this.client = client;
+    this.properties = properties;
+  }
+
+  /**
+   * Creates the partitions of the current month and of the following {@code
+   * devices.history.partitions-ahead} ones once every singleton has been created, before requests
+   * are served. Blocks, as it runs on the startup thread.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    client
+        .sql(DeviceSql.CREATE_HISTORY_PARTITIONS)
+        .bind("monthsAhead", properties.history().partitionsAhead())
+        .then()
+        .block();
+  }
+}
@@ -0,0 +1,79 @@
+package com.douglas.reactive.persistence;
+
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import io.r2dbc.spi.Readable;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a row of the {@code devices} table. Ids are assigned by the application, so
+ * Spring Data tells new rows apart by their {@code null} version and inserts them with version 0.
+ */
+@Table("devices")
+public class DeviceRow {
+
+  @Id private UUID id;
+  private String name;
+  private String brand;
+  private DeviceState state;
+
+  @Column("creation_time")
+  private Instant creationTime;
+
+  @Version private Long version;
+
+  /**
+   * Builds a new, not yet inserted row from a domain device.
+   *
+   * @param device the device to insert
+   * @return the row
+   */
+  public static DeviceRow newRow(Device device) {
+    DeviceRow row = new DeviceRow();
+    row.id = device.id();
+    row.name = device.name();
+    row.brand = device.brand();
+    row.state = device.state();
+    row.creationTime = device.creationTime();
+    return row;
+  }
+
+  /**
+   * Reads a row selected or returned with the columns of {@link DeviceSql#COLUMNS}.
+   *
+   * @param readable the R2DBC row
+   * @return the mapped row
+   */
+  public static DeviceRow read(Readable readable) {
+    DeviceRow row = new DeviceRow();
+    row.id = readable.get("id", UUID.class);
+    row.name = readable.get("name", String.class);
+    row.brand = readable.get("brand", String.class);
+    row.state = DeviceState.valueOf(readable.get("state", String.class));
+    row.creationTime = readable.get("creation_time", Instant.class);
+    row.version = readable.get("version", Long.class);
+    return row;
+  }
+
+  /**
+   * Converts this row into a domain device.
+   *
+   * @return the domain device
+   */
+  public Device toDomain() {
+    return new Device(id, name, brand, state, creationTime, version == null ? 0L : version);
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,101 @@
+package com.douglas.reactive.persistence;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import java.util.List;
+import java.util.UUID;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom repository fragment for the device queries and writes that derived queries cannot express.
+ * Mirrors the {@code DeviceQueryRepository} and {@code DeviceWriteRepository} fragments of {@code
+ * device-persistence}. Its {@link #findById(UUID)} and {@link #delete(DeviceRow)} take precedence
+ * over the ones of {@link org.springframework.data.repository.reactive.ReactiveCrudRepository}, so
+ * that lookups skip deleted devices and deletes only stamp them.
+ */
+public interface DeviceRowQueryRepository {
+
+  /**
+   * Finds a device that is not deleted.
+   *
+   * @param id the device's UUID
+   * @return the device, or empty if there is none or it was deleted
+   */
+  Mono<DeviceRow> findById(UUID id);
+
+  /**
+   * Deletes a device by stamping its deletion time, if it still has the version it was read at.
+   *
+   * @param row the device as read
+   * @return completes once the device is deleted, or fails with an {@link
+   *     org.springframework.dao.OptimisticLockingFailureException} if it changed meanwhile
+   */
+  Mono<Void> delete(DeviceRow row);
+
+  /**
+   * Fetches one page of matching devices with a keyset seek.
+   *
+   * @param filter names, brands and states to match
+   * @param sort the ordering of the page
+   * @param after the position of the last device of the previous page, or {@code null}
+   * @param limit the maximum number of devices to return
+   * @return the devices of the page, in order
+   */
+  Flux<DeviceRow> findPage(DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit);
+
+  /**
+   * Streams every matching device from a database cursor. Rows are fetched {@code fetchSize} at a
+   * time and only when the subscriber signals demand, so a slow consumer slows the query down
+   * instead of buffering rows in memory.
+   *
+   * @param filter names, brands and states to match
+   * @param sort the ordering, or {@code null} for database order
+   * @param fetchSize rows fetched per round trip
+   * @return the matching devices
+   */
+  Flux<DeviceRow> streamAll(DeviceFilter filter, DeviceSort sort, int fetchSize);
+
+  /**
+   * Inserts the given new rows as one pipelined batch of {@code INSERT} statements, the R2DBC
+   * counterpart of a JDBC batch. Callers decide the transaction boundary.
+   *
+   * @param rows the rows to insert, at version 0
+   * @return completes once every row is inserted
+   */
+  Mono<Void> insertAll(List<DeviceRow> rows);
+
+  /**
+   * Applies the given changes to a device in one conditional {@code UPDATE ... RETURNING}.
+   *
+   * @param id the device to update
+   * @param name the new name, or {@code null}
+   * @param brand the new brand, or {@code null}
+   * @param state the new state, or {@code null}
+   * @param expectedVersion the version the device must still have, or {@code null}
+   * @return the updated device, or empty if the device does not exist, has another version, or is
+   *     in use and the name or brand would change
+   */
+  Mono<DeviceRow> updateIfAllowed(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion);
+
+  /**
+   * Moves every matching device that is not in use to the target state in one statement.
+   *
+   * @param filter names, brands and states to match
+   * @param target the new state
+   * @return the number of changed devices and of matching devices skipped because they are in use
+   */
+  Mono<BulkResult> updateStateMatching(DeviceFilter filter, DeviceState target);
+
+  /**
+   * Deletes every matching device that is not in use in one statement, stamping their deletion
+   * time.
+   *
+   * @param filter names, brands and states to match
+   * @return the number of deleted devices and of matching devices skipped because they are in use
+   */
+  Mono<BulkResult> deleteMatching(DeviceFilter filter);
+}
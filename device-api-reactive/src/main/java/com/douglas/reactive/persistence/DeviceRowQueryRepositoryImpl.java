@@ -0,0 +1,131 @@
+package com.douglas.reactive.persistence;
+
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.Parameter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** {@link DatabaseClient} implementation of {@link DeviceRowQueryRepository}. */
+class DeviceRowQueryRepositoryImpl implements DeviceRowQueryRepository {
+
+  private final DatabaseClient client;
+
+  DeviceRowQueryRepositoryImpl(DatabaseClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public Mono<DeviceRow> findById(UUID id) {
+    return client.sql(DeviceSql.SELECT_BY_ID).bind("id", id).map(DeviceRow::read).one();
+  }
+
+  @Override
+  public Mono<Void> delete(DeviceRow row) {
+    return client
+        .sql(DeviceSql.DELETE)
+        .bind("id", row.getId())
+        .bind("version", row.getVersion())
+        .fetch()
+        .rowsUpdated()
+        .flatMap(
+            deleted ->
+                deleted == 0
+                    ? Mono.error(
+                        new OptimisticLockingFailureException(
+                            "Device %s changed while being deleted".formatted(row.getId())))
+                    : Mono.empty());
+  }
+
+  @Override
+  public Flux<DeviceRow> findPage(
+      DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit) {
+    return execute(DeviceSql.select(filter, sort, after, limit)).map(DeviceRow::read).all();
+  }
+
+  @Override
+  public Flux<DeviceRow> streamAll(DeviceFilter filter, DeviceSort sort, int fetchSize) {
+    return execute(DeviceSql.select(filter, sort, null, null))
+        .filter(statement -> statement.fetchSize(fetchSize))
+        .map(DeviceRow::read)
+        .all();
+  }
+
+  @Override
+  public Mono<Void> insertAll(List<DeviceRow> rows) {
+    return client
+        .inConnectionMany(
+            connection -> {
+              Statement statement = connection.createStatement(DeviceSql.INSERT);
+              for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) {
+                  statement.add();
+                }
+                Device device = rows.get(i).toDomain();
+                statement
+                    .bind("$1", device.id())
+                    .bind("$2", device.name())
+                    .bind("$3", device.brand())
+                    .bind("$4", device.state().name())
+                    .bind("$5", device.creationTime());
+              }
+              return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+            })
+        .then();
+  }
+
+  @Override
+  public Mono<DeviceRow> updateIfAllowed(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion) {
+    return client
+        .sql(DeviceSql.UPDATE_IF_ALLOWED)
+        .bind("id", id)
+        .bind("name", Parameter.fromOrEmpty(name, String.class))
+        .bind("brand", Parameter.fromOrEmpty(brand, String.class))
+        .bind("state", Parameter.fromOrEmpty(state == null ? null : state.name(), String.class))
+        .bind("version", Parameter.fromOrEmpty(expectedVersion, Long.class))
+        .map(DeviceRow::read)
+        .one();
+  }
+
+  @Override
+  public Mono<BulkResult> updateStateMatching(DeviceFilter filter, DeviceState target) {
+    return bulk(DeviceSql.updateStateMatching(filter, target))
+        // Devices already in use are in the target state, not skipped.
+        .map(
+            result -> target == DeviceState.IN_USE ? new BulkResult(result.affected(), 0) : result);
+  }
+
+  @Override
+  public Mono<BulkResult> deleteMatching(DeviceFilter filter) {
+    return bulk(DeviceSql.deleteMatching(filter));
+  }
+
+  private Mono<BulkResult> bulk(DeviceSql statement) {
+    return execute(statement)
+        .map(
+            row ->
+                new BulkResult(
+                    row.get("affected", Long.class), row.get("skipped_in_use", Long.class)))
+        .one();
+  }
+
+  private GenericExecuteSpec execute(DeviceSql statement) {
+    GenericExecuteSpec spec = client.sql(statement.sql());
+    for (Map.Entry<String, Object> binding : statement.bindings().entrySet()) {
+      spec = spec.bind(binding.getKey(), binding.getValue());
+    }
+    return spec;
+  }
+}
@@ -0,0 +1,25 @@
+package com.douglas.reactive.persistence;
+
+import java.util.UUID;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository for {@link DeviceRow}. Extends {@link ReactiveCrudRepository} for inserts,
+ * and {@link DeviceRowQueryRepository} for lookups and version-checked deletes that skip deleted
+ * devices, filtered listings and set-based writes. The other {@link ReactiveCrudRepository} methods
+ * also see deleted devices and are not used.
+ */
+@Repository
+public interface DeviceRowRepository
+    extends ReactiveCrudRepository<DeviceRow, UUID>, DeviceRowQueryRepository {
+
+  /** Implemented by {@link DeviceRowQueryRepository#findById(UUID)}. */
+  @Override
+  Mono<DeviceRow> findById(UUID id);
+
+  /** Implemented by {@link DeviceRowQueryRepository#delete(DeviceRow)}. */
+  @Override
+  Mono<Void> delete(DeviceRow row);
+}
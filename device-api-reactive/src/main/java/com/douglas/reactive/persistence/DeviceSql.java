@@ -0,0 +1,181 @@
+package com.douglas.reactive.persistence;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statement with named bind values, built from the query types of {@code device-core}. The
+ * predicates are the SQL counterparts of the JPA specifications used by {@code device-api}, so both
+ * deployments filter, order and seek through the same indexes. Every statement skips deleted
+ * devices, like the restriction {@code device-api} declares on its entity, which is also what lets
+ * PostgreSQL use the partial {@code idx_live_devices_*} indexes.
+ *
+ * @param sql the statement, with {@code :name} placeholders
+ * @param bindings the values of the placeholders; collections are expanded into lists
+ */
+record DeviceSql(String sql, Map<String, Object> bindings) {
+
+  static final String COLUMNS = "id, name, brand, state, creation_time, version";
+
+  /**
+   * Insert of a new device at version 0, with positional parameters so that it can be bound once
+   * per row of a batch.
+   */
+  static final String INSERT =
+      "INSERT INTO devices (id, name, brand, state, creation_time, version)"
+          + " VALUES ($1, $2, $3, $4, $5, 0)";
+
+  /** Lookup of a device that is not deleted. */
+  static final String SELECT_BY_ID =
+      "SELECT " + COLUMNS + " FROM devices WHERE id = :id AND deleted_at IS NULL";
+
+  /** Soft delete of one device at the version that was read, like the one of {@code device-api}. */
+  static final String DELETE =
+      "UPDATE devices SET deleted_at = statement_timestamp()"
+          + " WHERE id = :id AND version = :version AND deleted_at IS NULL";
+
+  /** Creation of the missing monthly state history partitions, by the migrations' function. */
+  static final String CREATE_HISTORY_PARTITIONS =
+      "SELECT device_state_history_create_partitions(:monthsAhead)";
+
+  /**
+   * Conditional single-row update, identical to the one of {@code device-api}: the in-use rule and
+   * the optional version check are part of the predicate, so guard and write are atomic.
+   */
+  static final String UPDATE_IF_ALLOWED =
+      """
+      UPDATE devices
+         SET name  = COALESCE(:name, name),
+             brand = COALESCE(:brand, brand),
+             state = COALESCE(:state, state),
+             version = version + 1
+       WHERE id = :id
+         AND deleted_at IS NULL
+         AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint))
+         AND (state <> 'IN_USE'
+              OR ((CAST(:name AS varchar) IS NULL OR name = :name)
+                  AND (CAST(:brand AS varchar) IS NULL OR brand = :brand)))
+      RETURNING id, name, brand, state, creation_time, version
+      """;
+
+  /**
+   * Builds a select of the devices matching the filter.
+   *
+   * @param filter names, brands and states to match
+   * @param sort the ordering, or {@code null} for database order
+   * @param after the keyset position to start after, or {@code null}
+   * @param limit the maximum number of rows, or {@code null} for all of them
+   * @return the statement
+   */
+  static DeviceSql select(DeviceFilter filter, DeviceSort sort, DeviceCursor after, Integer limit) {
+    Map<String, Object> bindings = new LinkedHashMap<>();
+    List<String> predicates = filterPredicates(filter, bindings);
+    if (after != null) {
+      String column = column(after.sort());
+      String op = after.sort().descending() ? "<" : ">";
+      predicates.add(
+          "%s %s= :cursorKey AND (%s %s :cursorKey OR id %s :cursorId)"
+              .formatted(column, op, column, op, op));
+      bindings.put("cursorKey", after.key());
+      bindings.put("cursorId", after.id());
+    }
+
+    StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM devices");
+    where(sql, predicates);
+    if (sort != null) {
+      String direction = sort.descending() ? "DESC" : "ASC";
+      sql.append(" ORDER BY ")
+          .append(column(sort))
+          .append(' ')
+          .append(direction)
+          .append(", id ")
+          .append(direction);
+    }
+    if (limit != null) {
+      sql.append(" LIMIT :limit");
+      bindings.put("limit", limit);
+    }
+    return new DeviceSql(sql.toString(), bindings);
+  }
+
+  /**
+   * Builds an update moving every matching device that is not in use to the target state.
+   *
+   * @param filter names, brands and states to match
+   * @param target the new state
+   * @return the statement, returning the {@code affected} and {@code skipped_in_use} counts
+   */
+  static DeviceSql updateStateMatching(DeviceFilter filter, DeviceState target) {
+    return updateMatching(
+        filter,
+        "state = :target, version = d.version + 1",
+        " AND d.state <> :target",
+        Map.of("target", target.name()));
+  }
+
+  /**
+   * Builds a soft delete of every matching device that is not in use.
+   *
+   * @param filter names, brands and states to match
+   * @return the statement, returning the {@code affected} and {@code skipped_in_use} counts
+   */
+  static DeviceSql deleteMatching(DeviceFilter filter) {
+    return updateMatching(filter, "deleted_at = statement_timestamp()", "", Map.of());
+  }
+
+  /**
+   * Builds the bulk change of {@code device-api}: the matching devices are locked, reading the
+   * latest version of those changed concurrently, then the ones not in use are changed, and the
+   * changed devices and the skipped ones are counted in the same statement, so that no device can
+   * enter or leave use in between.
+   */
+  private static DeviceSql updateMatching(
+      DeviceFilter filter, String assignments, String conditions, Map<String, Object> extra) {
+    Map<String, Object> bindings = new LinkedHashMap<>();
+    List<String> predicates = filterPredicates(filter, bindings);
+    bindings.putAll(extra);
+    StringBuilder sql =
+        new StringBuilder("WITH matching AS (SELECT id, state = 'IN_USE' AS in_use");
+    sql.append(" FROM devices");
+    where(sql, predicates);
+    sql.append(" FOR NO KEY UPDATE), changed AS (UPDATE devices d SET ")
+        .append(assignments)
+        .append(" FROM matching m WHERE d.id = m.id AND NOT m.in_use")
+        .append(conditions)
+        .append(" RETURNING d.id) SELECT (SELECT count(*) FROM changed) AS affected,")
+        .append(" (SELECT count(*) FROM matching WHERE in_use) AS skipped_in_use");
+    return new DeviceSql(sql.toString(), bindings);
+  }
+
+  private static List<String> filterPredicates(DeviceFilter filter, Map<String, Object> bindings) {
+    List<String> predicates = new ArrayList<>(6);
+    predicates.add("deleted_at IS NULL");
+    if (!filter.names().isEmpty()) {
+      predicates.add("lower(name) IN (:names)");
+      bindings.put("names", List.copyOf(filter.names()));
+    }
+    if (!filter.brands().isEmpty()) {
+      predicates.add("lower(brand) IN (:brands)");
+      bindings.put("brands", List.copyOf(filter.brands()));
+    }
+    if (!filter.states().isEmpty()) {
+      predicates.add("state IN (:states)");
+      bindings.put("states", filter.states().stream().map(DeviceState::name).toList());
+    }
+    return predicates;
+  }
+
+  private static void where(StringBuilder sql, List<String> predicates) {
+    sql.append(" WHERE ").append(String.join(" AND ", predicates));
+  }
+
+  private static String column(DeviceSort sort) {
+    return "name".equals(sort.property()) ? "name" : "creation_time";
+  }
+}
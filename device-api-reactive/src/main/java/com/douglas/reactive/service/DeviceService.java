@@ -0,0 +1,451 @@
+package com.douglas.reactive.service;
+
+import com.douglas.contract.dto.DeviceBatchItemResultDto;
+import com.douglas.contract.dto.DeviceBatchItemResultDto.Status;
+import com.douglas.contract.dto.DeviceBatchResponseDto;
+import com.douglas.contract.dto.DeviceBulkResultDto;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.reactive.config.DevicesProperties;
+import com.douglas.reactive.persistence.BulkResult;
+import com.douglas.reactive.persistence.DeviceRow;
+import com.douglas.reactive.persistence.DeviceRowRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the {@code device-api} service. Every operation returns a publisher and
+ * never blocks, applying the rules of {@link Device} exactly as {@code device-api} does.
+ */
+@Service
+public class DeviceService {
+
+  private final DeviceRowRepository repository;
+  private final DeviceDtoMapper dtoMapper;
+  private final DevicesProperties properties;
+  private final TransactionalOperator transactions;
+  private final DeviceRequestValidator validator;
+
+  /**
+   * Constructs a {@code DeviceService} with the required dependencies.
+   *
+   * @param repository the reactive repository of device rows
+   * @param dtoMapper the mapper for converting domain models into DTO representations
+   * @param properties the pagination, streaming and batch settings
+   * @param transactions the operator delimiting the transaction of each batch chunk
+   * @param validator the constraint checks applied to created, fully updated and batch devices
+   */
+  public DeviceService(
+      DeviceRowRepository repository,
+      DeviceDtoMapper dtoMapper,
+      DevicesProperties properties,
+      TransactionalOperator transactions,
+      DeviceRequestValidator validator) {
+    this.repository = repository;
+    this.dtoMapper = dtoMapper;
+    this.properties = properties;
+    this.transactions = transactions;
+    this.validator = validator;
+  }
+
+  /**
+   * Creates a new device in the system.
+   *
+   * @param request DTO containing the device's name, brand, and state
+   * @return the created device
+   * @throws InvalidRequestException if a field of the device is missing or invalid
+   */
+  public Mono<DeviceResponseDto> createDevice(DeviceRequestDto request) {
+    return Mono.defer(
+        () -> {
+          requireValid(request);
+          return repository.save(DeviceRow.newRow(newDevice(request))).map(this::toResponseDto);
+        });
+  }
+
+  /**
+   * Creates many devices at once. Each request is validated on its own and invalid ones are
+   * reported without affecting the others. Valid devices are inserted in chunks of {@link
+   * DevicesProperties.Batch#chunkSize()}, one transaction and one pipelined batch per chunk; if a
+   * chunk fails, its devices are reported as failed and the remaining chunks are still inserted.
+   *
+   * @param requests the devices to create
+   * @return the number of created, rejected and failed devices, plus the outcome of each item in
+   *     request order
+   * @throws InvalidRequestException if the request is empty or larger than {@link
+   *     DevicesProperties.Batch#maxItems()}
+   */
+  public Mono<DeviceBatchResponseDto> createDevices(List<DeviceRequestDto> requests) {
+    return Mono.defer(
+        () -> {
+          DevicesProperties.Batch batch = properties.batch();
+          if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one device");
+          }
+          if (requests.size() > batch.maxItems()) {
+            throw new InvalidRequestException(
+                "Batch must not contain more than " + batch.maxItems() + " devices");
+          }
+
+          DeviceBatchItemResultDto[] results = new DeviceBatchItemResultDto[requests.size()];
+          List<Integer> valid = new ArrayList<>(requests.size());
+          for (int i = 0; i < requests.size(); i++) {
+            DeviceRequestDto request = requests.get(i);
+            List<String> violations = validator.violations(request);
+            if (violations.isEmpty()) {
+              valid.add(i);
+            } else {
+              results[i] =
+                  new DeviceBatchItemResultDto(
+                      i, Status.REJECTED, null, String.join("; ", violations));
+            }
+          }
+
+          return Flux.fromIterable(valid)
+              .buffer(batch.chunkSize())
+              .concatMap(indexes -> insertChunk(requests, indexes, results))
+              .then(Mono.fromSupplier(() -> toBatchResponse(results)));
+        });
+  }
+
+  /**
+   * Retrieves a device by its unique identifier.
+   *
+   * @param id the device's UUID
+   * @return the matching device
+   * @throws DeviceNotFoundException if no device is found with the given id
+   */
+  public Mono<DeviceResponseDto> getDeviceById(UUID id) {
+    return findExisting(id).map(this::toResponseDto);
+  }
+
+  /**
+   * Retrieves one page of devices matching the given filter, located with a keyset seek on the sort
+   * key and the device id.
+   *
+   * @param filter names, brands and states to match; an empty filter matches every device
+   * @param sort optional ordering ({@code creationTime}, {@code -creationTime}, {@code name} or
+   *     {@code -name}); defaults to the cursor's ordering, or to {@code creationTime}
+   * @param cursor optional opaque cursor returned as {@code next} by the previous page
+   * @param limit optional page size, bounded by the configured maximum
+   * @return the page of devices and the cursor of the following page, if any
+   * @throws InvalidRequestException if the sort or the cursor is not valid
+   */
+  public Mono<DevicePageDto> listDevices(
+      DeviceFilter filter, String sort, String cursor, Integer limit) {
+    return Mono.defer(
+        () -> {
+          DeviceCursor after = cursor == null ? null : decodeCursor(cursor);
+          DeviceSort order = resolveSort(sort, after);
+          int pageSize = properties.pagination().resolve(limit);
+
+          return repository
+              .findPage(filter, order, after, pageSize + 1)
+              .map(this::toResponseDto)
+              .collectList()
+              .map(devices -> toPage(devices, order, pageSize));
+        });
+  }
+
+  /**
+   * Streams every device matching the given filter. Rows are read from a database cursor {@link
+   * DevicesProperties.Streaming#fetchSize()} at a time and only as fast as the subscriber requests
+   * them, so a slow client throttles the query instead of growing server memory.
+   *
+   * @param filter names, brands and states to match; an empty filter matches every device
+   * @param sort optional ordering; when {@code null} devices are returned in database order, which
+   *     is the cheapest to produce
+   * @return the matching devices
+   */
+  public Flux<DeviceResponseDto> streamDevices(DeviceFilter filter, DeviceSort sort) {
+    return repository
+        .streamAll(filter, sort, properties.streaming().fetchSize())
+        .map(this::toResponseDto);
+  }
+
+  /**
+   * Fully updates an existing device's information. The change and the in-use guard are applied by
+   * a single conditional {@code UPDATE}, so concurrent writers cannot slip past the guard.
+   *
+   * @param id the device's UUID
+   * @param request DTO containing the updated device data
+   * @param expectedVersion the version the device must still have, or {@code null} to update
+   *     unconditionally
+   * @return the updated device
+   * @throws InvalidRequestException if a field of the device is missing or invalid
+   * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
+   * @throws DeviceInUseException if attempting to change name/brand while device is in use
+   */
+  public Mono<DeviceResponseDto> updateDevice(
+      UUID id, DeviceRequestDto request, Long expectedVersion) {
+    return Mono.defer(
+        () -> {
+          requireValid(request);
+          return applyUpdate(id, request.name(), request.brand(), request.state(), expectedVersion);
+        });
+  }
+
+  /**
+   * Partially updates an existing device's fields with a single conditional {@code UPDATE}.
+   *
+   * @param id the device's UUID
+   * @param patch DTO containing the fields to update (only non-null values are applied)
+   * @param expectedVersion the version the device must still have, or {@code null} to update
+   *     unconditionally
+   * @return the updated device
+   * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
+   * @throws DeviceInUseException if attempting to change name/brand while device is in use
+   */
+  public Mono<DeviceResponseDto> patchDevice(UUID id, DevicePatchDto patch, Long expectedVersion) {
+    return applyUpdate(id, patch.name(), patch.brand(), patch.state(), expectedVersion);
+  }
+
+  /**
+   * Deletes a device by its UUID. The delete is guarded by the version that was read, so a
+   * concurrent change between the check and the delete fails with an optimistic-locking error. The
+   * row is only stamped as deleted; {@code device-api} purges it later.
+   *
+   * @param id the device's UUID
+   * @param expectedVersion the version the device must still have, or {@code null} to delete
+   *     unconditionally
+   * @return completes once the device is deleted
+   * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
+   * @throws DeviceInUseException if the device is currently in use
+   */
+  public Mono<Void> deleteDevice(UUID id, Long expectedVersion) {
+    return findExisting(id)
+        .flatMap(
+            row -> {
+              Device device = row.toDomain();
+              if (!hasVersion(device, expectedVersion)) {
+                return Mono.error(versionMismatch(device, expectedVersion));
+              }
+              if (!device.canBeDeleted()) {
+                return Mono.error(new DeviceInUseException("Cannot delete device in use"));
+              }
+              return repository.delete(row);
+            });
+  }
+
+  /**
+   * Moves every device matching the filter to the given state with one {@code UPDATE} statement.
+   * Devices in use are skipped by the statement itself.
+   *
+   * @param filter names, brands and states of the devices to change; must not be empty
+   * @param state the new state
+   * @return the number of changed devices and of matching devices skipped because they are in use
+   * @throws InvalidRequestException if the filter is empty or no state is given
+   */
+  public Mono<DeviceBulkResultDto> changeStateMatching(DeviceFilter filter, DeviceState state) {
+    return Mono.defer(
+        () -> {
+          requireFilter(filter);
+          if (state == null) {
+            throw new InvalidRequestException("State is required");
+          }
+          return repository.updateStateMatching(filter, state).map(DeviceService::toResultDto);
+        });
+  }
+
+  /**
+   * Deletes every device matching the filter with one {@code UPDATE} statement stamping their
+   * deletion time. Devices in use cannot be deleted and are skipped by the statement itself.
+   *
+   * @param filter names, brands and states of the devices to delete; must not be empty
+   * @return the number of deleted devices and of matching devices skipped because they are in use
+   * @throws InvalidRequestException if the filter is empty
+   */
+  public Mono<DeviceBulkResultDto> deleteMatching(DeviceFilter filter) {
+    return Mono.defer(
+        () -> {
+          requireFilter(filter);
+          return repository.deleteMatching(filter).map(DeviceService::toResultDto);
+        });
+  }
+
+  /**
+   * Parses the sort request parameter.
+   *
+   * @param sort {@code creationTime}, {@code -creationTime}, {@code name}, {@code -name}, or {@code
+   *     null}
+   * @return the matching ordering, or {@code null} if none was given
+   * @throws InvalidRequestException if the value does not name a supported ordering
+   */
+  public DeviceSort parseSort(String sort) {
+    if (sort == null) {
+      return null;
+    }
+    try {
+      return DeviceSort.fromParameter(sort);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidRequestException(ex.getMessage());
+    }
+  }
+
+  private Mono<DeviceRow> findExisting(UUID id) {
+    return repository.findById(id).switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(id)));
+  }
+
+  private Mono<DeviceResponseDto> applyUpdate(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion) {
+    return repository
+        .updateIfAllowed(id, name, brand, state, expectedVersion)
+        .switchIfEmpty(Mono.defer(() -> rejectedUpdate(id, expectedVersion)))
+        .map(this::toResponseDto);
+  }
+
+  /**
+   * Explains why a conditional update changed no row. This costs a second round trip, but only on
+   * the failure path.
+   */
+  private Mono<DeviceRow> rejectedUpdate(UUID id, Long expectedVersion) {
+    return findExisting(id)
+        .flatMap(
+            row -> {
+              Device current = row.toDomain();
+              if (!hasVersion(current, expectedVersion)) {
+                return Mono.error(versionMismatch(current, expectedVersion));
+              }
+              return Mono.error(
+                  new DeviceInUseException("Cannot change name or brand while device is in use"));
+            });
+  }
+
+  private Mono<Void> insertChunk(
+      List<DeviceRequestDto> requests, List<Integer> indexes, DeviceBatchItemResultDto[] results) {
+    List<DeviceRow> rows = new ArrayList<>(indexes.size());
+    for (Integer index : indexes) {
+      rows.add(DeviceRow.newRow(newDevice(requests.get(index))));
+    }
+    return repository
+        .insertAll(rows)
+        .as(transactions::transactional)
+        .then(
+            Mono.fromRunnable(
+                () -> {
+                  for (int i = 0; i < rows.size(); i++) {
+                    results[indexes.get(i)] =
+                        new DeviceBatchItemResultDto(
+                            indexes.get(i), Status.CREATED, toResponseDto(rows.get(i)), null);
+                  }
+                }))
+        .onErrorResume(
+            DataAccessException.class,
+            ex -> {
+              for (Integer index : indexes) {
+                results[index] =
+                    new DeviceBatchItemResultDto(
+                        index,
+                        Status.FAILED,
+                        null,
+                        "Insert failed: " + ex.getMostSpecificCause().getMessage());
+              }
+              return Mono.empty();
+            })
+        .then();
+  }
+
+  private DeviceResponseDto toResponseDto(DeviceRow row) {
+    return dtoMapper.toResponseDto(row.toDomain());
+  }
+
+  private static Device newDevice(DeviceRequestDto request) {
+    return new Device(
+        UUID.randomUUID(), request.name(), request.brand(), request.state(), Instant.now());
+  }
+
+  private void requireValid(DeviceRequestDto request) {
+    List<String> violations = validator.violations(request);
+    if (!violations.isEmpty()) {
+      throw new InvalidRequestException(String.join("; ", violations));
+    }
+  }
+
+  private static void requireFilter(DeviceFilter filter) {
+    if (filter.isEmpty()) {
+      throw new InvalidRequestException(
+          "Bulk operations require at least one name, brand or state filter");
+    }
+  }
+
+  private static DeviceBulkResultDto toResultDto(BulkResult result) {
+    return new DeviceBulkResultDto(result.affected(), result.skippedInUse());
+  }
+
+  private static DeviceBatchResponseDto toBatchResponse(DeviceBatchItemResultDto[] results) {
+    List<DeviceBatchItemResultDto> items = Arrays.asList(results);
+    return new DeviceBatchResponseDto(
+        count(items, Status.CREATED),
+        count(items, Status.REJECTED),
+        count(items, Status.FAILED),
+        items);
+  }
+
+  private static int count(List<DeviceBatchItemResultDto> items, Status status) {
+    return (int) items.stream().filter(item -> item.status() == status).count();
+  }
+
+  private static DevicePageDto toPage(
+      List<DeviceResponseDto> devices, DeviceSort order, int pageSize) {
+    if (devices.size() <= pageSize) {
+      return new DevicePageDto(devices, null);
+    }
+    List<DeviceResponseDto> items = devices.subList(0, pageSize);
+    DeviceResponseDto last = items.getLast();
+    String next = DeviceCursor.of(order, last.id(), last.name(), last.creationTime()).encode();
+    return new DevicePageDto(List.copyOf(items), next);
+  }
+
+  private static boolean hasVersion(Device device, Long expectedVersion) {
+    return expectedVersion == null || expectedVersion == device.version();
+  }
+
+  private static PreconditionFailedException versionMismatch(Device device, Long expectedVersion) {
+    return new PreconditionFailedException(
+        "Device %s is at version %d, not %d"
+            .formatted(device.id(), device.version(), expectedVersion));
+  }
+
+  private static DeviceCursor decodeCursor(String cursor) {
+    try {
+      return DeviceCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidRequestException("Invalid cursor");
+    }
+  }
+
+  private DeviceSort resolveSort(String sort, DeviceCursor after) {
+    DeviceSort order = parseSort(sort);
+    if (order == null) {
+      return after == null ? DeviceSort.CREATION_TIME_ASC : after.sort();
+    }
+    if (after != null && after.sort() != order) {
+      throw new InvalidRequestException("Cursor does not belong to sort: " + sort);
+    }
+    return order;
+  }
+}
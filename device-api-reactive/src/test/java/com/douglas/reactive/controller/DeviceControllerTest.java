@@ -0,0 +1,300 @@
+package com.douglas.reactive.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.reactive.config.DevicesProperties;
+import com.douglas.reactive.exception.GlobalExceptionHandler;
+import com.douglas.reactive.persistence.BulkResult;
+import com.douglas.reactive.persistence.DeviceRow;
+import com.douglas.reactive.persistence.DeviceRowRepository;
+import com.douglas.reactive.service.DeviceService;
+import jakarta.validation.Validation;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class DeviceControllerTest {
+
+  private static final UUID ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+  private WebTestClient client;
+  private DeviceRowRepository repository; // mock
+
+  @BeforeEach
+  void setup() {
+    repository = Mockito.mock(DeviceRowRepository.class);
+    DeviceService deviceService =
+        new DeviceService(
+            repository,
+            new DeviceDtoMapper(),
+            new DevicesProperties(
+                new DevicesProperties.Pagination(50, 500),
+                new DevicesProperties.Streaming(500),
+                new DevicesProperties.Batch(2, 5),
+                new DevicesProperties.History(3)),
+            Mockito.mock(TransactionalOperator.class),
+            new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator()));
+
+    client =
+        WebTestClient.bindToController(new DeviceController(deviceService))
+            .controllerAdvice(new GlobalExceptionHandler())
+            .build();
+  }
+
+  private static DeviceRow newRow(UUID id, String name, DeviceState state) {
+    return DeviceRow.newRow(
+        new Device(id, name, "TP-Link", state, Instant.parse("2025-08-07T10:00:00Z")));
+  }
+
+  @Test
+  @DisplayName("POST /devices → 200 OK com device criado")
+  void createDevice_returnsOk() {
+    when(repository.save(any())).thenAnswer(call -> Mono.just(call.getArgument(0)));
+
+    client
+        .post()
+        .uri("/devices")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"name\":\"Router X\",\"brand\":\"TP-Link\",\"state\":\"IN_USE\"}")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"0\"")
+        .expectBody()
+        .jsonPath("$.name")
+        .isEqualTo("Router X")
+        .jsonPath("$.state")
+        .isEqualTo("IN_USE");
+  }
+
+  @Test
+  @DisplayName("POST /devices sem nome → 400 Bad Request")
+  void createDevice_withoutName_returnsBadRequest() {
+    client
+        .post()
+        .uri("/devices")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"brand\":\"TP-Link\",\"state\":\"IN_USE\"}")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.error")
+        .isEqualTo("Name is required");
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id} → 200 OK com ETag")
+  void getDeviceById_returnsOk() {
+    when(repository.findById(ID)).thenReturn(Mono.just(newRow(ID, "Router X", DeviceState.IN_USE)));
+
+    client
+        .get()
+        .uri("/devices/{id}", ID)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"0\"")
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(ID.toString());
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id} com If-None-Match igual → 304 Not Modified sem corpo")
+  void getDeviceById_withMatchingETag_returnsNotModified() {
+    when(repository.findById(ID)).thenReturn(Mono.just(newRow(ID, "Router X", DeviceState.IN_USE)));
+
+    client
+        .get()
+        .uri("/devices/{id}", ID)
+        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id} inexistente → 404 Not Found")
+  void getDeviceById_missing_returnsNotFound() {
+    when(repository.findById(ID)).thenReturn(Mono.empty());
+
+    client.get().uri("/devices/{id}", ID).exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  @DisplayName("GET /devices com filtros → 200 OK e página")
+  void listDevices_withFilters_returnsOk() {
+    when(repository.findPage(
+            eq(DeviceFilter.of(null, List.of("TP-Link"), List.of(DeviceState.IN_USE))),
+            any(),
+            isNull(),
+            eq(51)))
+        .thenReturn(Flux.just(newRow(ID, "Router X", DeviceState.IN_USE)));
+
+    client
+        .get()
+        .uri("/devices?brand=TP-Link&state=IN_USE")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.items.length()")
+        .isEqualTo(1)
+        .jsonPath("$.next")
+        .doesNotExist();
+  }
+
+  @Test
+  @DisplayName("GET /devices como NDJSON → 200 OK com um device por linha")
+  void streamDevices_returnsNdjson() {
+    UUID other = UUID.randomUUID();
+    when(repository.streamAll(DeviceFilter.none(), null, 500))
+        .thenReturn(
+            Flux.just(
+                newRow(ID, "Router X", DeviceState.IN_USE),
+                newRow(other, "Router Y", DeviceState.AVAILABLE)));
+
+    client
+        .get()
+        .uri("/devices")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBody(String.class)
+        .value(
+            body -> {
+              String[] lines = body.split("\n");
+              assertEquals(2, lines.length);
+              assertTrue(lines[1].contains(other.toString()));
+            });
+  }
+
+  @Test
+  @DisplayName("GET /devices como NDJSON com sort inválido → 400 Bad Request")
+  void streamDevices_withInvalidSort_returnsBadRequest() {
+    client
+        .get()
+        .uri("/devices?sort=brand")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("PATCH /devices/{id} com If-Match desatualizado → 412 Precondition Failed")
+  void patchDevice_withStaleETag_returnsPreconditionFailed() {
+    when(repository.updateIfAllowed(ID, null, null, DeviceState.INACTIVE, 7L))
+        .thenReturn(Mono.empty());
+    when(repository.findById(ID)).thenReturn(Mono.just(newRow(ID, "Router X", DeviceState.IN_USE)));
+
+    client
+        .patch()
+        .uri("/devices/{id}", ID)
+        .header(HttpHeaders.IF_MATCH, "\"7\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"state\":\"INACTIVE\"}")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(412);
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} com If-Match inválido → 412 Precondition Failed")
+  void deleteDevice_withWeakETag_returnsPreconditionFailed() {
+    client
+        .delete()
+        .uri("/devices/{id}", ID)
+        .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(412);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} com state != IN_USE → 204 No Content")
+  void deleteDevice_available_returnsNoContent() {
+    DeviceRow row = newRow(ID, "Router X", DeviceState.AVAILABLE);
+    when(repository.findById(ID)).thenReturn(Mono.just(row));
+    when(repository.delete(row)).thenReturn(Mono.empty());
+
+    client.delete().uri("/devices/{id}", ID).exchange().expectStatus().isNoContent();
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} alterado concorrentemente, sem If-Match → 409 Conflict")
+  void deleteDevice_changedConcurrentlyWithoutIfMatch_returnsConflict() {
+    DeviceRow row = newRow(ID, "Router X", DeviceState.AVAILABLE);
+    when(repository.findById(ID)).thenReturn(Mono.just(row));
+    when(repository.delete(row))
+        .thenReturn(Mono.error(new OptimisticLockingFailureException("Device changed")));
+
+    client.delete().uri("/devices/{id}", ID).exchange().expectStatus().isEqualTo(409);
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} com state = IN_USE → 400 Bad Request")
+  void deleteDevice_inUse_returnsBadRequest() {
+    when(repository.findById(ID)).thenReturn(Mono.just(newRow(ID, "Router X", DeviceState.IN_USE)));
+
+    client.delete().uri("/devices/{id}", ID).exchange().expectStatus().isBadRequest();
+    verify(repository, never()).delete(any(DeviceRow.class));
+  }
+
+  @Test
+  @DisplayName("PATCH /devices?brand=... → 200 OK com contagem de alterados e ignorados")
+  void changeStateMatching_returnsCounts() {
+    when(repository.updateStateMatching(
+            DeviceFilter.of(null, List.of("TP-Link"), null), DeviceState.INACTIVE))
+        .thenReturn(Mono.just(new BulkResult(5, 2)));
+
+    client
+        .patch()
+        .uri("/devices?brand=TP-Link")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"state\":\"INACTIVE\"}")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.affected")
+        .isEqualTo(5)
+        .jsonPath("$.skippedInUse")
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("DELETE /devices sem filtros → 400 Bad Request")
+  void deleteMatching_withoutFilter_returnsBadRequest() {
+    client.delete().uri("/devices").exchange().expectStatus().isBadRequest();
+    verifyNoInteractions(repository);
+  }
+}
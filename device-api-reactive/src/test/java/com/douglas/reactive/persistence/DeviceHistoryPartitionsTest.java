@@ -0,0 +1,32 @@
+package com.douglas.reactive.persistence;
+
+import static org.mockito.Mockito.*;
+
+import com.douglas.reactive.config.DevicesProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Mono;
+
+class DeviceHistoryPartitionsTest {
+
+  @Test
+  void shouldCreateTheUpcomingPartitionsOnStartup() {
+    DatabaseClient client = mock(DatabaseClient.class);
+    GenericExecuteSpec spec = mock(GenericExecuteSpec.class);
+    when(client.sql(DeviceSql.CREATE_HISTORY_PARTITIONS)).thenReturn(spec);
+    when(spec.bind("monthsAhead", 3)).thenReturn(spec);
+    when(spec.then()).thenReturn(Mono.empty());
+
+    new DeviceHistoryPartitions(
+            client,
+            new DevicesProperties(
+                new DevicesProperties.Pagination(50, 500),
+                new DevicesProperties.Streaming(500),
+                new DevicesProperties.Batch(500, 10_000),
+                new DevicesProperties.History(3)))
+        .afterSingletonsInstantiated();
+
+    verify(spec).then();
+  }
+}
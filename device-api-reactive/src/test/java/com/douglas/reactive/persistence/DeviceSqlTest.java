@@ -0,0 +1,69 @@
+package com.douglas.reactive.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DeviceSqlTest {
+
+  @Test
+  void shouldSelectEveryDeviceNotDeletedInDatabaseOrderWithoutFilterOrSort() {
+    DeviceSql statement = DeviceSql.select(DeviceFilter.none(), null, null, null);
+
+    assertEquals(
+        "SELECT " + DeviceSql.COLUMNS + " FROM devices WHERE deleted_at IS NULL", statement.sql());
+    assertTrue(statement.bindings().isEmpty());
+  }
+
+  @Test
+  void shouldFilterOnLowerCasedColumnsAndSeekAfterCursor() {
+    UUID id = UUID.randomUUID();
+    DeviceCursor after = DeviceCursor.of(DeviceSort.NAME_DESC, id, "Router", Instant.now());
+    DeviceFilter filter = DeviceFilter.of(List.of("Router"), null, List.of(DeviceState.IN_USE));
+
+    DeviceSql statement = DeviceSql.select(filter, DeviceSort.NAME_DESC, after, 51);
+
+    assertEquals(
+        "SELECT "
+            + DeviceSql.COLUMNS
+            + " FROM devices WHERE deleted_at IS NULL"
+            + " AND lower(name) IN (:names) AND state IN (:states)"
+            + " AND name <= :cursorKey AND (name < :cursorKey OR id < :cursorId)"
+            + " ORDER BY name DESC, id DESC LIMIT :limit",
+        statement.sql());
+    assertEquals(List.of("router"), statement.bindings().get("names"));
+    assertEquals(List.of("IN_USE"), statement.bindings().get("states"));
+    assertEquals("Router", statement.bindings().get("cursorKey"));
+    assertEquals(id, statement.bindings().get("cursorId"));
+    assertEquals(51, statement.bindings().get("limit"));
+  }
+
+  @Test
+  void shouldSkipDevicesInUseInBulkWrites() {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Acme"), null);
+
+    assertEquals(
+        "WITH matching AS (SELECT id, state = 'IN_USE' AS in_use FROM devices"
+            + " WHERE deleted_at IS NULL AND lower(brand) IN (:brands) FOR NO KEY UPDATE),"
+            + " changed AS (UPDATE devices d SET state = :target, version = d.version + 1"
+            + " FROM matching m WHERE d.id = m.id AND NOT m.in_use AND d.state <> :target"
+            + " RETURNING d.id) SELECT (SELECT count(*) FROM changed) AS affected,"
+            + " (SELECT count(*) FROM matching WHERE in_use) AS skipped_in_use",
+        DeviceSql.updateStateMatching(filter, DeviceState.INACTIVE).sql());
+    assertEquals(
+        "WITH matching AS (SELECT id, state = 'IN_USE' AS in_use FROM devices"
+            + " WHERE deleted_at IS NULL AND lower(brand) IN (:brands) FOR NO KEY UPDATE),"
+            + " changed AS (UPDATE devices d SET deleted_at = statement_timestamp()"
+            + " FROM matching m WHERE d.id = m.id AND NOT m.in_use"
+            + " RETURNING d.id) SELECT (SELECT count(*) FROM changed) AS affected,"
+            + " (SELECT count(*) FROM matching WHERE in_use) AS skipped_in_use",
+        DeviceSql.deleteMatching(filter).sql());
+  }
+}
@@ -0,0 +1,284 @@
+package com.douglas.reactive.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.contract.dto.DeviceBatchItemResultDto;
+import com.douglas.contract.dto.DeviceBatchItemResultDto.Status;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.reactive.config.DevicesProperties;
+import com.douglas.reactive.persistence.BulkResult;
+import com.douglas.reactive.persistence.DeviceRow;
+import com.douglas.reactive.persistence.DeviceRowRepository;
+import jakarta.validation.Validation;
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceServiceTest {
+
+  @Mock private DeviceRowRepository repository;
+
+  @Mock private TransactionalOperator transactions;
+
+  private DeviceService service;
+
+  private UUID id;
+  private DeviceRow row;
+
+  @BeforeEach
+  void setup() {
+    service =
+        new DeviceService(
+            repository,
+            new DeviceDtoMapper(),
+            new DevicesProperties(
+                new DevicesProperties.Pagination(2, 500),
+                new DevicesProperties.Streaming(500),
+                new DevicesProperties.Batch(2, 5),
+                new DevicesProperties.History(3)),
+            transactions,
+            new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator()));
+
+    id = UUID.randomUUID();
+    row = row(id, "Device X", DeviceState.AVAILABLE, 2L);
+  }
+
+  private static DeviceRow row(UUID id, String name, DeviceState state, long version) {
+    DeviceRow row =
+        DeviceRow.newRow(
+            new Device(id, name, "Brand A", state, Instant.parse("2025-08-07T10:00:00Z")));
+    try {
+      Field field = DeviceRow.class.getDeclaredField("version");
+      field.setAccessible(true);
+      field.set(row, version);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return row;
+  }
+
+  @Test
+  void shouldCreateDevice() {
+    when(repository.save(any())).thenReturn(Mono.just(row));
+
+    StepVerifier.create(
+            service.createDevice(
+                new DeviceRequestDto("Device X", "Brand A", DeviceState.AVAILABLE)))
+        .assertNext(device -> assertEquals(id, device.id()))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectIncompleteDeviceWithoutTouchingTheDatabase() {
+    StepVerifier.create(service.createDevice(new DeviceRequestDto(" ", "Brand A", null)))
+        .verifyErrorMessage("Name is required; State is required");
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldCreateValidDevicesInChunksAndRejectInvalidOnes() {
+    when(repository.insertAll(anyList())).thenReturn(Mono.empty());
+    when(transactions.transactional(any(Mono.class))).thenAnswer(call -> call.getArgument(0));
+
+    List<DeviceRequestDto> requests =
+        List.of(
+            new DeviceRequestDto("Device 1", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto(" ", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 2", "Brand A", DeviceState.IN_USE),
+            new DeviceRequestDto("Device 3", "Brand B", DeviceState.INACTIVE));
+
+    StepVerifier.create(service.createDevices(requests))
+        .assertNext(
+            result -> {
+              assertEquals(3, result.created());
+              assertEquals(1, result.rejected());
+              assertEquals(
+                  List.of(Status.CREATED, Status.REJECTED, Status.CREATED, Status.CREATED),
+                  result.items().stream().map(DeviceBatchItemResultDto::status).toList());
+              assertEquals("Device 3", result.items().get(3).device().name());
+            })
+        .verifyComplete();
+    verify(repository, times(2)).insertAll(anyList());
+  }
+
+  @Test
+  void shouldReportFailedChunkAndKeepInsertingTheOthers() {
+    when(repository.insertAll(anyList()))
+        .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate key")))
+        .thenReturn(Mono.empty());
+    when(transactions.transactional(any(Mono.class))).thenAnswer(call -> call.getArgument(0));
+
+    List<DeviceRequestDto> requests =
+        List.of(
+            new DeviceRequestDto("Device 1", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 2", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 3", "Brand A", DeviceState.AVAILABLE));
+
+    StepVerifier.create(service.createDevices(requests))
+        .assertNext(
+            result -> {
+              assertEquals(1, result.created());
+              assertEquals(2, result.failed());
+              assertEquals(Status.CREATED, result.items().get(2).status());
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectOversizedBatch() {
+    List<DeviceRequestDto> requests = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      requests.add(new DeviceRequestDto("Device " + i, "Brand A", DeviceState.AVAILABLE));
+    }
+
+    StepVerifier.create(service.createDevices(requests)).verifyError(InvalidRequestException.class);
+  }
+
+  @Test
+  void shouldFailWhenDeviceIsMissing() {
+    when(repository.findById(id)).thenReturn(Mono.empty());
+
+    StepVerifier.create(service.getDeviceById(id)).verifyError(DeviceNotFoundException.class);
+  }
+
+  @Test
+  void shouldReturnPageWithCursorOfLastItem() {
+    DeviceRow second = row(UUID.randomUUID(), "Device Y", DeviceState.AVAILABLE, 0L);
+    DeviceRow third = row(UUID.randomUUID(), "Device Z", DeviceState.AVAILABLE, 0L);
+    when(repository.findPage(DeviceFilter.none(), DeviceSort.NAME_ASC, null, 3))
+        .thenReturn(Flux.just(row, second, third));
+
+    StepVerifier.create(service.listDevices(DeviceFilter.none(), "name", null, null))
+        .assertNext(
+            page -> {
+              assertEquals(2, page.items().size());
+              DeviceCursor next = DeviceCursor.decode(page.next());
+              assertEquals(DeviceSort.NAME_ASC, next.sort());
+              assertEquals("Device Y", next.key());
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectCursorOfAnotherSort() {
+    String cursor = DeviceCursor.of(DeviceSort.NAME_ASC, id, "Device X", Instant.now()).encode();
+
+    StepVerifier.create(service.listDevices(DeviceFilter.none(), "-creationTime", cursor, null))
+        .verifyError(InvalidRequestException.class);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldOnlyPullRowsTheSubscriberAskedFor() {
+    List<Long> requested = new ArrayList<>();
+    when(repository.streamAll(DeviceFilter.none(), null, 500))
+        .thenReturn(
+            Flux.range(0, 1000)
+                .map(i -> row(UUID.randomUUID(), "Device " + i, DeviceState.AVAILABLE, 0L))
+                .doOnRequest(requested::add));
+
+    StepVerifier.create(service.streamDevices(DeviceFilter.none(), null), 0)
+        .thenRequest(3)
+        .expectNextCount(3)
+        .thenCancel()
+        .verify();
+    assertEquals(List.of(3L), requested);
+  }
+
+  @Test
+  void shouldPatchDeviceInOneStatement() {
+    when(repository.updateIfAllowed(id, null, null, DeviceState.INACTIVE, 2L))
+        .thenReturn(Mono.just(row(id, "Device X", DeviceState.INACTIVE, 3L)));
+
+    StepVerifier.create(
+            service.patchDevice(id, new DevicePatchDto(null, null, DeviceState.INACTIVE), 2L))
+        .assertNext(device -> assertEquals(3L, device.version()))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldExplainRejectedUpdateByVersion() {
+    when(repository.updateIfAllowed(id, "New", null, null, 1L)).thenReturn(Mono.empty());
+    when(repository.findById(id)).thenReturn(Mono.just(row));
+
+    StepVerifier.create(service.patchDevice(id, new DevicePatchDto("New", null, null), 1L))
+        .verifyError(PreconditionFailedException.class);
+  }
+
+  @Test
+  void shouldExplainRejectedUpdateByDeviceInUse() {
+    when(repository.updateIfAllowed(id, "New", null, null, null)).thenReturn(Mono.empty());
+    when(repository.findById(id))
+        .thenReturn(Mono.just(row(id, "Device X", DeviceState.IN_USE, 2L)));
+
+    StepVerifier.create(service.patchDevice(id, new DevicePatchDto("New", null, null), null))
+        .verifyError(DeviceInUseException.class);
+  }
+
+  @Test
+  void shouldDeleteDevice() {
+    when(repository.findById(id)).thenReturn(Mono.just(row));
+    when(repository.delete(row)).thenReturn(Mono.empty());
+
+    StepVerifier.create(service.deleteDevice(id, 2L)).verifyComplete();
+    verify(repository).delete(row);
+  }
+
+  @Test
+  void shouldNotDeleteDeviceInUse() {
+    DeviceRow inUse = row(id, "Device X", DeviceState.IN_USE, 2L);
+    when(repository.findById(id)).thenReturn(Mono.just(inUse));
+
+    StepVerifier.create(service.deleteDevice(id, null)).verifyError(DeviceInUseException.class);
+    verify(repository, never()).delete(any(DeviceRow.class));
+  }
+
+  @Test
+  void shouldChangeStateOfMatchingDevices() {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Brand A"), null);
+    when(repository.updateStateMatching(filter, DeviceState.INACTIVE))
+        .thenReturn(Mono.just(new BulkResult(4, 1)));
+
+    StepVerifier.create(service.changeStateMatching(filter, DeviceState.INACTIVE))
+        .assertNext(
+            result -> {
+              assertEquals(4, result.affected());
+              assertEquals(1, result.skippedInUse());
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRequireFilterForBulkDelete() {
+    StepVerifier.create(service.deleteMatching(DeviceFilter.none()))
+        .verifyError(InvalidRequestException.class);
+    verifyNoInteractions(repository);
+  }
+}
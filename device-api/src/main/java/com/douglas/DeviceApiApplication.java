@@ -1,12 +1,26 @@
 package com.douglas;
 
+import com.douglas.api.cli.DeviceImportCommand;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import java.util.Arrays;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Import;
 
-/** Entry point for the Device API application. */
+/**
+ * Entry point for the Device API application. {@code import <file>...} runs {@link
+ * DeviceImportCommand} instead of the server.
+ */
 @SpringBootApplication(scanBasePackages = "com.douglas")
+@ConfigurationPropertiesScan("com.douglas")
+@Import({DeviceDtoMapper.class, DeviceRequestValidator.class})
 public class DeviceApiApplication {
   public static void main(String[] args) {
+    if (DeviceImportCommand.isRequested(args)) {
+      System.exit(DeviceImportCommand.run(Arrays.copyOfRange(args, 1, args.length)));
+    }
     SpringApplication.run(DeviceApiApplication.class, args);
   }
 }
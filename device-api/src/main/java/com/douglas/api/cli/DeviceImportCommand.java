@@ -0,0 +1,126 @@
+package com.douglas.api.cli;
+
+import com.douglas.DeviceApiApplication;
+import com.douglas.api.dto.DeviceImportResultDto;
+import com.douglas.api.service.DeviceImporter;
+import com.douglas.api.streaming.DeviceImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Command-line entry point importing device files without going through HTTP:
+ *
+ * <pre>
+ * java -jar device-api-exec.jar import devices.csv legacy.ndjson.gz --spring.datasource.url=...
+ * </pre>
+ *
+ * <p>The application starts without its web server and under the {@value #PROFILE} profile, which
+ * turns off the outbox relay, the scheduled jobs and the autocomplete index. It imports each file
+ * in turn, one transaction per file, prints one result line per file and exits. The format follows
+ * the file extension, {@code .csv}, {@code .ndjson} or {@code .jsonl}, optionally followed by
+ * {@code .gz}. Arguments starting with {@code --} are passed on to Spring Boot.
+ */
+public final class DeviceImportCommand {
+
+  /** First argument selecting this command. */
+  public static final String NAME = "import";
+
+  /** Profile the application runs under, added to those activated through the options. */
+  public static final String PROFILE = "import";
+
+  /** Exit status when every row was imported or skipped as a duplicate. */
+  static final int OK = 0;
+
+  /** Exit status when some rows were rejected. */
+  static final int REJECTED = 1;
+
+  /** Exit status when the arguments are invalid; nothing was imported. */
+  static final int USAGE = 2;
+
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+  private DeviceImportCommand() {}
+
+  /**
+   * Tells whether the command line asks for this command.
+   *
+   * @param args the command-line arguments of the application
+   * @return whether the first argument is {@value #NAME}
+   */
+  public static boolean isRequested(String[] args) {
+    return args.length > 0 && NAME.equals(args[0]);
+  }
+
+  /**
+   * Runs the import.
+   *
+   * @param args the files to import and Spring Boot options, without {@value #NAME}
+   * @return the exit status: {@code 0} when every row was imported or skipped as a duplicate,
+   *     {@code 1} when rows were rejected, {@code 2} when the arguments are invalid
+   */
+  public static int run(String[] args) {
+    List<Path> files = new ArrayList<>();
+    List<DeviceImportFormat> formats = new ArrayList<>();
+    List<String> options = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.startsWith("--")) {
+        options.add(arg);
+        continue;
+      }
+      Path file = Path.of(arg);
+      DeviceImportFormat format = DeviceImportFormat.forFileName(arg).orElse(null);
+      if (format == null || !Files.isReadable(file)) {
+        System.err.println(
+            format == null ? "Unsupported file type: " + arg : "Cannot read file: " + arg);
+        return USAGE;
+      }
+      files.add(file);
+      formats.add(format);
+    }
+    if (files.isEmpty()) {
+      System.err.println(
+          "Usage: import <file.csv|file.ndjson|file.jsonl>[.gz]... [--spring.option=value]...");
+      return USAGE;
+    }
+
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(DeviceApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles(PROFILE)
+            .run(options.toArray(String[]::new))) {
+      DeviceImporter importer = context.getBean(DeviceImporter.class);
+      ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+      int status = OK;
+      for (int i = 0; i < files.size(); i++) {
+        try (InputStream input = open(files.get(i))) {
+          DeviceImportResultDto result = importer.importDevices(formats.get(i), input);
+          System.out.println(files.get(i) + " " + objectMapper.writeValueAsString(result));
+          if (result.rejected() > 0) {
+            status = REJECTED;
+          }
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      return status;
+    }
+  }
+
+  private static InputStream open(Path file) throws IOException {
+    InputStream input = new BufferedInputStream(Files.newInputStream(file), READ_BUFFER_SIZE);
+    return DeviceImportFormat.isGzip(file.toString())
+        ? new GZIPInputStream(input, READ_BUFFER_SIZE)
+        : input;
+  }
+}
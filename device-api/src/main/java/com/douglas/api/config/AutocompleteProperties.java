@@ -0,0 +1,37 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for brand and name autocomplete, bound from {@code devices.autocomplete.*}.
+ *
+ * @param defaultLimit number of suggestions returned when the client does not ask for a limit
+ * @param maxLimit hard upper bound for the number of suggestions requested by clients
+ * @param maxTerms most frequent brands and names kept in memory per field
+ * @param buildOnStartup whether the index is built as soon as the application starts; without it,
+ *     the index stays empty until the first scheduled rebuild
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.autocomplete")
+public record AutocompleteProperties(
+    @DefaultValue("10") @Positive int defaultLimit,
+    @DefaultValue("50") @Positive int maxLimit,
+    @DefaultValue("200000") @Positive int maxTerms,
+    @DefaultValue("true") boolean buildOnStartup) {
+
+  /**
+   * Resolves the effective number of suggestions for a request.
+   *
+   * @param requested the limit asked by the client, or {@code null}
+   * @return the requested limit bounded to {@code [1, maxLimit]}, or the default limit
+   */
+  public int resolve(Integer requested) {
+    if (requested == null) {
+      return Math.min(defaultLimit, maxLimit);
+    }
+    return Math.max(1, Math.min(requested, maxLimit));
+  }
+}
@@ -0,0 +1,17 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for bulk device creation, bound from {@code devices.batch.*}.
+ *
+ * @param chunkSize number of devices inserted per transaction and JDBC batch
+ * @param maxItems maximum number of devices accepted in a single request
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.batch")
+public record BatchProperties(
+    @DefaultValue("500") @Positive int chunkSize, @DefaultValue("10000") @Positive int maxItems) {}
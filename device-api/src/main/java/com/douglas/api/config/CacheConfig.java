@@ -0,0 +1,22 @@
+package com.douglas.api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the read-through cache in front of device lookups. The cache provider and its bounds are
+ * configured through {@code spring.cache.*}: Caffeine (W-TinyLFU eviction) with a maximum size, a
+ * TTL and statistics by default, and {@code spring.cache.type=none} under the {@code no-cache}
+ * profile. Hit, miss and eviction counts are published as {@code cache.*} metrics.
+ *
+ * <p>The caching advice is ordered before the transaction advice, so that cache hits never open a
+ * transaction and updated entries are only stored after their transaction has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+  /** Cache of {@code DeviceResponseDto} keyed by device id. */
+  public static final String DEVICES_CACHE = "devices";
+}
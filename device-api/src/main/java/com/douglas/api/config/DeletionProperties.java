@@ -0,0 +1,20 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for deleted devices, bound from {@code devices.deletion.*}.
+ *
+ * @param retention how long deleted devices are kept before their rows are purged
+ * @param purgeChunkSize deleted devices removed per statement when purging
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.deletion")
+public record DeletionProperties(
+    @DefaultValue("P30D") @DurationMin(nanos = 1) Duration retention,
+    @DefaultValue("10000") @Positive int purgeChunkSize) {}
@@ -0,0 +1,24 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the device change feed, bound from {@code devices.events.*}.
+ *
+ * @param bufferSize events kept for subscribers to catch up on and for {@code Last-Event-ID}
+ *     resumption; a subscriber falling further behind is sent a resync signal
+ * @param senders threads writing events to every subscriber
+ * @param writeTimeout longest a sender waits for a subscriber to accept its events; a subscriber
+ *     that takes longer is dropped
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.events")
+public record EventsProperties(
+    @DefaultValue("4096") @Positive int bufferSize,
+    @DefaultValue("4") @Positive int senders,
+    @DefaultValue("5s") @DurationMin(nanos = 1) Duration writeTimeout) {}
@@ -0,0 +1,28 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for CSV exports, bound from {@code devices.export.*}.
+ *
+ * @param parallelism ranges of the table read at the same time, each on its own connection and
+ *     thread; an export holds one more connection for its snapshot
+ * @param chunkSize bytes of CSV a range hands to the response at a time; at most twice {@code
+ *     parallelism} chunks wait to be written
+ * @param maxConcurrent exports running at the same time; further ones are refused with 503, so
+ *     exports hold at most {@code maxConcurrent * (parallelism + 1)} connections
+ * @param stallTimeout how long the response may wait for a chunk, or a range for the response to
+ *     take one, before the export is abandoned and its connections released
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.export")
+public record ExportProperties(
+    @DefaultValue("4") @Positive int parallelism,
+    @DefaultValue("65536") @Positive int chunkSize,
+    @DefaultValue("1") @Positive int maxConcurrent,
+    @DefaultValue("PT30S") @DurationMin(nanos = 1) Duration stallTimeout) {}
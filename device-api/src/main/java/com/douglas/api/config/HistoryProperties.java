@@ -0,0 +1,20 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the device state history, bound from {@code devices.history.*}.
+ *
+ * @param partitionsAhead months after the current one whose partitions are created in advance
+ * @param retentionMonths full months of history kept attached besides the current one; older
+ *     partitions are detached. 0 keeps every partition
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.history")
+public record HistoryProperties(
+    @DefaultValue("12") @Positive int partitionsAhead,
+    @DefaultValue("0") @PositiveOrZero int retentionMonths) {}
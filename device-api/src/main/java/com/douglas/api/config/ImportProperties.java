@@ -0,0 +1,15 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for bulk device imports, bound from {@code devices.import.*}.
+ *
+ * @param reportedRejections rejected rows listed in an import result; further ones are only counted
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.import")
+public record ImportProperties(@DefaultValue("1000") @PositiveOrZero int reportedRejections) {}
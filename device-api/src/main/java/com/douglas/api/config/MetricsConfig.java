@@ -0,0 +1,71 @@
+package com.douglas.api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics published through Actuator, also scraped by Prometheus at {@code /actuator/prometheus}.
+ * Every tag has a small, fixed set of values; device ids, names and brands are never used as tags.
+ *
+ * <ul>
+ *   <li>{@value #OPERATIONS_TIMER}: one timer per {@code DeviceService} operation and for {@code
+ *       DeviceImporter} imports and {@code DeviceExporter} exports, tagged {@code operation}.
+ *       Lookups are timed behind the device cache; cache hits show up in {@code cache.gets}.
+ *   <li>{@code spring.data.repository.invocations}: one timer per {@code DeviceRepository} method,
+ *       tagged {@code method}, {@code state} and {@code exception} by Spring Boot.
+ *   <li>{@code hikaricp.connections.*}: pool gauges (active, idle, pending, max), bound by Spring
+ *       Boot.
+ *   <li>{@value #ERRORS_COUNTER}: domain errors answered by the exception handler, tagged {@code
+ *       type}.
+ *   <li>{@value #STATE_GAUGE}: live number of devices per state, tagged {@code state}.
+ *   <li>{@value #EVENT_SUBSCRIBERS_GAUGE}: open change feed subscriptions.
+ *   <li>{@value #EVENT_RESYNCS_COUNTER}: resync signals sent to change feed subscribers, tagged
+ *       {@code reason}.
+ *   <li>{@value #OUTBOX_RELAYED_COUNTER}: device change events published from the outbox.
+ *   <li>{@value #OUTBOX_FAILURES_COUNTER}: outbox batches whose publication failed.
+ *   <li>{@value #HISTORY_PARTITIONS_AHEAD_GAUGE}: months after the current one that already have a
+ *       state history partition; below 1, next month's state changes would fail.
+ * </ul>
+ *
+ * <p>Percentile histograms for these timers are enabled in {@code management.metrics.*}.
+ */
+@Configuration
+public class MetricsConfig {
+
+  /** Timer of the device service operations. */
+  public static final String OPERATIONS_TIMER = "devices.operations";
+
+  /** Counter of the domain errors returned to clients. */
+  public static final String ERRORS_COUNTER = "devices.errors";
+
+  /** Gauge of the number of devices in each state. */
+  public static final String STATE_GAUGE = "devices.state";
+
+  /** Gauge of the number of change feed subscribers. */
+  public static final String EVENT_SUBSCRIBERS_GAUGE = "devices.events.subscribers";
+
+  /** Counter of the resync signals sent to change feed subscribers. */
+  public static final String EVENT_RESYNCS_COUNTER = "devices.events.resyncs";
+
+  /** Counter of the events relayed from the outbox to its sink. */
+  public static final String OUTBOX_RELAYED_COUNTER = "devices.outbox.relayed";
+
+  /** Counter of the outbox batches that failed to publish. */
+  public static final String OUTBOX_FAILURES_COUNTER = "devices.outbox.failures";
+
+  /** Gauge of the months of state history partitions prepared after the current one. */
+  public static final String HISTORY_PARTITIONS_AHEAD_GAUGE = "devices.history.partitions.ahead";
+
+  /**
+   * Enables {@link io.micrometer.core.annotation.Timed} on Spring beans.
+   *
+   * @param registry the registry the timers are published to
+   * @return the aspect recording the timers
+   */
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+}
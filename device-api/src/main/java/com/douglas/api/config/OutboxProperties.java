@@ -0,0 +1,28 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the transactional outbox relay, bound from {@code devices.outbox.*}.
+ *
+ * @param relayEnabled whether this instance relays and prunes the outbox; with several instances,
+ *     any number of them may relay concurrently
+ * @param batchSize events locked, published and acknowledged per transaction
+ * @param retention how long delivered events are kept before being pruned
+ * @param pruneChunkSize delivered events deleted per statement when pruning
+ * @param memoryCapacity most recent events kept by the in-memory sink
+ * @param file file the file sink appends events to
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.outbox")
+public record OutboxProperties(
+    @DefaultValue("true") boolean relayEnabled,
+    @DefaultValue("500") @Positive int batchSize,
+    @DefaultValue("P1D") Duration retention,
+    @DefaultValue("10000") @Positive int pruneChunkSize,
+    @DefaultValue("10000") @Positive int memoryCapacity,
+    @DefaultValue("device-outbox.ndjson") String file) {}
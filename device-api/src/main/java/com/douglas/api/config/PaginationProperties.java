@@ -0,0 +1,31 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Page size settings for device listings, bound from {@code devices.pagination.*}.
+ *
+ * @param defaultLimit page size used when the client does not ask for one
+ * @param maxLimit hard upper bound for the page size requested by clients
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.pagination")
+public record PaginationProperties(
+    @DefaultValue("50") @Positive int defaultLimit, @DefaultValue("500") @Positive int maxLimit) {
+
+  /**
+   * Resolves the effective page size for a request.
+   *
+   * @param requested the page size asked by the client, or {@code null}
+   * @return the requested size bounded to {@code [1, maxLimit]}, or the default size
+   */
+  public int resolve(Integer requested) {
+    if (requested == null) {
+      return Math.min(defaultLimit, maxLimit);
+    }
+    return Math.max(1, Math.min(requested, maxLimit));
+  }
+}
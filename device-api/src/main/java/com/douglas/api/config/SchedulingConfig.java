@@ -0,0 +1,20 @@
+package com.douglas.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the periodic jobs: outbox relay and pruning, purge of deleted devices, history partition
+ * maintenance, autocomplete rebuilds, counter reconciliation and SSE heartbeats. Turned off with
+ * {@code devices.scheduling.enabled=false}, as the {@code import} profile of the command-line
+ * import does, so that a one-off process never runs them.
+ */
+@Configuration
+@ConditionalOnProperty(
+    prefix = "devices.scheduling",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,34 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for free-text device search, bound from {@code devices.search.*}.
+ *
+ * @param defaultLimit number of results returned when the client does not ask for a limit
+ * @param maxLimit hard upper bound for the number of results requested by clients
+ * @param candidates devices ranked per index lookup; bounds the work done for broad queries
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.search")
+public record SearchProperties(
+    @DefaultValue("20") @Positive int defaultLimit,
+    @DefaultValue("100") @Positive int maxLimit,
+    @DefaultValue("200") @Positive int candidates) {
+
+  /**
+   * Resolves the effective number of results for a request.
+   *
+   * @param requested the limit asked by the client, or {@code null}
+   * @return the requested limit bounded to {@code [1, maxLimit]}, or the default limit
+   */
+  public int resolve(Integer requested) {
+    if (requested == null) {
+      return Math.min(defaultLimit, maxLimit);
+    }
+    return Math.max(1, Math.min(requested, maxLimit));
+  }
+}
@@ -0,0 +1,16 @@
+package com.douglas.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for streamed device listings, bound from {@code devices.streaming.*}.
+ *
+ * @param fetchSize rows fetched from the database cursor per round trip; the response is also
+ *     flushed once per fetched batch
+ */
+@Validated
+@ConfigurationProperties(prefix = "devices.streaming")
+public record StreamingProperties(@DefaultValue("500") @Positive int fetchSize) {}
@@ -1,19 +1,51 @@
 package com.douglas.api.controller;
 
-import com.douglas.api.dto.DevicePatchDto;
-import com.douglas.api.dto.DeviceRequestDto;
-import com.douglas.api.dto.DeviceResponseDto;
+import com.douglas.api.config.BatchProperties;
+import com.douglas.api.config.StreamingProperties;
+import com.douglas.api.dto.DeviceHistoryPageDto;
+import com.douglas.api.dto.DeviceImportResultDto;
+import com.douglas.api.dto.DeviceSearchDto;
+import com.douglas.api.dto.DeviceStateCountsDto;
+import com.douglas.api.dto.DeviceStatsDto;
+import com.douglas.api.dto.DeviceSuggestionsDto;
+import com.douglas.api.exception.InvalidQueryParameterException;
+import com.douglas.api.service.DeviceExporter;
+import com.douglas.api.service.DeviceImporter;
 import com.douglas.api.service.DeviceService;
+import com.douglas.api.streaming.DeviceBatchReader;
+import com.douglas.api.streaming.DeviceImportFormat;
+import com.douglas.api.streaming.NdjsonWriter;
+import com.douglas.contract.dto.DeviceBatchResponseDto;
+import com.douglas.contract.dto.DeviceBulkResultDto;
+import com.douglas.contract.dto.DeviceBulkStateDto;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.http.DeviceETags;
 import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,28 +54,65 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST Controller responsible for managing device resources. Provides endpoints for creating,
  * retrieving, updating, partially updating and deleting devices.
+ *
+ * <p>Single-device responses carry the device version as a strong {@code ETag}. A {@code GET} whose
+ * {@code If-None-Match} matches is answered with 304 and no body, and {@code PUT}, {@code PATCH}
+ * and {@code DELETE} honor {@code If-Match}, answering 412 when the device has changed. A {@code
+ * DELETE} without {@code If-Match} that races a change of the same device is answered with 409.
  */
 @RestController
 @RequestMapping("/devices")
 @Tag(name = "Devices", description = "Operations related to device management")
 public class DeviceController {
 
+  private static final String EXPORT_FORMAT = "csv";
+
+  private static final MediaType EXPORT_MEDIA_TYPE =
+      MediaType.parseMediaType(DeviceImportFormat.CSV_VALUE + ";charset=UTF-8");
+
+  /** Bytes compressed at a time, the default size of the chunks ranges are written in. */
+  private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
   private final DeviceService deviceService;
+  private final DeviceImporter deviceImporter;
+  private final DeviceExporter deviceExporter;
+  private final ObjectMapper objectMapper;
+  private final StreamingProperties streaming;
+  private final BatchProperties batch;
 
   /**
    * Constructs a new {@code DeviceController} with the given {@link DeviceService}.
    *
    * @param deviceService service layer used for device operations
+   * @param deviceImporter service loading devices in bulk
+   * @param deviceExporter service exporting devices as CSV
+   * @param objectMapper mapper used to serialize streamed devices
+   * @param streaming settings for streamed device listings
+   * @param batch the most devices accepted by bulk creation
    */
-  public DeviceController(DeviceService deviceService) {
+  public DeviceController(
+      DeviceService deviceService,
+      DeviceImporter deviceImporter,
+      DeviceExporter deviceExporter,
+      ObjectMapper objectMapper,
+      StreamingProperties streaming,
+      BatchProperties batch) {
     this.deviceService = deviceService;
+    this.deviceImporter = deviceImporter;
+    this.deviceExporter = deviceExporter;
+    this.objectMapper = objectMapper;
+    this.streaming = streaming;
+    this.batch = batch;
   }
 
   /**
@@ -66,77 +135,494 @@ public class DeviceController {
   public ResponseEntity<DeviceResponseDto> createDevice(
       @RequestBody @Valid DeviceRequestDto request) {
     DeviceResponseDto response = deviceService.createDevice(request);
+    return withETag(response);
+  }
+
+  /**
+   * Creates many devices in one request. The body is read one device at a time, so an oversized
+   * batch is refused before it is deserialized as a whole.
+   *
+   * @param body a JSON array of the devices to create
+   * @return the outcome of each device, in request order
+   */
+  @Operation(
+      summary = "Create devices in bulk",
+      description =
+          "Registers up to devices.batch.max-items devices in one call. Invalid devices are"
+              + " reported individually; valid ones are inserted in JDBC batches.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Per-item results",
+            content = @Content(schema = @Schema(implementation = DeviceBatchResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Empty, malformed or oversized batch")
+      })
+  @io.swagger.v3.oas.annotations.parameters.RequestBody(
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON_VALUE,
+              array = @ArraySchema(schema = @Schema(implementation = DeviceRequestDto.class))))
+  @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<DeviceBatchResponseDto> createDevices(InputStream body) {
+    List<DeviceRequestDto> requests = DeviceBatchReader.read(objectMapper, body, batch.maxItems());
+    DeviceBatchResponseDto response = deviceService.createDevices(requests);
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Imports devices from a CSV or NDJSON body, streamed into the database as it is received.
+   *
+   * @param contentType {@code text/csv} or {@code application/x-ndjson}
+   * @param body the devices to import
+   * @return the number of imported, duplicate and rejected rows, and the first rejected rows
+   */
+  @Operation(
+      summary = "Import devices",
+      description =
+          "Loads devices from a CSV body (header naming name, brand, state and optionally id) or"
+              + " an NDJSON body, through PostgreSQL COPY, in one transaction. Invalid rows are"
+              + " rejected and reported with their line; rows with the id of an existing device are"
+              + " skipped as duplicates.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import counts and rejected rows",
+            content = @Content(schema = @Schema(implementation = DeviceImportResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "CSV header without a required column")
+      })
+  @PostMapping(
+      path = "/import",
+      consumes = {DeviceImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<DeviceImportResultDto> importDevices(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+    DeviceImportFormat format = DeviceImportFormat.forMediaType(contentType).orElseThrow();
+    return ResponseEntity.ok(deviceImporter.importDevices(format, body));
+  }
+
   /**
    * Retrieves a device by its unique ID.
    *
    * @param id the UUID of the device
    * @return the device data
    */
-  @Operation(summary = "Get device by ID", description = "Retrieve a device by its unique ID.")
+  @Operation(
+      summary = "Get device by ID",
+      description =
+          "Retrieve a device by its unique ID. Send the last ETag in If-None-Match to get a 304"
+              + " when the device has not changed.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Device found"),
+        @ApiResponse(responseCode = "304", description = "Device unchanged since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Device not found"),
         @ApiResponse(responseCode = "400", description = "Invalid UUID format")
       })
   @GetMapping("/{id}")
   public ResponseEntity<DeviceResponseDto> getDeviceById(@PathVariable UUID id) {
     DeviceResponseDto response = deviceService.getDeviceById(id);
-    return ResponseEntity.ok(response);
+    return withETag(response);
   }
 
   /**
-   * Retrieves a list of devices optionally filtered by name, brand or state.
+   * Retrieves a page of a device's state history, newest first.
    *
-   * @param name optional name filter (case-insensitive)
-   * @param brand optional brand filter (case-insensitive)
-   * @param state optional device state filter
-   * @return list of matching devices
+   * @param id the device's UUID
+   * @param cursor optional cursor returned as {@code next} by the previous page
+   * @param limit optional page size
+   * @return the page of state changes
    */
-  @Operation(summary = "Get all devices", description = "Returns a list of all registered devices.")
+  @Operation(
+      summary = "Get the state history of a device",
+      description =
+          "Returns the initial state of the device and every state change since, newest first,"
+              + " page by page. The history is kept after the device is deleted.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Page of state changes"),
+        @ApiResponse(responseCode = "404", description = "Device not found and without history"),
+        @ApiResponse(responseCode = "400", description = "Invalid UUID or cursor")
+      })
+  @GetMapping("/{id}/history")
+  public ResponseEntity<DeviceHistoryPageDto> getStateHistory(
+      @PathVariable UUID id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(deviceService.getStateHistory(id, cursor, limit));
+  }
+
+  /**
+   * Retrieves a page of devices optionally filtered by name, brand or state. Each filter may be
+   * repeated to match any of several values.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param sort optional ordering: {@code creationTime}, {@code -creationTime}, {@code name} or
+   *     {@code -name}
+   * @param cursor optional cursor returned as {@code next} by the previous page
+   * @param limit optional page size
+   * @return the page of matching devices
+   */
+  @Operation(
+      summary = "Get all devices",
+      description =
+          "Returns the registered devices page by page, optionally filtered. Repeat a parameter to"
+              + " match any of several values, e.g. ?brand=Acme&brand=Globex. Pass the returned"
+              + " next cursor to fetch the following page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Page of devices"),
+        @ApiResponse(responseCode = "400", description = "Invalid sort or cursor")
+      })
   @GetMapping
-  public ResponseEntity<List<DeviceResponseDto>> listDevices(
-      @RequestParam(required = false) String name,
-      @RequestParam(required = false) String brand,
-      @RequestParam(required = false) DeviceState state) {
-    List<DeviceResponseDto> response = deviceService.listDevices(name, brand, state);
+  public ResponseEntity<DevicePageDto> listDevices(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    DevicePageDto response =
+        deviceService.listDevices(DeviceFilter.of(name, brand, state), sort, cursor, limit);
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Searches devices by name and brand, tolerating typos.
+   *
+   * @param q the text to look for, at least three characters long
+   * @param limit optional maximum number of results
+   * @return the matching devices, best matches first
+   */
+  @Operation(
+      summary = "Search devices",
+      description =
+          "Finds devices whose name or brand contains q, case-insensitively. When fewer than"
+              + " limit devices contain it, devices matching the closest correctly spelt words"
+              + " are added. Results are ranked by trigram similarity.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Matching devices"),
+        @ApiResponse(responseCode = "400", description = "Query missing, too short or too long")
+      })
+  @GetMapping("/search")
+  public ResponseEntity<DeviceSearchDto> searchDevices(
+      @RequestParam(required = false) String q, @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(deviceService.searchDevices(q, limit));
+  }
+
+  /**
+   * Suggests brands or names starting with a prefix, for type-ahead pickers.
+   *
+   * @param field optional attribute to complete, {@code brand} (default) or {@code name}
+   * @param prefix optional start of the values (case-insensitive)
+   * @param limit optional maximum number of suggestions
+   * @return the completions, most used first
+   */
+  @Operation(
+      summary = "Autocomplete brands or names",
+      description =
+          "Returns the brands or names starting with prefix, ranked by how many devices use them."
+              + " Served from an in-memory index without querying the database; an empty prefix"
+              + " returns the most used values.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions"),
+        @ApiResponse(responseCode = "400", description = "Unsupported field or prefix too long")
+      })
+  @GetMapping("/autocomplete")
+  public ResponseEntity<DeviceSuggestionsDto> suggest(
+      @RequestParam(required = false) String field,
+      @RequestParam(required = false) String prefix,
+      @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok(deviceService.suggest(field, prefix, limit));
+  }
+
+  /**
+   * Reports how many devices were registered per time bucket, brand and current state.
+   *
+   * @param from optional ISO-8601 start of the range
+   * @param to optional ISO-8601 end of the range, exclusive
+   * @param granularity optional bucket width, {@code hour} or {@code day}
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @return the counts per bucket, brand and state
+   */
+  @Operation(
+      summary = "Get device registration statistics",
+      description =
+          "Counts the devices registered between from and to, per hour or day, brand and current"
+              + " state. Served from pre-aggregated rollups; the range is widened to whole"
+              + " buckets and defaults to the last 24 hours or 30 days.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Registration counts"),
+        @ApiResponse(responseCode = "400", description = "Invalid range or granularity")
+      })
+  @GetMapping("/stats")
+  public ResponseEntity<DeviceStatsDto> getCreationStats(
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String to,
+      @RequestParam(required = false) String granularity,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state) {
+    DeviceStatsDto response =
+        deviceService.getCreationStats(from, to, granularity, DeviceFilter.of(null, brand, state));
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Reports how many devices are in each state right now.
+   *
+   * @return the count per state
+   */
+  @Operation(
+      summary = "Get live device counts per state",
+      description =
+          "Returns the number of devices in each state from in-memory counters, without querying"
+              + " the database. Cheap enough to poll several times per second.")
+  @ApiResponse(responseCode = "200", description = "Counts per state")
+  @GetMapping("/counts")
+  public ResponseEntity<DeviceStateCountsDto> getStateCounts() {
+    return ResponseEntity.ok(deviceService.getStateCounts());
+  }
+
+  /**
+   * Opens a Server-Sent Events stream of device changes.
+   *
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param lastEventId id of the last event received, sent by {@code EventSource} on reconnection
+   * @return the event stream
+   */
+  @Operation(
+      summary = "Subscribe to device changes",
+      description =
+          "Streams created, updated and deleted events as text/event-stream, optionally only for"
+              + " the given brands or states (before or after the change). Reconnecting with"
+              + " Last-Event-ID replays the missed events while they are buffered; otherwise, and"
+              + " whenever the subscriber falls behind or a bulk change happens, a resync event"
+              + " asks the client to reload.")
+  @ApiResponse(responseCode = "200", description = "Event stream")
+  @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEvents(
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return deviceService.subscribeToEvents(DeviceFilter.of(null, brand, state), lastEventId);
+  }
+
+  /**
+   * Streams every device matching the filters as newline-delimited JSON. Devices are written as
+   * they are read from the database, so the response can be arbitrarily large without growing
+   * server memory.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param sort optional ordering; devices are returned in database order when absent
+   * @return a streamed body with one device per line
+   */
+  @Operation(
+      summary = "Stream all devices",
+      description =
+          "Returns every matching device as newline-delimited JSON when requested with"
+              + " Accept: application/x-ndjson. Intended for consumers that need the full result.")
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamDevices(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestParam(required = false) String sort) {
+    DeviceFilter filter = DeviceFilter.of(name, brand, state);
+    DeviceSort order = deviceService.parseSort(sort);
+    StreamingResponseBody body =
+        out -> {
+          NdjsonWriter<DeviceResponseDto> writer =
+              new NdjsonWriter<>(objectMapper, DeviceResponseDto.class, out, streaming.fetchSize());
+          deviceService.streamDevices(filter, order, writer);
+          writer.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  /**
+   * Exports every device matching the filters as CSV, for full inventory dumps. Ranges of the table
+   * are read in parallel from one snapshot and streamed as they are read, so the export is
+   * consistent and memory stays bounded regardless of the number of devices.
+   *
+   * @param format the export format; only {@code csv} is supported
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param acceptEncoding the client's {@code Accept-Encoding}; the export is gzip-compressed when
+   *     it accepts gzip
+   * @return a streamed CSV body with a header row
+   */
+  @Operation(
+      summary = "Export devices as CSV",
+      description =
+          "Streams every matching device as CSV (id, name, brand, state, creationTime, version),"
+              + " read from one snapshot by devices.export.parallelism connections at once."
+              + " Devices are grouped by table range, not sorted. Send Accept-Encoding: gzip for a"
+              + " compressed export.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "CSV export"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format"),
+        @ApiResponse(
+            responseCode = "503",
+            description = "devices.export.max-concurrent exports already running")
+      })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportDevices(
+      @RequestParam(defaultValue = EXPORT_FORMAT) String format,
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    if (!EXPORT_FORMAT.equalsIgnoreCase(format)) {
+      throw new InvalidQueryParameterException(
+          "Unsupported export format: " + format + "; expected csv");
+    }
+    DeviceFilter filter = DeviceFilter.of(name, brand, state);
+    boolean gzip = acceptsGzip(acceptEncoding);
+    DeviceExporter.Permit permit = deviceExporter.reserve();
+    StreamingResponseBody body =
+        out -> {
+          try (permit) {
+            if (gzip) {
+              GZIPOutputStream compressed = fastGzip(out);
+              deviceExporter.exportCsv(permit, filter, compressed);
+              compressed.finish();
+            } else {
+              deviceExporter.exportCsv(permit, filter, out);
+            }
+          }
+        };
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(EXPORT_MEDIA_TYPE)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("devices.csv").build().toString());
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
   /**
    * Updates all fields of a device by its ID.
    *
    * @param id the UUID of the device to update
+   * @param ifMatch optional ETag the device must still have
    * @param request DTO containing the updated device data
    * @return the updated device
    */
   @Operation(
       summary = "Update device completely",
       description = "Update all fields of a device by ID.")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
   @PutMapping("/{id}")
   public ResponseEntity<DeviceResponseDto> updateDevice(
-      @PathVariable UUID id, @RequestBody @Valid DeviceRequestDto request) {
-    DeviceResponseDto response = deviceService.updateDevice(id, request);
-    return ResponseEntity.ok(response);
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody @Valid DeviceRequestDto request) {
+    DeviceResponseDto response =
+        deviceService.updateDevice(id, request, DeviceETags.parseIfMatch(ifMatch));
+    return withETag(response);
   }
 
   /**
    * Partially updates fields of a device by its ID.
    *
    * @param id the UUID of the device to update
+   * @param ifMatch optional ETag the device must still have
    * @param patch DTO containing the fields to be updated
    * @return the updated device
    */
   @Operation(
       summary = "Partially update a device",
       description = "Update one or more fields of a device.")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
   @PatchMapping("/{id}")
   public ResponseEntity<DeviceResponseDto> patchDevice(
-      @PathVariable UUID id, @RequestBody DevicePatchDto patch) {
-    DeviceResponseDto response = deviceService.patchDevice(id, patch);
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody @Valid DevicePatchDto patch) {
+    DeviceResponseDto response =
+        deviceService.patchDevice(id, patch, DeviceETags.parseIfMatch(ifMatch));
+    return withETag(response);
+  }
+
+  /**
+   * Moves every device matching the filters to a new state in a single statement. Devices in use
+   * are left untouched and counted as skipped.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @param request DTO containing the new state
+   * @return the number of changed and skipped devices
+   */
+  @Operation(
+      summary = "Change the state of devices in bulk",
+      description =
+          "Sets the state of every device matching the filters, e.g."
+              + " ?brand=Acme to mark all Acme devices INACTIVE. At least one filter is required."
+              + " Devices in use are skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Number of changed and skipped devices",
+            content = @Content(schema = @Schema(implementation = DeviceBulkResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing filter or state")
+      })
+  @PatchMapping
+  public ResponseEntity<DeviceBulkResultDto> changeStateMatching(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state,
+      @RequestBody DeviceBulkStateDto request) {
+    DeviceBulkResultDto response =
+        deviceService.changeStateMatching(DeviceFilter.of(name, brand, state), request.state());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Deletes every device matching the filters in a single statement. Devices in use are left
+   * untouched and counted as skipped.
+   *
+   * @param name optional name filters (case-insensitive)
+   * @param brand optional brand filters (case-insensitive)
+   * @param state optional device state filters
+   * @return the number of deleted and skipped devices
+   */
+  @Operation(
+      summary = "Delete devices in bulk",
+      description =
+          "Deletes every device matching the filters, e.g. ?brand=Acme&state=INACTIVE. At least"
+              + " one filter is required. Devices in use are skipped.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Number of deleted and skipped devices",
+            content = @Content(schema = @Schema(implementation = DeviceBulkResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing filter")
+      })
+  @DeleteMapping
+  public ResponseEntity<DeviceBulkResultDto> deleteMatching(
+      @RequestParam(required = false) List<String> name,
+      @RequestParam(required = false) List<String> brand,
+      @RequestParam(required = false) List<DeviceState> state) {
+    DeviceBulkResultDto response =
+        deviceService.deleteMatching(DeviceFilter.of(name, brand, state));
     return ResponseEntity.ok(response);
   }
 
@@ -144,12 +630,65 @@ public class DeviceController {
    * Deletes a device by its ID.
    *
    * @param id the UUID of the device to delete
+   * @param ifMatch optional ETag the device must still have
    * @return HTTP 204 No Content if deletion is successful
    */
   @Operation(summary = "Delete device", description = "Remove a device from the system by ID.")
+  @ApiResponse(responseCode = "409", description = "Device changed concurrently, without If-Match")
+  @ApiResponse(responseCode = "412", description = "Device changed since the If-Match ETag")
   @DeleteMapping("/{id}")
-  public ResponseEntity<Void> deleteDevice(@PathVariable UUID id) {
-    deviceService.deleteDevice(id);
+  public ResponseEntity<Void> deleteDevice(
+      @PathVariable UUID id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    deviceService.deleteDevice(id, DeviceETags.parseIfMatch(ifMatch));
     return ResponseEntity.noContent().build();
   }
+
+  /**
+   * Compresses at the fastest level. The export is compressed on the thread writing the response,
+   * where the default level costs about three times the CPU for about 10% fewer bytes.
+   */
+  private static GZIPOutputStream fastGzip(OutputStream out) throws IOException {
+    return new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) {
+      {
+        def.setLevel(Deflater.BEST_SPEED);
+      }
+    };
+  }
+
+  /**
+   * Tells whether an {@code Accept-Encoding} header lists gzip, or {@code *}, without a zero
+   * quality.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim().toLowerCase(Locale.ROOT);
+      if (!name.equals("gzip") && !name.equals("*")) {
+        continue;
+      }
+      boolean refused = false;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith("q=")) {
+          refused = parameter.substring(2).matches("0(\\.0{0,3})?");
+        }
+      }
+      if (!refused) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Wraps a device in a 200 response tagged with its version. For a {@code GET}, Spring MVC
+   * compares the tag with {@code If-None-Match} and answers 304 without writing the body.
+   */
+  private static ResponseEntity<DeviceResponseDto> withETag(DeviceResponseDto device) {
+    return ResponseEntity.ok().eTag(DeviceETags.of(device.version())).body(device);
+  }
 }
@@ -0,0 +1,14 @@
+package com.douglas.api.dto;
+
+import com.douglas.contract.dto.DeviceResponseDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+/** DTO for publishing one change of a device on the change feed. */
+public record DeviceEventDto(
+    @Schema(description = "Kind of change: created, updated or deleted", example = "updated")
+        String type,
+    @Schema(description = "The device after the change, or as it was when deleted")
+        DeviceResponseDto device,
+    @Schema(description = "When the change was made, in UTC", example = "2025-08-07T10:00:00Z")
+        Instant occurredAt) {}
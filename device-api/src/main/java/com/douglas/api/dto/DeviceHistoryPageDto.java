@@ -0,0 +1,17 @@
+package com.douglas.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/** DTO for returning one page of a device's state history. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeviceHistoryPageDto(
+    @Schema(description = "State changes in this page, newest first")
+        List<DeviceStateChangeDto> items,
+    @Schema(
+            description =
+                "Opaque cursor for the next page, to be passed back as the cursor parameter;"
+                    + " absent on the last page",
+            example = "MjAyNS0wOC0wN1QxMDowMDowMFoKMw")
+        String next) {}
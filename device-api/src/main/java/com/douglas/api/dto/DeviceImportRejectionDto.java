@@ -0,0 +1,9 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for a row of an import that was not loaded. */
+public record DeviceImportRejectionDto(
+    @Schema(description = "Line of the input the row starts on, from 1", example = "42") long line,
+    @Schema(description = "Why the row was rejected", example = "Unknown state: BROKEN")
+        String error) {}
@@ -0,0 +1,13 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/** DTO for returning the outcome of a bulk device import. */
+public record DeviceImportResultDto(
+    @Schema(description = "Number of devices imported", example = "999997") long imported,
+    @Schema(description = "Number of rows skipped because their id already exists", example = "1")
+        long duplicates,
+    @Schema(description = "Number of rows rejected by validation", example = "2") long rejected,
+    @Schema(description = "The first rejected rows, in input order")
+        List<DeviceImportRejectionDto> rejections) {}
@@ -0,0 +1,12 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO telling a change feed subscriber that it missed events and must reload the devices. */
+public record DeviceResyncDto(
+    @Schema(
+            description =
+                "Why events were missed: overflow (the subscriber fell behind), expired (the"
+                    + " Last-Event-ID is no longer buffered) or bulk (a bulk change)",
+            example = "overflow")
+        String reason) {}
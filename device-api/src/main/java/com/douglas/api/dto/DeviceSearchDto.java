@@ -0,0 +1,21 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/** DTO for returning the results of a free-text device search. */
+public record DeviceSearchDto(
+    @Schema(description = "The query, trimmed and with its whitespace collapsed", example = "routr")
+        String query,
+    @Schema(
+            description =
+                "Devices containing the query first, then devices matching a corrected spelling,"
+                    + " each group by descending score")
+        List<DeviceSearchHitDto> items,
+    @Schema(
+            description =
+                "Whether more devices matched than devices.search.candidates, the number ranked per"
+                    + " lookup; better matches may then exist among the devices left out, and a"
+                    + " longer query narrows them down",
+            example = "false")
+        boolean truncated) {}
@@ -0,0 +1,24 @@
+package com.douglas.api.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.UUID;
+
+/** DTO for returning one device found by a search, with how closely it matches the query. */
+public record DeviceSearchHitDto(
+    @Schema(
+            description = "Unique identifier of the device",
+            example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+        UUID id,
+    @Schema(description = "Device name", example = "Temperature Sensor") String name,
+    @Schema(description = "Device brand", example = "Acme Corp") String brand,
+    @Schema(description = "Device current state", example = "AVAILABLE") DeviceState state,
+    @Schema(description = "Creation timestamp in UTC", example = "2025-08-06T20:50:33Z")
+        Instant creationTime,
+    @Schema(description = "Revision of the device, incremented by every change", example = "3")
+        long version,
+    @Schema(
+            description = "Trigram similarity between the query and the name or brand, from 0 to 1",
+            example = "0.83")
+        double score) {}
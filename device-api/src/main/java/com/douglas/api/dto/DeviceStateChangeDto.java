@@ -0,0 +1,17 @@
+package com.douglas.api.dto;
+
+import com.douglas.core.domain.DeviceState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+/** DTO for returning one state change of a device. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeviceStateChangeDto(
+    @Schema(description = "State before the change; absent when the device was created")
+        DeviceState previousState,
+    @Schema(description = "State after the change", example = "IN_USE") DeviceState state,
+    @Schema(description = "Revision of the device produced by the change", example = "3")
+        long version,
+    @Schema(description = "When the change happened, in UTC", example = "2025-08-06T20:50:33Z")
+        Instant changedAt) {}
@@ -0,0 +1,18 @@
+package com.douglas.api.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.Map;
+
+/** DTO for returning the live number of devices in each state. */
+public record DeviceStateCountsDto(
+    @Schema(
+            description = "Number of devices per state",
+            example = "{\"AVAILABLE\": 120, \"IN_USE\": 37, \"INACTIVE\": 5}")
+        Map<DeviceState, Long> states,
+    @Schema(description = "Number of devices in any state", example = "162") long total,
+    @Schema(
+            description = "When the counts were last reconciled with the database",
+            example = "2025-08-07T10:00:00Z")
+        Instant reconciledAt) {}
@@ -0,0 +1,14 @@
+package com.douglas.api.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+
+/** DTO for returning the number of devices of one brand and state registered in one bucket. */
+public record DeviceStatsBucketDto(
+    @Schema(description = "Start of the time bucket, in UTC", example = "2025-08-07T10:00:00Z")
+        Instant bucket,
+    @Schema(description = "Device brand", example = "Acme Corp") String brand,
+    @Schema(description = "Current state of the devices", example = "AVAILABLE") DeviceState state,
+    @Schema(description = "Number of devices registered in the bucket", example = "42")
+        long devices) {}
@@ -0,0 +1,16 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+
+/** DTO for returning device registration statistics over a time range. */
+public record DeviceStatsDto(
+    @Schema(description = "Width of the time buckets", example = "hour") String granularity,
+    @Schema(description = "Inclusive start of the range, in UTC", example = "2025-08-07T00:00:00Z")
+        Instant from,
+    @Schema(description = "Exclusive end of the range, in UTC", example = "2025-08-08T00:00:00Z")
+        Instant to,
+    @Schema(description = "Number of devices registered in the range", example = "1250") long total,
+    @Schema(description = "Counts per bucket, brand and state; empty groups are omitted")
+        List<DeviceStatsBucketDto> buckets) {}
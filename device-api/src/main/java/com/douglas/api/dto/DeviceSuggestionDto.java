@@ -0,0 +1,10 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for returning one autocomplete suggestion and how many devices use it. */
+public record DeviceSuggestionDto(
+    @Schema(description = "Brand or name, as most devices spell it", example = "Acme Corp")
+        String value,
+    @Schema(description = "Number of devices with this brand or name", example = "120")
+        long devices) {}
@@ -0,0 +1,15 @@
+package com.douglas.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+
+/** DTO for returning the brands or names completing a prefix, most used first. */
+public record DeviceSuggestionsDto(
+    @Schema(description = "Completed attribute, brand or name", example = "brand") String field,
+    @Schema(description = "Prefix as matched, ignoring case", example = "ac") String prefix,
+    @Schema(description = "Completions, most used first") List<DeviceSuggestionDto> suggestions,
+    @Schema(
+            description = "When the suggestions were last rebuilt from the database",
+            example = "2025-08-07T10:00:00Z")
+        Instant refreshedAt) {}
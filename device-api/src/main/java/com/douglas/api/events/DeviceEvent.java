@@ -0,0 +1,56 @@
+package com.douglas.api.events;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import java.util.Locale;
+
+/**
+ * One entry of the change feed: the SSE event name and payload, plus the brands and states the
+ * change touched, which subscriber filters are matched against. A change matches a filter on its
+ * values before or after the change, so that a subscriber also learns about devices leaving the
+ * brands or states it watches. Control events, without brand or state, match every filter.
+ *
+ * @param name SSE event name
+ * @param data payload, serialized as JSON
+ * @param brand brand after the change, or {@code null} for control events
+ * @param previousBrand brand before the change; same as {@code brand} unless it changed
+ * @param state state after the change, or {@code null} for control events
+ * @param previousState state before the change; same as {@code state} unless it changed
+ */
+record DeviceEvent(
+    String name,
+    Object data,
+    String brand,
+    String previousBrand,
+    DeviceState state,
+    DeviceState previousState) {
+
+  /**
+   * Creates a control event, delivered to every subscriber.
+   *
+   * @param name SSE event name
+   * @param data payload
+   * @return the event
+   */
+  static DeviceEvent control(String name, Object data) {
+    return new DeviceEvent(name, data, null, null, null, null);
+  }
+
+  /**
+   * Checks whether a subscriber with the given filter receives this event.
+   *
+   * @param filter the brands and states the subscriber watches; names are ignored
+   * @return {@code true} if the event is delivered to the subscriber
+   */
+  boolean matches(DeviceFilter filter) {
+    if (state == null) {
+      return true;
+    }
+    return (filter.brands().isEmpty()
+            || filter.brands().contains(brand.toLowerCase(Locale.ROOT))
+            || filter.brands().contains(previousBrand.toLowerCase(Locale.ROOT)))
+        && (filter.states().isEmpty()
+            || filter.states().contains(state)
+            || filter.states().contains(previousState));
+  }
+}
@@ -0,0 +1,415 @@
+package com.douglas.api.events;
+
+import com.douglas.api.config.EventsProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.dto.DeviceEventDto;
+import com.douglas.api.dto.DeviceResyncDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Publishes device changes to Server-Sent Events subscribers through one shared {@link
+ * DeviceEventRing}.
+ *
+ * <p>Publishing appends to the ring and returns; it never writes to a subscriber. Each subscriber
+ * keeps a cursor into the ring and is drained by a small fixed pool of {@code
+ * devices.events.senders} threads, at most one task per subscriber at a time, so thousands of
+ * connections share a handful of threads. A subscriber that falls more than {@code
+ * devices.events.buffer-size} events behind is sent a {@code resync} event and moved to the newest
+ * event; it should reload the devices it tracks. Bulk changes, which do not report the devices they
+ * touched, also send {@code resync} to everyone.
+ *
+ * <p>Writing to a connection blocks once the client stops reading and its socket buffer is full. A
+ * sender therefore hands each drain's writes to a pooled writer thread and waits at most {@code
+ * devices.events.write-timeout} for them; a subscriber that does not accept them in time is dropped
+ * and its connection completed, so that a stalled client holds a sender for that long at most. Its
+ * writer stays blocked until Tomcat's write timeout. Writers are platform threads: Tomcat blocks
+ * writes in {@code Object.wait} under a monitor, which would pin the carriers of virtual threads.
+ *
+ * <p>Event ids are {@code <epoch>-<sequence>}, where the epoch identifies this instance's ring, so
+ * that a {@code Last-Event-ID} is only honored by the ring that issued it and while its events are
+ * still buffered. Changes made inside a transaction are published once it commits.
+ */
+@Component
+public class DeviceEventBroadcaster implements DisposableBean {
+
+  /** Events written to one subscriber before its task yields to the others. */
+  static final int MAX_EVENTS_PER_DRAIN = 256;
+
+  private final DeviceEventRing ring;
+  private final ExecutorService senders;
+  private final ExecutorService writers =
+      Executors.newCachedThreadPool(daemonThreads("device-events-write-"));
+  private final Duration writeTimeout;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean fanOutPending = new AtomicBoolean();
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final MeterRegistry registry;
+
+  /**
+   * Creates the broadcaster with its own pool of sender threads, and publishes the number of
+   * subscribers as the {@value MetricsConfig#EVENT_SUBSCRIBERS_GAUGE} gauge.
+   *
+   * @param properties the ring capacity, the number of sender threads and the write timeout
+   * @param registry the registry the metrics are published to
+   */
+  @Autowired
+  public DeviceEventBroadcaster(EventsProperties properties, MeterRegistry registry) {
+    this(
+        properties,
+        registry,
+        Executors.newFixedThreadPool(properties.senders(), daemonThreads("device-events-")));
+  }
+
+  /**
+   * Creates the broadcaster on the given sender pool.
+   *
+   * @param properties the ring capacity and the write timeout
+   * @param registry the registry the metrics are published to
+   * @param senders the threads writing events to subscribers
+   */
+  DeviceEventBroadcaster(
+      EventsProperties properties, MeterRegistry registry, ExecutorService senders) {
+    this.ring = new DeviceEventRing(properties.bufferSize());
+    this.senders = senders;
+    this.writeTimeout = properties.writeTimeout();
+    this.registry = registry;
+    Gauge.builder(MetricsConfig.EVENT_SUBSCRIBERS_GAUGE, subscribers, Set::size)
+        .description("Open device change feed subscriptions")
+        .register(registry);
+  }
+
+  /**
+   * Registers a subscriber. A new subscriber first receives a {@code ready} event carrying the id
+   * to resume from. A subscriber resuming from a {@code Last-Event-ID} still in the ring receives
+   * the events it missed; otherwise it receives a {@code resync} event.
+   *
+   * @param emitter the connection to write events to
+   * @param filter brands and states to receive changes of; an empty filter receives every change
+   * @param lastEventId the id of the last event the client received, or {@code null}
+   */
+  public void subscribe(SseEmitter emitter, DeviceFilter filter, String lastEventId) {
+    long head = ring.head();
+    Subscriber subscriber = new Subscriber(emitter, filter);
+    try {
+      if (lastEventId == null || lastEventId.isBlank()) {
+        subscriber.cursor = head;
+        emitter.send(event(head, "ready", Map.of()));
+      } else {
+        long resumed = parse(lastEventId);
+        if (ring.retains(resumed)) {
+          subscriber.cursor = resumed;
+        } else {
+          subscriber.cursor = head;
+          emitter.send(resyncEvent(head, "expired"));
+        }
+      }
+    } catch (IOException ex) {
+      emitter.completeWithError(ex);
+      return;
+    }
+
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(ex -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    schedule(subscriber);
+  }
+
+  /**
+   * Publishes a new device.
+   *
+   * @param device the device as created
+   */
+  public void created(DeviceResponseDto device) {
+    publish(
+        new DeviceEvent(
+            "created",
+            new DeviceEventDto("created", device, Instant.now()),
+            device.brand(),
+            device.brand(),
+            device.state(),
+            device.state()));
+  }
+
+  /**
+   * Publishes a change of a device.
+   *
+   * @param device the device as updated
+   * @param previousBrand the brand before the change
+   * @param previousState the state before the change
+   */
+  public void updated(DeviceResponseDto device, String previousBrand, DeviceState previousState) {
+    publish(
+        new DeviceEvent(
+            "updated",
+            new DeviceEventDto("updated", device, Instant.now()),
+            device.brand(),
+            previousBrand,
+            device.state(),
+            previousState));
+  }
+
+  /**
+   * Publishes a deleted device.
+   *
+   * @param device the device as it was when deleted
+   */
+  public void deleted(DeviceResponseDto device) {
+    publish(
+        new DeviceEvent(
+            "deleted",
+            new DeviceEventDto("deleted", device, Instant.now()),
+            device.brand(),
+            device.brand(),
+            device.state(),
+            device.state()));
+  }
+
+  /**
+   * Tells every subscriber to reload the devices it tracks, after a change that does not report the
+   * devices it touched.
+   *
+   * @param reason why, sent to subscribers
+   */
+  public void resync(String reason) {
+    registry.counter(MetricsConfig.EVENT_RESYNCS_COUNTER, "reason", reason).increment();
+    publish(DeviceEvent.control("resync", new DeviceResyncDto(reason)));
+  }
+
+  /**
+   * Returns the number of open subscriptions.
+   *
+   * @return the number of subscribers
+   */
+  public int subscribers() {
+    return subscribers.size();
+  }
+
+  /**
+   * Sends an SSE comment to every subscriber, which keeps idle connections open through proxies and
+   * detects clients that went away.
+   */
+  @Scheduled(
+      fixedDelayString = "${devices.events.heartbeat-interval:PT15S}",
+      initialDelayString = "${devices.events.heartbeat-interval:PT15S}")
+  public void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.heartbeatDue = true;
+      schedule(subscriber);
+    }
+  }
+
+  /** Closes every subscription and stops the sender threads. */
+  @Override
+  public void destroy() {
+    for (Subscriber subscriber : subscribers) {
+      try {
+        subscriber.emitter.complete();
+      } catch (IllegalStateException ex) {
+        // the client went away and its request is already finished
+      }
+    }
+    senders.shutdownNow();
+    writers.shutdownNow();
+  }
+
+  private void publish(DeviceEvent event) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              append(event);
+            }
+          });
+    } else {
+      append(event);
+    }
+  }
+
+  private void append(DeviceEvent event) {
+    ring.append(event);
+    if (!subscribers.isEmpty() && fanOutPending.compareAndSet(false, true)) {
+      senders.execute(this::fanOut);
+    }
+  }
+
+  /** Wakes up every subscriber; events appended meanwhile schedule another pass. */
+  private void fanOut() {
+    fanOutPending.set(false);
+    for (Subscriber subscriber : subscribers) {
+      schedule(subscriber);
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  /**
+   * Writes the events a subscriber has not received yet, up to {@value #MAX_EVENTS_PER_DRAIN}. Only
+   * one drain per subscriber runs at a time, so events are written in order.
+   */
+  private void drain(Subscriber subscriber) {
+    try {
+      List<SseEmitter.SseEventBuilder> frames = new ArrayList<>();
+      if (subscriber.heartbeatDue) {
+        subscriber.heartbeatDue = false;
+        frames.add(SseEmitter.event().comment("heartbeat"));
+      }
+      long cursor = subscriber.cursor;
+      DeviceEventRing.Batch batch = ring.read(cursor, MAX_EVENTS_PER_DRAIN);
+      if (batch.gap()) {
+        cursor = ring.head();
+        frames.add(resyncEvent(cursor, "overflow"));
+      }
+      for (DeviceEventRing.Entry entry : batch.entries()) {
+        DeviceEvent event = entry.event();
+        if (event.matches(subscriber.filter)) {
+          frames.add(event(entry.sequence(), event.name(), event.data()));
+        }
+        cursor = entry.sequence();
+      }
+      write(subscriber, frames);
+      subscriber.cursor = cursor;
+    } catch (IOException | IllegalStateException ex) {
+      subscribers.remove(subscriber);
+      subscriber.emitter.completeWithError(ex);
+      return;
+    } catch (TimeoutException ex) {
+      // The emitter stays locked by the blocked write, so it is completed off the sender thread.
+      subscribers.remove(subscriber);
+      writers.execute(() -> subscriber.emitter.completeWithError(ex));
+      return;
+    } finally {
+      subscriber.draining.set(false);
+    }
+    if (subscriber.cursor < ring.head() || subscriber.heartbeatDue) {
+      schedule(subscriber);
+    }
+  }
+
+  /**
+   * Writes frames to a subscriber on a writer thread, waiting at most {@code writeTimeout}.
+   *
+   * @throws TimeoutException if the subscriber did not accept them in time; the write is
+   *     interrupted and left to fail on its own
+   */
+  private void write(Subscriber subscriber, List<SseEmitter.SseEventBuilder> frames)
+      throws IOException, TimeoutException {
+    if (frames.isEmpty()) {
+      return;
+    }
+    Future<?> writing =
+        writers.submit(
+            () -> {
+              for (SseEmitter.SseEventBuilder frame : frames) {
+                subscriber.emitter.send(frame);
+              }
+              return null;
+            });
+    try {
+      writing.get(writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      writing.cancel(true);
+      throw ex;
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof IOException io) {
+        throw io;
+      }
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IOException(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      writing.cancel(true);
+      throw new IOException("Interrupted while writing device events", ex);
+    }
+  }
+
+  private SseEmitter.SseEventBuilder resyncEvent(long sequence, String reason) {
+    registry.counter(MetricsConfig.EVENT_RESYNCS_COUNTER, "reason", reason).increment();
+    return event(sequence, "resync", new DeviceResyncDto(reason));
+  }
+
+  private SseEmitter.SseEventBuilder event(long sequence, String name, Object data) {
+    return SseEmitter.event()
+        .id(epoch + "-" + sequence)
+        .name(name)
+        .data(data, MediaType.APPLICATION_JSON);
+  }
+
+  /**
+   * Sequence of an event id issued by this ring, or -1 if it was issued elsewhere or is invalid.
+   */
+  private long parse(String lastEventId) {
+    int separator = lastEventId.lastIndexOf('-');
+    if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(lastEventId.substring(separator + 1));
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * One open subscription. Its cursor is only read and written by its drain task, which runs on one
+   * thread at a time; {@code draining} orders the tasks.
+   */
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final DeviceFilter filter;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long cursor;
+    private volatile boolean heartbeatDue;
+
+    Subscriber(SseEmitter emitter, DeviceFilter filter) {
+      this.emitter = emitter;
+      this.filter = filter;
+    }
+  }
+}
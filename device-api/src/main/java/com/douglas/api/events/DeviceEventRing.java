@@ -0,0 +1,113 @@
+package com.douglas.api.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity ring of the most recent change feed events, numbered from 1. Publishing overwrites
+ * the oldest event once the ring is full; readers never block the publisher and keep their own
+ * cursor, the sequence of the last event they consumed. A reader whose next event was already
+ * overwritten is told so instead of silently skipping it.
+ */
+final class DeviceEventRing {
+
+  /** An event and its position in the feed. */
+  record Entry(long sequence, DeviceEvent event) {}
+
+  /**
+   * Events read after a cursor.
+   *
+   * @param entries the events, oldest first
+   * @param gap whether events after the cursor were already overwritten; {@code entries} is empty
+   *     then
+   */
+  record Batch(List<Entry> entries, boolean gap) {}
+
+  private final AtomicReferenceArray<Entry> slots;
+  private volatile long head;
+
+  /**
+   * Creates an empty ring.
+   *
+   * @param capacity number of events kept
+   */
+  DeviceEventRing(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Returns the number of events kept.
+   *
+   * @return the capacity
+   */
+  int capacity() {
+    return slots.length();
+  }
+
+  /**
+   * Returns the sequence of the last published event.
+   *
+   * @return the sequence, or 0 before the first event
+   */
+  long head() {
+    return head;
+  }
+
+  /**
+   * Checks whether every event after a cursor is still in the ring.
+   *
+   * @param cursor the sequence of the last consumed event
+   * @return {@code true} if reading after the cursor cannot report a gap right now
+   */
+  boolean retains(long cursor) {
+    long last = head;
+    return cursor >= 0 && cursor <= last && last - cursor <= slots.length();
+  }
+
+  /**
+   * Appends an event, overwriting the oldest one if the ring is full.
+   *
+   * @param event the event
+   * @return its sequence
+   */
+  synchronized long append(DeviceEvent event) {
+    long sequence = head + 1;
+    slots.set(index(sequence), new Entry(sequence, event));
+    head = sequence;
+    return sequence;
+  }
+
+  /**
+   * Reads the events published after a cursor.
+   *
+   * @param cursor the sequence of the last consumed event
+   * @param max maximum number of events to read
+   * @return up to {@code max} events, or a gap if the next one was overwritten
+   */
+  Batch read(long cursor, int max) {
+    long last = head;
+    if (cursor >= last) {
+      return new Batch(List.of(), false);
+    }
+    if (last - cursor > slots.length()) {
+      return new Batch(List.of(), true);
+    }
+    List<Entry> entries = new ArrayList<>((int) Math.min(max, last - cursor));
+    for (long sequence = cursor + 1; sequence <= last && entries.size() < max; sequence++) {
+      Entry entry = slots.get(index(sequence));
+      if (entry.sequence() != sequence) {
+        return new Batch(List.of(), true);
+      }
+      entries.add(entry);
+    }
+    return new Batch(entries, false);
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % slots.length());
+  }
+}
@@ -1,30 +1,123 @@
 package com.douglas.api.exception;
 
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.util.Map;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
 
-/** Global exception handler for REST API errors. */
+/**
+ * Global exception handler for REST API errors. Error bodies are always written as JSON, even when
+ * the client asked for another representation such as NDJSON. Missing devices and devices in use
+ * are counted in {@link MetricsConfig#ERRORS_COUNTER}.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+  private final Counter notFound;
+  private final Counter inUse;
+
+  /**
+   * Creates the handler and registers its error counters.
+   *
+   * @param registry the registry the counters are published to
+   */
+  public GlobalExceptionHandler(MeterRegistry registry) {
+    this.notFound = errorCounter(registry, "not_found");
+    this.inUse = errorCounter(registry, "in_use");
+  }
+
   @ExceptionHandler(DeviceNotFoundException.class)
   public ResponseEntity<Map<String, Object>> handleNotFound(DeviceNotFoundException ex) {
-    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildError(ex.getMessage(), 404));
+    notFound.increment();
+    return respond(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
   @ExceptionHandler(DeviceInUseException.class)
   public ResponseEntity<Map<String, Object>> handleInUse(DeviceInUseException ex) {
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(buildError(ex.getMessage(), 400));
+    inUse.increment();
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(InvalidQueryParameterException.class)
+  public ResponseEntity<Map<String, Object>> handleInvalidQueryParameter(
+      InvalidQueryParameterException ex) {
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<Map<String, Object>> handleInvalidRequest(InvalidRequestException ex) {
+    return respond(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(MethodArgumentNotValidException.class)
+  public ResponseEntity<Map<String, Object>> handleInvalidBody(MethodArgumentNotValidException ex) {
+    return respond(
+        HttpStatus.BAD_REQUEST,
+        String.join(
+            "; ",
+            ex.getBindingResult().getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .sorted()
+                .toList()));
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<Map<String, Object>> handlePreconditionFailed(
+      PreconditionFailedException ex) {
+    return respond(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+  }
+
+  @ExceptionHandler(ServiceBusyException.class)
+  public ResponseEntity<Map<String, Object>> handleServiceBusy(ServiceBusyException ex) {
+    return respond(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+  }
+
+  /**
+   * Answers a device changed by another request while this one was writing it: 412 when the client
+   * made the write conditional with {@code If-Match}, whose precondition no longer holds, and 409
+   * otherwise, since the client asked for no precondition and may simply retry.
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex, WebRequest request) {
+    HttpStatus status =
+        request.getHeader(HttpHeaders.IF_MATCH) != null
+            ? HttpStatus.PRECONDITION_FAILED
+            : HttpStatus.CONFLICT;
+    return respond(status, "Device was modified concurrently");
   }
 
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
-    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-        .body(buildError("Unexpected error: " + ex.getMessage(), 500));
+    return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error: " + ex.getMessage());
+  }
+
+  private static Counter errorCounter(MeterRegistry registry, String type) {
+    return Counter.builder(MetricsConfig.ERRORS_COUNTER)
+        .description("Domain errors returned to clients")
+        .tag("type", type)
+        .register(registry);
+  }
+
+  private ResponseEntity<Map<String, Object>> respond(HttpStatus status, String message) {
+    return ResponseEntity.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(buildError(message, status.value()));
   }
 
   private Map<String, Object> buildError(String message, int status) {
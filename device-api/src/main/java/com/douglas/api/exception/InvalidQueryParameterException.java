@@ -0,0 +1,8 @@
+package com.douglas.api.exception;
+
+/** Exception thrown when a listing parameter such as the sort or the cursor is not valid. */
+public class InvalidQueryParameterException extends RuntimeException {
+  public InvalidQueryParameterException(String message) {
+    super(message);
+  }
+}
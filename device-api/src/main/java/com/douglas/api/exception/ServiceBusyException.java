@@ -0,0 +1,8 @@
+package com.douglas.api.exception;
+
+/** Exception thrown when a request is refused because too many like it are already running. */
+public class ServiceBusyException extends RuntimeException {
+  public ServiceBusyException(String message) {
+    super(message);
+  }
+}
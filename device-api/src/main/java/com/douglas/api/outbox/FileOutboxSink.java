@@ -0,0 +1,80 @@
+package com.douglas.api.outbox;
+
+import com.douglas.api.config.OutboxProperties;
+import com.douglas.persistence.repository.OutboxEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends relayed events to {@code devices.outbox.file} as newline-delimited JSON, one object per
+ * event with its {@code id}, {@code deviceId}, {@code type}, {@code occurredAt} and {@code device}.
+ * Each batch is written with one call and forced to disk before it is acknowledged, so a crash can
+ * repeat events in the file but never lose them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink, DisposableBean {
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final FileChannel channel;
+
+  /**
+   * Opens the file for appending, creating it if needed.
+   *
+   * @param properties the file to append to
+   * @throws IOException if the file cannot be opened
+   */
+  public FileOutboxSink(OutboxProperties properties) throws IOException {
+    this.channel =
+        FileChannel.open(
+            Path.of(properties.file()),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+  }
+
+  @Override
+  public synchronized void publish(List<OutboxEvent> events) {
+    ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+    try {
+      try (JsonGenerator generator = jsonFactory.createGenerator(lines)) {
+        generator.setRootValueSeparator(null);
+        for (OutboxEvent event : events) {
+          generator.writeStartObject();
+          generator.writeNumberField("id", event.id());
+          generator.writeStringField("deviceId", event.deviceId().toString());
+          generator.writeStringField("type", event.type());
+          generator.writeStringField("occurredAt", event.occurredAt().toString());
+          generator.writeFieldName("device");
+          generator.writeRawValue(event.payload());
+          generator.writeEndObject();
+          generator.writeRaw('\n');
+        }
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /** Closes the file. */
+  @Override
+  public void destroy() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,50 @@
+package com.douglas.api.outbox;
+
+import com.douglas.api.config.OutboxProperties;
+import com.douglas.persistence.repository.OutboxEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the last {@code devices.outbox.memory-capacity} relayed events in memory, for local runs
+ * and tests that have no broker to publish to. Events are gone once they fall out of the buffer or
+ * the instance stops, so it is only chosen explicitly, by the {@code local} profile.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+  private final int capacity;
+  private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+  /**
+   * Creates an empty sink.
+   *
+   * @param properties the number of events to keep
+   */
+  public InMemoryOutboxSink(OutboxProperties properties) {
+    this.capacity = properties.memoryCapacity();
+  }
+
+  @Override
+  public synchronized void publish(List<OutboxEvent> batch) {
+    for (OutboxEvent event : batch) {
+      if (events.size() == capacity) {
+        events.removeFirst();
+      }
+      events.addLast(event);
+    }
+  }
+
+  /**
+   * Returns the events kept, oldest first.
+   *
+   * @return a copy of the kept events
+   */
+  public synchronized List<OutboxEvent> events() {
+    return List.copyOf(events);
+  }
+}
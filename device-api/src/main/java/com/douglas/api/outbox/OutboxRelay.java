@@ -0,0 +1,139 @@
+package com.douglas.api.outbox;
+
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.config.OutboxProperties;
+import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves device change events from the {@code device_outbox} table to the {@link OutboxSink}.
+ *
+ * <p>Every {@code devices.outbox.poll-interval}, the relay locks the oldest {@code
+ * devices.outbox.batch-size} undelivered events with {@code FOR UPDATE SKIP LOCKED}, publishes them
+ * and marks them delivered in the same transaction, and repeats while batches come back full, for
+ * at most {@link #MAX_DRAIN_TIME} so that other scheduled tasks get their turn. Several instances
+ * can relay at once: each locks a different batch. Events are published in outbox order within a
+ * batch; across concurrent relays, only the device version orders them.
+ *
+ * <p>Delivered events are kept for {@code devices.outbox.retention}, then deleted every {@code
+ * devices.outbox.prune-interval} in chunks of {@code devices.outbox.prune-chunk-size}, one short
+ * statement each, so that pruning never holds long locks.
+ *
+ * <p>There is no default sink: startup fails while relaying is enabled and {@code
+ * devices.outbox.sink} names none, rather than relaying events to a sink that loses them.
+ */
+@Component
+public class OutboxRelay {
+
+  /** Longest time one poll keeps relaying full batches. */
+  static final Duration MAX_DRAIN_TIME = Duration.ofSeconds(1);
+
+  private final DeviceRepository repository;
+  private final OutboxSink sink;
+  private final OutboxProperties properties;
+  private final TransactionTemplate transactions;
+  private final Counter relayed;
+  private final Counter failures;
+
+  /**
+   * Creates the relay and registers the {@value MetricsConfig#OUTBOX_RELAYED_COUNTER} and {@value
+   * MetricsConfig#OUTBOX_FAILURES_COUNTER} counters.
+   *
+   * @param repository the repository the outbox is read from
+   * @param sink the destination of the events, only optional when relaying is disabled
+   * @param properties the batch size and retention
+   * @param transactionManager the manager of the transaction each batch runs in
+   * @param registry the registry the metrics are published to
+   * @throws IllegalStateException if relaying is enabled without a sink
+   */
+  public OutboxRelay(
+      DeviceRepository repository,
+      Optional<OutboxSink> sink,
+      OutboxProperties properties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry) {
+    if (sink.isEmpty() && properties.relayEnabled()) {
+      throw new IllegalStateException(
+          "No outbox sink: set devices.outbox.sink, or devices.outbox.relay-enabled=false on"
+              + " instances that leave relaying to others");
+    }
+    this.repository = repository;
+    this.sink = sink.orElse(null);
+    this.properties = properties;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.relayed =
+        Counter.builder(MetricsConfig.OUTBOX_RELAYED_COUNTER)
+            .description("Device change events published from the outbox")
+            .register(registry);
+    this.failures =
+        Counter.builder(MetricsConfig.OUTBOX_FAILURES_COUNTER)
+            .description("Outbox batches that failed to publish and will be retried")
+            .register(registry);
+  }
+
+  /**
+   * Relays pending events until a batch comes back partly filled or {@link #MAX_DRAIN_TIME} has
+   * passed. A failed batch is rolled back and retried on the next poll.
+   */
+  @Scheduled(fixedDelayString = "${devices.outbox.poll-interval:PT1S}")
+  public void relay() {
+    if (!properties.relayEnabled()) {
+      return;
+    }
+    long deadline = System.nanoTime() + MAX_DRAIN_TIME.toNanos();
+    while (relayBatch() == properties.batchSize() && System.nanoTime() < deadline) {
+      // keep draining the backlog
+    }
+  }
+
+  /**
+   * Relays one batch in one transaction.
+   *
+   * @return the number of events published
+   */
+  int relayBatch() {
+    try {
+      int published =
+          transactions.execute(
+              status -> {
+                List<OutboxEvent> batch = repository.lockUndelivered(properties.batchSize());
+                if (batch.isEmpty()) {
+                  return 0;
+                }
+                sink.publish(batch);
+                repository.markDelivered(batch.stream().map(OutboxEvent::id).toList());
+                return batch.size();
+              });
+      relayed.increment(published);
+      return published;
+    } catch (RuntimeException ex) {
+      failures.increment();
+      throw ex;
+    }
+  }
+
+  /** Deletes the events delivered longer than {@code devices.outbox.retention} ago. */
+  @Scheduled(
+      fixedDelayString = "${devices.outbox.prune-interval:PT5M}",
+      initialDelayString = "${devices.outbox.prune-interval:PT5M}")
+  public void prune() {
+    if (!properties.relayEnabled()) {
+      return;
+    }
+    Instant deliveredBefore = Instant.now().minus(properties.retention());
+    while (repository.pruneDelivered(deliveredBefore, properties.pruneChunkSize())
+        == properties.pruneChunkSize()) {
+      // keep deleting chunks
+    }
+  }
+}
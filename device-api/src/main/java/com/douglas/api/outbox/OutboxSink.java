@@ -0,0 +1,26 @@
+package com.douglas.api.outbox;
+
+import com.douglas.persistence.repository.OutboxEvent;
+import java.util.List;
+
+/**
+ * Destination of the device change events relayed from the outbox, such as a message broker.
+ * Exactly one sink bean is used, selected by {@code devices.outbox.sink}: {@code memory} (the
+ * default) and {@code file} are provided for local testing; any other value expects the application
+ * to define its own sink.
+ *
+ * <p>Delivery is at least once: a batch is acknowledged only after {@link #publish(List)} returns,
+ * so a batch interrupted by a failure or a crash is published again, possibly in part twice.
+ * Consumers should deduplicate on the event id, or ignore events whose device version they have
+ * already seen.
+ */
+public interface OutboxSink {
+
+  /**
+   * Publishes a batch of events, in outbox order. Returning means every event was accepted;
+   * throwing leaves the whole batch undelivered, to be retried on the next poll.
+   *
+   * @param events the events to publish
+   */
+  void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,47 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.DeletionProperties;
+import com.douglas.persistence.repository.DeviceRepository;
+import java.time.Instant;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes the rows of deleted devices once {@code devices.deletion.retention} has passed.
+ *
+ * <p>Deleting a device only stamps its deletion time, so that the partial indexes serving live
+ * traffic drop it at once but the row stays until this job runs, every {@code
+ * devices.deletion.purge-interval}. Rows are removed oldest first in chunks of {@code
+ * devices.deletion.purge-chunk-size}, one short statement each, so that purging never holds long
+ * locks. Purging does not touch the rollups, the search vocabulary or the outbox, which already
+ * dropped the device when it was deleted, nor the state history, which outlives it.
+ */
+@Component
+public class DeletedDevicePurger {
+
+  private final DeviceRepository repository;
+  private final DeletionProperties properties;
+
+  /**
+   * Creates the purger.
+   *
+   * @param repository the repository deleted devices are removed from
+   * @param properties the retention and chunk size
+   */
+  public DeletedDevicePurger(DeviceRepository repository, DeletionProperties properties) {
+    this.repository = repository;
+    this.properties = properties;
+  }
+
+  /** Removes the devices deleted longer than {@code devices.deletion.retention} ago. */
+  @Scheduled(
+      fixedDelayString = "${devices.deletion.purge-interval:PT1H}",
+      initialDelayString = "${devices.deletion.purge-interval:PT1H}")
+  public void purge() {
+    Instant deletedBefore = Instant.now().minus(properties.retention());
+    while (repository.purgeDeleted(deletedBefore, properties.purgeChunkSize())
+        == properties.purgeChunkSize()) {
+      // keep removing chunks
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.service.PrefixIndex.Completion;
+import com.douglas.persistence.repository.DeviceRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory prefix completion of device brands and names, ranked by how many devices use them, so
+ * that type-ahead never queries the database.
+ *
+ * <p>Each field has a {@link PrefixIndex} built from the database once the application context is
+ * initialized and rebuilt every {@code devices.autocomplete.refresh-interval}. In between, it
+ * follows every single-device create, change and delete made by {@link DeviceService} once its
+ * transaction has committed: frequencies of indexed terms are updated in place, and terms the index
+ * does not have yet are counted in a small side map, bounded by {@value #MAX_PENDING_TERMS}
+ * entries, that is merged into lookups until the next rebuild. Changes made elsewhere, such as bulk
+ * deletes or other instances, show up after the next rebuild.
+ *
+ * <p>Brands are read from the creation rollups and names from the per-name counts, both kept
+ * current by triggers, so a rebuild never scans {@code devices}. Only the {@code
+ * devices.autocomplete.max-terms} most frequent names are kept, which bounds memory when most
+ * devices have a distinct name.
+ */
+@Component
+public class DeviceAutocomplete implements SmartInitializingSingleton {
+
+  /** Maximum number of new terms per field counted between two rebuilds. */
+  static final int MAX_PENDING_TERMS = 10_000;
+
+  /** Device attribute to complete. */
+  public enum Field {
+    BRAND,
+    NAME
+  }
+
+  private static final Comparator<Completion> MOST_FREQUENT_FIRST =
+      Comparator.comparingLong(Completion::count)
+          .reversed()
+          .thenComparing(Completion::term, String.CASE_INSENSITIVE_ORDER);
+
+  private final DeviceRepository repository;
+  private final AutocompleteProperties properties;
+  private final Terms brands = new Terms();
+  private final Terms names = new Terms();
+  private volatile Instant refreshedAt;
+
+  /**
+   * Creates the completion indexes, empty until the first refresh.
+   *
+   * @param repository the repository the indexes are built from
+   * @param properties the number of names kept and the result limits
+   */
+  public DeviceAutocomplete(DeviceRepository repository, AutocompleteProperties properties) {
+    this.repository = repository;
+    this.properties = properties;
+  }
+
+  /**
+   * Builds the indexes from the database once every singleton has been created, unless {@code
+   * devices.autocomplete.build-on-startup} is off.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (properties.buildOnStartup()) {
+      refresh();
+    }
+  }
+
+  /** Replaces the indexes with the current brands and names from the database. */
+  @Scheduled(
+      fixedDelayString = "${devices.autocomplete.refresh-interval:PT10M}",
+      initialDelayString = "${devices.autocomplete.refresh-interval:PT10M}")
+  public void refresh() {
+    brands.replace(PrefixIndex.of(repository.countByBrand(properties.maxTerms())));
+    names.replace(PrefixIndex.of(repository.countByName(properties.maxTerms())));
+    refreshedAt = Instant.now();
+  }
+
+  /**
+   * Returns the most used values of a field starting with a prefix, ignoring case.
+   *
+   * @param field the attribute to complete
+   * @param prefix the start of the values; empty for the most used values overall
+   * @param limit the maximum number of values to return
+   * @return the values and their number of devices, most used first
+   */
+  public List<Completion> complete(Field field, String prefix, int limit) {
+    return terms(field).complete(prefix, limit);
+  }
+
+  /**
+   * Records a new device.
+   *
+   * @param name its name
+   * @param brand its brand
+   */
+  public void created(String name, String brand) {
+    names.add(name, 1);
+    brands.add(brand, 1);
+  }
+
+  /**
+   * Records a change of name or brand; does nothing for values that did not change.
+   *
+   * @param previousName the name before the change
+   * @param previousBrand the brand before the change
+   * @param name the name after the change
+   * @param brand the brand after the change
+   */
+  public void changed(String previousName, String previousBrand, String name, String brand) {
+    if (!previousName.equals(name)) {
+      names.add(previousName, -1);
+      names.add(name, 1);
+    }
+    if (!previousBrand.equals(brand)) {
+      brands.add(previousBrand, -1);
+      brands.add(brand, 1);
+    }
+  }
+
+  /**
+   * Records a deleted device.
+   *
+   * @param name its name
+   * @param brand its brand
+   */
+  public void deleted(String name, String brand) {
+    names.add(name, -1);
+    brands.add(brand, -1);
+  }
+
+  /**
+   * Returns when the indexes were last rebuilt from the database.
+   *
+   * @return the time of the last refresh, or {@code null} before the first one
+   */
+  public Instant refreshedAt() {
+    return refreshedAt;
+  }
+
+  private Terms terms(Field field) {
+    return field == Field.BRAND ? brands : names;
+  }
+
+  /** The index of one field and the terms created since it was built. */
+  private static final class Terms {
+
+    private volatile PrefixIndex index = PrefixIndex.empty();
+    private volatile ConcurrentSkipListMap<String, LongAdder> pending = newPending();
+
+    void replace(PrefixIndex rebuilt) {
+      index = rebuilt;
+      pending = newPending();
+    }
+
+    void add(String term, long delta) {
+      if (index.add(term, delta)) {
+        return;
+      }
+      ConcurrentSkipListMap<String, LongAdder> current = pending;
+      LongAdder counter = current.get(term);
+      if (counter == null && delta > 0 && current.size() < MAX_PENDING_TERMS) {
+        counter = current.computeIfAbsent(term, key -> new LongAdder());
+      }
+      if (counter != null) {
+        counter.add(delta);
+      }
+    }
+
+    List<Completion> complete(String prefix, int limit) {
+      List<Completion> completions = index.complete(prefix, limit);
+      ConcurrentNavigableMap<String, LongAdder> created = pending.tailMap(prefix);
+      if (created.isEmpty()) {
+        return completions;
+      }
+      List<Completion> merged = new ArrayList<>(completions);
+      for (Map.Entry<String, LongAdder> entry : created.entrySet()) {
+        String term = entry.getKey();
+        if (!term.regionMatches(true, 0, prefix, 0, prefix.length())) {
+          break;
+        }
+        long count = entry.getValue().sum();
+        if (count > 0) {
+          merged.add(new Completion(term, count));
+        }
+      }
+      merged.sort(MOST_FREQUENT_FIRST);
+      return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : merged;
+    }
+
+    private static ConcurrentSkipListMap<String, LongAdder> newPending() {
+      return new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+  }
+}
@@ -0,0 +1,301 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.ExportProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.exception.ServiceBusyException;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.repository.DeviceExportRange;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exports devices as CSV for the {@code GET /devices/export} endpoint, in constant memory whatever
+ * the size of the table.
+ *
+ * <p>The table is split into {@code devices.export.parallelism} block ranges of one shared
+ * snapshot, each read by {@code COPY} on its own connection and on a thread of a pool owned by the
+ * exporter. Ranges are encoded as CSV by PostgreSQL and handed to the calling thread in chunks of
+ * {@code devices.export.chunk-size} bytes through a bounded queue; the calling thread writes them
+ * to the response as they arrive, so devices come out grouped by range rather than in any order,
+ * and a slow client stalls the readers instead of growing the queue.
+ *
+ * <p>At most {@code devices.export.max-concurrent} exports run at once, each with readers of its
+ * own, so that one export never waits for the ranges of another. Neither side waits for the other
+ * longer than {@code devices.export.stall-timeout}: a client that stops reading makes the readers
+ * give up, and readers that stop producing make the response give up, so a dead export releases its
+ * snapshot and connections instead of holding them until the client goes away.
+ */
+@Service
+public class DeviceExporter implements DisposableBean {
+
+  /** First line of every export; its columns are also the ones the import reads. */
+  static final String CSV_HEADER = "id,name,brand,state,creationTime,version\n";
+
+  /** Put by each range once it is read, whether it succeeded or not. */
+  private static final byte[] END_OF_RANGE = new byte[0];
+
+  private final DeviceRepository repository;
+  private final ExportProperties properties;
+  private final ExecutorService readers;
+  private final Semaphore running;
+
+  /**
+   * Creates the exporter with its own pool of {@code devices.export.parallelism} reader threads per
+   * concurrent export.
+   *
+   * @param repository the repository devices are read from
+   * @param properties the number of ranges and exports run at a time, the size of the chunks and
+   *     how long to wait for them
+   */
+  @Autowired
+  public DeviceExporter(DeviceRepository repository, ExportProperties properties) {
+    this(
+        repository,
+        properties,
+        Executors.newFixedThreadPool(
+            properties.parallelism() * properties.maxConcurrent(), readerThreads()));
+  }
+
+  /**
+   * Creates the exporter on the given reader pool.
+   *
+   * @param repository the repository devices are read from
+   * @param properties the number of ranges and exports run at a time, the size of the chunks and
+   *     how long to wait for them
+   * @param readers the threads reading the ranges
+   */
+  DeviceExporter(
+      DeviceRepository repository, ExportProperties properties, ExecutorService readers) {
+    this.repository = repository;
+    this.properties = properties;
+    this.readers = readers;
+    this.running = new Semaphore(properties.maxConcurrent());
+  }
+
+  /**
+   * Reserves one of the {@code devices.export.max-concurrent} exports, to be passed to {@link
+   * #exportCsv}. Reserving before the response is committed lets a busy server still answer with an
+   * error status.
+   *
+   * @return the reservation, released by the export or by closing it
+   * @throws ServiceBusyException if as many exports as allowed are already running
+   */
+  public Permit reserve() {
+    if (!running.tryAcquire()) {
+      throw new ServiceBusyException("Too many exports in progress; retry later");
+    }
+    return new Permit(running);
+  }
+
+  /**
+   * Writes a header and every device not deleted that matches the filter to {@code out}, as CSV.
+   * The devices are those of a single snapshot taken when the export starts. A failure to read a
+   * range stops the export, leaving {@code out} truncated. The permit is released on return.
+   *
+   * @param permit the reservation taken by {@link #reserve}
+   * @param filter names, brands and states to match
+   * @param out the destination stream; it is neither flushed nor closed
+   * @return the number of devices written
+   * @throws UncheckedIOException if writing to {@code out} fails, e.g. when the client disconnects
+   *     or stops reading
+   */
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "export"},
+      histogram = true)
+  public long exportCsv(Permit permit, DeviceFilter filter, OutputStream out) {
+    try (permit) {
+      out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+      return repository.withExportSnapshot(
+          properties.parallelism(), ranges -> writeRanges(ranges, filter, out));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    readers.shutdownNow();
+  }
+
+  /** Reads the ranges on the reader pool and writes their chunks as they come. */
+  private long writeRanges(List<DeviceExportRange> ranges, DeviceFilter filter, OutputStream out) {
+    BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(2 * properties.parallelism());
+    long timeoutNanos = properties.stallTimeout().toNanos();
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    AtomicLong devices = new AtomicLong();
+    List<Future<?>> tasks = new ArrayList<>(ranges.size());
+    for (DeviceExportRange range : ranges) {
+      tasks.add(
+          readers.submit(
+              () -> {
+                try (ChunkOutputStream chunked =
+                    new ChunkOutputStream(chunks, properties.chunkSize(), timeoutNanos)) {
+                  devices.addAndGet(repository.exportRange(range, filter, chunked));
+                } catch (IOException ex) {
+                  failure.compareAndSet(null, new UncheckedIOException(ex));
+                } catch (RuntimeException ex) {
+                  failure.compareAndSet(null, ex);
+                } finally {
+                  putEnd(chunks, timeoutNanos);
+                }
+              }));
+    }
+
+    try {
+      int remaining = ranges.size();
+      while (remaining > 0 && failure.get() == null) {
+        byte[] chunk = chunks.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (chunk == null) {
+          throw new IllegalStateException(
+              "Export stalled: no devices read for " + properties.stallTimeout());
+        } else if (chunk == END_OF_RANGE) {
+          remaining--;
+        } else {
+          out.write(chunk);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while exporting devices", ex);
+    } finally {
+      // Stops the ranges still being read when the export failed; a no-op once all are read.
+      tasks.forEach(task -> task.cancel(true));
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return devices.get();
+  }
+
+  /**
+   * Tells the writer a range is done, unless the export was cancelled meanwhile. Once the writer is
+   * gone the queue may stay full, so this gives up after a while rather than keep the thread.
+   */
+  private static void putEnd(BlockingQueue<byte[]> chunks, long timeoutNanos) {
+    try {
+      chunks.offer(END_OF_RANGE, timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ThreadFactory readerThreads() {
+    AtomicInteger count = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, "device-export-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * A reservation of one concurrent export from {@link #reserve}. Closing it releases the export
+   * slot; closing it again does nothing.
+   */
+  public static final class Permit implements AutoCloseable {
+
+    private final Semaphore running;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Semaphore running) {
+      this.running = running;
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        running.release();
+      }
+    }
+  }
+
+  /**
+   * Collects the rows of one range into chunks and puts each full chunk on the queue, blocking
+   * while the queue is full, for up to the stall timeout. Chunks of different ranges are written in
+   * any order, so a chunk must only end between rows: each write is taken to hold whole rows, as
+   * pgjdbc writes one row per {@code COPY} message, and is never split across chunks. The last,
+   * partial chunk is put on close.
+   */
+  private static final class ChunkOutputStream extends OutputStream {
+
+    private final BlockingQueue<byte[]> chunks;
+    private final byte[] buffer;
+    private final long timeoutNanos;
+    private int size;
+
+    ChunkOutputStream(BlockingQueue<byte[]> chunks, int chunkSize, long timeoutNanos) {
+      this.chunks = chunks;
+      this.buffer = new byte[Math.max(1, chunkSize)];
+      this.timeoutNanos = timeoutNanos;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      if (size + length > buffer.length) {
+        flushChunk();
+        if (length > buffer.length) {
+          put(Arrays.copyOfRange(bytes, offset, offset + length));
+          return;
+        }
+      }
+      System.arraycopy(bytes, offset, buffer, size, length);
+      size += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+      flushChunk();
+    }
+
+    private void flushChunk() throws IOException {
+      if (size > 0) {
+        put(Arrays.copyOf(buffer, size));
+        size = 0;
+      }
+    }
+
+    private void put(byte[] chunk) throws IOException {
+      boolean taken;
+      try {
+        taken = chunks.offer(chunk, timeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Export cancelled");
+      }
+      if (!taken) {
+        throw new IOException("Export stalled: the client stopped reading");
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.HistoryProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the monthly partitions of the device state history. The history table has no default
+ * partition, so a state change in a month without a partition would fail; partitions are therefore
+ * created {@code devices.history.partitions-ahead} months in advance, on startup and every {@code
+ * devices.history.maintenance-interval}. With {@code devices.history.retention-months} set, older
+ * months are detached concurrently, which never blocks writers, and left as standalone tables to be
+ * archived or dropped.
+ *
+ * <p>The months covered after the current one are published as {@value
+ * MetricsConfig#HISTORY_PARTITIONS_AHEAD_GAUGE}, to alert well before writes would fail.
+ */
+@Component
+public class DeviceHistoryPartitions implements SmartInitializingSingleton {
+
+  private final DeviceRepository repository;
+  private final HistoryProperties properties;
+  private final Clock clock;
+  private volatile Set<YearMonth> partitions = Set.of();
+
+  /**
+   * Creates the maintenance job.
+   *
+   * @param repository the repository managing the partitions
+   * @param properties how many months to prepare and to keep
+   * @param registry the registry the partition gauge is published to
+   */
+  @Autowired
+  public DeviceHistoryPartitions(
+      DeviceRepository repository, HistoryProperties properties, MeterRegistry registry) {
+    this(repository, properties, registry, Clock.systemUTC());
+  }
+
+  DeviceHistoryPartitions(
+      DeviceRepository repository,
+      HistoryProperties properties,
+      MeterRegistry registry,
+      Clock clock) {
+    this.repository = repository;
+    this.properties = properties;
+    this.clock = clock;
+    Gauge.builder(
+            MetricsConfig.HISTORY_PARTITIONS_AHEAD_GAUGE,
+            this,
+            DeviceHistoryPartitions::monthsAhead)
+        .description("Months of state history partitions after the current one")
+        .register(registry);
+  }
+
+  /** Prepares the partitions once every singleton has been created. */
+  @Override
+  public void afterSingletonsInstantiated() {
+    repository.createHistoryPartitions(properties.partitionsAhead());
+    partitions = Set.copyOf(repository.findHistoryPartitions());
+  }
+
+  /** Creates the upcoming partitions and detaches the expired ones. */
+  @Scheduled(
+      fixedDelayString = "${devices.history.maintenance-interval:PT6H}",
+      initialDelayString = "${devices.history.maintenance-interval:PT6H}")
+  public void maintain() {
+    repository.createHistoryPartitions(properties.partitionsAhead());
+    detachExpired();
+    partitions = Set.copyOf(repository.findHistoryPartitions());
+  }
+
+  /**
+   * Detaches the partitions of the months before the retention window.
+   *
+   * @return the detached months, oldest first
+   */
+  public List<YearMonth> detachExpired() {
+    if (properties.retentionMonths() <= 0) {
+      return List.of();
+    }
+    YearMonth oldestKept = currentMonth().minusMonths(properties.retentionMonths());
+    List<YearMonth> expired =
+        repository.findHistoryPartitions().stream()
+            .filter(month -> month.isBefore(oldestKept))
+            .toList();
+    expired.forEach(repository::detachHistoryPartition);
+    return expired;
+  }
+
+  /**
+   * Counts the months after the current one that have a partition, up to the first gap, as of the
+   * last maintenance. The count goes down as months pass even when maintenance stops running.
+   *
+   * @return the months covered ahead, 0 when next month's partition is missing, or -1 when the
+   *     current month's is
+   */
+  public int monthsAhead() {
+    Set<YearMonth> known = partitions;
+    YearMonth month = currentMonth();
+    if (!known.contains(month)) {
+      return -1;
+    }
+    int ahead = 0;
+    while (known.contains(month.plusMonths(ahead + 1L))) {
+      ahead++;
+    }
+    return ahead;
+  }
+
+  private YearMonth currentMonth() {
+    return YearMonth.now(clock.withZone(ZoneOffset.UTC));
+  }
+}
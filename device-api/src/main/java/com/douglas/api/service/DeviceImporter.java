@@ -0,0 +1,90 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.ImportProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.dto.DeviceImportResultDto;
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.streaming.DeviceImportFormat;
+import com.douglas.api.streaming.DeviceImportReader;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.persistence.repository.DeviceImportCounts;
+import com.douglas.persistence.repository.DeviceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import java.io.InputStream;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads devices in bulk, from the {@code POST /devices/import} endpoint or the {@code import}
+ * command. Input is validated while it streams into PostgreSQL through {@code COPY} and merged into
+ * {@code devices} with one statement, so tens of millions of devices load without going through
+ * Hibernate or holding them in memory.
+ */
+@Service
+public class DeviceImporter {
+
+  private final DeviceRepository repository;
+  private final ObjectMapper objectMapper;
+  private final ImportProperties properties;
+  private final DeviceStateCounters stateCounters;
+  private final DeviceEventBroadcaster events;
+  private final DeviceRequestValidator validator;
+
+  /**
+   * Creates the importer.
+   *
+   * @param repository the repository devices are copied into
+   * @param objectMapper the mapper parsing NDJSON input
+   * @param properties the number of rejections reported
+   * @param stateCounters the live per-state counters, reconciled after an import
+   * @param events the change feed, told to resync after an import
+   * @param validator the constraint checks applied to each row
+   */
+  public DeviceImporter(
+      DeviceRepository repository,
+      ObjectMapper objectMapper,
+      ImportProperties properties,
+      DeviceStateCounters stateCounters,
+      DeviceEventBroadcaster events,
+      DeviceRequestValidator validator) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+    this.stateCounters = stateCounters;
+    this.events = events;
+    this.validator = validator;
+  }
+
+  /**
+   * Imports every valid device of the input in one transaction. Invalid rows are rejected and
+   * reported without stopping the import; rows carrying the id of an existing device are skipped.
+   * Like bulk changes, an import reconciles the state counters and tells change feed subscribers to
+   * reload rather than publishing one event per device; the autocomplete index picks the new
+   * devices up at its next rebuild.
+   *
+   * @param format the format of the input
+   * @param input the CSV or NDJSON input, read once
+   * @return the number of imported, duplicate and rejected rows, and the first rejected rows
+   * @throws com.douglas.contract.exception.InvalidRequestException if a CSV header lacks a required
+   *     column
+   */
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "import"},
+      histogram = true)
+  public DeviceImportResultDto importDevices(DeviceImportFormat format, InputStream input) {
+    DeviceImportReader reader =
+        new DeviceImportReader(
+            format, input, objectMapper, validator, properties.reportedRejections());
+    DeviceImportCounts counts = repository.importDevices(reader);
+    if (counts.inserted() > 0) {
+      stateCounters.reconcile();
+      events.resync("import");
+    }
+    return new DeviceImportResultDto(
+        counts.inserted(),
+        counts.staged() - counts.inserted(),
+        reader.rejected(),
+        reader.rejections());
+  }
+}
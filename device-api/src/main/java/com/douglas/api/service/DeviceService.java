@@ -1,29 +1,113 @@
 package com.douglas.api.service;
 
-import com.douglas.api.dto.DevicePatchDto;
-import com.douglas.api.dto.DeviceRequestDto;
-import com.douglas.api.dto.DeviceResponseDto;
-import com.douglas.api.exception.DeviceInUseException;
-import com.douglas.api.exception.DeviceNotFoundException;
-import com.douglas.api.mapper.DeviceDtoMapper;
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.config.BatchProperties;
+import com.douglas.api.config.CacheConfig;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.config.PaginationProperties;
+import com.douglas.api.config.SearchProperties;
+import com.douglas.api.config.StreamingProperties;
+import com.douglas.api.dto.DeviceHistoryPageDto;
+import com.douglas.api.dto.DeviceSearchDto;
+import com.douglas.api.dto.DeviceSearchHitDto;
+import com.douglas.api.dto.DeviceStateChangeDto;
+import com.douglas.api.dto.DeviceStateCountsDto;
+import com.douglas.api.dto.DeviceStatsBucketDto;
+import com.douglas.api.dto.DeviceStatsDto;
+import com.douglas.api.dto.DeviceSuggestionDto;
+import com.douglas.api.dto.DeviceSuggestionsDto;
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.exception.InvalidQueryParameterException;
+import com.douglas.contract.dto.DeviceBatchItemResultDto;
+import com.douglas.contract.dto.DeviceBatchItemResultDto.Status;
+import com.douglas.contract.dto.DeviceBatchResponseDto;
+import com.douglas.contract.dto.DeviceBulkResultDto;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
 import com.douglas.core.domain.Device;
 import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceHistoryCursor;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.core.query.DeviceStatsGranularity;
 import com.douglas.persistence.entity.DeviceEntity;
 import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.BulkResult;
 import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.DeviceSearchResult;
+import com.douglas.persistence.repository.DeviceStateChange;
+import com.douglas.persistence.repository.DeviceUpdate;
+import io.micrometer.core.annotation.Timed;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-/** Service responsible for business logic and device operations. */
+/**
+ * Service responsible for business logic and device operations. Single-device reads go through the
+ * {@link CacheConfig#DEVICES_CACHE} cache, which every single-device write refreshes or evicts and
+ * every bulk write clears. Each operation is timed as {@link MetricsConfig#OPERATIONS_TIMER}, and
+ * every write is reported to the {@link DeviceStateCounters}, the {@link DeviceAutocomplete} index
+ * and the {@link DeviceEventBroadcaster} change feed.
+ *
+ * <p>Queries run in read-only transactions: Hibernate opens the session read-only with flush mode
+ * {@code MANUAL}, so it neither keeps dirty-checking snapshots nor flushes, and the JDBC connection
+ * is marked read-only, which pgjdbc turns into {@code BEGIN READ ONLY}.
+ */
 @Service
 public class DeviceService {
 
+  /** Maximum number of time buckets a statistics request may span. */
+  static final int MAX_STATS_BUCKETS = 1000;
+
+  /**
+   * Shortest search query accepted. Trigram indexes cannot narrow down a pattern with fewer than
+   * three characters, so shorter queries would read the whole index.
+   */
+  static final int MIN_SEARCH_LENGTH = 3;
+
+  /** Longest search query accepted. */
+  static final int MAX_SEARCH_LENGTH = 100;
+
+  /** Longest autocomplete prefix accepted; no brand or name is longer. */
+  static final int MAX_PREFIX_LENGTH = 255;
+
   private final DeviceRepository repository;
   private final DeviceMapper entityMapper;
   private final DeviceDtoMapper dtoMapper;
+  private final PaginationProperties pagination;
+  private final StreamingProperties streaming;
+  private final BatchProperties batch;
+  private final SearchProperties search;
+  private final DeviceStateCounters stateCounters;
+  private final AutocompleteProperties autocompleteProperties;
+  private final DeviceAutocomplete autocomplete;
+  private final DeviceEventBroadcaster events;
+  private final DeviceRequestValidator validator;
 
   /**
    * Constructs a {@code DeviceService} with the required dependencies.
@@ -31,12 +115,41 @@ public class DeviceService {
    * @param repository the repository for persisting and retrieving {@link DeviceEntity} objects
    * @param entityMapper the mapper for converting between persistence entities and domain models
    * @param dtoMapper the mapper for converting between domain models and DTO representations
+   * @param pagination the default and maximum page sizes for device listings
+   * @param streaming the cursor settings for streamed device listings
+   * @param batch the chunk size and request limit for bulk device creation
+   * @param search the result limits and candidate pool of free-text search
+   * @param stateCounters the live per-state counters, updated by every write
+   * @param autocompleteProperties the result limits of autocomplete
+   * @param autocomplete the in-memory brand and name completion index, updated by every write
+   * @param events the change feed every write is published to
+   * @param validator the constraint checks applied to bulk items and full updates
    */
   public DeviceService(
-      DeviceRepository repository, DeviceMapper entityMapper, DeviceDtoMapper dtoMapper) {
+      DeviceRepository repository,
+      DeviceMapper entityMapper,
+      DeviceDtoMapper dtoMapper,
+      PaginationProperties pagination,
+      StreamingProperties streaming,
+      BatchProperties batch,
+      SearchProperties search,
+      DeviceStateCounters stateCounters,
+      AutocompleteProperties autocompleteProperties,
+      DeviceAutocomplete autocomplete,
+      DeviceEventBroadcaster events,
+      DeviceRequestValidator validator) {
     this.repository = repository;
     this.entityMapper = entityMapper;
     this.dtoMapper = dtoMapper;
+    this.pagination = pagination;
+    this.streaming = streaming;
+    this.batch = batch;
+    this.search = search;
+    this.stateCounters = stateCounters;
+    this.autocompleteProperties = autocompleteProperties;
+    this.autocomplete = autocomplete;
+    this.events = events;
+    this.validator = validator;
   }
 
   /**
@@ -45,6 +158,11 @@ public class DeviceService {
    * @param request DTO containing the device's name, brand, and state
    * @return the created device as a {@link DeviceResponseDto}
    */
+  @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#result.id()")
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "create"},
+      histogram = true)
   public DeviceResponseDto createDevice(DeviceRequestDto request) {
     DeviceEntity entity = new DeviceEntity();
     entity.setId(UUID.randomUUID());
@@ -54,130 +172,678 @@ public class DeviceService {
     entity.setCreationTime(Instant.now());
 
     DeviceEntity savedEntity = repository.save(entity);
+    afterCommit(
+        () -> {
+          stateCounters.created(savedEntity.getState());
+          autocomplete.created(savedEntity.getName(), savedEntity.getBrand());
+        });
     Device savedDevice = entityMapper.toDomain(savedEntity);
-    return dtoMapper.toResponseDto(savedDevice);
+    DeviceResponseDto created = dtoMapper.toResponseDto(savedDevice);
+    events.created(created);
+    return created;
   }
 
   /**
-   * Retrieves a device by its unique identifier.
+   * Creates many devices at once. Each request is validated on its own and invalid ones are
+   * reported without affecting the others. Valid devices are inserted in chunks of {@link
+   * BatchProperties#chunkSize()}, one transaction and one JDBC batch per chunk; if a chunk fails,
+   * its devices are reported as failed and the remaining chunks are still inserted.
+   *
+   * @param requests the devices to create
+   * @return the number of created, rejected and failed devices, plus the outcome of each item in
+   *     request order
+   * @throws InvalidRequestException if the request is empty or larger than {@link
+   *     BatchProperties#maxItems()}
+   */
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "create_batch"},
+      histogram = true)
+  public DeviceBatchResponseDto createDevices(List<DeviceRequestDto> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new InvalidRequestException("Batch must contain at least one device");
+    }
+    if (requests.size() > batch.maxItems()) {
+      throw new InvalidRequestException(
+          "Batch must not contain more than " + batch.maxItems() + " devices");
+    }
+
+    DeviceBatchItemResultDto[] results = new DeviceBatchItemResultDto[requests.size()];
+    List<DeviceEntity> chunk = new ArrayList<>(batch.chunkSize());
+    List<Integer> chunkIndexes = new ArrayList<>(batch.chunkSize());
+    for (int i = 0; i < requests.size(); i++) {
+      DeviceRequestDto request = requests.get(i);
+      List<String> violations = validator.violations(request);
+      if (!violations.isEmpty()) {
+        results[i] =
+            new DeviceBatchItemResultDto(i, Status.REJECTED, null, String.join("; ", violations));
+        continue;
+      }
+      DeviceEntity entity = new DeviceEntity();
+      entity.setId(UUID.randomUUID());
+      entity.setName(request.name());
+      entity.setBrand(request.brand());
+      entity.setState(request.state());
+      entity.setCreationTime(Instant.now());
+      chunk.add(entity);
+      chunkIndexes.add(i);
+      if (chunk.size() == batch.chunkSize()) {
+        insertChunk(chunk, chunkIndexes, results);
+        chunk = new ArrayList<>(batch.chunkSize());
+        chunkIndexes = new ArrayList<>(batch.chunkSize());
+      }
+    }
+    if (!chunk.isEmpty()) {
+      insertChunk(chunk, chunkIndexes, results);
+    }
+
+    List<DeviceBatchItemResultDto> items = Arrays.asList(results);
+    return new DeviceBatchResponseDto(
+        count(items, Status.CREATED),
+        count(items, Status.REJECTED),
+        count(items, Status.FAILED),
+        items);
+  }
+
+  /**
+   * Retrieves a device by its unique identifier. The row is projected straight into the response
+   * DTO, without loading a managed entity.
    *
    * @param id the device's UUID
    * @return the matching device as a {@link DeviceResponseDto}
    * @throws DeviceNotFoundException if no device is found with the given id
    */
+  @Cacheable(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "get"},
+      histogram = true)
   public DeviceResponseDto getDeviceById(UUID id) {
-    DeviceEntity entity =
-        repository.findById(id).orElseThrow(() -> new DeviceNotFoundException(id));
+    return repository
+        .findViewById(id, DeviceResponseDto.class)
+        .orElseThrow(() -> new DeviceNotFoundException(id));
+  }
+
+  /**
+   * Retrieves one page of devices matching the given filter. Pages are located with a keyset seek
+   * on the sort key and the device id, so fetching a deep page costs the same as the first one.
+   * Rows are projected straight into response DTOs, without loading managed entities.
+   *
+   * @param filter names, brands and states to match; an empty filter matches every device
+   * @param sort optional ordering ({@code creationTime}, {@code -creationTime}, {@code name} or
+   *     {@code -name}); defaults to the cursor's ordering, or to {@code creationTime}
+   * @param cursor optional opaque cursor returned as {@code next} by the previous page
+   * @param limit optional page size, bounded by the configured maximum
+   * @return the page of devices and the cursor of the following page, if any
+   * @throws InvalidQueryParameterException if the sort or the cursor is not valid
+   */
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "list"},
+      histogram = true)
+  public DevicePageDto listDevices(DeviceFilter filter, String sort, String cursor, Integer limit) {
+    DeviceCursor after = cursor == null ? null : decodeCursor(cursor);
+    DeviceSort order = resolveSort(sort, after);
+    int pageSize = pagination.resolve(limit);
+
+    List<DeviceResponseDto> rows =
+        repository.findPage(filter, order, after, pageSize + 1, DeviceResponseDto.class);
+
+    List<DeviceResponseDto> items = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    String next = null;
+    if (rows.size() > pageSize) {
+      DeviceResponseDto last = items.getLast();
+      next = DeviceCursor.of(order, last.id(), last.name(), last.creationTime()).encode();
+    }
+    return new DevicePageDto(items, next);
+  }
+
+  /**
+   * Retrieves one page of a device's state history, newest first: its initial state and every state
+   * change since, including those made by bulk changes. The history outlives the device, so deleted
+   * devices keep theirs until its partitions are detached.
+   *
+   * @param id the device's UUID
+   * @param cursor optional opaque cursor returned as {@code next} by the previous page
+   * @param limit optional page size, bounded by the configured maximum
+   * @return the page of state changes and the cursor of the following page, if any
+   * @throws DeviceNotFoundException if the device has no history and does not exist
+   * @throws InvalidQueryParameterException if the cursor is not valid
+   */
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "history"},
+      histogram = true)
+  public DeviceHistoryPageDto getStateHistory(UUID id, String cursor, Integer limit) {
+    DeviceHistoryCursor after = cursor == null ? null : decodeHistoryCursor(cursor);
+    int pageSize = pagination.resolve(limit);
+
+    List<DeviceStateChange> rows = repository.findHistory(id, after, pageSize + 1);
+    if (rows.isEmpty() && after == null && !repository.existsById(id)) {
+      throw new DeviceNotFoundException(id);
+    }
 
-    Device device = entityMapper.toDomain(entity);
-    return dtoMapper.toResponseDto(device);
+    List<DeviceStateChange> changes = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    String next = null;
+    if (rows.size() > pageSize) {
+      DeviceStateChange last = changes.getLast();
+      next = new DeviceHistoryCursor(last.changedAt(), last.version()).encode();
+    }
+    List<DeviceStateChangeDto> items =
+        changes.stream()
+            .map(
+                change ->
+                    new DeviceStateChangeDto(
+                        change.previousState(),
+                        change.state(),
+                        change.version(),
+                        change.changedAt()))
+            .toList();
+    return new DeviceHistoryPageDto(items, next);
   }
 
   /**
-   * Retrieves all devices matching the optional filter parameters.
+   * Searches devices by name and brand. Devices whose name or brand contains the query,
+   * case-insensitively, come first; when there are fewer than the limit, devices matching the
+   * closest correctly spelt words are added. Both are ranked by trigram similarity to the query and
+   * served by {@code pg_trgm} GIN indexes, so the cost does not grow with the number of devices.
+   * Each lookup only ranks the first {@code devices.search.candidates} devices found, and the
+   * result is marked truncated when more matched.
    *
-   * @param name optional device name to filter by
-   * @param brand optional device brand to filter by
-   * @param state optional device state to filter by
-   * @return list of devices matching the filters
+   * @param query the text to look for; surrounding whitespace is trimmed and inner whitespace
+   *     collapsed
+   * @param limit optional maximum number of results, bounded by the configured maximum
+   * @return the query as searched and the matching devices
+   * @throws InvalidQueryParameterException if the query is missing, shorter than {@value
+   *     #MIN_SEARCH_LENGTH} or longer than {@value #MAX_SEARCH_LENGTH} characters
    */
-  public List<DeviceResponseDto> listDevices(String name, String brand, DeviceState state) {
-    List<DeviceEntity> entities = repository.findAll();
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "search"},
+      histogram = true)
+  public DeviceSearchDto searchDevices(String query, Integer limit) {
+    String text = query == null ? "" : query.strip().replaceAll("\\s+", " ");
+    if (text.length() < MIN_SEARCH_LENGTH || text.length() > MAX_SEARCH_LENGTH) {
+      throw new InvalidQueryParameterException(
+          "q must have between " + MIN_SEARCH_LENGTH + " and " + MAX_SEARCH_LENGTH + " characters");
+    }
+    int resultLimit = search.resolve(limit);
 
-    return entities.stream()
-        .filter(d -> name == null || d.getName().equalsIgnoreCase(name))
-        .filter(d -> brand == null || d.getBrand().equalsIgnoreCase(brand))
-        .filter(d -> state == null || d.getState() == state)
-        .map(entityMapper::toDomain)
-        .map(dtoMapper::toResponseDto)
-        .collect(Collectors.toList());
+    DeviceSearchResult result =
+        repository.search(text, resultLimit, Math.max(resultLimit, search.candidates()));
+    List<DeviceSearchHitDto> items =
+        result.matches().stream()
+            .map(
+                match ->
+                    new DeviceSearchHitDto(
+                        match.id(),
+                        match.name(),
+                        match.brand(),
+                        match.state(),
+                        match.creationTime(),
+                        match.version(),
+                        match.score()))
+            .toList();
+    return new DeviceSearchDto(text, items, result.truncated());
   }
 
   /**
-   * Fully updates an existing device's information.
+   * Counts the devices registered within a time range, per time bucket, brand and current state.
+   * Counts are read from pre-aggregated hourly rollups, so the cost depends on the length of the
+   * range and not on the number of devices. The range is widened to whole buckets.
+   *
+   * @param from optional ISO-8601 start of the range; defaults to {@link
+   *     DeviceStatsGranularity#defaultRange()} before the end
+   * @param to optional ISO-8601 end of the range, exclusive; defaults to now
+   * @param granularity optional bucket width, {@code hour} or {@code day}; defaults to {@code hour}
+   * @param filter brands and states to count; an empty filter counts every device
+   * @return the counts per bucket, brand and state, and their total
+   * @throws InvalidQueryParameterException if a parameter is not valid, the filter has names, or
+   *     the range is empty or spans more than {@value #MAX_STATS_BUCKETS} buckets
+   */
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "stats"},
+      histogram = true)
+  public DeviceStatsDto getCreationStats(
+      String from, String to, String granularity, DeviceFilter filter) {
+    DeviceStatsGranularity width = parseGranularity(granularity);
+    if (!filter.names().isEmpty()) {
+      throw new InvalidQueryParameterException("Statistics cannot be filtered by name");
+    }
+    Instant end = width.ceil(to == null ? Instant.now() : parseInstant("to", to));
+    Instant start =
+        width.floor(from == null ? end.minus(width.defaultRange()) : parseInstant("from", from));
+    if (!start.isBefore(end)) {
+      throw new InvalidQueryParameterException("from must be before to");
+    }
+    if (width.buckets(start, end) > MAX_STATS_BUCKETS) {
+      throw new InvalidQueryParameterException(
+          "Range must not span more than " + MAX_STATS_BUCKETS + " " + width.parameter() + "s");
+    }
+
+    List<DeviceStatsBucketDto> buckets =
+        repository.countCreations(start, end, width, filter).stream()
+            .map(
+                count ->
+                    new DeviceStatsBucketDto(
+                        count.bucket(), count.brand(), count.state(), count.devices()))
+            .toList();
+    long total = buckets.stream().mapToLong(DeviceStatsBucketDto::devices).sum();
+    return new DeviceStatsDto(width.parameter(), start, end, total, buckets);
+  }
+
+  /**
+   * Returns the live number of devices in each state from the in-memory counters, without querying
+   * the database.
+   *
+   * @return the count per state, their total and the time of the last reconciliation
+   */
+  public DeviceStateCountsDto getStateCounts() {
+    Map<DeviceState, Long> states = stateCounters.snapshot();
+    long total = states.values().stream().mapToLong(Long::longValue).sum();
+    return new DeviceStateCountsDto(states, total, stateCounters.reconciledAt());
+  }
+
+  /**
+   * Suggests the brands or names starting with a prefix, most used first, from the in-memory {@link
+   * DeviceAutocomplete} index, without querying the database.
+   *
+   * @param field optional attribute to complete, {@code brand} or {@code name}; defaults to {@code
+   *     brand}
+   * @param prefix optional start of the values, matched ignoring case; empty or absent for the most
+   *     used values overall
+   * @param limit optional maximum number of suggestions, bounded by the configured maximum
+   * @return the completed field, the prefix and the suggestions
+   * @throws InvalidQueryParameterException if the field is not valid or the prefix is longer than
+   *     {@value #MAX_PREFIX_LENGTH} characters
+   */
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "autocomplete"},
+      histogram = true)
+  public DeviceSuggestionsDto suggest(String field, String prefix, Integer limit) {
+    DeviceAutocomplete.Field target = parseField(field);
+    String start = prefix == null ? "" : prefix.stripLeading();
+    if (start.length() > MAX_PREFIX_LENGTH) {
+      throw new InvalidQueryParameterException(
+          "prefix must not be longer than " + MAX_PREFIX_LENGTH + " characters");
+    }
+
+    List<DeviceSuggestionDto> suggestions =
+        autocomplete.complete(target, start, autocompleteProperties.resolve(limit)).stream()
+            .map(completion -> new DeviceSuggestionDto(completion.term(), completion.count()))
+            .toList();
+    return new DeviceSuggestionsDto(
+        target.name().toLowerCase(Locale.ROOT), start, suggestions, autocomplete.refreshedAt());
+  }
+
+  /**
+   * Subscribes to the change feed: every device created, updated or deleted from now on, or since
+   * the given event, is sent as a Server-Sent Event. The connection does not hold a request thread;
+   * events are written by the {@link DeviceEventBroadcaster} sender threads.
+   *
+   * @param filter brands and states to receive changes of; an empty filter receives every change
+   * @param lastEventId optional id of the last event received, to resume after a reconnection
+   * @return the open event stream
+   */
+  public SseEmitter subscribeToEvents(DeviceFilter filter, String lastEventId) {
+    SseEmitter emitter = new SseEmitter();
+    events.subscribe(emitter, filter, lastEventId);
+    return emitter;
+  }
+
+  /**
+   * Streams every device matching the given filter to the consumer, one device at a time. Rows are
+   * read through a database cursor inside a read-only transaction, so no list of results is ever
+   * materialized and memory use does not depend on the number of matching devices.
+   *
+   * @param filter names, brands and states to match; an empty filter matches every device
+   * @param sort optional ordering, see {@link #parseSort(String)}; when {@code null} devices are
+   *     returned in database order, which is the cheapest to produce
+   * @param consumer receives each matching device
+   */
+  @Transactional(readOnly = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "stream"},
+      histogram = true)
+  public void streamDevices(
+      DeviceFilter filter, DeviceSort sort, Consumer<DeviceResponseDto> consumer) {
+    try (Stream<DeviceEntity> entities =
+        repository.streamAll(filter, sort, streaming.fetchSize())) {
+      entities.map(entityMapper::toDomain).map(dtoMapper::toResponseDto).forEach(consumer);
+    }
+  }
+
+  /**
+   * Fully updates an existing device's information. The change and the in-use guard are applied by
+   * a single conditional {@code UPDATE}, so concurrent writers cannot slip past the guard.
    *
    * @param id the device's UUID
    * @param request DTO containing the updated device data
+   * @param expectedVersion the version the device must still have, or {@code null} to update
+   *     unconditionally
    * @return the updated device as a {@link DeviceResponseDto}
+   * @throws InvalidRequestException if a field of the device is missing or invalid
    * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
    * @throws DeviceInUseException if attempting to change name/brand while device is in use
    */
-  public DeviceResponseDto updateDevice(UUID id, DeviceRequestDto request) {
-    DeviceEntity entity =
-        repository.findById(id).orElseThrow(() -> new DeviceNotFoundException(id));
-
-    Device domainDevice = entityMapper.toDomain(entity);
-
-    if (!domainDevice.canChangeNameOrBrand()) {
-      if ((request.name() != null && !request.name().equals(domainDevice.name()))
-          || (request.brand() != null && !request.brand().equals(domainDevice.brand()))) {
-        throw new DeviceInUseException("Cannot change name or brand while device is in use");
-      }
+  @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "update"},
+      histogram = true)
+  public DeviceResponseDto updateDevice(UUID id, DeviceRequestDto request, Long expectedVersion) {
+    List<String> violations = validator.violations(request);
+    if (!violations.isEmpty()) {
+      throw new InvalidRequestException(String.join("; ", violations));
     }
-
-    entity.setState(request.state());
-    entity.setName(request.name());
-    entity.setBrand(request.brand());
-
-    DeviceEntity updatedEntity = repository.save(entity);
-    Device updatedDevice = entityMapper.toDomain(updatedEntity);
-    return dtoMapper.toResponseDto(updatedDevice);
+    return applyUpdate(id, request.name(), request.brand(), request.state(), expectedVersion);
   }
 
   /**
-   * Partially updates an existing device's fields.
+   * Partially updates an existing device's fields. The change and the in-use guard are applied by a
+   * single conditional {@code UPDATE}, so concurrent writers cannot slip past the guard.
    *
    * @param id the device's UUID
    * @param patch DTO containing the fields to update (only non-null values are applied)
+   * @param expectedVersion the version the device must still have, or {@code null} to update
+   *     unconditionally
    * @return the updated device as a {@link DeviceResponseDto}
    * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
    * @throws DeviceInUseException if attempting to change name/brand while device is in use
    */
-  public DeviceResponseDto patchDevice(UUID id, DevicePatchDto patch) {
+  @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "patch"},
+      histogram = true)
+  public DeviceResponseDto patchDevice(UUID id, DevicePatchDto patch, Long expectedVersion) {
+    return applyUpdate(id, patch.name(), patch.brand(), patch.state(), expectedVersion);
+  }
+
+  /**
+   * Deletes a device by its UUID. The lookup and the delete share one transaction, and the delete
+   * is guarded by the version that was read, so a concurrent change between the check and the
+   * delete fails with an optimistic-locking error. The row is only stamped as deleted, which hides
+   * it from every query, and is removed later by {@link DeletedDevicePurger}.
+   *
+   * @param id the device's UUID
+   * @param expectedVersion the version the device must still have, or {@code null} to delete
+   *     unconditionally
+   * @throws DeviceNotFoundException if no device is found with the given id
+   * @throws PreconditionFailedException if the device no longer has the expected version
+   * @throws DeviceInUseException if the device is currently in use
+   */
+  @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+  @Transactional
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "delete"},
+      histogram = true)
+  public void deleteDevice(UUID id, Long expectedVersion) {
     DeviceEntity entity =
         repository.findById(id).orElseThrow(() -> new DeviceNotFoundException(id));
 
     Device domainDevice = entityMapper.toDomain(entity);
+    if (!hasVersion(domainDevice, expectedVersion)) {
+      throw versionMismatch(domainDevice, expectedVersion);
+    }
 
-    if (!domainDevice.canChangeNameOrBrand()) {
-      if ((patch.name() != null && !patch.name().equals(domainDevice.name()))
-          || (patch.brand() != null && !patch.brand().equals(domainDevice.brand()))) {
-        throw new DeviceInUseException("Cannot change name or brand while device is in use");
-      }
+    if (!domainDevice.canBeDeleted()) {
+      throw new DeviceInUseException("Cannot delete device in use");
     }
 
-    if (patch.name() != null) {
-      entity.setName(patch.name());
+    repository.delete(entity);
+    afterCommit(
+        () -> {
+          stateCounters.deleted(domainDevice.state());
+          autocomplete.deleted(domainDevice.name(), domainDevice.brand());
+        });
+    events.deleted(dtoMapper.toResponseDto(domainDevice));
+  }
+
+  /**
+   * Moves every device matching the filter to the given state with one {@code UPDATE} statement.
+   * Devices in use are skipped by the statement itself, so that no device can be taken out of use
+   * by a bulk operation.
+   *
+   * @param filter names, brands and states of the devices to change; must not be empty
+   * @param state the new state
+   * @return the number of changed devices and of matching devices skipped because they are in use
+   * @throws InvalidQueryParameterException if the filter is empty
+   * @throws InvalidRequestException if no state is given
+   */
+  @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, allEntries = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "change_state_matching"},
+      histogram = true)
+  public DeviceBulkResultDto changeStateMatching(DeviceFilter filter, DeviceState state) {
+    requireFilter(filter);
+    if (state == null) {
+      throw new InvalidRequestException("State is required");
     }
-    if (patch.brand() != null) {
-      entity.setBrand(patch.brand());
+    return toResultDto(repository.updateStateMatching(filter, state));
+  }
+
+  /**
+   * Deletes every device matching the filter with one {@code UPDATE} statement stamping their
+   * deletion time. Devices in use cannot be deleted and are skipped by the statement itself.
+   *
+   * @param filter names, brands and states of the devices to delete; must not be empty
+   * @return the number of deleted devices and of matching devices skipped because they are in use
+   * @throws InvalidQueryParameterException if the filter is empty
+   */
+  @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, allEntries = true)
+  @Timed(
+      value = MetricsConfig.OPERATIONS_TIMER,
+      extraTags = {"operation", "delete_matching"},
+      histogram = true)
+  public DeviceBulkResultDto deleteMatching(DeviceFilter filter) {
+    requireFilter(filter);
+    return toResultDto(repository.deleteMatching(filter));
+  }
+
+  private static void requireFilter(DeviceFilter filter) {
+    if (filter.isEmpty()) {
+      throw new InvalidQueryParameterException(
+          "Bulk operations require at least one name, brand or state filter");
     }
-    if (patch.state() != null) {
-      entity.setState(patch.state());
+  }
+
+  /**
+   * Reconciles the state counters and tells change feed subscribers to reload after a bulk change,
+   * which does not report what it changed.
+   */
+  private DeviceBulkResultDto toResultDto(BulkResult result) {
+    if (result.affected() > 0) {
+      stateCounters.reconcile();
+      events.resync("bulk");
     }
+    return new DeviceBulkResultDto(result.affected(), result.skippedInUse());
+  }
 
-    DeviceEntity updatedEntity = repository.save(entity);
-    Device updatedDevice = entityMapper.toDomain(updatedEntity);
-    return dtoMapper.toResponseDto(updatedDevice);
+  private DeviceResponseDto applyUpdate(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion) {
+    DeviceUpdate update =
+        repository
+            .updateIfAllowed(id, name, brand, state, expectedVersion)
+            .orElseThrow(() -> rejectedUpdate(id, expectedVersion));
+    afterCommit(
+        () -> {
+          stateCounters.changed(update.previousState(), update.device().getState());
+          autocomplete.changed(
+              update.previousName(),
+              update.previousBrand(),
+              update.device().getName(),
+              update.device().getBrand());
+        });
+    Device updatedDevice = entityMapper.toDomain(update.device());
+    DeviceResponseDto updated = dtoMapper.toResponseDto(updatedDevice);
+    events.updated(updated, update.previousBrand(), update.previousState());
+    return updated;
   }
 
   /**
-   * Deletes a device by its UUID.
+   * Explains why a conditional update changed no row. This costs a second round trip, but only on
+   * the failure path.
+   */
+  private RuntimeException rejectedUpdate(UUID id, Long expectedVersion) {
+    DeviceEntity entity = repository.findById(id).orElse(null);
+    if (entity == null) {
+      return new DeviceNotFoundException(id);
+    }
+    Device current = entityMapper.toDomain(entity);
+    if (!hasVersion(current, expectedVersion)) {
+      return versionMismatch(current, expectedVersion);
+    }
+    return new DeviceInUseException("Cannot change name or brand while device is in use");
+  }
+
+  /**
+   * Runs {@code update} once the current transaction commits, or right away outside of one, like
+   * the change feed does with its events. The live counters and the autocomplete index thus never
+   * count a change that is rolled back.
+   */
+  private static void afterCommit(Runnable update) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              update.run();
+            }
+          });
+    } else {
+      update.run();
+    }
+  }
+
+  private static boolean hasVersion(Device device, Long expectedVersion) {
+    return expectedVersion == null || expectedVersion == device.version();
+  }
+
+  private static PreconditionFailedException versionMismatch(Device device, Long expectedVersion) {
+    return new PreconditionFailedException(
+        "Device %s is at version %d, not %d"
+            .formatted(device.id(), device.version(), expectedVersion));
+  }
+
+  private void insertChunk(
+      List<DeviceEntity> chunk, List<Integer> indexes, DeviceBatchItemResultDto[] results) {
+    try {
+      repository.insertAll(chunk);
+      for (int i = 0; i < chunk.size(); i++) {
+        DeviceEntity created = chunk.get(i);
+        afterCommit(
+            () -> {
+              stateCounters.created(created.getState());
+              autocomplete.created(created.getName(), created.getBrand());
+            });
+        DeviceResponseDto device = dtoMapper.toResponseDto(entityMapper.toDomain(created));
+        events.created(device);
+        results[indexes.get(i)] =
+            new DeviceBatchItemResultDto(indexes.get(i), Status.CREATED, device, null);
+      }
+    } catch (DataAccessException ex) {
+      for (Integer index : indexes) {
+        results[index] =
+            new DeviceBatchItemResultDto(
+                index,
+                Status.FAILED,
+                null,
+                "Insert failed: " + ex.getMostSpecificCause().getMessage());
+      }
+    }
+  }
+
+  private static int count(List<DeviceBatchItemResultDto> items, Status status) {
+    return (int) items.stream().filter(item -> item.status() == status).count();
+  }
+
+  /**
+   * Parses the sort request parameter.
    *
-   * @param id the device's UUID
-   * @throws DeviceNotFoundException if no device is found with the given id
-   * @throws DeviceInUseException if the device is currently in use
+   * @param sort {@code creationTime}, {@code -creationTime}, {@code name}, {@code -name}, or {@code
+   *     null}
+   * @return the matching ordering, or {@code null} if none was given
+   * @throws InvalidQueryParameterException if the value does not name a supported ordering
    */
-  public void deleteDevice(UUID id) {
-    DeviceEntity entity =
-        repository.findById(id).orElseThrow(() -> new DeviceNotFoundException(id));
+  public DeviceSort parseSort(String sort) {
+    if (sort == null) {
+      return null;
+    }
+    try {
+      return DeviceSort.fromParameter(sort);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidQueryParameterException(ex.getMessage());
+    }
+  }
 
-    Device domainDevice = entityMapper.toDomain(entity);
+  private static DeviceStatsGranularity parseGranularity(String granularity) {
+    if (granularity == null) {
+      return DeviceStatsGranularity.HOUR;
+    }
+    try {
+      return DeviceStatsGranularity.fromParameter(granularity);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidQueryParameterException(ex.getMessage());
+    }
+  }
 
-    if (!domainDevice.canBeDeleted()) {
-      throw new DeviceInUseException("Cannot delete device in use");
+  private static DeviceAutocomplete.Field parseField(String field) {
+    if (field == null) {
+      return DeviceAutocomplete.Field.BRAND;
+    }
+    try {
+      return DeviceAutocomplete.Field.valueOf(field.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidQueryParameterException("Unsupported field: " + field);
     }
+  }
 
-    repository.delete(entity);
+  private static Instant parseInstant(String name, String value) {
+    try {
+      return Instant.parse(value);
+    } catch (DateTimeParseException ex) {
+      throw new InvalidQueryParameterException(
+          "Invalid " + name + ": expected an ISO-8601 instant such as 2025-08-07T10:00:00Z");
+    }
+  }
+
+  private static DeviceCursor decodeCursor(String cursor) {
+    try {
+      return DeviceCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidQueryParameterException("Invalid cursor");
+    }
+  }
+
+  private static DeviceHistoryCursor decodeHistoryCursor(String cursor) {
+    try {
+      return DeviceHistoryCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidQueryParameterException("Invalid cursor");
+    }
+  }
+
+  private DeviceSort resolveSort(String sort, DeviceCursor after) {
+    DeviceSort order = parseSort(sort);
+    if (order == null) {
+      return after == null ? DeviceSort.CREATION_TIME_ASC : after.sort();
+    }
+    if (after != null && after.sort() != order) {
+      throw new InvalidQueryParameterException("Cursor does not belong to sort: " + sort);
+    }
+    return order;
   }
 }
@@ -0,0 +1,124 @@
+package com.douglas.api.service;
+
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live number of devices in each {@link DeviceState}, kept in memory so that reading it never
+ * queries the database. Each state has its own {@link LongAdder}, so concurrent writers update
+ * striped cells instead of contending on one counter.
+ *
+ * <p>The counters are seeded once the application context is initialized and then follow every
+ * single-device create, state change and delete made by {@link DeviceService}, once its transaction
+ * has committed. Changes they cannot see, such as those of other instances or of the reactive
+ * deployment, are corrected by {@link #reconcile()}, which runs every {@code
+ * devices.state-counters.reconcile-interval} and after every bulk operation. Reconciling reads the
+ * pre-aggregated creation rollups, not {@code COUNT(*)} over {@code devices}; a change racing with
+ * it may be off by one until the next run.
+ */
+@Component
+public class DeviceStateCounters implements SmartInitializingSingleton {
+
+  private final DeviceRepository repository;
+  private final Map<DeviceState, LongAdder> counters;
+  private volatile Instant reconciledAt;
+
+  /**
+   * Creates the counters, at zero, and publishes them as the {@value MetricsConfig#STATE_GAUGE}
+   * gauge, tagged {@code state}.
+   *
+   * @param repository the repository the counters are seeded and reconciled from
+   * @param registry the registry the gauges are published to
+   */
+  public DeviceStateCounters(DeviceRepository repository, MeterRegistry registry) {
+    this.repository = repository;
+    Map<DeviceState, LongAdder> adders = new EnumMap<>(DeviceState.class);
+    for (DeviceState state : DeviceState.values()) {
+      LongAdder adder = new LongAdder();
+      adders.put(state, adder);
+      Gauge.builder(MetricsConfig.STATE_GAUGE, adder, LongAdder::sum)
+          .description("Devices currently in each state")
+          .tag("state", state.name())
+          .register(registry);
+    }
+    this.counters = Collections.unmodifiableMap(adders);
+  }
+
+  /** Seeds the counters from the database once every singleton has been created. */
+  @Override
+  public void afterSingletonsInstantiated() {
+    reconcile();
+  }
+
+  /** Replaces the counters with the current counts from the database. */
+  @Scheduled(
+      fixedDelayString = "${devices.state-counters.reconcile-interval:PT1M}",
+      initialDelayString = "${devices.state-counters.reconcile-interval:PT1M}")
+  public void reconcile() {
+    Map<DeviceState, Long> counts = repository.countByState();
+    counters.forEach((state, adder) -> adder.add(counts.getOrDefault(state, 0L) - adder.sum()));
+    reconciledAt = Instant.now();
+  }
+
+  /**
+   * Records a new device.
+   *
+   * @param state the state it was created in
+   */
+  public void created(DeviceState state) {
+    counters.get(state).increment();
+  }
+
+  /**
+   * Records a state change; does nothing if the state did not change.
+   *
+   * @param from the previous state
+   * @param to the new state
+   */
+  public void changed(DeviceState from, DeviceState to) {
+    if (from != to) {
+      counters.get(from).decrement();
+      counters.get(to).increment();
+    }
+  }
+
+  /**
+   * Records a deleted device.
+   *
+   * @param state the state it had when deleted
+   */
+  public void deleted(DeviceState state) {
+    counters.get(state).decrement();
+  }
+
+  /**
+   * Returns the current count of every state.
+   *
+   * @return the number of devices per state, in declaration order
+   */
+  public Map<DeviceState, Long> snapshot() {
+    Map<DeviceState, Long> snapshot = new EnumMap<>(DeviceState.class);
+    counters.forEach((state, adder) -> snapshot.put(state, adder.sum()));
+    return snapshot;
+  }
+
+  /**
+   * Returns when the counters were last replaced with counts from the database.
+   *
+   * @return the time of the last reconciliation, or {@code null} before the first one
+   */
+  public Instant reconciledAt() {
+    return reconciledAt;
+  }
+}
@@ -0,0 +1,228 @@
+package com.douglas.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed set of terms with mutable frequencies, answering "the most frequent terms starting with a
+ * prefix" without scanning the terms that match it.
+ *
+ * <p>Terms are kept in one array sorted case-insensitively, so the terms sharing a prefix form a
+ * contiguous range found by two binary searches. A segment tree over the frequencies holds, for
+ * every node, the position of the most frequent term below it; the top {@code k} terms of a range
+ * are then extracted best-first by repeatedly splitting the range around its maximum. A lookup
+ * costs {@code O(k log n)} however many terms the prefix matches, and memory is three arrays of
+ * {@code n} and {@code 2n} elements besides the strings themselves.
+ *
+ * <p>Lookups are lock-free. Frequency changes are serialized, but a lookup racing with one may rank
+ * the changed term by either its old or its new frequency. The set of terms never changes; terms
+ * missing from it are reported by {@link #add(String, long)} so that the caller can keep them
+ * elsewhere until the index is rebuilt.
+ */
+public final class PrefixIndex {
+
+  /** A term and its frequency. */
+  public record Completion(String term, long count) {}
+
+  private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new long[0]);
+
+  private final String[] terms;
+  private final AtomicLongArray counts;
+  private final AtomicIntegerArray tree;
+
+  private PrefixIndex(String[] terms, long[] counts) {
+    this.terms = terms;
+    this.counts = new AtomicLongArray(counts);
+    int size = terms.length;
+    this.tree = new AtomicIntegerArray(Math.max(2 * size, 1));
+    for (int i = 0; i < size; i++) {
+      tree.set(size + i, i);
+    }
+    for (int node = size - 1; node > 0; node--) {
+      tree.set(node, better(tree.get(2 * node), tree.get(2 * node + 1)));
+    }
+  }
+
+  /**
+   * Returns an index without terms.
+   *
+   * @return the empty index
+   */
+  public static PrefixIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds an index of the given terms. Terms differing only in case are merged into one, spelled
+   * as its most frequent variant and counted as their sum.
+   *
+   * @param counts the frequency of every term
+   * @return the index
+   */
+  public static PrefixIndex of(Map<String, Long> counts) {
+    Map<String, long[]> totals = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    Map<String, String> spellings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    counts.forEach(
+        (term, count) -> {
+          long[] total = totals.computeIfAbsent(term, key -> new long[2]);
+          total[0] += count;
+          if (count > total[1]) {
+            total[1] = count;
+            spellings.put(term, term);
+          }
+        });
+
+    String[] terms = new String[totals.size()];
+    long[] frequencies = new long[totals.size()];
+    int i = 0;
+    for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+      terms[i] = spellings.getOrDefault(entry.getKey(), entry.getKey());
+      frequencies[i] = entry.getValue()[0];
+      i++;
+    }
+    return new PrefixIndex(terms, frequencies);
+  }
+
+  /**
+   * Returns the number of distinct terms.
+   *
+   * @return the size of the index
+   */
+  public int size() {
+    return terms.length;
+  }
+
+  /**
+   * Returns the most frequent terms starting with a prefix, ignoring case. Terms whose frequency
+   * dropped to zero are not returned.
+   *
+   * @param prefix the start of the terms; empty to rank every term
+   * @param limit the maximum number of terms to return
+   * @return the matching terms, most frequent first and alphabetically among equal frequencies
+   */
+  public List<Completion> complete(String prefix, int limit) {
+    int from = lowerBound(prefix);
+    int to = prefixEnd(prefix, from);
+    List<Completion> completions = new ArrayList<>(Math.min(limit, to - from));
+    PriorityQueue<Range> ranges = new PriorityQueue<>(Range.BEST_FIRST);
+    offer(ranges, from, to);
+    while (completions.size() < limit && !ranges.isEmpty()) {
+      Range range = ranges.poll();
+      if (range.count() <= 0) {
+        break;
+      }
+      completions.add(new Completion(terms[range.best()], range.count()));
+      offer(ranges, range.from(), range.best());
+      offer(ranges, range.best() + 1, range.to());
+    }
+    return completions;
+  }
+
+  /**
+   * Adds to the frequency of a term, ignoring case.
+   *
+   * @param term the term
+   * @param delta the amount to add; negative to remove occurrences
+   * @return {@code true} if the index has the term, {@code false} if it has not and nothing changed
+   */
+  public boolean add(String term, long delta) {
+    int position = Arrays.binarySearch(terms, term, String.CASE_INSENSITIVE_ORDER);
+    if (position < 0) {
+      return false;
+    }
+    synchronized (this) {
+      counts.addAndGet(position, delta);
+      for (int node = (terms.length + position) / 2; node > 0; node /= 2) {
+        tree.set(node, better(tree.get(2 * node), tree.get(2 * node + 1)));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the current frequencies of every term.
+   *
+   * @return the frequency per term, in case-insensitive order
+   */
+  public Map<String, Long> counts() {
+    Map<String, Long> snapshot = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 0; i < terms.length; i++) {
+      snapshot.put(terms[i], counts.get(i));
+    }
+    return snapshot;
+  }
+
+  private void offer(PriorityQueue<Range> ranges, int from, int to) {
+    if (from < to) {
+      int best = argMax(from, to);
+      ranges.add(new Range(best, counts.get(best), from, to));
+    }
+  }
+
+  /** Position of the most frequent term in {@code [from, to)}, the first one among ties. */
+  private int argMax(int from, int to) {
+    int best = -1;
+    for (int low = from + terms.length, high = to + terms.length; low < high; low /= 2, high /= 2) {
+      if ((low & 1) == 1) {
+        best = better(best, tree.get(low++));
+      }
+      if ((high & 1) == 1) {
+        best = better(best, tree.get(--high));
+      }
+    }
+    return best;
+  }
+
+  private int better(int a, int b) {
+    if (a < 0 || b < 0) {
+      return Math.max(a, b);
+    }
+    long countA = counts.get(a);
+    long countB = counts.get(b);
+    return countA > countB || (countA == countB && a < b) ? a : b;
+  }
+
+  /** First position whose term is not before the prefix. */
+  private int lowerBound(String prefix) {
+    int low = 0;
+    int high = terms.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (String.CASE_INSENSITIVE_ORDER.compare(terms[middle], prefix) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** First position from {@code from} on whose term does not start with the prefix. */
+  private int prefixEnd(String prefix, int from) {
+    int low = from;
+    int high = terms.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (terms[middle].regionMatches(true, 0, prefix, 0, prefix.length())) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** A range of terms and its most frequent term, as the frequency was when it was queued. */
+  private record Range(int best, long count, int from, int to) {
+
+    static final Comparator<Range> BEST_FIRST =
+        Comparator.comparingLong(Range::count).reversed().thenComparingInt(Range::best);
+  }
+}
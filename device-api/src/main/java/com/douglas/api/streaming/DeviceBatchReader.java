@@ -0,0 +1,57 @@
+package com.douglas.api.streaming;
+
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the JSON array of a {@code POST /devices/batch} body one device at a time, so that a body
+ * with more devices than allowed is refused as soon as the first device too many is reached rather
+ * than after the whole array has been deserialized.
+ */
+public final class DeviceBatchReader {
+
+  private DeviceBatchReader() {}
+
+  /**
+   * Reads up to {@code maxItems} devices from a JSON array. {@code null} elements are kept, to be
+   * reported item by item.
+   *
+   * @param objectMapper the mapper deserializing each device
+   * @param body the request body
+   * @param maxItems the most devices accepted
+   * @return the devices, in body order
+   * @throws InvalidRequestException if the body is not a well-formed JSON array of devices, or
+   *     holds more than {@code maxItems} of them
+   * @throws UncheckedIOException if the body cannot be read
+   */
+  public static List<DeviceRequestDto> read(
+      ObjectMapper objectMapper, InputStream body, int maxItems) {
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new InvalidRequestException("Batch must be a JSON array of devices");
+      }
+      List<DeviceRequestDto> requests = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (requests.size() == maxItems) {
+          throw new InvalidRequestException(
+              "Batch must not contain more than " + maxItems + " devices");
+        }
+        requests.add(objectMapper.readValue(parser, DeviceRequestDto.class));
+      }
+      return requests;
+    } catch (JsonProcessingException ex) {
+      throw new InvalidRequestException("Malformed batch: " + ex.getOriginalMessage());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
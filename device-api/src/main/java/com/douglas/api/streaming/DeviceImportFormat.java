@@ -0,0 +1,73 @@
+package com.douglas.api.streaming;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+
+/** Input formats accepted by bulk device imports. */
+public enum DeviceImportFormat {
+  /** Comma-separated values with a header row. */
+  CSV(DeviceImportFormat.CSV_VALUE, List.of(".csv")),
+  /** One JSON object per line. */
+  NDJSON(MediaType.APPLICATION_NDJSON_VALUE, List.of(".ndjson", ".jsonl"));
+
+  /** Media type of CSV input. */
+  public static final String CSV_VALUE = "text/csv";
+
+  private static final String GZIP_EXTENSION = ".gz";
+
+  private final MediaType mediaType;
+  private final List<String> extensions;
+
+  DeviceImportFormat(String mediaType, List<String> extensions) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+    this.extensions = extensions;
+  }
+
+  /**
+   * Finds the format of a request body.
+   *
+   * @param mediaType the {@code Content-Type} of the body
+   * @return the format, or empty if the media type is not supported
+   */
+  public static Optional<DeviceImportFormat> forMediaType(MediaType mediaType) {
+    for (DeviceImportFormat format : values()) {
+      if (format.mediaType.includes(mediaType)) {
+        return Optional.of(format);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Finds the format of a file from its extension, ignoring a trailing {@code .gz}.
+   *
+   * @param fileName the file name, e.g. {@code devices.csv.gz}
+   * @return the format, or empty if the extension is not supported
+   */
+  public static Optional<DeviceImportFormat> forFileName(String fileName) {
+    String name = fileName.toLowerCase(Locale.ROOT);
+    if (isGzip(name)) {
+      name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+    }
+    for (DeviceImportFormat format : values()) {
+      for (String extension : format.extensions) {
+        if (name.endsWith(extension)) {
+          return Optional.of(format);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Tells whether a file is gzip-compressed, from its extension.
+   *
+   * @param fileName the file name
+   * @return whether the name ends with {@code .gz}
+   */
+  public static boolean isGzip(String fileName) {
+    return fileName.toLowerCase(Locale.ROOT).endsWith(GZIP_EXTENSION);
+  }
+}
@@ -0,0 +1,386 @@
+package com.douglas.api.streaming;
+
+import com.douglas.api.dto.DeviceImportRejectionDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.repository.DeviceImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Reads the devices of a bulk import one record at a time, so that inputs of any size are read in
+ * constant memory. Each record is checked against the {@link DeviceRequestDto} constraints, which
+ * include the width of the {@code devices} columns; invalid records are counted, and the first ones
+ * reported with their line, without interrupting the import. Only valid devices are returned.
+ *
+ * <p>CSV input starts with a header naming the {@code name}, {@code brand} and {@code state}
+ * columns, and optionally {@code id}, in any order; other columns are ignored. Fields follow RFC
+ * 4180: they may be quoted, with {@code ""} standing for a quote, and quoted fields may span lines.
+ * NDJSON input has one JSON object per line with the same properties. Blank lines are skipped and
+ * the input is decoded as UTF-8.
+ *
+ * <p>A record longer than {@link #MAX_RECORD_LENGTH} characters is rejected without being held in
+ * memory, and reading resumes at the next line; this also bounds the damage of an unterminated
+ * quote, which would otherwise run to the end of the input.
+ */
+public class DeviceImportReader implements Iterator<DeviceImportRow> {
+
+  /**
+   * Longest record read, in characters: room for a few 255-character columns, quoted, and whatever
+   * other columns an export carries.
+   */
+  static final int MAX_RECORD_LENGTH = 4096;
+
+  private static final String RECORD_TOO_LONG =
+      "Record longer than " + MAX_RECORD_LENGTH + " characters";
+
+  private static final String STATE_REQUIRED = "State is required";
+
+  private final DeviceImportFormat format;
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private final StringBuilder text = new StringBuilder();
+  private final ObjectMapper objectMapper;
+  private final DeviceRequestValidator validator;
+  private final int reportedRejections;
+  private final List<DeviceImportRejectionDto> rejections = new ArrayList<>();
+  private long rejected;
+  private long line;
+  private long recordStart;
+  private int position;
+  private int limit;
+  private boolean skipLineFeed;
+  private boolean tooLong;
+  private int columnCount;
+  private int idColumn = -1;
+  private int nameColumn = -1;
+  private int brandColumn = -1;
+  private int stateColumn = -1;
+  private DeviceImportRow next;
+  private boolean finished;
+
+  /**
+   * Creates a reader and, for CSV, reads the header.
+   *
+   * @param format the format of the input
+   * @param input the input, read as the returned devices are consumed
+   * @param objectMapper the mapper parsing NDJSON lines
+   * @param validator the constraint checks applied to each record
+   * @param reportedRejections the number of rejected records listed by {@link #rejections()}
+   * @throws InvalidRequestException if a CSV header lacks a required column or is too long
+   * @throws UncheckedIOException if the input cannot be read
+   */
+  public DeviceImportReader(
+      DeviceImportFormat format,
+      InputStream input,
+      ObjectMapper objectMapper,
+      DeviceRequestValidator validator,
+      int reportedRejections) {
+    this.format = format;
+    this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.reportedRejections = reportedRejections;
+    if (format == DeviceImportFormat.CSV) {
+      readHeader();
+    }
+  }
+
+  /**
+   * Reads ahead to the next valid device, counting the invalid records on the way.
+   *
+   * @throws UncheckedIOException if the input cannot be read, e.g. when the client disconnects
+   */
+  @Override
+  public boolean hasNext() {
+    while (next == null && !finished) {
+      next = format == DeviceImportFormat.CSV ? readCsvRecord() : readNdjsonRecord();
+    }
+    return next != null;
+  }
+
+  @Override
+  public DeviceImportRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    DeviceImportRow row = next;
+    next = null;
+    return row;
+  }
+
+  /**
+   * Returns the number of records rejected so far.
+   *
+   * @return the number of rejected records
+   */
+  public long rejected() {
+    return rejected;
+  }
+
+  /**
+   * Returns the first rejected records, in input order.
+   *
+   * @return at most {@code reportedRejections} rejections
+   */
+  public List<DeviceImportRejectionDto> rejections() {
+    return List.copyOf(rejections);
+  }
+
+  private void readHeader() {
+    List<String> header = readCsvFields();
+    if (header == null) {
+      return;
+    }
+    if (tooLong) {
+      throw new InvalidRequestException(
+          "CSV header longer than " + MAX_RECORD_LENGTH + " characters");
+    }
+    columnCount = header.size();
+    for (int i = 0; i < header.size(); i++) {
+      switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+        case "id" -> idColumn = i;
+        case "name" -> nameColumn = i;
+        case "brand" -> brandColumn = i;
+        case "state" -> stateColumn = i;
+        default -> {
+          // Columns the import does not know are ignored.
+        }
+      }
+    }
+    if (nameColumn < 0 || brandColumn < 0 || stateColumn < 0) {
+      throw new InvalidRequestException("CSV header must name the name, brand and state columns");
+    }
+  }
+
+  /** Returns the next record if it is valid, {@code null} otherwise or at the end of the input. */
+  private DeviceImportRow readCsvRecord() {
+    List<String> fields = readCsvFields();
+    if (fields == null) {
+      return null;
+    }
+    if (tooLong) {
+      reject(recordStart, RECORD_TOO_LONG);
+      return null;
+    }
+    if (fields.size() != columnCount) {
+      reject(recordStart, "Expected " + columnCount + " fields, found " + fields.size());
+      return null;
+    }
+    return validate(
+        recordStart,
+        idColumn < 0 ? null : fields.get(idColumn),
+        fields.get(nameColumn),
+        fields.get(brandColumn),
+        fields.get(stateColumn));
+  }
+
+  /**
+   * Splits the next non-blank CSV record into fields and sets {@link #recordStart} to the line it
+   * starts on. Returns {@code null} at the end of the input, and no fields with {@link #tooLong}
+   * set when the record is too long, in which case its last line was skipped.
+   */
+  private List<String> readCsvFields() {
+    text.setLength(0);
+    boolean read = readLine();
+    while (read && text.isEmpty() && !tooLong) {
+      read = readLine();
+    }
+    if (!read) {
+      finished = true;
+      return null;
+    }
+    recordStart = line;
+    List<String> fields = new ArrayList<>(Math.max(columnCount, 4));
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    int i = 0;
+    while (true) {
+      if (tooLong) {
+        return List.of();
+      }
+      if (i == text.length()) {
+        if (!quoted) {
+          fields.add(field.toString());
+          return fields;
+        }
+        // A quoted line break: the record goes on, into the same bounded buffer.
+        text.append('\n');
+        i = text.length();
+        if (!readLine()) {
+          // An unterminated quote ran to the end of the input; keep what was read.
+          fields.add(field.toString());
+          return fields;
+        }
+        field.append('\n');
+        continue;
+      }
+      char c = text.charAt(i++);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i < text.length() && text.charAt(i) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else {
+        field.append(c);
+      }
+    }
+  }
+
+  /** Returns the next line if it holds a valid device, {@code null} otherwise or at the end. */
+  private DeviceImportRow readNdjsonRecord() {
+    text.setLength(0);
+    if (!readLine()) {
+      finished = true;
+      return null;
+    }
+    if (tooLong) {
+      reject(line, RECORD_TOO_LONG);
+      return null;
+    }
+    if (text.isEmpty() || text.toString().isBlank()) {
+      return null;
+    }
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(text.toString());
+    } catch (JsonProcessingException ex) {
+      reject(line, "Malformed JSON: " + ex.getOriginalMessage());
+      return null;
+    }
+    if (!node.isObject()) {
+      reject(line, "Expected a JSON object");
+      return null;
+    }
+    return validate(
+        line, text(node, "id"), text(node, "name"), text(node, "brand"), text(node, "state"));
+  }
+
+  private static String text(JsonNode node, String property) {
+    JsonNode value = node.get(property);
+    return value == null || !value.isValueNode() || value.isNull() ? null : value.asText();
+  }
+
+  /** Returns the device if the record is valid; otherwise rejects it and returns {@code null}. */
+  private DeviceImportRow validate(
+      long recordLine, String id, String name, String brand, String state) {
+    DeviceState deviceState = parseState(state);
+    List<String> violations =
+        new ArrayList<>(validator.violations(new DeviceRequestDto(name, brand, deviceState)));
+    if (deviceState == null && !isBlank(state)) {
+      violations.replaceAll(
+          violation -> violation.equals(STATE_REQUIRED) ? "Unknown state: " + state : violation);
+    }
+    UUID deviceId = null;
+    if (!isBlank(id)) {
+      try {
+        deviceId = UUID.fromString(id.trim());
+      } catch (IllegalArgumentException ex) {
+        violations.add("Invalid id: " + id);
+      }
+    }
+    if (!violations.isEmpty()) {
+      reject(recordLine, String.join("; ", violations));
+      return null;
+    }
+    return new DeviceImportRow(deviceId, name, brand, deviceState);
+  }
+
+  private static DeviceState parseState(String state) {
+    if (isBlank(state)) {
+      return null;
+    }
+    try {
+      return DeviceState.valueOf(state.trim());
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private void reject(long recordLine, String error) {
+    rejected++;
+    if (rejections.size() < reportedRejections) {
+      rejections.add(new DeviceImportRejectionDto(recordLine, error));
+    }
+  }
+
+  /**
+   * Appends the next line, without its terminator, to {@link #text} while the record fits in {@link
+   * #MAX_RECORD_LENGTH}; past that, sets {@link #tooLong} and drops the rest of the line. Lines end
+   * with {@code \n}, {@code \r} or {@code \r\n}. Returns {@code false} at the end of the input.
+   */
+  private boolean readLine() {
+    tooLong = false;
+    try {
+      if (skipLineFeed) {
+        skipLineFeed = false;
+        if (fill() && buffer[position] == '\n') {
+          position++;
+        }
+      }
+      if (!fill()) {
+        return false;
+      }
+      line++;
+      while (fill()) {
+        int start = position;
+        while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+          position++;
+        }
+        int length = position - start;
+        int room = MAX_RECORD_LENGTH - text.length();
+        if (length > room) {
+          text.append(buffer, start, room);
+          tooLong = true;
+        } else {
+          text.append(buffer, start, length);
+        }
+        if (position < limit) {
+          skipLineFeed = buffer[position++] == '\r';
+          return true;
+        }
+      }
+      return true;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /** Makes sure the buffer holds unread characters; returns {@code false} at the end of input. */
+  private boolean fill() throws IOException {
+    if (position < limit) {
+      return true;
+    }
+    position = 0;
+    limit = Math.max(0, reader.read(buffer));
+    return limit > 0;
+  }
+}
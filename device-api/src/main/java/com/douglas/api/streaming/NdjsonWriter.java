@@ -0,0 +1,71 @@
+package com.douglas.api.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values as newline-delimited JSON to an output stream. Values are serialized straight into
+ * the stream without intermediate buffers, and the stream is flushed every {@code flushEvery}
+ * values so that clients receive data incrementally.
+ *
+ * @param <T> type of the written values
+ */
+public class NdjsonWriter<T> implements Consumer<T> {
+
+  private final JsonGenerator generator;
+  private final ObjectWriter writer;
+  private final int flushEvery;
+  private long written;
+
+  /**
+   * Creates a writer on top of the given output stream.
+   *
+   * @param objectMapper the mapper used to serialize values
+   * @param type the type of the written values
+   * @param out the destination stream
+   * @param flushEvery number of values written between two flushes
+   * @throws IOException if the JSON generator cannot be created
+   */
+  public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out, int flushEvery)
+      throws IOException {
+    this.generator = objectMapper.getFactory().createGenerator(out);
+    this.generator.setRootValueSeparator(null);
+    this.writer =
+        objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.flushEvery = Math.max(1, flushEvery);
+  }
+
+  /**
+   * Writes one value followed by a line break.
+   *
+   * @param value the value to write
+   * @throws UncheckedIOException if writing to the stream fails, e.g. when the client disconnects
+   */
+  @Override
+  public void accept(T value) {
+    try {
+      writer.writeValue(generator, value);
+      generator.writeRaw('\n');
+      if (++written % flushEvery == 0) {
+        generator.flush();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Flushes any buffered output to the underlying stream.
+   *
+   * @throws IOException if flushing fails
+   */
+  public void flush() throws IOException {
+    generator.flush();
+  }
+}
@@ -0,0 +1,116 @@
+package com.douglas.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.service.DeviceAutocomplete;
+import com.douglas.api.service.DeviceService;
+import com.douglas.api.service.DeviceStateCounters;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.entity.DeviceEntity;
+import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.DeviceUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class CacheConfigTest {
+
+  private final UUID id = UUID.randomUUID();
+  private final DeviceRepository repository = mock(DeviceRepository.class);
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withUserConfiguration(CacheConfig.class)
+          .withBean(CacheManager.class, () -> new CaffeineCacheManager(CacheConfig.DEVICES_CACHE))
+          .withBean(
+              DeviceService.class,
+              () ->
+                  new DeviceService(
+                      repository,
+                      new DeviceMapper(),
+                      new DeviceDtoMapper(),
+                      new PaginationProperties(50, 500),
+                      new StreamingProperties(500),
+                      new BatchProperties(500, 10_000),
+                      new SearchProperties(20, 100, 200),
+                      new DeviceStateCounters(repository, new SimpleMeterRegistry()),
+                      new AutocompleteProperties(10, 50, 1000, true),
+                      new DeviceAutocomplete(
+                          repository, new AutocompleteProperties(10, 50, 1000, true)),
+                      new DeviceEventBroadcaster(
+                          new EventsProperties(64, 1, Duration.ofSeconds(5)),
+                          new SimpleMeterRegistry()),
+                      new DeviceRequestValidator(
+                          Validation.buildDefaultValidatorFactory().getValidator())));
+
+  @Test
+  void shouldServeRepeatedLookupsFromCache() {
+    when(repository.findViewById(id, DeviceResponseDto.class))
+        .thenReturn(Optional.of(view(DeviceState.AVAILABLE)));
+
+    contextRunner.run(
+        context -> {
+          DeviceService service = context.getBean(DeviceService.class);
+
+          service.getDeviceById(id);
+          DeviceResponseDto cached = service.getDeviceById(id);
+
+          assertThat(cached.id()).isEqualTo(id);
+          verify(repository, times(1)).findViewById(id, DeviceResponseDto.class);
+        });
+  }
+
+  @Test
+  void shouldRefreshEntryOnPatchAndEvictOnDelete() {
+    when(repository.findViewById(id, DeviceResponseDto.class))
+        .thenReturn(Optional.of(view(DeviceState.AVAILABLE)));
+    when(repository.findById(id)).thenReturn(Optional.of(entity(DeviceState.AVAILABLE)));
+    when(repository.updateIfAllowed(id, null, null, DeviceState.INACTIVE, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity(DeviceState.INACTIVE), "Device X", "Brand A", DeviceState.AVAILABLE)));
+
+    contextRunner.run(
+        context -> {
+          DeviceService service = context.getBean(DeviceService.class);
+          service.getDeviceById(id);
+
+          service.patchDevice(id, new DevicePatchDto(null, null, DeviceState.INACTIVE), null);
+          assertThat(service.getDeviceById(id).state()).isEqualTo(DeviceState.INACTIVE);
+          verify(repository, times(1)).findViewById(id, DeviceResponseDto.class);
+
+          service.deleteDevice(id, null);
+          service.getDeviceById(id);
+          verify(repository, times(2)).findViewById(id, DeviceResponseDto.class);
+        });
+  }
+
+  private DeviceResponseDto view(DeviceState state) {
+    return new DeviceDtoMapper().toResponseDto(new DeviceMapper().toDomain(entity(state)));
+  }
+
+  private DeviceEntity entity(DeviceState state) {
+    DeviceEntity entity = new DeviceEntity();
+    entity.setId(id);
+    entity.setName("Device X");
+    entity.setBrand("Brand A");
+    entity.setState(state);
+    entity.setCreationTime(Instant.parse("2025-08-07T10:00:00Z"));
+    return entity;
+  }
+}
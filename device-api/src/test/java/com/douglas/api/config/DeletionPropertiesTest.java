@@ -0,0 +1,53 @@
+package com.douglas.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+class DeletionPropertiesTest {
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+          .withUserConfiguration(Config.class);
+
+  @Test
+  void defaults_bindAndPassValidation() {
+    contextRunner.run(
+        context -> {
+          DeletionProperties properties = context.getBean(DeletionProperties.class);
+          assertThat(properties.retention()).isEqualTo(Duration.ofDays(30));
+          assertThat(properties.purgeChunkSize()).isEqualTo(10_000);
+        });
+  }
+
+  @Test
+  void zeroOrNegativeChunkSize_failsStartup() {
+    contextRunner
+        .withPropertyValues("devices.deletion.purge-chunk-size=0")
+        .run(context -> assertThat(context).hasFailed());
+    contextRunner
+        .withPropertyValues("devices.deletion.purge-chunk-size=-1")
+        .run(context -> assertThat(context).hasFailed());
+  }
+
+  @Test
+  void zeroOrNegativeRetention_failsStartup() {
+    contextRunner
+        .withPropertyValues("devices.deletion.retention=0s")
+        .run(context -> assertThat(context).hasFailed());
+    contextRunner
+        .withPropertyValues("devices.deletion.retention=-P1D")
+        .run(context -> assertThat(context).hasFailed());
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @EnableConfigurationProperties(DeletionProperties.class)
+  static class Config {}
+}
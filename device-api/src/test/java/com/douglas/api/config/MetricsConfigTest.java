@@ -0,0 +1,92 @@
+package com.douglas.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.service.DeviceAutocomplete;
+import com.douglas.api.service.DeviceService;
+import com.douglas.api.service.DeviceStateCounters;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class MetricsConfigTest {
+
+  private final DeviceRepository repository = mock(DeviceRepository.class);
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class))
+          .withUserConfiguration(MetricsConfig.class)
+          .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+          .withBean(
+              DeviceService.class,
+              () ->
+                  new DeviceService(
+                      repository,
+                      new DeviceMapper(),
+                      new DeviceDtoMapper(),
+                      new PaginationProperties(50, 500),
+                      new StreamingProperties(500),
+                      new BatchProperties(500, 10_000),
+                      new SearchProperties(20, 100, 200),
+                      new DeviceStateCounters(repository, new SimpleMeterRegistry()),
+                      new AutocompleteProperties(10, 50, 1000, true),
+                      new DeviceAutocomplete(
+                          repository, new AutocompleteProperties(10, 50, 1000, true)),
+                      new DeviceEventBroadcaster(
+                          new EventsProperties(64, 1, Duration.ofSeconds(5)),
+                          new SimpleMeterRegistry()),
+                      new DeviceRequestValidator(
+                          Validation.buildDefaultValidatorFactory().getValidator())));
+
+  @Test
+  void shouldTimeEachOperationUnderItsOwnTag() {
+    UUID id = UUID.randomUUID();
+    when(repository.findViewById(id, DeviceResponseDto.class)).thenReturn(Optional.empty());
+    when(repository.findPage(any(), any(), any(), anyInt(), eq(DeviceResponseDto.class)))
+        .thenReturn(List.of());
+
+    contextRunner.run(
+        context -> {
+          DeviceService service = context.getBean(DeviceService.class);
+          MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+          service.listDevices(DeviceFilter.none(), null, null, null);
+          service.listDevices(DeviceFilter.none(), null, null, null);
+          try {
+            service.getDeviceById(id);
+          } catch (DeviceNotFoundException expected) {
+            // still timed, tagged with the exception
+          }
+
+          Timer list =
+              registry.get(MetricsConfig.OPERATIONS_TIMER).tag("operation", "list").timer();
+          Timer get =
+              registry
+                  .get(MetricsConfig.OPERATIONS_TIMER)
+                  .tag("operation", "get")
+                  .tag("exception", "DeviceNotFoundException")
+                  .timer();
+          assertThat(list.count()).isEqualTo(2);
+          assertThat(get.count()).isEqualTo(1);
+        });
+  }
+}
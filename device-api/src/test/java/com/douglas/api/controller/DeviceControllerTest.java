@@ -1,33 +1,76 @@
 package com.douglas.api.controller;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.config.BatchProperties;
+import com.douglas.api.config.EventsProperties;
+import com.douglas.api.config.ExportProperties;
+import com.douglas.api.config.ImportProperties;
+import com.douglas.api.config.PaginationProperties;
+import com.douglas.api.config.SearchProperties;
+import com.douglas.api.config.StreamingProperties;
+import com.douglas.api.events.DeviceEventBroadcaster;
 import com.douglas.api.exception.GlobalExceptionHandler;
-import com.douglas.api.mapper.DeviceDtoMapper;
+import com.douglas.api.service.DeviceAutocomplete;
+import com.douglas.api.service.DeviceExporter;
+import com.douglas.api.service.DeviceImporter;
 import com.douglas.api.service.DeviceService;
+import com.douglas.api.service.DeviceStateCounters;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
 import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.core.query.DeviceStatsGranularity;
 import com.douglas.persistence.entity.DeviceEntity;
 import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.BulkResult;
+import com.douglas.persistence.repository.DeviceCreationCount;
+import com.douglas.persistence.repository.DeviceExportRange;
+import com.douglas.persistence.repository.DeviceImportCounts;
+import com.douglas.persistence.repository.DeviceImportRow;
 import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.DeviceSearchMatch;
+import com.douglas.persistence.repository.DeviceSearchResult;
+import com.douglas.persistence.repository.DeviceStateChange;
+import com.douglas.persistence.repository.DeviceUpdate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 class DeviceControllerTest {
@@ -35,6 +78,10 @@ class DeviceControllerTest {
   private MockMvc mockMvc;
   private DeviceRepository repository; // mock
   private DeviceService deviceService; // real
+  private DeviceStateCounters stateCounters; // real
+  private DeviceAutocomplete autocomplete; // real
+  private DeviceEventBroadcaster events; // real
+  private DeviceExporter deviceExporter; // real
   private final DeviceMapper entityMapper = new DeviceMapper(); // real
   private final DeviceDtoMapper dtoMapper = new DeviceDtoMapper(); // real
   private ObjectMapper objectMapper;
@@ -42,17 +89,50 @@ class DeviceControllerTest {
   @BeforeEach
   void setup() {
     repository = Mockito.mock(DeviceRepository.class);
-    deviceService = new DeviceService(repository, entityMapper, dtoMapper);
+    stateCounters = new DeviceStateCounters(repository, new SimpleMeterRegistry());
+    autocomplete =
+        new DeviceAutocomplete(repository, new AutocompleteProperties(10, 50, 1000, true));
+    events =
+        new DeviceEventBroadcaster(
+            new EventsProperties(64, 1, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+    DeviceRequestValidator validator =
+        new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator());
+    deviceService =
+        new DeviceService(
+            repository,
+            entityMapper,
+            dtoMapper,
+            new PaginationProperties(50, 500),
+            new StreamingProperties(500),
+            new BatchProperties(2, 5),
+            new SearchProperties(20, 100, 200),
+            stateCounters,
+            new AutocompleteProperties(10, 50, 1000, true),
+            autocomplete,
+            events,
+            validator);
 
     objectMapper =
         new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-    DeviceController controller = new DeviceController(deviceService);
+    DeviceImporter deviceImporter =
+        new DeviceImporter(
+            repository, objectMapper, new ImportProperties(1000), stateCounters, events, validator);
+    deviceExporter =
+        new DeviceExporter(repository, new ExportProperties(2, 16, 1, Duration.ofSeconds(5)));
+    DeviceController controller =
+        new DeviceController(
+            deviceService,
+            deviceImporter,
+            deviceExporter,
+            objectMapper,
+            new StreamingProperties(500),
+            new BatchProperties(2, 5));
     mockMvc =
         MockMvcBuilders.standaloneSetup(controller)
-            .setControllerAdvice(new GlobalExceptionHandler())
+            .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
             .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
             .build();
   }
@@ -83,6 +163,11 @@ class DeviceControllerTest {
     }
   }
 
+  // leituras projetam direto no DTO, sem passar pela entidade
+  private DeviceResponseDto view(DeviceEntity entity) {
+    return dtoMapper.toResponseDto(entityMapper.toDomain(entity));
+  }
+
   @Test
   @DisplayName("POST /devices → 200 OK com device criado")
   void createDevice_returnsOk() throws Exception {
@@ -116,20 +201,87 @@ class DeviceControllerTest {
         .andExpect(jsonPath("$.state", is("IN_USE")));
   }
 
+  @Test
+  @DisplayName("POST /devices com marca longa demais → 400 Bad Request")
+  void createDevice_withOverlongBrand_returnsBadRequest() throws Exception {
+    String body =
+        """
+          { "name": "Router X", "brand": "%s", "state": "IN_USE" }
+        """
+            .formatted("b".repeat(256));
+
+    mockMvc
+        .perform(post("/devices").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", is("Brand must be at most 255 characters")));
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("POST /devices/batch → 200 OK com resultado por item")
+  void createDevices_returnsPerItemResults() throws Exception {
+    String body =
+        """
+          [
+            { "name": "Router X", "brand": "TP-Link", "state": "AVAILABLE" },
+            { "name": "", "brand": "TP-Link", "state": "AVAILABLE" },
+            { "name": "%s", "brand": "TP-Link", "state": "AVAILABLE" }
+          ]
+        """
+            .formatted("x".repeat(256));
+
+    mockMvc
+        .perform(post("/devices/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created", is(1)))
+        .andExpect(jsonPath("$.rejected", is(2)))
+        .andExpect(jsonPath("$.items[0].status", is("CREATED")))
+        .andExpect(jsonPath("$.items[0].device.name", is("Router X")))
+        .andExpect(jsonPath("$.items[1].status", is("REJECTED")))
+        .andExpect(jsonPath("$.items[1].error", is("Name is required")))
+        .andExpect(jsonPath("$.items[2].error", is("Name must be at most 255 characters")));
+
+    verify(repository).insertAll(anyList());
+  }
+
+  @Test
+  @DisplayName("POST /devices/batch vazio → 400 Bad Request")
+  void createDevices_empty_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(post("/devices/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("POST /devices/batch acima do limite → 400 Bad Request sem ler o restante")
+  void createDevices_oversized_returnsBadRequestBeforeReadingTheRest() throws Exception {
+    // The body is cut short after the sixth device: only the first five may be read.
+    String body = "[" + "{\"name\":\"Hub\",\"brand\":\"Acme\",\"state\":\"IN_USE\"},".repeat(6);
+
+    mockMvc
+        .perform(post("/devices/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", is("Batch must not contain more than 5 devices")));
+
+    verifyNoInteractions(repository);
+  }
+
   @Test
   @DisplayName("GET /devices/{id} → 200 OK com device")
   void getDeviceById_returnsOk() throws Exception {
     UUID id = UUID.randomUUID();
     doReturn(
             Optional.of(
-                newEntity(
-                    id,
-                    "Router X",
-                    "TP-Link",
-                    DeviceState.IN_USE,
-                    Instant.parse("2025-08-07T10:00:00Z"))))
+                view(
+                    newEntity(
+                        id,
+                        "Router X",
+                        "TP-Link",
+                        DeviceState.IN_USE,
+                        Instant.parse("2025-08-07T10:00:00Z")))))
         .when(repository)
-        .findById(eq(id));
+        .findViewById(eq(id), eq(DeviceResponseDto.class));
 
     mockMvc
         .perform(get("/devices/{id}", id))
@@ -138,7 +290,62 @@ class DeviceControllerTest {
         .andExpect(jsonPath("$.id", is(id.toString())))
         .andExpect(jsonPath("$.name", is("Router X")))
         .andExpect(jsonPath("$.brand", is("TP-Link")))
-        .andExpect(jsonPath("$.state", is("IN_USE")));
+        .andExpect(jsonPath("$.state", is("IN_USE")))
+        .andExpect(header().string("ETag", "\"0\""));
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id} com If-None-Match igual → 304 Not Modified sem corpo")
+  void getDeviceById_withMatchingETag_returnsNotModified() throws Exception {
+    UUID id = UUID.randomUUID();
+    DeviceEntity entity =
+        newEntity(
+            id, "Router X", "TP-Link", DeviceState.IN_USE, Instant.parse("2025-08-07T10:00:00Z"));
+    set(entity, "version", 5L);
+    doReturn(Optional.of(view(entity)))
+        .when(repository)
+        .findViewById(eq(id), eq(DeviceResponseDto.class));
+
+    mockMvc
+        .perform(get("/devices/{id}", id).header("If-None-Match", "\"5\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  @DisplayName("PATCH /devices/{id} com If-Match desatualizado → 412 Precondition Failed")
+  void patchDevice_withStaleETag_returnsPreconditionFailed() throws Exception {
+    UUID id = UUID.randomUUID();
+    DeviceEntity entity =
+        newEntity(
+            id,
+            "Router X",
+            "TP-Link",
+            DeviceState.AVAILABLE,
+            Instant.parse("2025-08-07T10:00:00Z"));
+    set(entity, "version", 6L);
+    doReturn(Optional.empty())
+        .when(repository)
+        .updateIfAllowed(eq(id), isNull(), isNull(), eq(DeviceState.INACTIVE), eq(5L));
+    doReturn(Optional.of(entity)).when(repository).findById(eq(id));
+
+    mockMvc
+        .perform(
+            patch("/devices/{id}", id)
+                .header("If-Match", "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"state\":\"INACTIVE\"}"))
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} com If-Match inválido → 412 Precondition Failed")
+  void deleteDevice_withWeakETag_returnsPreconditionFailed() throws Exception {
+    mockMvc
+        .perform(delete("/devices/{id}", UUID.randomUUID()).header("If-Match", "W/\"5\""))
+        .andExpect(status().isPreconditionFailed());
+
+    verifyNoInteractions(repository);
   }
 
   @Test
@@ -149,49 +356,283 @@ class DeviceControllerTest {
         newEntity(
             id, "Router X", "TP-Link", DeviceState.IN_USE, Instant.parse("2025-08-07T10:00:00Z"));
 
-    doReturn(List.of(item)).when(repository).findByNameContainingIgnoreCase(anyString());
-    doReturn(List.of(item)).when(repository).findByBrandContainingIgnoreCase(anyString());
-    doReturn(List.of(item)).when(repository).findByState(eq(DeviceState.IN_USE));
-    doReturn(List.of(item)).when(repository).findAll();
+    doReturn(List.of(view(item)))
+        .when(repository)
+        .findPage(any(), any(), any(), anyInt(), eq(DeviceResponseDto.class));
 
     mockMvc
         .perform(
             get("/devices")
                 .param("name", "Router X")
                 .param("brand", "TP-Link")
-                .param("state", "IN_USE"))
+                .param("state", "IN_USE", "AVAILABLE"))
         .andExpect(status().isOk())
         .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-        .andExpect(jsonPath("$", hasSize(1)))
-        .andExpect(jsonPath("$[0].id", is(id.toString())))
-        .andExpect(jsonPath("$[0].state", is("IN_USE")));
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].id", is(id.toString())))
+        .andExpect(jsonPath("$.items[0].state", is("IN_USE")))
+        .andExpect(jsonPath("$.next").doesNotExist());
+
+    verify(repository)
+        .findPage(
+            any(), eq(DeviceSort.CREATION_TIME_ASC), isNull(), eq(51), eq(DeviceResponseDto.class));
+    verify(repository, never()).findAll();
   }
 
   @Test
-  @DisplayName("PUT /devices/{id} → 200 OK com device atualizado")
-  void updateDevice_returnsOk() throws Exception {
-    UUID id = UUID.randomUUID();
+  @DisplayName("GET /devices/stats → 200 OK com contagens por hora, marca e estado")
+  void getCreationStats_returnsOk() throws Exception {
+    Instant bucket = Instant.parse("2025-08-07T10:00:00Z");
+    doReturn(List.of(new DeviceCreationCount(bucket, "TP-Link", DeviceState.IN_USE, 7)))
+        .when(repository)
+        .countCreations(
+            eq(bucket),
+            eq(Instant.parse("2025-08-07T12:00:00Z")),
+            eq(DeviceStatsGranularity.HOUR),
+            any());
+
+    mockMvc
+        .perform(
+            get("/devices/stats")
+                .param("from", "2025-08-07T10:00:00Z")
+                .param("to", "2025-08-07T12:00:00Z")
+                .param("brand", "TP-Link"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.granularity", is("hour")))
+        .andExpect(jsonPath("$.total", is(7)))
+        .andExpect(jsonPath("$.buckets", hasSize(1)))
+        .andExpect(jsonPath("$.buckets[0].brand", is("TP-Link")))
+        .andExpect(jsonPath("$.buckets[0].state", is("IN_USE")));
+  }
+
+  @Test
+  @DisplayName("GET /devices/stats com granularidade inválida → 400 Bad Request")
+  void getCreationStats_invalidGranularity_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/stats").param("granularity", "week"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(repository);
+  }
 
+  @Test
+  @DisplayName("GET /devices/search → 200 OK com resultados ordenados por similaridade")
+  void searchDevices_returnsOk() throws Exception {
+    UUID id = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
     doReturn(
-            Optional.of(
-                newEntity(
-                    id,
-                    "Old",
-                    "OldBrand",
+            new DeviceSearchResult(
+                List.of(
+                    new DeviceSearchMatch(
+                        id,
+                        "Router X",
+                        "TP-Link",
+                        DeviceState.AVAILABLE,
+                        Instant.parse("2025-08-07T10:00:00Z"),
+                        0,
+                        0.8)),
+                false))
+        .when(repository)
+        .search("routr", 5, 200);
+
+    mockMvc
+        .perform(get("/devices/search").param("q", " routr ").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.query", is("routr")))
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].id", is(id.toString())))
+        .andExpect(jsonPath("$.items[0].name", is("Router X")))
+        .andExpect(jsonPath("$.items[0].score", is(0.8)))
+        .andExpect(jsonPath("$.truncated", is(false)));
+  }
+
+  @Test
+  @DisplayName("GET /devices/search sem q → 400 Bad Request")
+  void searchDevices_missingQuery_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/search"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", containsString("q must have")));
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices/autocomplete → 200 OK com sugestões mais usadas primeiro")
+  void suggest_returnsOk() throws Exception {
+    doReturn(Map.of()).when(repository).countByBrand(1000);
+    doReturn(Map.of("Router X", 4L, "router x", 1L, "Router Y", 2L, "Sensor", 9L))
+        .when(repository)
+        .countByName(1000);
+    autocomplete.refresh();
+
+    mockMvc
+        .perform(get("/devices/autocomplete").param("field", "name").param("prefix", "rou"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.field", is("name")))
+        .andExpect(jsonPath("$.prefix", is("rou")))
+        .andExpect(jsonPath("$.suggestions", hasSize(2)))
+        .andExpect(jsonPath("$.suggestions[0].value", is("Router X")))
+        .andExpect(jsonPath("$.suggestions[0].devices", is(5)))
+        .andExpect(jsonPath("$.suggestions[1].value", is("Router Y")));
+  }
+
+  @Test
+  @DisplayName("GET /devices/autocomplete com field inválido → 400 Bad Request")
+  void suggest_invalidField_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/autocomplete").param("field", "model"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", containsString("Unsupported field")));
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id}/history → 200 OK com mudanças de estado, mais recentes primeiro")
+  void getStateHistory_returnsOk() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(repository.findHistory(id, null, 51))
+        .thenReturn(
+            List.of(
+                new DeviceStateChange(
                     DeviceState.AVAILABLE,
-                    Instant.parse("2025-08-01T10:00:00Z"))))
+                    DeviceState.IN_USE,
+                    1,
+                    Instant.parse("2025-08-07T11:00:00Z")),
+                new DeviceStateChange(
+                    null, DeviceState.AVAILABLE, 0, Instant.parse("2025-08-07T10:00:00Z"))));
+
+    mockMvc
+        .perform(get("/devices/{id}/history", id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(2)))
+        .andExpect(jsonPath("$.items[0].previousState", is("AVAILABLE")))
+        .andExpect(jsonPath("$.items[0].state", is("IN_USE")))
+        .andExpect(jsonPath("$.items[0].changedAt", is("2025-08-07T11:00:00Z")))
+        .andExpect(jsonPath("$.items[1].previousState").doesNotExist())
+        .andExpect(jsonPath("$.next").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("GET /devices/{id}/history de device inexistente → 404 Not Found")
+  void getStateHistory_unknownDevice_returnsNotFound() throws Exception {
+    UUID id = UUID.randomUUID();
+    when(repository.findHistory(id, null, 51)).thenReturn(List.of());
+    when(repository.existsById(id)).thenReturn(false);
+
+    mockMvc.perform(get("/devices/{id}/history", id)).andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("GET /devices/events → stream SSE aberto com evento ready")
+  void streamEvents_opensStream() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/devices/events")
+                    .param("brand", "TP-Link")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+            .andReturn();
+
+    assertThat(result.getResponse().getContentAsString(), containsString("event:ready"));
+    assertThat(events.subscribers(), is(1));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices/counts → 200 OK com contagens por estado")
+  void getStateCounts_returnsOk() throws Exception {
+    when(repository.countByState())
+        .thenReturn(
+            Map.of(DeviceState.AVAILABLE, 3L, DeviceState.IN_USE, 2L, DeviceState.INACTIVE, 0L));
+    stateCounters.reconcile();
+    stateCounters.created(DeviceState.IN_USE);
+
+    mockMvc
+        .perform(get("/devices/counts"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.states.AVAILABLE", is(3)))
+        .andExpect(jsonPath("$.states.IN_USE", is(3)))
+        .andExpect(jsonPath("$.states.INACTIVE", is(0)))
+        .andExpect(jsonPath("$.total", is(6)))
+        .andExpect(jsonPath("$.reconciledAt").exists());
+
+    verify(repository).countByState();
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices com cursor inválido → 400 Bad Request")
+  void listDevices_withInvalidCursor_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices").param("cursor", "invalid"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", is("Invalid cursor")));
+  }
+
+  @Test
+  @DisplayName("GET /devices como NDJSON → 200 OK com um device por linha")
+  void streamDevices_returnsNdjson() throws Exception {
+    UUID idA = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    UUID idB = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+    Instant creation = Instant.parse("2025-08-07T10:00:00Z");
+    doReturn(
+            Stream.of(
+                newEntity(idA, "Router X", "TP-Link", DeviceState.IN_USE, creation),
+                newEntity(idB, "Router Y", "TP-Link", DeviceState.AVAILABLE, creation)))
         .when(repository)
-        .findById(eq(id));
+        .streamAll(any(), isNull(), eq(500));
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/devices").param("brand", "TP-Link").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(
+            content()
+                .string(
+                    allOf(
+                        Matchers.startsWith("{\"id\":\"" + idA + "\""),
+                        containsString("\n{\"id\":\"" + idB + "\""),
+                        Matchers.endsWith("}\n"))));
+  }
+
+  @Test
+  @DisplayName("GET /devices como NDJSON com sort inválido → 400 Bad Request")
+  void streamDevices_withInvalidSort_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices").param("sort", "brand").accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(status().isBadRequest());
+
+    verify(repository, never()).streamAll(any(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("PUT /devices/{id} → 200 OK com device atualizado")
+  void updateDevice_returnsOk() throws Exception {
+    UUID id = UUID.randomUUID();
 
     doReturn(
-            newEntity(
-                id,
-                "Router X",
-                "TP-Link",
-                DeviceState.IN_USE,
-                Instant.parse("2025-08-01T10:00:00Z")))
+            Optional.of(
+                new DeviceUpdate(
+                    newEntity(
+                        id,
+                        "Router X",
+                        "TP-Link",
+                        DeviceState.IN_USE,
+                        Instant.parse("2025-08-01T10:00:00Z")),
+                    "Router X",
+                    "TP-Link",
+                    DeviceState.AVAILABLE)))
         .when(repository)
-        .save(any());
+        .updateIfAllowed(eq(id), eq("Router X"), eq("TP-Link"), eq(DeviceState.IN_USE), isNull());
 
     String body =
         """
@@ -217,24 +658,18 @@ class DeviceControllerTest {
 
     doReturn(
             Optional.of(
-                newEntity(
-                    id,
+                new DeviceUpdate(
+                    newEntity(
+                        id,
+                        "Router X",
+                        "TP-Link",
+                        DeviceState.IN_USE,
+                        Instant.parse("2025-08-01T10:00:00Z")),
                     "Router X",
                     "TP-Link",
-                    DeviceState.AVAILABLE,
-                    Instant.parse("2025-08-01T10:00:00Z"))))
-        .when(repository)
-        .findById(eq(id));
-
-    doReturn(
-            newEntity(
-                id,
-                "Router X",
-                "TP-Link",
-                DeviceState.IN_USE,
-                Instant.parse("2025-08-01T10:00:00Z")))
+                    DeviceState.AVAILABLE)))
         .when(repository)
-        .save(any());
+        .updateIfAllowed(eq(id), isNull(), isNull(), eq(DeviceState.IN_USE), isNull());
 
     String body = """
           {
@@ -275,6 +710,49 @@ class DeviceControllerTest {
     verifyNoMoreInteractions(repository);
   }
 
+  @Test
+  @DisplayName("DELETE /devices/{id} alterado concorrentemente, sem If-Match → 409 Conflict")
+  void deleteDevice_changedConcurrentlyWithoutIfMatch_returnsConflict() throws Exception {
+    UUID id = UUID.randomUUID();
+    doReturn(
+            Optional.of(
+                newEntity(
+                    id,
+                    "Router X",
+                    "TP-Link",
+                    DeviceState.AVAILABLE,
+                    Instant.parse("2025-08-01T10:00:00Z"))))
+        .when(repository)
+        .findById(eq(id));
+    doThrow(new OptimisticLockingFailureException("Device changed while being deleted"))
+        .when(repository)
+        .delete(org.mockito.ArgumentMatchers.<DeviceEntity>any());
+
+    mockMvc.perform(delete("/devices/{id}", id)).andExpect(status().isConflict());
+  }
+
+  @Test
+  @DisplayName("DELETE /devices/{id} alterado concorrentemente, com If-Match → 412")
+  void deleteDevice_changedConcurrentlyWithIfMatch_returnsPreconditionFailed() throws Exception {
+    UUID id = UUID.randomUUID();
+    DeviceEntity entity =
+        newEntity(
+            id,
+            "Router X",
+            "TP-Link",
+            DeviceState.AVAILABLE,
+            Instant.parse("2025-08-01T10:00:00Z"));
+    set(entity, "version", 3L);
+    doReturn(Optional.of(entity)).when(repository).findById(eq(id));
+    doThrow(new OptimisticLockingFailureException("Device changed while being deleted"))
+        .when(repository)
+        .delete(org.mockito.ArgumentMatchers.<DeviceEntity>any());
+
+    mockMvc
+        .perform(delete("/devices/{id}", id).header("If-Match", "\"3\""))
+        .andExpect(status().isPreconditionFailed());
+  }
+
   @Test
   @DisplayName("DELETE /devices/{id} com state = IN_USE → 409 Conflict")
   void deleteDevice_inUse_returnsConflict() throws Exception {
@@ -295,4 +773,163 @@ class DeviceControllerTest {
         .perform(delete("/devices/{id}", id))
         .andExpect(status().isBadRequest()); // 400, conforme seu handler atual
   }
+
+  @Test
+  @DisplayName("PATCH /devices?brand=... → 200 OK com contagem de alterados e ignorados")
+  void changeStateMatching_returnsCounts() throws Exception {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("TP-Link"), null);
+    doReturn(new BulkResult(5, 2))
+        .when(repository)
+        .updateStateMatching(eq(filter), eq(DeviceState.INACTIVE));
+
+    mockMvc
+        .perform(
+            patch("/devices")
+                .param("brand", "TP-Link")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"state\":\"INACTIVE\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.affected", is(5)))
+        .andExpect(jsonPath("$.skippedInUse", is(2)));
+  }
+
+  @Test
+  @DisplayName("DELETE /devices?brand=...&state=... → 200 OK com contagem de removidos")
+  void deleteMatching_returnsCounts() throws Exception {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("TP-Link"), List.of(DeviceState.INACTIVE));
+    doReturn(new BulkResult(4, 0)).when(repository).deleteMatching(eq(filter));
+
+    mockMvc
+        .perform(delete("/devices").param("brand", "TP-Link").param("state", "INACTIVE"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.affected", is(4)))
+        .andExpect(jsonPath("$.skippedInUse", is(0)));
+  }
+
+  @Test
+  @DisplayName("DELETE /devices sem filtros → 400 Bad Request")
+  void deleteMatching_withoutFilter_returnsBadRequest() throws Exception {
+    mockMvc.perform(delete("/devices")).andExpect(status().isBadRequest());
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("POST /devices/import CSV → 200 OK com importados, duplicados e rejeitados")
+  void importDevices_csv_returnsCountsAndRejections() throws Exception {
+    List<DeviceImportRow> staged = new ArrayList<>();
+    when(repository.importDevices(any()))
+        .thenAnswer(
+            invocation -> {
+              Iterator<DeviceImportRow> rows = invocation.getArgument(0);
+              rows.forEachRemaining(staged::add);
+              return new DeviceImportCounts(staged.size(), staged.size() - 1);
+            });
+
+    mockMvc
+        .perform(
+            post("/devices/import")
+                .contentType("text/csv")
+                .content(
+                    "name,brand,state\n"
+                        + "Router,TP-Link,AVAILABLE\n"
+                        + ",TP-Link,AVAILABLE\n"
+                        + "\"Switch, 24 ports\",Cisco,IN_USE\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(1)))
+        .andExpect(jsonPath("$.duplicates", is(1)))
+        .andExpect(jsonPath("$.rejected", is(1)))
+        .andExpect(jsonPath("$.rejections[0].line", is(3)))
+        .andExpect(jsonPath("$.rejections[0].error", is("Name is required")));
+
+    assertThat(staged, hasSize(2));
+    assertThat(staged.get(1).name(), is("Switch, 24 ports"));
+  }
+
+  @Test
+  @DisplayName("POST /devices/import CSV sem coluna obrigatória → 400 Bad Request")
+  void importDevices_csvWithoutStateColumn_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/devices/import").contentType("text/csv").content("name,brand\nRouter,TP-Link\n"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices/export com gzip → 200 OK com CSV comprimido de todas as faixas")
+  void exportDevices_withGzip_returnsCompressedCsvOfEveryRange() throws Exception {
+    List<DeviceExportRange> ranges =
+        List.of(new DeviceExportRange("snap", 0, 10L), new DeviceExportRange("snap", 10, null));
+    when(repository.withExportSnapshot(eq(2), any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Function<List<DeviceExportRange>, Object>>getArgument(1).apply(ranges));
+    when(repository.exportRange(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              DeviceExportRange range = invocation.getArgument(0);
+              OutputStream out = invocation.getArgument(2);
+              out.write(
+                  ("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaa%02d,\"Router, %d\",TP-Link,IN_USE,2025-08-07T10:00:00.000000Z,0\n"
+                          .formatted(range.fromBlock(), range.fromBlock()))
+                      .getBytes(StandardCharsets.UTF_8));
+              return 1L;
+            });
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/devices/export")
+                    .param("format", "csv")
+                    .param("brand", "TP-Link")
+                    .header("Accept-Encoding", "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    byte[] compressed =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("Content-Encoding", "gzip"))
+            .andExpect(header().string("Content-Disposition", containsString("devices.csv")))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    String csv =
+        new String(
+            new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+            StandardCharsets.UTF_8);
+    assertThat(csv, Matchers.startsWith("id,name,brand,state,creationTime,version\n"));
+    assertThat(csv, containsString("\"Router, 0\",TP-Link"));
+    assertThat(csv, containsString("\"Router, 10\",TP-Link"));
+    verify(repository, times(2))
+        .exportRange(any(), eq(DeviceFilter.of(null, List.of("TP-Link"), null)), any());
+  }
+
+  @Test
+  @DisplayName("GET /devices/export com exportação em andamento → 503 Service Unavailable")
+  void exportDevices_whileAnotherExportRuns_returnsServiceUnavailable() throws Exception {
+    try (DeviceExporter.Permit running = deviceExporter.reserve()) {
+      mockMvc
+          .perform(get("/devices/export"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(jsonPath("$.error", containsString("Too many exports")));
+    }
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("GET /devices/export?format=xml → 400 Bad Request")
+  void exportDevices_withUnsupportedFormat_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/export").param("format", "xml"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error", containsString("Unsupported export format")));
+
+    verifyNoInteractions(repository);
+  }
 }
@@ -0,0 +1,306 @@
+package com.douglas.api.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.api.config.EventsProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class DeviceEventBroadcasterTest {
+
+  private static final Pattern FRAME = Pattern.compile("id:(\\S+)\\nevent:(\\S+)");
+
+  private ManualExecutor senders;
+  private SimpleMeterRegistry registry;
+  private DeviceEventBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() {
+    senders = new ManualExecutor();
+    registry = new SimpleMeterRegistry();
+    broadcaster =
+        new DeviceEventBroadcaster(
+            new EventsProperties(8, 1, Duration.ofSeconds(5)), registry, senders);
+  }
+
+  private static DeviceResponseDto device(String brand, DeviceState state) {
+    return new DeviceResponseDto(
+        UUID.randomUUID(), "Router X", brand, state, Instant.parse("2025-08-07T10:00:00Z"), 0);
+  }
+
+  private RecordingEmitter subscribe(DeviceFilter filter, String lastEventId) {
+    RecordingEmitter emitter = new RecordingEmitter();
+    broadcaster.subscribe(emitter, filter, lastEventId);
+    senders.runAll();
+    return emitter;
+  }
+
+  @Test
+  void newSubscriber_receivesReadyThenEveryChange() {
+    RecordingEmitter emitter = subscribe(DeviceFilter.none(), null);
+
+    broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    broadcaster.updated(device("Acme", DeviceState.IN_USE), "Acme", DeviceState.AVAILABLE);
+    broadcaster.deleted(device("Acme", DeviceState.IN_USE));
+    senders.runAll();
+
+    assertEquals(List.of("ready", "created", "updated", "deleted"), emitter.names());
+    assertEquals(1, broadcaster.subscribers());
+  }
+
+  @Test
+  void filters_matchValuesBeforeOrAfterTheChange() {
+    RecordingEmitter byBrand = subscribe(DeviceFilter.of(null, List.of("ACME"), null), null);
+    RecordingEmitter byState =
+        subscribe(DeviceFilter.of(null, null, List.of(DeviceState.IN_USE)), null);
+
+    broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    broadcaster.created(device("Globex", DeviceState.AVAILABLE));
+    broadcaster.updated(device("Globex", DeviceState.IN_USE), "Acme", DeviceState.AVAILABLE);
+    broadcaster.updated(device("Globex", DeviceState.AVAILABLE), "Globex", DeviceState.IN_USE);
+    broadcaster.resync("bulk");
+    senders.runAll();
+
+    assertEquals(List.of("ready", "created", "updated", "resync"), byBrand.names());
+    assertEquals(List.of("ready", "updated", "updated", "resync"), byState.names());
+  }
+
+  @Test
+  void lastEventId_resumesAfterTheLastReceivedEvent() {
+    RecordingEmitter first = subscribe(DeviceFilter.none(), null);
+    broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    broadcaster.created(device("Globex", DeviceState.AVAILABLE));
+    broadcaster.created(device("Initech", DeviceState.AVAILABLE));
+    senders.runAll();
+
+    RecordingEmitter resumed = subscribe(DeviceFilter.none(), first.ids().get(1));
+
+    assertEquals(List.of("created", "created"), resumed.names());
+    assertEquals(first.ids().subList(2, 4), resumed.ids());
+  }
+
+  @Test
+  void lastEventId_fromAnotherRingOrNoLongerBuffered_asksForResync() {
+    RecordingEmitter first = subscribe(DeviceFilter.none(), null);
+    for (int i = 0; i < 10; i++) {
+      broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    }
+    senders.runAll();
+
+    assertEquals(List.of("resync"), subscribe(DeviceFilter.none(), "other-1").names());
+    assertEquals(List.of("resync"), subscribe(DeviceFilter.none(), first.ids().get(0)).names());
+    assertEquals(
+        2.0,
+        registry
+            .get(MetricsConfig.EVENT_RESYNCS_COUNTER)
+            .tag("reason", "expired")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void slowSubscriber_isSentResyncAndMovedToTheNewestEvent() {
+    RecordingEmitter emitter = subscribe(DeviceFilter.none(), null);
+
+    for (int i = 0; i < 20; i++) {
+      broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    }
+    senders.runAll();
+    broadcaster.deleted(device("Acme", DeviceState.AVAILABLE));
+    senders.runAll();
+
+    assertEquals(List.of("ready", "resync", "deleted"), emitter.names());
+    assertTrue(emitter.frames.get(1).contains("overflow"));
+  }
+
+  @Test
+  void changesInsideATransaction_arePublishedOnCommit() {
+    RecordingEmitter emitter = subscribe(DeviceFilter.none(), null);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+      senders.runAll();
+      assertEquals(List.of("ready"), emitter.names());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    senders.runAll();
+
+    assertEquals(List.of("ready", "created"), emitter.names());
+  }
+
+  @Test
+  void failingSubscriber_isDropped() {
+    RecordingEmitter emitter = subscribe(DeviceFilter.none(), null);
+    emitter.failing = true;
+
+    broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    senders.runAll();
+
+    assertEquals(0, broadcaster.subscribers());
+    assertTrue(emitter.failed);
+  }
+
+  @Test
+  void stalledSubscriber_isDroppedAfterTheWriteTimeout() throws InterruptedException {
+    broadcaster =
+        new DeviceEventBroadcaster(
+            new EventsProperties(8, 1, Duration.ofMillis(50)), registry, senders);
+    StalledEmitter stalled = new StalledEmitter();
+    broadcaster.subscribe(stalled, DeviceFilter.none(), null);
+    RecordingEmitter other = subscribe(DeviceFilter.none(), null);
+    senders.runAll();
+    stalled.stalled = true;
+
+    broadcaster.created(device("Acme", DeviceState.AVAILABLE));
+    senders.runAll();
+
+    try {
+      assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+      assertEquals(1, broadcaster.subscribers());
+      assertEquals(List.of("ready", "created"), other.names());
+    } finally {
+      stalled.release.countDown();
+    }
+  }
+
+  @Test
+  void heartbeat_sendsACommentToEverySubscriber() {
+    RecordingEmitter emitter = subscribe(DeviceFilter.none(), null);
+
+    broadcaster.heartbeat();
+    senders.runAll();
+
+    assertEquals(2, emitter.frames.size());
+    assertTrue(emitter.frames.get(1).startsWith(":heartbeat"));
+  }
+
+  /** Runs submitted tasks only when asked, in submission order. */
+  private static final class ManualExecutor extends AbstractExecutorService {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.remove(0).run();
+      }
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+
+  /** Accepts writes until {@code stalled} is set, then blocks them like a full socket buffer. */
+  private static final class StalledEmitter extends SseEmitter {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile boolean stalled;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (stalled) {
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          throw new IOException("Write interrupted", ex);
+        }
+      }
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+      completed.countDown();
+    }
+  }
+
+  /** Keeps every event as text instead of writing it to a response. */
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<String> frames = new ArrayList<>();
+    private boolean failing;
+    private boolean failed;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (failing) {
+        throw new IOException("Broken pipe");
+      }
+      StringBuilder frame = new StringBuilder();
+      builder.build().forEach(part -> frame.append(part.getData()));
+      frames.add(frame.toString());
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+      failed = true;
+    }
+
+    List<String> names() {
+      return matches(2);
+    }
+
+    List<String> ids() {
+      return matches(1);
+    }
+
+    private List<String> matches(int group) {
+      List<String> values = new ArrayList<>();
+      for (String frame : frames) {
+        Matcher matcher = FRAME.matcher(frame);
+        if (matcher.find()) {
+          values.add(matcher.group(group));
+        }
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.douglas.api.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DeviceEventRingTest {
+
+  private final DeviceEventRing ring = new DeviceEventRing(4);
+
+  private static DeviceEvent event(String name) {
+    return DeviceEvent.control(name, name);
+  }
+
+  private static List<String> names(DeviceEventRing.Batch batch) {
+    return batch.entries().stream().map(entry -> entry.event().name()).toList();
+  }
+
+  @Test
+  void readsEventsAfterTheCursorInOrder() {
+    assertEquals(0, ring.head());
+    assertEquals(1, ring.append(event("a")));
+    ring.append(event("b"));
+    ring.append(event("c"));
+
+    assertEquals(List.of("b", "c"), names(ring.read(1, 10)));
+    assertEquals(List.of("a"), names(ring.read(0, 1)));
+    assertEquals(List.of(), names(ring.read(3, 10)));
+    assertFalse(ring.read(0, 10).gap());
+  }
+
+  @Test
+  void reportsAGapOnceUnreadEventsAreOverwritten() {
+    for (String name : List.of("a", "b", "c", "d", "e", "f")) {
+      ring.append(event(name));
+    }
+
+    assertTrue(ring.read(1, 10).gap());
+    assertTrue(ring.read(1, 10).entries().isEmpty());
+    assertEquals(List.of("c", "d", "e", "f"), names(ring.read(2, 10)));
+    assertFalse(ring.retains(1));
+    assertTrue(ring.retains(2));
+    assertFalse(ring.retains(7));
+    assertFalse(ring.retains(-1));
+  }
+}
@@ -2,6 +2,11 @@ package com.douglas.api.exception;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -9,7 +14,8 @@ import org.springframework.http.ResponseEntity;
 
 class GlobalExceptionHandlerTest {
 
-  private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final GlobalExceptionHandler handler = new GlobalExceptionHandler(registry);
 
   @Test
   void shouldHandleNotFoundException() {
@@ -21,6 +27,8 @@ class GlobalExceptionHandlerTest {
     assertEquals(404, response.getStatusCodeValue());
     assertNotNull(response.getBody());
     assertTrue(response.getBody().get("error").toString().contains(id.toString()));
+    assertEquals(
+        1, registry.get(MetricsConfig.ERRORS_COUNTER).tag("type", "not_found").counter().count());
   }
 
   @Test
@@ -32,6 +40,18 @@ class GlobalExceptionHandlerTest {
     assertEquals(400, response.getStatusCodeValue());
     assertNotNull(response.getBody());
     assertEquals("Device is in use", response.getBody().get("error"));
+    assertEquals(
+        1, registry.get(MetricsConfig.ERRORS_COUNTER).tag("type", "in_use").counter().count());
+  }
+
+  @Test
+  void shouldHandlePreconditionFailedException() {
+    PreconditionFailedException ex = new PreconditionFailedException("Device is at version 2");
+
+    ResponseEntity<Map<String, Object>> response = handler.handlePreconditionFailed(ex);
+
+    assertEquals(412, response.getStatusCodeValue());
+    assertEquals("Device is at version 2", response.getBody().get("error"));
   }
 
   @Test
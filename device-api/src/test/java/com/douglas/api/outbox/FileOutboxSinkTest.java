@@ -0,0 +1,46 @@
+package com.douglas.api.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.api.config.OutboxProperties;
+import com.douglas.persistence.repository.OutboxEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileOutboxSinkTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  void publish_appendsOneJsonLinePerEvent() throws Exception {
+    Path file = directory.resolve("outbox.ndjson");
+    UUID deviceId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    Instant occurredAt = Instant.parse("2025-08-07T10:00:00Z");
+    FileOutboxSink sink =
+        new FileOutboxSink(
+            new OutboxProperties(true, 500, Duration.ofDays(1), 100, 10, file.toString()));
+
+    sink.publish(
+        List.of(new OutboxEvent(1, deviceId, "created", "{\"name\": \"Router X\"}", occurredAt)));
+    sink.publish(List.of(new OutboxEvent(2, deviceId, "deleted", "{\"version\": 0}", occurredAt)));
+    sink.destroy();
+
+    assertEquals(
+        List.of(
+            "{\"id\":1,\"deviceId\":\""
+                + deviceId
+                + "\",\"type\":\"created\",\"occurredAt\":\"2025-08-07T10:00:00Z\","
+                + "\"device\":{\"name\": \"Router X\"}}",
+            "{\"id\":2,\"deviceId\":\""
+                + deviceId
+                + "\",\"type\":\"deleted\",\"occurredAt\":\"2025-08-07T10:00:00Z\","
+                + "\"device\":{\"version\": 0}}"),
+        Files.readAllLines(file));
+  }
+}
@@ -0,0 +1,129 @@
+package com.douglas.api.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.api.config.OutboxProperties;
+import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+  @Mock private DeviceRepository repository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final OutboxProperties properties =
+      new OutboxProperties(true, 2, Duration.ofHours(1), 100, 10, "unused");
+  private InMemoryOutboxSink sink;
+  private OutboxRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    sink = new InMemoryOutboxSink(properties);
+    relay =
+        new OutboxRelay(repository, Optional.of(sink), properties, transactionManager, registry);
+  }
+
+  private static List<OutboxEvent> events(long from, long to) {
+    return LongStream.rangeClosed(from, to)
+        .mapToObj(
+            id ->
+                new OutboxEvent(
+                    id,
+                    UUID.randomUUID(),
+                    "created",
+                    "{\"name\":\"Router X\"}",
+                    Instant.parse("2025-08-07T10:00:00Z")))
+        .toList();
+  }
+
+  @Test
+  void relay_publishesAndAcknowledgesBatchesUntilOneIsNotFull() {
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    when(repository.lockUndelivered(2))
+        .thenReturn(events(1, 2), events(3, 4), events(5, 5), List.of());
+
+    relay.relay();
+
+    assertEquals(5, sink.events().size());
+    assertEquals(5, sink.events().get(4).id());
+    verify(repository).markDelivered(List.of(1L, 2L));
+    verify(repository).markDelivered(List.of(3L, 4L));
+    verify(repository).markDelivered(List.of(5L));
+    verify(repository, times(3)).lockUndelivered(2);
+    verify(transactionManager, times(3)).commit(any());
+    assertEquals(5.0, registry.get(MetricsConfig.OUTBOX_RELAYED_COUNTER).counter().count());
+  }
+
+  @Test
+  void relay_whenTheSinkFails_rollsBackWithoutAcknowledging() {
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    when(repository.lockUndelivered(2)).thenReturn(events(1, 2));
+    OutboxSink failing =
+        batch -> {
+          throw new IllegalStateException("Broker unavailable");
+        };
+    relay =
+        new OutboxRelay(repository, Optional.of(failing), properties, transactionManager, registry);
+
+    assertThrows(IllegalStateException.class, relay::relay);
+
+    verify(repository, never()).markDelivered(any());
+    verify(transactionManager).rollback(any());
+    verify(transactionManager, never()).commit(any());
+    assertEquals(1.0, registry.get(MetricsConfig.OUTBOX_FAILURES_COUNTER).counter().count());
+  }
+
+  @Test
+  void prune_deletesChunksUntilOneIsNotFull() {
+    when(repository.pruneDelivered(any(), eq(100))).thenReturn(100, 100, 7);
+
+    Instant before = Instant.now().minus(Duration.ofHours(1));
+    relay.prune();
+
+    verify(repository, times(3))
+        .pruneDelivered(argThat(instant -> !instant.isBefore(before)), eq(100));
+  }
+
+  @Test
+  void disabled_neitherRelaysNorPrunes() {
+    OutboxProperties disabled =
+        new OutboxProperties(false, 2, Duration.ofHours(1), 100, 10, "unused");
+    relay = new OutboxRelay(repository, Optional.empty(), disabled, transactionManager, registry);
+
+    relay.relay();
+    relay.prune();
+
+    verifyNoInteractions(repository, transactionManager);
+  }
+
+  @Test
+  void enabledWithoutSink_failsToStart() {
+    IllegalStateException ex =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                new OutboxRelay(
+                    repository, Optional.empty(), properties, transactionManager, registry));
+
+    assertTrue(ex.getMessage().contains("devices.outbox.sink"));
+  }
+}
@@ -0,0 +1,43 @@
+package com.douglas.api.service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.DeletionProperties;
+import com.douglas.persistence.repository.DeviceRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeletedDevicePurgerTest {
+
+  @Mock private DeviceRepository repository;
+
+  @Test
+  void purge_removesChunksPastRetentionUntilOneIsNotFull() {
+    DeletedDevicePurger purger =
+        new DeletedDevicePurger(repository, new DeletionProperties(Duration.ofDays(30), 100));
+    when(repository.purgeDeleted(any(), eq(100))).thenReturn(100, 100, 7);
+
+    Instant before = Instant.now().minus(Duration.ofDays(30));
+    purger.purge();
+
+    verify(repository, times(3))
+        .purgeDeleted(argThat(instant -> !instant.isBefore(before)), eq(100));
+  }
+
+  @Test
+  void purge_withNothingToRemove_issuesOneStatement() {
+    DeletedDevicePurger purger =
+        new DeletedDevicePurger(repository, new DeletionProperties(Duration.ofDays(30), 100));
+    when(repository.purgeDeleted(any(), eq(100))).thenReturn(0);
+
+    purger.purge();
+
+    verify(repository, times(1)).purgeDeleted(any(), eq(100));
+  }
+}
@@ -0,0 +1,111 @@
+package com.douglas.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.service.DeviceAutocomplete.Field;
+import com.douglas.api.service.PrefixIndex.Completion;
+import com.douglas.persistence.repository.DeviceRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceAutocompleteTest {
+
+  @Mock private DeviceRepository repository;
+
+  private DeviceAutocomplete autocomplete;
+
+  @BeforeEach
+  void setUp() {
+    autocomplete =
+        new DeviceAutocomplete(repository, new AutocompleteProperties(10, 50, 100, true));
+  }
+
+  private void refreshWith(Map<String, Long> brands, Map<String, Long> names) {
+    when(repository.countByBrand(100)).thenReturn(brands);
+    when(repository.countByName(100)).thenReturn(names);
+    autocomplete.refresh();
+  }
+
+  @Test
+  void startsEmpty() {
+    assertEquals(List.of(), autocomplete.complete(Field.BRAND, "", 10));
+    assertNull(autocomplete.refreshedAt());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void afterSingletonsInstantiated_buildsFromRepository() {
+    when(repository.countByBrand(100)).thenReturn(Map.of("TP-Link", 3L, "Tenda", 1L));
+    when(repository.countByName(100)).thenReturn(Map.of("Router X", 2L));
+
+    autocomplete.afterSingletonsInstantiated();
+
+    assertEquals(
+        List.of(new Completion("TP-Link", 3), new Completion("Tenda", 1)),
+        autocomplete.complete(Field.BRAND, "t", 10));
+    assertEquals(
+        List.of(new Completion("Router X", 2)), autocomplete.complete(Field.NAME, "ROUTER", 10));
+    assertNotNull(autocomplete.refreshedAt());
+  }
+
+  @Test
+  void afterSingletonsInstantiated_whenNotBuiltOnStartup_leavesIndexEmpty() {
+    autocomplete =
+        new DeviceAutocomplete(repository, new AutocompleteProperties(10, 50, 100, false));
+
+    autocomplete.afterSingletonsInstantiated();
+
+    assertNull(autocomplete.refreshedAt());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void createdChangedDeleted_followIndexedAndNewTerms() {
+    refreshWith(Map.of("TP-Link", 2L), Map.of("Router X", 2L));
+
+    autocomplete.created("Router X", "Tenda");
+    autocomplete.created("Router Y", "tenda");
+    autocomplete.changed("Router X", "TP-Link", "Router X", "Tenda");
+    autocomplete.deleted("Router Y", "TP-Link");
+
+    assertEquals(List.of(new Completion("Tenda", 3)), autocomplete.complete(Field.BRAND, "t", 10));
+    assertEquals(
+        List.of(new Completion("Router X", 3)), autocomplete.complete(Field.NAME, "r", 10));
+  }
+
+  @Test
+  void refresh_replacesDriftedCountsAndForgetsNewTerms() {
+    refreshWith(Map.of("TP-Link", 2L), Map.of());
+    autocomplete.created("Router X", "Tenda");
+    autocomplete.created("Router X", "Tenda");
+
+    refreshWith(Map.of("TP-Link", 5L, "Tenda", 1L), Map.of());
+
+    assertEquals(
+        List.of(new Completion("TP-Link", 5), new Completion("Tenda", 1)),
+        autocomplete.complete(Field.BRAND, "", 10));
+    assertEquals(List.of(), autocomplete.complete(Field.NAME, "", 10));
+  }
+
+  @Test
+  void newTerms_areBoundedBetweenRefreshes() {
+    for (int i = 0; i < DeviceAutocomplete.MAX_PENDING_TERMS + 10; i++) {
+      autocomplete.created("Device " + i, "Brand");
+    }
+
+    assertEquals(
+        List.of(new Completion("Brand", DeviceAutocomplete.MAX_PENDING_TERMS + 10)),
+        autocomplete.complete(Field.BRAND, "b", 10));
+    assertEquals(
+        List.of(),
+        autocomplete.complete(Field.NAME, "Device " + DeviceAutocomplete.MAX_PENDING_TERMS, 1));
+  }
+}
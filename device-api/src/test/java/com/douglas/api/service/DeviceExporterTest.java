@@ -0,0 +1,207 @@
+package com.douglas.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.ExportProperties;
+import com.douglas.api.exception.ServiceBusyException;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.repository.DeviceExportRange;
+import com.douglas.persistence.repository.DeviceRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceExporterTest {
+
+  private static final List<DeviceExportRange> RANGES =
+      List.of(
+          new DeviceExportRange("snap", 0, 100L),
+          new DeviceExportRange("snap", 100, 200L),
+          new DeviceExportRange("snap", 200, null));
+
+  @Mock private DeviceRepository repository;
+
+  private ExecutorService readers;
+  private DeviceExporter exporter;
+
+  @BeforeEach
+  void setUp() {
+    readers = Executors.newFixedThreadPool(3);
+    // Chunks far smaller than a range, so that ranges interleave and the queue fills up.
+    exporter =
+        new DeviceExporter(
+            repository, new ExportProperties(3, 8, 1, Duration.ofMillis(200)), readers);
+    lenient()
+        .when(repository.withExportSnapshot(eq(3), any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Function<List<DeviceExportRange>, Object>>getArgument(1).apply(RANGES));
+  }
+
+  @AfterEach
+  void tearDown() {
+    exporter.destroy();
+  }
+
+  @Test
+  void exportCsv_writesHeaderThenEveryRangeInRangeOrder() {
+    when(repository.exportRange(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              DeviceExportRange range = invocation.getArgument(0);
+              OutputStream out = invocation.getArgument(2);
+              for (int i = 0; i < 50; i++) {
+                out.write(("%d-%d\n".formatted(range.fromBlock(), i)).getBytes());
+              }
+              return 50L;
+            });
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long exported = exporter.exportCsv(exporter.reserve(), DeviceFilter.none(), out);
+
+    assertThat(exported).isEqualTo(150);
+    String csv = out.toString(StandardCharsets.UTF_8);
+    assertThat(csv).startsWith(DeviceExporter.CSV_HEADER);
+    List<String> rows =
+        Arrays.asList(csv.substring(DeviceExporter.CSV_HEADER.length()).split("\n"));
+    assertThat(rows).hasSize(150);
+    for (DeviceExportRange range : RANGES) {
+      List<String> ofRange =
+          rows.stream().filter(row -> row.startsWith(range.fromBlock() + "-")).toList();
+      assertThat(ofRange).hasSize(50).isSortedAccordingTo(DeviceExporterTest::byIndex);
+    }
+  }
+
+  @Test
+  void exportCsv_whenARangeFails_stopsWithItsFailure() {
+    when(repository.exportRange(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              DeviceExportRange range = invocation.getArgument(0);
+              if (range.fromBlock() == 100) {
+                throw new IllegalStateException("connection lost");
+              }
+              OutputStream out = invocation.getArgument(2);
+              while (true) {
+                // Blocks once the queue is full, until the export is cancelled.
+                out.write("endless\n".getBytes());
+              }
+            });
+
+    assertThatThrownBy(
+            () ->
+                exporter.exportCsv(
+                    exporter.reserve(), DeviceFilter.none(), OutputStream.nullOutputStream()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("connection lost");
+  }
+
+  @Test
+  void reserve_whenAsManyExportsAreRunning_refusesUntilOneEnds() {
+    DeviceExporter.Permit permit = exporter.reserve();
+
+    assertThatThrownBy(exporter::reserve).isInstanceOf(ServiceBusyException.class);
+
+    permit.close();
+    permit.close();
+    exporter.reserve().close();
+    exporter.reserve().close();
+  }
+
+  @Test
+  void exportCsv_whenTheClientStopsReading_readersGiveUpAndReleaseThePermit() throws Exception {
+    CountDownLatch readersDone = new CountDownLatch(RANGES.size());
+    when(repository.exportRange(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              OutputStream out = invocation.getArgument(2);
+              try {
+                while (true) {
+                  out.write("endless\n".getBytes());
+                }
+              } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+              } finally {
+                readersDone.countDown();
+              }
+            });
+    CountDownLatch clientGone = new CountDownLatch(1);
+    OutputStream stalled =
+        new OutputStream() {
+          private boolean headerWritten;
+
+          @Override
+          public void write(int b) {}
+
+          @Override
+          public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!headerWritten) {
+              headerWritten = true;
+            } else {
+              try {
+                // A client that reads nothing until its readers have given up, then disconnects.
+                readersDone.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+              }
+              clientGone.countDown();
+              throw new IOException("Broken pipe");
+            }
+          }
+        };
+
+    assertThatThrownBy(() -> exporter.exportCsv(exporter.reserve(), DeviceFilter.none(), stalled))
+        .isInstanceOf(UncheckedIOException.class);
+
+    assertThat(clientGone.getCount()).isZero();
+    assertThat(readersDone.getCount()).isZero();
+    exporter.reserve().close();
+  }
+
+  @Test
+  void exportCsv_whenNoRangeProducesAnything_givesUp() {
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.exportRange(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return 0L;
+            });
+
+    assertThatThrownBy(
+            () ->
+                exporter.exportCsv(
+                    exporter.reserve(), DeviceFilter.none(), OutputStream.nullOutputStream()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("stalled");
+    release.countDown();
+    exporter.reserve().close();
+  }
+
+  private static int byIndex(String a, String b) {
+    return Integer.compare(index(a), index(b));
+  }
+
+  private static int index(String row) {
+    return Integer.parseInt(row.substring(row.indexOf('-') + 1));
+  }
+}
@@ -0,0 +1,105 @@
+package com.douglas.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.HistoryProperties;
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceHistoryPartitionsTest {
+
+  private static final Clock AUGUST =
+      Clock.fixed(Instant.parse("2025-08-07T10:00:00Z"), ZoneOffset.UTC);
+
+  @Mock private DeviceRepository repository;
+
+  @Test
+  void afterSingletonsInstantiated_createsUpcomingPartitions() {
+    new DeviceHistoryPartitions(
+            repository, new HistoryProperties(3, 0), new SimpleMeterRegistry(), AUGUST)
+        .afterSingletonsInstantiated();
+
+    verify(repository).createHistoryPartitions(3);
+  }
+
+  @Test
+  void maintain_detachesMonthsBeforeTheRetentionWindow() {
+    when(repository.findHistoryPartitions())
+        .thenReturn(
+            List.of(
+                YearMonth.of(2025, 5),
+                YearMonth.of(2025, 6),
+                YearMonth.of(2025, 7),
+                YearMonth.of(2025, 8),
+                YearMonth.of(2025, 9)));
+
+    new DeviceHistoryPartitions(
+            repository, new HistoryProperties(1, 1), new SimpleMeterRegistry(), AUGUST)
+        .maintain();
+
+    verify(repository).createHistoryPartitions(1);
+    verify(repository).detachHistoryPartition(YearMonth.of(2025, 5));
+    verify(repository).detachHistoryPartition(YearMonth.of(2025, 6));
+    verify(repository, times(2)).detachHistoryPartition(any());
+  }
+
+  @Test
+  void detachExpired_withoutRetention_keepsEverything() {
+    assertEquals(
+        List.of(),
+        new DeviceHistoryPartitions(
+                repository, new HistoryProperties(3, 0), new SimpleMeterRegistry(), AUGUST)
+            .detachExpired());
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void monthsAhead_countsPartitionsAfterTheCurrentMonthUpToTheFirstGap() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    when(repository.findHistoryPartitions())
+        .thenReturn(
+            List.of(
+                YearMonth.of(2025, 8),
+                YearMonth.of(2025, 9),
+                YearMonth.of(2025, 10),
+                YearMonth.of(2025, 12)));
+
+    new DeviceHistoryPartitions(repository, new HistoryProperties(3, 0), registry, AUGUST)
+        .afterSingletonsInstantiated();
+
+    assertEquals(2.0, registry.get(MetricsConfig.HISTORY_PARTITIONS_AHEAD_GAUGE).gauge().value());
+  }
+
+  @Test
+  void monthsAhead_goesDownAsMonthsPassWithoutMaintenance() {
+    when(repository.findHistoryPartitions())
+        .thenReturn(List.of(YearMonth.of(2025, 8), YearMonth.of(2025, 9)));
+    Clock september = Clock.fixed(Instant.parse("2025-09-02T00:00:00Z"), ZoneOffset.UTC);
+    Clock october = Clock.fixed(Instant.parse("2025-10-01T00:00:00Z"), ZoneOffset.UTC);
+
+    DeviceHistoryPartitions inSeptember =
+        new DeviceHistoryPartitions(
+            repository, new HistoryProperties(1, 0), new SimpleMeterRegistry(), september);
+    inSeptember.afterSingletonsInstantiated();
+    DeviceHistoryPartitions inOctober =
+        new DeviceHistoryPartitions(
+            repository, new HistoryProperties(1, 0), new SimpleMeterRegistry(), october);
+    inOctober.afterSingletonsInstantiated();
+
+    assertEquals(0, inSeptember.monthsAhead());
+    assertEquals(-1, inOctober.monthsAhead());
+  }
+}
@@ -0,0 +1,72 @@
+package com.douglas.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.ImportProperties;
+import com.douglas.api.dto.DeviceImportResultDto;
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.streaming.DeviceImportFormat;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.persistence.repository.DeviceImportCounts;
+import com.douglas.persistence.repository.DeviceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceImporterTest {
+
+  @Mock private DeviceRepository repository;
+  @Mock private DeviceStateCounters stateCounters;
+  @Mock private DeviceEventBroadcaster events;
+
+  private DeviceImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    importer =
+        new DeviceImporter(
+            repository,
+            new ObjectMapper(),
+            new ImportProperties(10),
+            stateCounters,
+            events,
+            new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator()));
+  }
+
+  private static ByteArrayInputStream input(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void importDevices_reconcilesCountersAndResyncsSubscribersAfterInserting() {
+    when(repository.importDevices(any())).thenReturn(new DeviceImportCounts(5, 3));
+
+    DeviceImportResultDto result =
+        importer.importDevices(DeviceImportFormat.NDJSON, input("{\"name\":\"Hub\"}\n"));
+
+    assertThat(result.imported()).isEqualTo(3);
+    assertThat(result.duplicates()).isEqualTo(2);
+    verify(stateCounters).reconcile();
+    verify(events).resync("import");
+  }
+
+  @Test
+  void importDevices_withoutNewDevices_leavesCountersAndSubscribersAlone() {
+    when(repository.importDevices(any())).thenReturn(new DeviceImportCounts(2, 0));
+
+    DeviceImportResultDto result =
+        importer.importDevices(DeviceImportFormat.CSV, input("name,brand,state\n"));
+
+    assertThat(result.duplicates()).isEqualTo(2);
+    verifyNoInteractions(stateCounters, events);
+  }
+}
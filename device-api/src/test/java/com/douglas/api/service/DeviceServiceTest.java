@@ -3,32 +3,77 @@ package com.douglas.api.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import com.douglas.api.dto.DevicePatchDto;
-import com.douglas.api.dto.DeviceRequestDto;
-import com.douglas.api.dto.DeviceResponseDto;
-import com.douglas.api.exception.DeviceInUseException;
-import com.douglas.api.exception.DeviceNotFoundException;
-import com.douglas.api.mapper.DeviceDtoMapper;
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.config.BatchProperties;
+import com.douglas.api.config.PaginationProperties;
+import com.douglas.api.config.SearchProperties;
+import com.douglas.api.config.StreamingProperties;
+import com.douglas.api.dto.DeviceHistoryPageDto;
+import com.douglas.api.dto.DeviceSearchDto;
+import com.douglas.api.dto.DeviceStatsDto;
+import com.douglas.api.dto.DeviceSuggestionDto;
+import com.douglas.api.dto.DeviceSuggestionsDto;
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.api.exception.InvalidQueryParameterException;
+import com.douglas.contract.dto.DeviceBatchItemResultDto;
+import com.douglas.contract.dto.DeviceBatchItemResultDto.Status;
+import com.douglas.contract.dto.DeviceBatchResponseDto;
+import com.douglas.contract.dto.DeviceBulkResultDto;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DevicePatchDto;
+import com.douglas.contract.dto.DeviceRequestDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.exception.DeviceInUseException;
+import com.douglas.contract.exception.DeviceNotFoundException;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.exception.PreconditionFailedException;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
 import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceHistoryCursor;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.core.query.DeviceStatsGranularity;
 import com.douglas.persistence.entity.DeviceEntity;
 import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.BulkResult;
+import com.douglas.persistence.repository.DeviceCreationCount;
 import com.douglas.persistence.repository.DeviceRepository;
+import com.douglas.persistence.repository.DeviceSearchMatch;
+import com.douglas.persistence.repository.DeviceSearchResult;
+import com.douglas.persistence.repository.DeviceStateChange;
+import com.douglas.persistence.repository.DeviceUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class DeviceServiceTest {
 
   @Mock private DeviceRepository repository;
 
+  @Mock private DeviceEventBroadcaster events;
+
   private final DeviceMapper entityMapper = new DeviceMapper();
 
   private final DeviceDtoMapper dtoMapper = new DeviceDtoMapper();
 
+  private DeviceAutocomplete autocomplete;
+
+  private DeviceStateCounters stateCounters;
+
   private DeviceService service;
 
   private UUID id;
@@ -38,7 +83,23 @@ class DeviceServiceTest {
 
   @BeforeEach
   void setup() {
-    service = new DeviceService(repository, entityMapper, dtoMapper);
+    autocomplete =
+        new DeviceAutocomplete(repository, new AutocompleteProperties(10, 50, 1000, true));
+    stateCounters = new DeviceStateCounters(repository, new SimpleMeterRegistry());
+    service =
+        new DeviceService(
+            repository,
+            entityMapper,
+            dtoMapper,
+            new PaginationProperties(50, 500),
+            new StreamingProperties(500),
+            new BatchProperties(2, 5),
+            new SearchProperties(20, 100, 200),
+            stateCounters,
+            new AutocompleteProperties(10, 50, 1000, true),
+            autocomplete,
+            events,
+            new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator()));
 
     id = UUID.randomUUID();
     UUID idA = UUID.randomUUID();
@@ -81,129 +142,400 @@ class DeviceServiceTest {
     assertEquals(expected.brand(), result.brand());
     assertEquals(expected.state(), result.state());
     verify(repository).save(any());
+    verify(events).created(result);
   }
 
   @Test
-  void shouldReturnDeviceById() {
-    when(repository.findById(id)).thenReturn(Optional.of(entity));
+  void shouldCreateValidDevicesInChunksAndRejectInvalidOnes() {
+    List<DeviceRequestDto> requests =
+        List.of(
+            new DeviceRequestDto("Device 1", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto(" ", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 2", "Brand A", DeviceState.IN_USE),
+            new DeviceRequestDto("Device 3", "Brand B", null),
+            new DeviceRequestDto("Device 4", "Brand B", DeviceState.INACTIVE));
+
+    DeviceBatchResponseDto result = service.createDevices(requests);
+
+    assertEquals(3, result.created());
+    assertEquals(2, result.rejected());
+    assertEquals(0, result.failed());
+    assertEquals(
+        List.of(Status.CREATED, Status.REJECTED, Status.CREATED, Status.REJECTED, Status.CREATED),
+        result.items().stream().map(DeviceBatchItemResultDto::status).toList());
+    assertEquals("Name is required", result.items().get(1).error());
+    assertEquals("Device 4", result.items().get(4).device().name());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<DeviceEntity>> chunks = ArgumentCaptor.forClass((Class) List.class);
+    verify(repository, times(2)).insertAll(chunks.capture());
+    assertEquals(List.of(2, 1), chunks.getAllValues().stream().map(List::size).toList());
+    verify(repository, never()).save(any());
+  }
 
-    DeviceResponseDto expected = dtoMapper.toResponseDto(entityMapper.toDomain(entity));
+  @Test
+  void shouldReportFailedChunkAndContinueWithTheNextOne() {
+    List<DeviceRequestDto> requests =
+        List.of(
+            new DeviceRequestDto("Device 1", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 2", "Brand A", DeviceState.AVAILABLE),
+            new DeviceRequestDto("Device 3", "Brand A", DeviceState.AVAILABLE));
+    doThrow(new DataIntegrityViolationException("boom"))
+        .doNothing()
+        .when(repository)
+        .insertAll(anyList());
+
+    DeviceBatchResponseDto result = service.createDevices(requests);
+
+    assertEquals(1, result.created());
+    assertEquals(2, result.failed());
+    assertEquals(Status.FAILED, result.items().getFirst().status());
+    assertEquals(Status.CREATED, result.items().getLast().status());
+  }
+
+  @Test
+  void shouldRejectEmptyOrOversizedBatch() {
+    List<DeviceRequestDto> tooMany =
+        Collections.nCopies(6, new DeviceRequestDto("Device", "Brand", DeviceState.AVAILABLE));
+
+    assertThrows(InvalidRequestException.class, () -> service.createDevices(List.of()));
+    assertThrows(InvalidRequestException.class, () -> service.createDevices(tooMany));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldReturnDeviceById() {
+    DeviceResponseDto expected = view(entity);
+    when(repository.findViewById(id, DeviceResponseDto.class)).thenReturn(Optional.of(expected));
 
     DeviceResponseDto result = service.getDeviceById(id);
 
-    assertNotNull(result);
-    assertEquals(expected.id(), result.id());
-    assertEquals(expected.name(), result.name());
-    assertEquals(expected.brand(), result.brand());
-    assertEquals(expected.state(), result.state());
-    verify(repository).findById(id);
+    assertSame(expected, result);
+    verify(repository, never()).findById(any());
   }
 
   @Test
   void shouldThrowExceptionWhenDeviceNotFound() {
-    when(repository.findById(id)).thenReturn(Optional.empty());
+    when(repository.findViewById(id, DeviceResponseDto.class)).thenReturn(Optional.empty());
 
     assertThrows(DeviceNotFoundException.class, () -> service.getDeviceById(id));
   }
 
   @Test
   void shouldReturnAllDevicesWhenNoFilterApplied() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+    List<DeviceResponseDto> expected = List.of(view(entityA), view(entityB));
+    when(repository.findPage(
+            DeviceFilter.none(), DeviceSort.CREATION_TIME_ASC, null, 51, DeviceResponseDto.class))
+        .thenReturn(expected);
 
-    List<DeviceResponseDto> expected =
-        List.of(
-            dtoMapper.toResponseDto(entityMapper.toDomain(entityA)),
-            dtoMapper.toResponseDto(entityMapper.toDomain(entityB)));
+    DevicePageDto result = service.listDevices(DeviceFilter.none(), null, null, null);
 
-    List<DeviceResponseDto> result = service.listDevices(null, null, null);
+    assertEquals(expected, result.items());
+    assertNull(result.next());
+    verify(repository, never()).findAll();
+  }
 
-    assertEquals(expected, result);
-    verify(repository).findAll();
+  @Test
+  void shouldDelegateFilteringToRepository() {
+    DeviceFilter filter =
+        DeviceFilter.of(
+            List.of("Device B"), List.of("Brand Y", "Brand Z"), List.of(DeviceState.IN_USE));
+    when(repository.findPage(eq(filter), any(), any(), anyInt(), eq(DeviceResponseDto.class)))
+        .thenReturn(List.of(view(entityB)));
+
+    DevicePageDto result = service.listDevices(filter, null, null, null);
+
+    assertEquals(1, result.items().size());
+    assertEquals("Device B", result.items().getFirst().name());
   }
 
   @Test
-  void shouldFilterByNameOnly() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+  void shouldReturnEmptyPageWhenNoMatch() {
+    when(repository.findPage(any(), any(), any(), anyInt(), eq(DeviceResponseDto.class)))
+        .thenReturn(List.of());
 
-    List<DeviceResponseDto> result = service.listDevices("Device A", null, null);
+    DevicePageDto result =
+        service.listDevices(DeviceFilter.of(List.of("Nonexistent"), null, null), null, null, null);
 
-    assertEquals(1, result.size());
-    assertEquals("Device A", result.getFirst().name());
+    assertTrue(result.items().isEmpty());
+    assertNull(result.next());
+  }
 
-    verify(repository).findAll();
+  @Test
+  void shouldReturnNextCursorWhenMoreDevicesRemain() {
+    when(repository.findPage(
+            DeviceFilter.none(), DeviceSort.NAME_DESC, null, 2, DeviceResponseDto.class))
+        .thenReturn(List.of(view(entityB), view(entityA)));
+
+    DevicePageDto result = service.listDevices(DeviceFilter.none(), "-name", null, 1);
+
+    assertEquals(1, result.items().size());
+    DeviceCursor next = DeviceCursor.decode(result.next());
+    assertEquals(DeviceSort.NAME_DESC, next.sort());
+    assertEquals(entityB.getName(), next.key());
+    assertEquals(entityB.getId(), next.id());
+  }
+
+  @Test
+  void shouldSeekAfterCursorUsingItsSort() {
+    DeviceCursor cursor =
+        DeviceCursor.of(
+            DeviceSort.CREATION_TIME_DESC, entityA.getId(), "Device A", entityA.getCreationTime());
+    when(repository.findPage(
+            DeviceFilter.none(),
+            DeviceSort.CREATION_TIME_DESC,
+            cursor,
+            51,
+            DeviceResponseDto.class))
+        .thenReturn(List.of(view(entityB)));
+
+    DevicePageDto result = service.listDevices(DeviceFilter.none(), null, cursor.encode(), null);
+
+    assertEquals(1, result.items().size());
+  }
+
+  @Test
+  void shouldCapPageSizeAtConfiguredMaximum() {
+    when(repository.findPage(any(), any(), any(), anyInt(), eq(DeviceResponseDto.class)))
+        .thenReturn(List.of());
+
+    service.listDevices(DeviceFilter.none(), null, null, 10_000);
+
+    verify(repository)
+        .findPage(
+            DeviceFilter.none(), DeviceSort.CREATION_TIME_ASC, null, 501, DeviceResponseDto.class);
   }
 
   @Test
-  void shouldFilterByBrandOnly() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+  void getStateHistory_returnsNewestFirstWithNextCursor() {
+    Instant created = Instant.parse("2025-08-07T10:00:00Z");
+    Instant used = Instant.parse("2025-08-07T11:00:00Z");
+    when(repository.findHistory(id, null, 2))
+        .thenReturn(
+            List.of(
+                new DeviceStateChange(DeviceState.AVAILABLE, DeviceState.IN_USE, 1, used),
+                new DeviceStateChange(null, DeviceState.AVAILABLE, 0, created)));
+
+    DeviceHistoryPageDto page = service.getStateHistory(id, null, 1);
+
+    assertEquals(1, page.items().size());
+    assertEquals(DeviceState.IN_USE, page.items().get(0).state());
+    assertEquals(DeviceState.AVAILABLE, page.items().get(0).previousState());
+    assertEquals(new DeviceHistoryCursor(used, 1), DeviceHistoryCursor.decode(page.next()));
+    verify(repository, never()).existsById(any());
+  }
 
-    List<DeviceResponseDto> result = service.listDevices(null, "Brand X", null);
+  @Test
+  void getStateHistory_ofUnknownDevice_throwsNotFound() {
+    DeviceHistoryCursor cursor = new DeviceHistoryCursor(Instant.now(), 3);
+    when(repository.findHistory(id, null, 51)).thenReturn(List.of());
+    when(repository.findHistory(id, cursor, 51)).thenReturn(List.of());
+    when(repository.existsById(id)).thenReturn(false);
+
+    assertThrows(DeviceNotFoundException.class, () -> service.getStateHistory(id, null, null));
+    assertEquals(List.of(), service.getStateHistory(id, cursor.encode(), null).items());
+    assertThrows(
+        InvalidQueryParameterException.class, () -> service.getStateHistory(id, "garbage", null));
+  }
 
-    assertEquals(1, result.size());
-    assertEquals("Brand X", result.getFirst().brand());
+  @Test
+  void shouldRejectInvalidCursorOrSort() {
+    String nameCursor =
+        DeviceCursor.of(DeviceSort.NAME_ASC, id, "Device X", Instant.now()).encode();
+
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.listDevices(DeviceFilter.none(), null, "garbage", null));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.listDevices(DeviceFilter.none(), "brand", null, null));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.listDevices(DeviceFilter.none(), "creationTime", nameCursor, null));
+  }
 
-    verify(repository).findAll();
+  @Test
+  void shouldReportCreationStatsOverWholeBuckets() {
+    Instant from = Instant.parse("2025-08-07T10:00:00Z");
+    Instant to = Instant.parse("2025-08-07T12:00:00Z");
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Brand X"), null);
+    when(repository.countCreations(from, to, DeviceStatsGranularity.HOUR, filter))
+        .thenReturn(
+            List.of(
+                new DeviceCreationCount(from, "Brand X", DeviceState.AVAILABLE, 3),
+                new DeviceCreationCount(from.plusSeconds(3600), "Brand X", DeviceState.IN_USE, 2)));
+
+    DeviceStatsDto result =
+        service.getCreationStats("2025-08-07T10:20:00Z", "2025-08-07T11:05:00Z", null, filter);
+
+    assertEquals("hour", result.granularity());
+    assertEquals(from, result.from());
+    assertEquals(to, result.to());
+    assertEquals(5, result.total());
+    assertEquals(2, result.buckets().size());
+    assertEquals(DeviceState.IN_USE, result.buckets().get(1).state());
   }
 
   @Test
-  void shouldFilterByStateOnly() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+  void shouldDefaultToTheLastThirtyDaysForDailyStats() {
+    when(repository.countCreations(any(), any(), eq(DeviceStatsGranularity.DAY), any()))
+        .thenReturn(List.of());
 
-    List<DeviceResponseDto> result = service.listDevices(null, null, DeviceState.IN_USE);
+    DeviceStatsDto result = service.getCreationStats(null, null, "day", DeviceFilter.none());
 
-    assertEquals(1, result.size());
-    assertEquals(DeviceState.IN_USE, result.getFirst().state());
+    assertEquals(30, Duration.between(result.from(), result.to()).toDays());
+    assertEquals(0, result.total());
+  }
 
-    verify(repository).findAll();
+  @Test
+  void shouldRejectInvalidStatsRequests() {
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.getCreationStats(null, null, "week", DeviceFilter.none()));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.getCreationStats("yesterday", null, null, DeviceFilter.none()));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () ->
+            service.getCreationStats(
+                "2025-08-07T12:00:00Z", "2025-08-07T10:00:00Z", null, DeviceFilter.none()));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () ->
+            service.getCreationStats(
+                "2020-01-01T00:00:00Z", "2025-01-01T00:00:00Z", "hour", DeviceFilter.none()));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () ->
+            service.getCreationStats(
+                null, null, null, DeviceFilter.of(List.of("Device X"), null, null)));
+    verifyNoInteractions(repository);
   }
 
   @Test
-  void shouldFilterByNameAndBrandAndState() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+  void shouldSearchTheNormalizedQueryWithinTheConfiguredLimits() {
+    DeviceSearchMatch match =
+        new DeviceSearchMatch(
+            id, "Device A", "Brand X", DeviceState.AVAILABLE, entity.getCreationTime(), 2, 0.75);
+    when(repository.search("brand x", 20, 200))
+        .thenReturn(new DeviceSearchResult(List.of(match), true));
+
+    DeviceSearchDto result = service.searchDevices("  brand \t x ", null);
+
+    assertEquals("brand x", result.query());
+    assertEquals(1, result.items().size());
+    assertEquals(id, result.items().get(0).id());
+    assertEquals(2, result.items().get(0).version());
+    assertEquals(0.75, result.items().get(0).score());
+    assertTrue(result.truncated());
+  }
+
+  @Test
+  void shouldCapTheSearchLimitAndNeverRankFewerCandidatesThanResults() {
+    when(repository.search("router", 100, 200))
+        .thenReturn(new DeviceSearchResult(List.of(), false));
+    when(repository.search("router", 1, 200)).thenReturn(new DeviceSearchResult(List.of(), false));
+
+    assertTrue(service.searchDevices("router", 1000).items().isEmpty());
+    assertTrue(service.searchDevices("router", 0).items().isEmpty());
+  }
 
-    List<DeviceResponseDto> result =
-        service.listDevices("Device A", "Brand X", DeviceState.AVAILABLE);
+  @Test
+  void shouldRejectSearchQueriesOutsideTheAllowedLength() {
+    assertThrows(InvalidQueryParameterException.class, () -> service.searchDevices(null, null));
+    assertThrows(InvalidQueryParameterException.class, () -> service.searchDevices(" ab ", null));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.searchDevices("x".repeat(DeviceService.MAX_SEARCH_LENGTH + 1), null));
+    verifyNoInteractions(repository);
+  }
 
-    assertEquals(1, result.size());
-    assertEquals("Device A", result.getFirst().name());
+  @Test
+  void shouldSuggestTheMostUsedValuesAndFollowRenames() {
+    when(repository.countByBrand(1000))
+        .thenReturn(Map.of("Brand A", 3L, "Brand B", 2L, "Other", 9L));
+    when(repository.countByName(1000)).thenReturn(Map.of("Device X", 5L));
+    autocomplete.refresh();
+    entity.setBrand("Brand B");
+    when(repository.updateIfAllowed(id, null, "Brand B", null, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(entity, entity.getName(), "Brand A", DeviceState.AVAILABLE)));
+
+    service.patchDevice(id, new DevicePatchDto(null, "Brand B", null), null);
+    DeviceSuggestionsDto result = service.suggest(null, "brand", null);
+
+    assertEquals("brand", result.field());
+    assertEquals("brand", result.prefix());
+    assertEquals(
+        List.of(new DeviceSuggestionDto("Brand B", 3), new DeviceSuggestionDto("Brand A", 2)),
+        result.suggestions());
+    assertEquals(
+        List.of(new DeviceSuggestionDto("Device X", 5)),
+        service.suggest("NAME", "dev", 1).suggestions());
+  }
 
-    verify(repository).findAll();
+  @Test
+  void shouldRejectUnsupportedAutocompleteFieldsAndOverlongPrefixes() {
+    assertThrows(InvalidQueryParameterException.class, () -> service.suggest("model", "a", null));
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.suggest("name", "x".repeat(DeviceService.MAX_PREFIX_LENGTH + 1), null));
+    verifyNoInteractions(repository);
   }
 
   @Test
-  void shouldReturnEmptyListWhenNoMatch() {
-    when(repository.findAll()).thenReturn(List.of(entityA, entityB));
+  void shouldStreamMatchingDevicesAndCloseTheCursor() {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Brand X", "Brand Y"), null);
+    AtomicBoolean closed = new AtomicBoolean();
+    when(repository.streamAll(filter, DeviceSort.NAME_ASC, 500))
+        .thenReturn(Stream.of(entityA, entityB).onClose(() -> closed.set(true)));
 
-    List<DeviceResponseDto> result = service.listDevices("Nonexistent", null, null);
+    List<DeviceResponseDto> received = new ArrayList<>();
+    service.streamDevices(filter, DeviceSort.NAME_ASC, received::add);
 
-    assertTrue(result.isEmpty());
-    verify(repository).findAll();
+    assertEquals(List.of("Device A", "Device B"), received.stream().map(d -> d.name()).toList());
+    assertTrue(closed.get());
   }
 
   @Test
   void shouldUpdateDeviceSuccessfully() {
     DeviceRequestDto update = new DeviceRequestDto("Device X", "Brand A", DeviceState.INACTIVE);
+    entity.setState(DeviceState.INACTIVE);
 
-    when(repository.findById(id)).thenReturn(Optional.of(entity));
-    when(repository.save(any())).thenReturn(entity);
-
-    DeviceResponseDto expected = dtoMapper.toResponseDto(entityMapper.toDomain(entity));
+    when(repository.updateIfAllowed(id, "Device X", "Brand A", DeviceState.INACTIVE, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity, entity.getName(), entity.getBrand(), DeviceState.AVAILABLE)));
 
-    DeviceResponseDto result = service.updateDevice(id, update);
+    DeviceResponseDto result = service.updateDevice(id, update, null);
 
-    assertEquals(expected.name(), result.name());
+    assertEquals("Device X", result.name());
     assertEquals(DeviceState.INACTIVE, result.state());
+    verify(repository, never()).findById(any());
+    verify(repository, never()).save(any());
+    verify(events).updated(result, "Brand A", DeviceState.AVAILABLE);
+  }
+
+  @Test
+  void shouldRejectUpdateWithMissingFields() {
+    DeviceRequestDto update = new DeviceRequestDto("Device X", null, DeviceState.INACTIVE);
 
-    verify(repository).save(entity);
+    assertThrows(InvalidRequestException.class, () -> service.updateDevice(id, update, null));
+    verifyNoInteractions(repository);
   }
 
   @Test
   void shouldThrowExceptionWhenUpdatingNonexistentDevice() {
     DeviceRequestDto update = new DeviceRequestDto("Any", "Any", DeviceState.AVAILABLE);
 
+    when(repository.updateIfAllowed(id, "Any", "Any", DeviceState.AVAILABLE, null))
+        .thenReturn(Optional.empty());
     when(repository.findById(id)).thenReturn(Optional.empty());
 
-    assertThrows(DeviceNotFoundException.class, () -> service.updateDevice(id, update));
+    assertThrows(DeviceNotFoundException.class, () -> service.updateDevice(id, update, null));
   }
 
   @Test
@@ -211,10 +543,13 @@ class DeviceServiceTest {
     entity.setState(DeviceState.IN_USE);
     DeviceRequestDto update = new DeviceRequestDto("Device X", "Brand A", DeviceState.IN_USE);
 
-    when(repository.findById(id)).thenReturn(Optional.of(entity));
-    when(repository.save(any())).thenReturn(entity);
+    when(repository.updateIfAllowed(id, "Device X", "Brand A", DeviceState.IN_USE, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity, entity.getName(), entity.getBrand(), DeviceState.AVAILABLE)));
 
-    DeviceResponseDto result = service.updateDevice(id, update);
+    DeviceResponseDto result = service.updateDevice(id, update, null);
 
     assertNotNull(result);
     assertEquals("Device X", result.name());
@@ -226,31 +561,39 @@ class DeviceServiceTest {
     entity.setState(DeviceState.IN_USE);
     DeviceRequestDto update = new DeviceRequestDto("New Name", "Brand A", DeviceState.IN_USE);
 
+    when(repository.updateIfAllowed(id, "New Name", "Brand A", DeviceState.IN_USE, null))
+        .thenReturn(Optional.empty());
     when(repository.findById(id)).thenReturn(Optional.of(entity));
 
-    assertThrows(DeviceInUseException.class, () -> service.updateDevice(id, update));
+    assertThrows(DeviceInUseException.class, () -> service.updateDevice(id, update, null));
   }
 
   @Test
   void shouldPatchStateOnly() {
     DevicePatchDto patch = new DevicePatchDto(null, null, DeviceState.INACTIVE);
+    entity.setState(DeviceState.INACTIVE);
 
-    when(repository.findById(id)).thenReturn(Optional.of(entity));
-    when(repository.save(any())).thenReturn(entity);
+    when(repository.updateIfAllowed(id, null, null, DeviceState.INACTIVE, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity, entity.getName(), entity.getBrand(), DeviceState.AVAILABLE)));
 
-    DeviceResponseDto result = service.patchDevice(id, patch);
+    DeviceResponseDto result = service.patchDevice(id, patch, null);
 
     assertEquals(DeviceState.INACTIVE, result.state());
-    verify(repository).save(entity);
+    verify(repository, never()).findById(any());
   }
 
   @Test
   void shouldThrowExceptionWhenPatchingNonexistentDevice() {
     DevicePatchDto patch = new DevicePatchDto("Any", "Any", DeviceState.INACTIVE);
 
+    when(repository.updateIfAllowed(id, "Any", "Any", DeviceState.INACTIVE, null))
+        .thenReturn(Optional.empty());
     when(repository.findById(id)).thenReturn(Optional.empty());
 
-    assertThrows(DeviceNotFoundException.class, () -> service.patchDevice(id, patch));
+    assertThrows(DeviceNotFoundException.class, () -> service.patchDevice(id, patch, null));
   }
 
   @Test
@@ -258,10 +601,13 @@ class DeviceServiceTest {
     entity.setState(DeviceState.IN_USE);
     DevicePatchDto patch = new DevicePatchDto("Device X", "Brand A", DeviceState.IN_USE);
 
-    when(repository.findById(id)).thenReturn(Optional.of(entity));
-    when(repository.save(any())).thenReturn(entity);
+    when(repository.updateIfAllowed(id, "Device X", "Brand A", DeviceState.IN_USE, null))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity, entity.getName(), entity.getBrand(), DeviceState.AVAILABLE)));
 
-    DeviceResponseDto result = service.patchDevice(id, patch);
+    DeviceResponseDto result = service.patchDevice(id, patch, null);
 
     assertNotNull(result);
     assertEquals("Device X", result.name());
@@ -273,25 +619,110 @@ class DeviceServiceTest {
     entity.setState(DeviceState.IN_USE);
     DevicePatchDto patch = new DevicePatchDto("New Name", null, null);
 
+    when(repository.updateIfAllowed(id, "New Name", null, null, null)).thenReturn(Optional.empty());
     when(repository.findById(id)).thenReturn(Optional.of(entity));
 
-    assertThrows(DeviceInUseException.class, () -> service.patchDevice(id, patch));
+    assertThrows(DeviceInUseException.class, () -> service.patchDevice(id, patch, null));
+  }
+
+  @Test
+  void shouldUpdateOnlyTheExpectedVersion() {
+    entity.setVersion(4L);
+    DevicePatchDto patch = new DevicePatchDto(null, null, DeviceState.INACTIVE);
+
+    when(repository.updateIfAllowed(id, null, null, DeviceState.INACTIVE, 3L))
+        .thenReturn(Optional.empty());
+    when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+    assertThrows(PreconditionFailedException.class, () -> service.patchDevice(id, patch, 3L));
+  }
+
+  @Test
+  void shouldReturnIncrementedVersionAfterUpdate() {
+    entity.setVersion(4L);
+    DevicePatchDto patch = new DevicePatchDto(null, null, DeviceState.INACTIVE);
+
+    when(repository.updateIfAllowed(id, null, null, DeviceState.INACTIVE, 3L))
+        .thenReturn(
+            Optional.of(
+                new DeviceUpdate(
+                    entity, entity.getName(), entity.getBrand(), DeviceState.AVAILABLE)));
+
+    assertEquals(4L, service.patchDevice(id, patch, 3L).version());
+  }
+
+  @Test
+  void shouldNotDeleteWhenVersionDiffers() {
+    entity.setVersion(2L);
+
+    when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+    assertThrows(PreconditionFailedException.class, () -> service.deleteDevice(id, 1L));
+    verify(repository, never()).delete(any(DeviceEntity.class));
   }
 
   @Test
   void shouldDeleteDevice() {
     when(repository.findById(id)).thenReturn(Optional.of(entity));
 
-    service.deleteDevice(id);
+    service.deleteDevice(id, null);
 
     verify(repository).delete(entity);
+    verify(events).deleted(dtoMapper.toResponseDto(entityMapper.toDomain(entity)));
+  }
+
+  @Test
+  void shouldCountADeleteInsideATransactionOnlyOnceItCommits() {
+    when(repository.countByBrand(1000)).thenReturn(Map.of("Brand A", 2L));
+    when(repository.countByName(1000)).thenReturn(Map.of("Device X", 2L));
+    when(repository.countByState()).thenReturn(Map.of(DeviceState.AVAILABLE, 2L));
+    autocomplete.refresh();
+    stateCounters.reconcile();
+    when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      service.deleteDevice(id, null);
+      assertEquals(2L, service.getStateCounts().states().get(DeviceState.AVAILABLE));
+      assertEquals(
+          List.of(new DeviceSuggestionDto("Brand A", 2)),
+          service.suggest("brand", "", null).suggestions());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(1L, service.getStateCounts().states().get(DeviceState.AVAILABLE));
+    assertEquals(
+        List.of(new DeviceSuggestionDto("Brand A", 1)),
+        service.suggest("brand", "", null).suggestions());
+  }
+
+  @Test
+  void shouldNotCountADeleteThatIsRolledBack() {
+    when(repository.countByState()).thenReturn(Map.of(DeviceState.AVAILABLE, 2L));
+    stateCounters.reconcile();
+    when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      service.deleteDevice(id, null);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(2L, service.getStateCounts().states().get(DeviceState.AVAILABLE));
   }
 
   @Test
   void shouldThrowExceptionWhenDeletingNonexistentDevice() {
     when(repository.findById(id)).thenReturn(Optional.empty());
 
-    assertThrows(DeviceNotFoundException.class, () -> service.deleteDevice(id));
+    assertThrows(DeviceNotFoundException.class, () -> service.deleteDevice(id, null));
   }
 
   @Test
@@ -300,8 +731,47 @@ class DeviceServiceTest {
 
     when(repository.findById(id)).thenReturn(Optional.of(entity));
 
-    assertThrows(DeviceInUseException.class, () -> service.deleteDevice(id));
-    verify(repository, never()).delete(any());
+    assertThrows(DeviceInUseException.class, () -> service.deleteDevice(id, null));
+    verify(repository, never()).delete(any(DeviceEntity.class));
+  }
+
+  @Test
+  void shouldChangeStateOfMatchingDevicesInOneStatement() {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Brand X"), null);
+    when(repository.updateStateMatching(filter, DeviceState.INACTIVE))
+        .thenReturn(new BulkResult(12, 3));
+
+    DeviceBulkResultDto result = service.changeStateMatching(filter, DeviceState.INACTIVE);
+
+    assertEquals(12, result.affected());
+    assertEquals(3, result.skippedInUse());
+    verify(repository, never()).findById(any());
+    verify(repository, never()).save(any());
+    verify(events).resync("bulk");
+  }
+
+  @Test
+  void shouldDeleteMatchingDevicesInOneStatement() {
+    DeviceFilter filter = DeviceFilter.of(null, List.of("Brand Y"), List.of(DeviceState.INACTIVE));
+    when(repository.deleteMatching(filter)).thenReturn(new BulkResult(7, 0));
+
+    DeviceBulkResultDto result = service.deleteMatching(filter);
+
+    assertEquals(7, result.affected());
+    assertEquals(0, result.skippedInUse());
+  }
+
+  @Test
+  void shouldRejectBulkOperationsWithoutFilterOrState() {
+    DeviceFilter filter = DeviceFilter.of(List.of("Device X"), null, null);
+
+    assertThrows(
+        InvalidQueryParameterException.class,
+        () -> service.changeStateMatching(DeviceFilter.none(), DeviceState.INACTIVE));
+    assertThrows(
+        InvalidQueryParameterException.class, () -> service.deleteMatching(DeviceFilter.none()));
+    assertThrows(InvalidRequestException.class, () -> service.changeStateMatching(filter, null));
+    verifyNoInteractions(repository);
   }
 
   @Test
@@ -309,4 +779,8 @@ class DeviceServiceTest {
     DeviceNotFoundException ex = new DeviceNotFoundException(id);
     assertTrue(ex.getMessage().contains(id.toString()));
   }
+
+  private DeviceResponseDto view(DeviceEntity source) {
+    return dtoMapper.toResponseDto(entityMapper.toDomain(source));
+  }
 }
@@ -0,0 +1,93 @@
+package com.douglas.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.AutocompleteProperties;
+import com.douglas.api.config.BatchProperties;
+import com.douglas.api.config.EventsProperties;
+import com.douglas.api.config.PaginationProperties;
+import com.douglas.api.config.SearchProperties;
+import com.douglas.api.config.StreamingProperties;
+import com.douglas.api.events.DeviceEventBroadcaster;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.mapper.DeviceMapper;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class DeviceServiceTransactionTest {
+
+  private final UUID id = UUID.randomUUID();
+  private final DeviceRepository repository = mock(DeviceRepository.class);
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(TransactionAutoConfiguration.class))
+          .withBean(PlatformTransactionManager.class, () -> transactionManager)
+          .withBean(
+              DeviceService.class,
+              () ->
+                  new DeviceService(
+                      repository,
+                      new DeviceMapper(),
+                      new DeviceDtoMapper(),
+                      new PaginationProperties(50, 500),
+                      new StreamingProperties(500),
+                      new BatchProperties(500, 10_000),
+                      new SearchProperties(20, 100, 200),
+                      new DeviceStateCounters(repository, new SimpleMeterRegistry()),
+                      new AutocompleteProperties(10, 50, 1000, true),
+                      new DeviceAutocomplete(
+                          repository, new AutocompleteProperties(10, 50, 1000, true)),
+                      new DeviceEventBroadcaster(
+                          new EventsProperties(64, 1, Duration.ofSeconds(5)),
+                          new SimpleMeterRegistry()),
+                      new DeviceRequestValidator(
+                          Validation.buildDefaultValidatorFactory().getValidator())));
+
+  @Test
+  void shouldRunQueriesInReadOnlyTransactions() {
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    when(repository.findViewById(id, DeviceResponseDto.class))
+        .thenReturn(
+            Optional.of(
+                new DeviceResponseDto(
+                    id, "Device X", "Brand A", DeviceState.AVAILABLE, Instant.now(), 0L)));
+    when(repository.findPage(any(), any(), any(), anyInt(), eq(DeviceResponseDto.class)))
+        .thenReturn(List.of());
+
+    contextRunner.run(
+        context -> {
+          DeviceService service = context.getBean(DeviceService.class);
+
+          service.getDeviceById(id);
+          service.listDevices(DeviceFilter.none(), null, null, null);
+
+          ArgumentCaptor<TransactionDefinition> definitions =
+              ArgumentCaptor.forClass(TransactionDefinition.class);
+          verify(transactionManager, times(2)).getTransaction(definitions.capture());
+          assertThat(definitions.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+          verify(transactionManager, times(2)).commit(any());
+        });
+  }
+}
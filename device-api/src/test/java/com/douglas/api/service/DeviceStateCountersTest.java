@@ -0,0 +1,105 @@
+package com.douglas.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.douglas.api.config.MetricsConfig;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStateCountersTest {
+
+  @Mock private DeviceRepository repository;
+
+  private SimpleMeterRegistry registry;
+
+  private DeviceStateCounters counters;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    counters = new DeviceStateCounters(repository, registry);
+  }
+
+  private double gauge(DeviceState state) {
+    return registry.get(MetricsConfig.STATE_GAUGE).tag("state", state.name()).gauge().value();
+  }
+
+  @Test
+  void startsAtZeroForEveryState() {
+    assertEquals(
+        Map.of(DeviceState.AVAILABLE, 0L, DeviceState.IN_USE, 0L, DeviceState.INACTIVE, 0L),
+        counters.snapshot());
+    assertNull(counters.reconciledAt());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void afterSingletonsInstantiated_seedsFromRepository() {
+    when(repository.countByState())
+        .thenReturn(Map.of(DeviceState.AVAILABLE, 4L, DeviceState.IN_USE, 1L));
+
+    counters.afterSingletonsInstantiated();
+
+    assertEquals(4L, counters.snapshot().get(DeviceState.AVAILABLE));
+    assertEquals(1L, counters.snapshot().get(DeviceState.IN_USE));
+    assertEquals(0L, counters.snapshot().get(DeviceState.INACTIVE));
+    assertEquals(4.0, gauge(DeviceState.AVAILABLE));
+    assertNotNull(counters.reconciledAt());
+  }
+
+  @Test
+  void createdChangedDeleted_adjustCounts() {
+    counters.created(DeviceState.AVAILABLE);
+    counters.created(DeviceState.AVAILABLE);
+    counters.changed(DeviceState.AVAILABLE, DeviceState.IN_USE);
+    counters.changed(DeviceState.IN_USE, DeviceState.IN_USE);
+    counters.deleted(DeviceState.AVAILABLE);
+
+    assertEquals(0L, counters.snapshot().get(DeviceState.AVAILABLE));
+    assertEquals(1L, counters.snapshot().get(DeviceState.IN_USE));
+    assertEquals(1.0, gauge(DeviceState.IN_USE));
+  }
+
+  @Test
+  void reconcile_replacesDriftedCounts() {
+    counters.created(DeviceState.INACTIVE);
+    counters.created(DeviceState.INACTIVE);
+    when(repository.countByState()).thenReturn(Map.of(DeviceState.INACTIVE, 5L));
+
+    counters.reconcile();
+
+    assertEquals(5L, counters.snapshot().get(DeviceState.INACTIVE));
+    assertEquals(5.0, gauge(DeviceState.INACTIVE));
+  }
+
+  @Test
+  void concurrentUpdates_areNotLost() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 8; i++) {
+      executor.execute(
+          () -> {
+            for (int j = 0; j < 10_000; j++) {
+              counters.created(DeviceState.AVAILABLE);
+              counters.changed(DeviceState.AVAILABLE, DeviceState.IN_USE);
+            }
+          });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(0L, counters.snapshot().get(DeviceState.AVAILABLE));
+    assertEquals(80_000L, counters.snapshot().get(DeviceState.IN_USE));
+  }
+}
@@ -0,0 +1,98 @@
+package com.douglas.api.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.api.service.PrefixIndex.Completion;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+  private final PrefixIndex index =
+      PrefixIndex.of(
+          Map.of(
+              "Acme", 5L,
+              "ACME", 1L,
+              "Acer", 7L,
+              "Apple", 7L,
+              "Asus", 2L,
+              "Bosch", 9L));
+
+  @Test
+  void completesMostFrequentFirstAndAlphabeticallyOnTies() {
+    assertEquals(
+        List.of(new Completion("Acer", 7), new Completion("Apple", 7), new Completion("Acme", 6)),
+        index.complete("a", 3));
+    assertEquals(List.of(new Completion("Bosch", 9)), index.complete("", 1));
+  }
+
+  @Test
+  void mergesTermsDifferingOnlyInCaseUnderTheirMostFrequentSpelling() {
+    assertEquals(5, index.size());
+    assertEquals(List.of(new Completion("Acme", 6)), index.complete("ACM", 10));
+  }
+
+  @Test
+  void returnsNothingForPrefixesWithoutTerms() {
+    assertEquals(List.of(), index.complete("z", 10));
+    assertEquals(List.of(), index.complete("acmex", 10));
+    assertEquals(List.of(), PrefixIndex.empty().complete("", 10));
+  }
+
+  @Test
+  void addReranksKnownTermsAndRejectsUnknownOnes() {
+    assertTrue(index.add("asus", 10));
+    assertTrue(index.add("Acer", -7));
+    assertFalse(index.add("Dell", 1));
+
+    assertEquals(
+        List.of(new Completion("Asus", 12), new Completion("Apple", 7), new Completion("Acme", 6)),
+        index.complete("A", 10));
+  }
+
+  @Test
+  void matchesAScanOfEveryTerm() {
+    Random random = new Random(42);
+    Map<String, Long> counts = new HashMap<>();
+    for (int i = 0; i < 5_000; i++) {
+      counts.put(randomTerm(random), (long) random.nextInt(100));
+    }
+    PrefixIndex large = PrefixIndex.of(counts);
+    Map<String, Long> current = large.counts();
+    for (int i = 0; i < 1_000; i++) {
+      String term = randomTerm(random);
+      long delta = random.nextInt(50) - 25;
+      if (large.add(term, delta)) {
+        current.merge(term, delta, Long::sum);
+      }
+    }
+
+    for (String prefix : List.of("", "a", "b", "ab", "abc", "ca", "dd")) {
+      List<Completion> expected =
+          current.entrySet().stream()
+              .filter(entry -> entry.getKey().startsWith(prefix) && entry.getValue() > 0)
+              .map(entry -> new Completion(entry.getKey(), entry.getValue()))
+              .sorted(
+                  Comparator.comparingLong(Completion::count)
+                      .reversed()
+                      .thenComparing(Completion::term))
+              .limit(20)
+              .toList();
+      assertEquals(expected, large.complete(prefix.toUpperCase(Locale.ROOT), 20), prefix);
+    }
+  }
+
+  private static String randomTerm(Random random) {
+    StringBuilder term = new StringBuilder();
+    int length = 1 + random.nextInt(5);
+    for (int i = 0; i < length; i++) {
+      term.append((char) ('a' + random.nextInt(4)));
+    }
+    return term.toString();
+  }
+}
@@ -0,0 +1,192 @@
+package com.douglas.api.streaming;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.douglas.api.dto.DeviceImportRejectionDto;
+import com.douglas.contract.exception.InvalidRequestException;
+import com.douglas.contract.validation.DeviceRequestValidator;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.repository.DeviceImportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class DeviceImportReaderTest {
+
+  private static final UUID ID = UUID.fromString("3f2c1e0a-8b7d-4c6e-9f1a-2b3c4d5e6f70");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final DeviceRequestValidator validator =
+      new DeviceRequestValidator(Validation.buildDefaultValidatorFactory().getValidator());
+
+  private DeviceImportReader reader(DeviceImportFormat format, String input, int reported) {
+    return new DeviceImportReader(
+        format,
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+        objectMapper,
+        validator,
+        reported);
+  }
+
+  private static List<DeviceImportRow> readAll(DeviceImportReader reader) {
+    List<DeviceImportRow> rows = new ArrayList<>();
+    reader.forEachRemaining(rows::add);
+    return rows;
+  }
+
+  @Test
+  void csv_readsColumnsInHeaderOrderWithQuotedFields() {
+    DeviceImportReader reader =
+        reader(
+            DeviceImportFormat.CSV,
+            "State,legacy_code,Brand,name,id\r\n"
+                + "AVAILABLE,X1,Acme,Router,"
+                + ID
+                + "\r\n"
+                + "\r\n"
+                + "IN_USE,X2,\"Acme, Inc.\",\"Switch \"\"24\"\"\nrack\",\n",
+            10);
+
+    assertThat(readAll(reader))
+        .containsExactly(
+            new DeviceImportRow(ID, "Router", "Acme", DeviceState.AVAILABLE),
+            new DeviceImportRow(null, "Switch \"24\"\nrack", "Acme, Inc.", DeviceState.IN_USE));
+    assertThat(reader.rejected()).isZero();
+  }
+
+  @Test
+  void csv_rejectsInvalidRecordsWithTheLineTheyStartOn() {
+    DeviceImportReader reader =
+        reader(
+            DeviceImportFormat.CSV,
+            "name,brand,state\n"
+                + "\"Multi\nline\",Acme,AVAILABLE\n"
+                + ",Acme,BROKEN\n"
+                + "Router,Acme\n"
+                + "Router,"
+                + "b".repeat(256)
+                + ",INACTIVE\n"
+                + "Hub,Acme,INACTIVE\n",
+            10);
+
+    assertThat(readAll(reader))
+        .extracting(DeviceImportRow::name)
+        .containsExactly("Multi\nline", "Hub");
+    assertThat(reader.rejected()).isEqualTo(3);
+    assertThat(reader.rejections())
+        .containsExactly(
+            new DeviceImportRejectionDto(4, "Name is required; Unknown state: BROKEN"),
+            new DeviceImportRejectionDto(5, "Expected 3 fields, found 2"),
+            new DeviceImportRejectionDto(6, "Brand must be at most 255 characters"));
+  }
+
+  @Test
+  void csv_withoutRequiredColumn_isRejectedAsAWhole() {
+    assertThatThrownBy(() -> reader(DeviceImportFormat.CSV, "name,brand\nRouter,Acme\n", 10))
+        .isInstanceOf(InvalidRequestException.class);
+  }
+
+  @Test
+  void csv_withoutHeader_readsNothing() {
+    assertThat(readAll(reader(DeviceImportFormat.CSV, "", 10))).isEmpty();
+  }
+
+  @Test
+  void ndjson_readsObjectsAndRejectsMalformedLines() {
+    DeviceImportReader reader =
+        reader(
+            DeviceImportFormat.NDJSON,
+            "{\"id\":\""
+                + ID
+                + "\",\"name\":\"Router\",\"brand\":\"Acme\",\"state\":\"AVAILABLE\"}\n"
+                + "\n"
+                + "{\"name\":\"Hub\",\"brand\":\"Acme\"\n"
+                + "[1,2]\n"
+                + "{\"id\":\"nope\",\"name\":\"Hub\",\"brand\":\"Acme\",\"state\":\"IN_USE\"}\n"
+                + "{\"name\":\"Hub\",\"brand\":\"Acme\",\"state\":\"IN_USE\",\"extra\":true}\n",
+            10);
+
+    assertThat(readAll(reader))
+        .containsExactly(
+            new DeviceImportRow(ID, "Router", "Acme", DeviceState.AVAILABLE),
+            new DeviceImportRow(null, "Hub", "Acme", DeviceState.IN_USE));
+    assertThat(reader.rejections())
+        .extracting(DeviceImportRejectionDto::line)
+        .containsExactly(3L, 4L, 5L);
+    assertThat(reader.rejections().get(0).error()).startsWith("Malformed JSON");
+    assertThat(reader.rejections().get(1).error()).isEqualTo("Expected a JSON object");
+    assertThat(reader.rejections().get(2).error()).isEqualTo("Invalid id: nope");
+  }
+
+  @Test
+  void csv_rejectsOverlongRecordsAndResumesAtTheNextLine() {
+    String longLine = "x".repeat(DeviceImportReader.MAX_RECORD_LENGTH);
+    DeviceImportReader reader =
+        reader(
+            DeviceImportFormat.CSV,
+            "name,brand,state\n"
+                + "Router,"
+                + longLine
+                + ",AVAILABLE\n"
+                + "\"Unterminated,Acme,AVAILABLE\n"
+                + longLine
+                + "\n"
+                + "Hub,Acme,IN_USE\r\n",
+            10);
+
+    assertThat(readAll(reader))
+        .containsExactly(new DeviceImportRow(null, "Hub", "Acme", DeviceState.IN_USE));
+    assertThat(reader.rejections())
+        .containsExactly(
+            new DeviceImportRejectionDto(2, "Record longer than 4096 characters"),
+            new DeviceImportRejectionDto(3, "Record longer than 4096 characters"));
+  }
+
+  @Test
+  void ndjson_rejectsOverlongLinesAndResumesAtTheNextLine() {
+    DeviceImportReader reader =
+        reader(
+            DeviceImportFormat.NDJSON,
+            "{\"name\":\""
+                + "x".repeat(3 * DeviceImportReader.MAX_RECORD_LENGTH)
+                + "\"}\r"
+                + "{\"name\":\"Hub\",\"brand\":\"Acme\",\"state\":\"IN_USE\"}",
+            10);
+
+    assertThat(readAll(reader))
+        .containsExactly(new DeviceImportRow(null, "Hub", "Acme", DeviceState.IN_USE));
+    assertThat(reader.rejections())
+        .containsExactly(new DeviceImportRejectionDto(1, "Record longer than 4096 characters"));
+  }
+
+  @Test
+  void countsEveryRejectionButReportsOnlyTheFirstOnes() {
+    DeviceImportReader reader = reader(DeviceImportFormat.NDJSON, "{}\n{}\n{}\n", 2);
+
+    assertThat(readAll(reader)).isEmpty();
+    assertThat(reader.rejected()).isEqualTo(3);
+    assertThat(reader.rejections())
+        .containsExactly(
+            new DeviceImportRejectionDto(
+                1, "Name is required; Brand is required; State is required"),
+            new DeviceImportRejectionDto(
+                2, "Name is required; Brand is required; State is required"));
+  }
+
+  @Test
+  void format_followsFileExtensionAndMediaType() {
+    assertThat(DeviceImportFormat.forFileName("devices.CSV")).contains(DeviceImportFormat.CSV);
+    assertThat(DeviceImportFormat.forFileName("devices.jsonl.gz"))
+        .contains(DeviceImportFormat.NDJSON);
+    assertThat(DeviceImportFormat.forFileName("devices.json")).isEmpty();
+    assertThat(DeviceImportFormat.forMediaType(MediaType.parseMediaType("text/csv;charset=UTF-8")))
+        .contains(DeviceImportFormat.CSV);
+    assertThat(DeviceImportFormat.forMediaType(MediaType.APPLICATION_JSON)).isEmpty();
+  }
+}
@@ -0,0 +1,27 @@
+-- Fills the devices table with synthetic devices for the search benchmark:
+--   psql -h localhost -U postgres -d devices -v devices=3000000 -f device-bench/sql/seed-devices.sql
+-- Names combine 20 device kinds with about 20,000 model codes, brands are drawn from 30 vendors
+-- and creation times are spread over the last 35 days. The rows go through the regular triggers,
+-- so the creation rollups, the search vocabulary and the name counts are populated as well.
+\if :{?devices}
+\else
+\set devices 3000000
+\endif
+
+INSERT INTO devices (id, name, brand, state, creation_time)
+SELECT gen_random_uuid(),
+       (ARRAY['Router', 'Switch', 'Camera', 'Sensor', 'Thermostat', 'Gateway', 'Access Point',
+              'Printer', 'Tablet', 'Laptop', 'Smart Plug', 'Doorbell', 'Light Bulb', 'Speaker',
+              'Monitor', 'Scanner', 'Modem', 'Repeater', 'Hub', 'Tracker'])[1 + i % 20]
+           || ' ' || upper(substr(md5((i % 997)::text), 1, 2)) || (i % 89),
+       (ARRAY['TP-Link', 'Netgear', 'Cisco', 'Ubiquiti', 'Asus', 'Linksys', 'D-Link', 'Huawei',
+              'Xiaomi', 'Samsung', 'Philips', 'Bosch', 'Siemens', 'Honeywell', 'Nest', 'Ring',
+              'Arlo', 'Logitech', 'Lenovo', 'Dell', 'HP', 'Epson', 'Canon', 'Brother', 'Sonos',
+              'Bose', 'Aruba', 'Juniper', 'Mikrotik', 'Zyxel'])[1 + (i / 7) % 30],
+       (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + i % 3],
+       now() - i * interval '1 second'
+  FROM generate_series(1, :devices) AS i;
+
+VACUUM ANALYZE devices;
+VACUUM ANALYZE device_search_terms;
+VACUUM ANALYZE device_name_counts;
@@ -0,0 +1,193 @@
+package com.douglas.bench.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator used to compare deployment modes of the device API, e.g. the
+ * default platform-thread mode against the {@code virtual-threads} profile, or device-api against
+ * device-api-reactive.
+ *
+ * <p>A fixed number of workers each send one request, wait for the response and send the next,
+ * first for a warm-up period that is not measured and then for the measured period. Workers run on
+ * virtual threads so that the generator itself is never the bottleneck. The run is summarized as
+ * throughput and latency percentiles, together with the peak number of live threads and the peak
+ * JVM memory the server reported through Actuator during the measured period, printed and written
+ * as JSON so that runs can be diffed.
+ *
+ * <pre>
+ * mvn -pl device-bench compile exec:java -Dexec.args="--label=virtual --concurrency=400"
+ * </pre>
+ *
+ * <p>Options, all optional: {@code --url} (default {@code http://localhost:8080/devices?limit=50}),
+ * {@code --concurrency} (200), {@code --warmup} seconds (10), {@code --duration} seconds (30),
+ * {@code --label} (run), {@code --out} (target/bench/http-&lt;label&gt;.json), {@code --metrics}
+ * (the {@code /actuator/metrics} URI of the server behind {@code --url}).
+ */
+public final class HttpLoadBenchmark {
+
+  private HttpLoadBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the options described in the class documentation
+   * @throws Exception if the run is interrupted or the results cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    URI uri = URI.create(options.getOrDefault("url", "http://localhost:8080/devices?limit=50"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+    Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+    Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+    String label = options.getOrDefault("label", "run");
+    Path out = Path.of(options.getOrDefault("out", "target/bench/http-" + label + ".json"));
+    URI metrics =
+        URI.create(options.getOrDefault("metrics", uri.resolve("/actuator/metrics").toString()));
+
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+    run(client, request, concurrency, warmup, null);
+    ServerMetricsSampler sampler = new ServerMetricsSampler(client, metrics, Duration.ofSeconds(1));
+    Result result = run(client, request, concurrency, duration, sampler);
+
+    String json = result.toJson(label, uri, concurrency, duration);
+    Files.createDirectories(out.toAbsolutePath().getParent());
+    Files.writeString(out, json);
+    System.out.println(json);
+  }
+
+  private static Result run(
+      HttpClient client,
+      HttpRequest request,
+      int concurrency,
+      Duration duration,
+      ServerMetricsSampler sampler)
+      throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    List<Future<Worker>> futures = new ArrayList<>(concurrency);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      if (sampler != null) {
+        executor.submit(sampler);
+      }
+      for (int i = 0; i < concurrency; i++) {
+        futures.add(executor.submit(() -> new Worker().run(client, request, deadline)));
+      }
+      for (Future<Worker> future : futures) {
+        future.get();
+      }
+      if (sampler != null) {
+        sampler.stop();
+      }
+    }
+
+    LatencyRecorder latencies = new LatencyRecorder();
+    long errors = 0;
+    for (Future<Worker> future : futures) {
+      Worker worker = future.get();
+      latencies.merge(worker.latencies);
+      errors += worker.errors;
+    }
+    return sampler == null
+        ? new Result(latencies, errors, -1, -1)
+        : new Result(latencies, errors, sampler.peakThreads(), sampler.peakMemoryBytes());
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  /** Sends requests back to back until the deadline, recording successes and failures. */
+  private static final class Worker {
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private long errors;
+
+    Worker run(HttpClient client, HttpRequest request, long deadline) {
+      while (System.nanoTime() < deadline) {
+        long start = System.nanoTime();
+        try {
+          HttpResponse<Void> response =
+              client.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() >= 400) {
+            errors++;
+          } else {
+            latencies.record(System.nanoTime() - start);
+          }
+        } catch (IOException ex) {
+          errors++;
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      return this;
+    }
+  }
+
+  /** Aggregated outcome of a measured period. */
+  private record Result(
+      LatencyRecorder latencies, long errors, long peakServerThreads, long peakServerMemoryBytes) {
+
+    String toJson(String label, URI uri, int concurrency, Duration duration) {
+      double seconds = duration.toMillis() / 1000.0;
+      return String.format(
+          Locale.ROOT,
+          """
+          {
+            "label": "%s",
+            "url": "%s",
+            "concurrency": %d,
+            "durationSeconds": %.1f,
+            "requests": %d,
+            "errors": %d,
+            "throughputPerSecond": %.1f,
+            "p50Millis": %.3f,
+            "p99Millis": %.3f,
+            "maxMillis": %.3f,
+            "peakServerThreads": %d,
+            "peakServerMemoryMb": %.1f
+          }
+          """,
+          label,
+          uri,
+          concurrency,
+          seconds,
+          latencies.count(),
+          errors,
+          latencies.count() / seconds,
+          millis(latencies.percentile(0.50)),
+          millis(latencies.percentile(0.99)),
+          millis(latencies.percentile(1.0)),
+          peakServerThreads,
+          peakServerMemoryBytes < 0 ? -1.0 : peakServerMemoryBytes / (1024.0 * 1024.0));
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
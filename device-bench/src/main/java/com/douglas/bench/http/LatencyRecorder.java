@@ -0,0 +1,65 @@
+package com.douglas.bench.http;
+
+import java.util.Arrays;
+
+/**
+ * Records request latencies of a single load worker. Each worker owns its recorder, so recording
+ * needs no synchronization; recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+  private long[] nanos = new long[1024];
+  private int size;
+
+  /**
+   * Records one latency.
+   *
+   * @param latencyNanos the request latency in nanoseconds
+   */
+  void record(long latencyNanos) {
+    if (size == nanos.length) {
+      nanos = Arrays.copyOf(nanos, size * 2);
+    }
+    nanos[size++] = latencyNanos;
+  }
+
+  /**
+   * Returns the number of recorded latencies.
+   *
+   * @return the count
+   */
+  int count() {
+    return size;
+  }
+
+  /**
+   * Adds every latency of another recorder to this one.
+   *
+   * @param other the recorder to merge
+   */
+  void merge(LatencyRecorder other) {
+    for (int i = 0; i < other.size; i++) {
+      record(other.nanos[i]);
+    }
+  }
+
+  /**
+   * Returns the latency below which the given fraction of requests completed, using the
+   * nearest-rank method.
+   *
+   * @param quantile the fraction, between 0 (exclusive) and 1 (inclusive)
+   * @return the latency in nanoseconds, or 0 when nothing was recorded
+   */
+  long percentile(double quantile) {
+    if (quantile <= 0 || quantile > 1) {
+      throw new IllegalArgumentException("Quantile must be in (0, 1]: " + quantile);
+    }
+    if (size == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(nanos, size);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(quantile * size);
+    return sorted[rank - 1];
+  }
+}
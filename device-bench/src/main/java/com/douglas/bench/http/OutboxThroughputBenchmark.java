@@ -0,0 +1,171 @@
+package com.douglas.bench.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures how fast the outbox relay of device-api moves change events to its sink. Devices are
+ * created through {@code POST /devices/batch}, which writes one outbox event per device, while the
+ * {@code devices.outbox.relayed} counter is polled through Actuator until every event has been
+ * relayed.
+ *
+ * <pre>
+ * mvn -pl device-bench compile exec:java \
+ *   -Dexec.mainClass=com.douglas.bench.http.OutboxThroughputBenchmark -Dexec.args="--label=local"
+ * </pre>
+ *
+ * <p>Options, all optional: {@code --url} (default {@code http://localhost:8080}), {@code --events}
+ * (100000), {@code --batch} devices per request (1000), {@code --writers} concurrent requests (4),
+ * {@code --label} (run), {@code --out} (target/bench/outbox-&lt;label&gt;.json). Run it against an
+ * instance whose relay is otherwise idle, since every relayed event is counted.
+ */
+public final class OutboxThroughputBenchmark {
+
+  private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+  private OutboxThroughputBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the options described in the class documentation
+   * @throws Exception if a request fails, the events are not relayed in time or the results cannot
+   *     be written
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    String base = options.getOrDefault("url", "http://localhost:8080");
+    int events = Integer.parseInt(options.getOrDefault("events", "100000"));
+    int batch = Integer.parseInt(options.getOrDefault("batch", "1000"));
+    int writers = Integer.parseInt(options.getOrDefault("writers", "4"));
+    String label = options.getOrDefault("label", "run");
+    Path out = Path.of(options.getOrDefault("out", "target/bench/outbox-" + label + ".json"));
+
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    URI relayed = URI.create(base + "/actuator/metrics/devices.outbox.relayed");
+    long baseline = read(client, relayed);
+
+    long start = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    List<Future<?>> requests = new ArrayList<>();
+    for (int offset = 0; offset < events; offset += batch) {
+      String body = batchBody(offset, Math.min(batch, events - offset));
+      requests.add(pool.submit(() -> create(client, URI.create(base + "/devices/batch"), body)));
+    }
+    for (Future<?> request : requests) {
+      request.get();
+    }
+    pool.shutdown();
+    long written = System.nanoTime();
+
+    long deadline = written + TIMEOUT.toNanos();
+    long relayedEvents;
+    while ((relayedEvents = read(client, relayed) - baseline) < events) {
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException(
+            "Only " + relayedEvents + " of " + events + " events relayed after " + TIMEOUT);
+      }
+      Thread.sleep(50);
+    }
+    long drained = System.nanoTime();
+
+    String json =
+        String.format(
+            Locale.ROOT,
+            """
+            {
+              "label": "%s",
+              "url": "%s",
+              "events": %d,
+              "writeSeconds": %.3f,
+              "writeEventsPerSecond": %.0f,
+              "drainSeconds": %.3f,
+              "relayEventsPerSecond": %.0f,
+              "lagAfterLastWriteMillis": %.0f
+            }
+            """,
+            label,
+            base,
+            events,
+            seconds(written - start),
+            events / seconds(written - start),
+            seconds(drained - start),
+            events / seconds(drained - start),
+            (drained - written) / 1_000_000.0);
+    Files.createDirectories(out.toAbsolutePath().getParent());
+    Files.writeString(out, json);
+    System.out.println(json);
+  }
+
+  /**
+   * Builds the body of one {@code POST /devices/batch} request.
+   *
+   * @param offset number of devices created by earlier requests, used to name the devices
+   * @param size number of devices to create
+   * @return a JSON array of device requests
+   */
+  static String batchBody(int offset, int size) {
+    StringBuilder body = new StringBuilder(size * 64).append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        body.append(',');
+      }
+      body.append("{\"name\":\"Outbox ")
+          .append(offset + i)
+          .append("\",\"brand\":\"Bench\",\"state\":\"AVAILABLE\"}");
+    }
+    return body.append(']').toString();
+  }
+
+  private static Void create(HttpClient client, URI uri, String body) throws Exception {
+    HttpRequest request =
+        HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofMinutes(1))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200 && response.statusCode() != 201) {
+      throw new IllegalStateException("Batch failed with HTTP " + response.statusCode());
+    }
+    return null;
+  }
+
+  private static long read(HttpClient client, URI metric) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(metric).timeout(Duration.ofSeconds(5)).build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Cannot read " + metric + ": HTTP " + response.statusCode());
+    }
+    return ServerMetricsSampler.parseValue(response.body());
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1_000_000_000.0;
+  }
+}
@@ -0,0 +1,166 @@
+package com.douglas.bench.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the latency of {@code GET /devices/search} one request at a time, for a mix of
+ * substring, misspelt and unmatched queries, and checks the p99 against a budget. Unlike {@link
+ * HttpLoadBenchmark}, which saturates the server, this keeps a single request in flight so that the
+ * figures reflect the query itself rather than queueing.
+ *
+ * <p>Seed the database first, e.g. with three million devices from {@code
+ * device-bench/sql/seed-devices.sql}, then run:
+ *
+ * <pre>
+ * mvn -pl device-bench compile exec:java \
+ *   -Dexec.mainClass=com.douglas.bench.http.SearchLatencyBenchmark -Dexec.args="--label=3m"
+ * </pre>
+ *
+ * <p>Options, all optional: {@code --url} (default {@code http://localhost:8080/devices/search}),
+ * {@code --queries} comma-separated ({@link #DEFAULT_QUERIES}), {@code --limit} (20), {@code
+ * --warmup} requests per query (50), {@code --iterations} requests per query (200), {@code
+ * --budget} p99 in milliseconds (20), {@code --label} (run), {@code --out}
+ * (target/bench/search-&lt;label&gt;.json).
+ */
+public final class SearchLatencyBenchmark {
+
+  /** Queries matching the vocabulary of {@code seed-devices.sql}: substrings, typos, no match. */
+  static final String DEFAULT_QUERIES =
+      "router,tp-link,link,smart plug,access point,thermostat a,"
+          + "routr,thermostst,netgaer,tplink,smart plg,acess point,"
+          + "zzzz,qwerty";
+
+  private SearchLatencyBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the options described in the class documentation
+   * @throws Exception if the run is interrupted or the results cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    URI base = URI.create(options.getOrDefault("url", "http://localhost:8080/devices/search"));
+    List<String> queries = List.of(options.getOrDefault("queries", DEFAULT_QUERIES).split(","));
+    int limit = Integer.parseInt(options.getOrDefault("limit", "20"));
+    int warmup = Integer.parseInt(options.getOrDefault("warmup", "50"));
+    int iterations = Integer.parseInt(options.getOrDefault("iterations", "200"));
+    double budgetMillis = Double.parseDouble(options.getOrDefault("budget", "20"));
+    String label = options.getOrDefault("label", "run");
+    Path out = Path.of(options.getOrDefault("out", "target/bench/search-" + label + ".json"));
+
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    LatencyRecorder overall = new LatencyRecorder();
+    List<String> perQuery = new ArrayList<>();
+    for (String query : queries) {
+      HttpRequest request =
+          HttpRequest.newBuilder(searchUri(base, query, limit))
+              .timeout(Duration.ofSeconds(30))
+              .GET()
+              .build();
+      measure(client, request, warmup);
+      LatencyRecorder latencies = measure(client, request, iterations);
+      overall.merge(latencies);
+      perQuery.add(
+          String.format(
+              Locale.ROOT,
+              "    { \"q\": \"%s\", \"p50Millis\": %.3f, \"p99Millis\": %.3f, \"maxMillis\": %.3f }",
+              query,
+              millis(latencies.percentile(0.50)),
+              millis(latencies.percentile(0.99)),
+              millis(latencies.percentile(1.0))));
+    }
+
+    double p99 = millis(overall.percentile(0.99));
+    String json =
+        String.format(
+            Locale.ROOT,
+            """
+            {
+              "label": "%s",
+              "url": "%s",
+              "limit": %d,
+              "requests": %d,
+              "p50Millis": %.3f,
+              "p99Millis": %.3f,
+              "maxMillis": %.3f,
+              "budgetMillis": %.1f,
+              "withinBudget": %b,
+              "queries": [
+            %s
+              ]
+            }
+            """,
+            label,
+            base,
+            limit,
+            overall.count(),
+            millis(overall.percentile(0.50)),
+            p99,
+            millis(overall.percentile(1.0)),
+            budgetMillis,
+            p99 <= budgetMillis,
+            String.join(",\n", perQuery));
+    Files.createDirectories(out.toAbsolutePath().getParent());
+    Files.writeString(out, json);
+    System.out.println(json);
+  }
+
+  /**
+   * Builds the search URI of one query.
+   *
+   * @param base the search endpoint
+   * @param query the text to search for
+   * @param limit the number of results to ask for
+   * @return the endpoint with the encoded {@code q} and {@code limit} parameters
+   */
+  static URI searchUri(URI base, String query, int limit) {
+    return URI.create(
+        base + "?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&limit=" + limit);
+  }
+
+  private static LatencyRecorder measure(HttpClient client, HttpRequest request, int requests)
+      throws IOException, InterruptedException {
+    LatencyRecorder latencies = new LatencyRecorder();
+    for (int i = 0; i < requests; i++) {
+      long start = System.nanoTime();
+      HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+      if (response.statusCode() != 200) {
+        throw new IllegalStateException(
+            "Search failed with HTTP " + response.statusCode() + ": " + request.uri());
+      }
+      latencies.record(System.nanoTime() - start);
+    }
+    return latencies;
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
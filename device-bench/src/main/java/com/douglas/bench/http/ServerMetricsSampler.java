@@ -0,0 +1,119 @@
+package com.douglas.bench.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Polls the Actuator metrics of the server under load and keeps the peak number of live JVM threads
+ * and the peak JVM memory in use. Both device-api and device-api-reactive expose {@code
+ * /actuator/metrics}, so runs against either deployment report the same figures.
+ *
+ * <p>The sampler runs on its own thread until {@link #stop()} and never fails the benchmark: when
+ * the metrics endpoint is unreachable, the peaks stay at -1.
+ */
+final class ServerMetricsSampler implements Runnable {
+
+  private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([-0-9.Ee+]+)");
+
+  private final HttpClient client;
+  private final URI metrics;
+  private final Duration interval;
+  private volatile boolean running = true;
+  private volatile long peakThreads = -1;
+  private volatile long peakMemoryBytes = -1;
+
+  /**
+   * Creates a sampler.
+   *
+   * @param client the client used to query the server
+   * @param metrics the base Actuator metrics URI, e.g. {@code
+   *     http://localhost:8080/actuator/metrics}
+   * @param interval time between two samples
+   */
+  ServerMetricsSampler(HttpClient client, URI metrics, Duration interval) {
+    this.client = client;
+    this.metrics = metrics;
+    this.interval = interval;
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      sample();
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /** Stops sampling after the current sample. */
+  void stop() {
+    running = false;
+  }
+
+  /**
+   * Returns the highest number of live JVM threads seen.
+   *
+   * @return the thread count, or -1 if no sample succeeded
+   */
+  long peakThreads() {
+    return peakThreads;
+  }
+
+  /**
+   * Returns the highest amount of JVM memory in use seen, heap and non-heap together.
+   *
+   * @return the memory in bytes, or -1 if no sample succeeded
+   */
+  long peakMemoryBytes() {
+    return peakMemoryBytes;
+  }
+
+  private void sample() {
+    long threads = read("jvm.threads.live");
+    long memory = read("jvm.memory.used");
+    if (threads > peakThreads) {
+      peakThreads = threads;
+    }
+    if (memory > peakMemoryBytes) {
+      peakMemoryBytes = memory;
+    }
+  }
+
+  private long read(String metric) {
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create(metrics + "/" + metric))
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+    try {
+      HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+      return response.statusCode() == 200 ? parseValue(response.body()) : -1;
+    } catch (IOException ex) {
+      return -1;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return -1;
+    }
+  }
+
+  /**
+   * Extracts the first measurement of an Actuator metric response.
+   *
+   * @param body the JSON body of {@code /actuator/metrics/{name}}
+   * @return the value rounded down, or -1 if the body has no measurement
+   */
+  static long parseValue(String body) {
+    Matcher matcher = VALUE.matcher(body);
+    return matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : -1;
+  }
+}
@@ -0,0 +1,44 @@
+package com.douglas.bench.jmh;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.entity.DeviceEntity;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds the device datasets used by the benchmarks. Datasets are generated from a fixed seed, so
+ * every run and every fork measures the same values.
+ */
+final class DeviceFixtures {
+
+  private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli"};
+  private static final DeviceState[] STATES = DeviceState.values();
+  private static final Instant EPOCH = Instant.parse("2025-08-07T00:00:00Z");
+
+  private DeviceFixtures() {}
+
+  /**
+   * Builds loaded device entities, as Hibernate would return them for a page.
+   *
+   * @param size the number of devices
+   * @return the entities, ordered by creation time
+   */
+  static List<DeviceEntity> entities(int size) {
+    Random random = new Random(42);
+    List<DeviceEntity> entities = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      DeviceEntity entity = new DeviceEntity();
+      entity.setId(new UUID(random.nextLong(), random.nextLong()));
+      entity.setName("Device " + i);
+      entity.setBrand(BRANDS[random.nextInt(BRANDS.length)]);
+      entity.setState(STATES[random.nextInt(STATES.length)]);
+      entity.setCreationTime(EPOCH.plusMillis(i * 1000L + random.nextInt(1000)));
+      entity.setVersion((long) random.nextInt(10));
+      entities.add(entity);
+    }
+    return entities;
+  }
+}
@@ -0,0 +1,145 @@
+package com.douglas.bench.jmh;
+
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.core.domain.Device;
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.persistence.entity.DeviceEntity;
+import com.douglas.persistence.mapper.DeviceMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the in-JVM work of a device listing once the rows are loaded: entity to domain mapping,
+ * domain to DTO mapping, and the page assembly of {@code DeviceService.listDevices}, which trims
+ * the look-ahead row and encodes the cursor of the last device.
+ *
+ * <p>{@link #listPage()} builds one DTO per row from the column values, as the JPQL constructor
+ * expression of {@code DeviceRepository.findPage} does; {@link #listPageFromEntities()} keeps the
+ * former entity to domain to DTO path for comparison. Neither includes the entity hydration and
+ * persistence-context bookkeeping Hibernate adds to the latter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMappingBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private final DeviceMapper entityMapper = new DeviceMapper();
+  private final DeviceDtoMapper dtoMapper = new DeviceDtoMapper();
+  private List<DeviceEntity> entities;
+  private List<Device> devices;
+  private List<Object[]> rows;
+
+  /** Builds the dataset of the current size. */
+  @Setup
+  public void setup() {
+    entities = DeviceFixtures.entities(size + 1);
+    devices = entities.stream().map(entityMapper::toDomain).toList();
+    rows =
+        entities.stream()
+            .map(
+                entity ->
+                    new Object[] {
+                      entity.getId(),
+                      entity.getName(),
+                      entity.getBrand(),
+                      entity.getState(),
+                      entity.getCreationTime(),
+                      entity.getVersion()
+                    })
+            .toList();
+  }
+
+  /**
+   * Maps every entity to its domain device.
+   *
+   * @param blackhole sink for the results
+   */
+  @Benchmark
+  public void entityToDomain(Blackhole blackhole) {
+    for (DeviceEntity entity : entities) {
+      blackhole.consume(entityMapper.toDomain(entity));
+    }
+  }
+
+  /**
+   * Maps every domain device to its response DTO.
+   *
+   * @param blackhole sink for the results
+   */
+  @Benchmark
+  public void domainToResponseDto(Blackhole blackhole) {
+    for (Device device : devices) {
+      blackhole.consume(dtoMapper.toResponseDto(device));
+    }
+  }
+
+  /**
+   * Assembles a page of {@code size} devices from {@code size + 1} projected rows, as {@code
+   * DeviceService.listDevices} does.
+   *
+   * @return the next-page cursor, so that the page is not optimized away
+   */
+  @Benchmark
+  public String listPage() {
+    List<DeviceResponseDto> projected = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      projected.add(
+          new DeviceResponseDto(
+              (UUID) row[0],
+              (String) row[1],
+              (String) row[2],
+              (DeviceState) row[3],
+              (Instant) row[4],
+              (Long) row[5]));
+    }
+    List<DeviceResponseDto> items = projected.subList(0, size);
+    return cursorOf(items.getLast());
+  }
+
+  /**
+   * Assembles a page of {@code size} devices from {@code size + 1} loaded entities, mapping each
+   * one to its domain device and then to its DTO.
+   *
+   * @return the next-page cursor, so that the page is not optimized away
+   */
+  @Benchmark
+  public String listPageFromEntities() {
+    List<DeviceResponseDto> items =
+        entities.stream()
+            .limit(size)
+            .map(entityMapper::toDomain)
+            .map(dtoMapper::toResponseDto)
+            .toList();
+    return cursorOf(items.getLast());
+  }
+
+  private static String cursorOf(DeviceResponseDto last) {
+    return DeviceCursor.of(
+            DeviceSort.CREATION_TIME_ASC, last.id(), last.name(), last.creationTime())
+        .encode();
+  }
+}
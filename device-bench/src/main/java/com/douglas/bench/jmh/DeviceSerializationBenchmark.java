@@ -0,0 +1,87 @@
+package com.douglas.bench.jmh;
+
+import com.douglas.api.streaming.NdjsonWriter;
+import com.douglas.contract.dto.DevicePageDto;
+import com.douglas.contract.dto.DeviceResponseDto;
+import com.douglas.contract.mapper.DeviceDtoMapper;
+import com.douglas.persistence.mapper.DeviceMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Jackson serialization of device listings, configured as Spring Boot configures its
+ * {@link ObjectMapper}: a {@code { items, next }} page written as one JSON document, and the same
+ * devices written as NDJSON through {@link NdjsonWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceSerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private DevicePageDto page;
+  private List<DeviceResponseDto> devices;
+
+  /** Builds the dataset of the current size. */
+  @Setup
+  public void setup() {
+    DeviceMapper entityMapper = new DeviceMapper();
+    DeviceDtoMapper dtoMapper = new DeviceDtoMapper();
+    devices =
+        DeviceFixtures.entities(size).stream()
+            .map(entityMapper::toDomain)
+            .map(dtoMapper::toResponseDto)
+            .toList();
+    page = new DevicePageDto(devices, "Q1JFQVRJT05fVElNRV9BU0MKM2ZhODVmNjQ");
+  }
+
+  /**
+   * Serializes the page into a byte array, as the JSON message converter does.
+   *
+   * @return the serialized page
+   * @throws IOException if serialization fails
+   */
+  @Benchmark
+  public byte[] pageAsJson() throws IOException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  /**
+   * Streams the devices as NDJSON into a discarding stream.
+   *
+   * @throws IOException if serialization fails
+   */
+  @Benchmark
+  public void devicesAsNdjson() throws IOException {
+    NdjsonWriter<DeviceResponseDto> writer =
+        new NdjsonWriter<>(
+            objectMapper, DeviceResponseDto.class, OutputStream.nullOutputStream(), 500);
+    devices.forEach(writer);
+    writer.flush();
+  }
+}
@@ -0,0 +1,64 @@
+package com.douglas.bench.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH micro benchmarks of the device request pipeline with the GC profiler, which adds
+ * allocation ({@code gc.alloc.rate.norm}, bytes per operation) and collection counts to every
+ * result. Results are written as JMH JSON so that two releases can be compared with any JMH
+ * visualizer or a plain JSON diff.
+ *
+ * <pre>
+ * mvn -q -pl device-bench -am package -DskipTests
+ * java -jar device-bench/target/benchmarks.jar --label=1.1.0
+ * </pre>
+ *
+ * <p>Options, all optional: {@code --include} benchmark regex (every benchmark of this package),
+ * {@code --label} (run), {@code --out} (target/bench/jmh-&lt;label&gt;.json).
+ */
+public final class JmhBenchmarks {
+
+  private JmhBenchmarks() {}
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args the options described in the class documentation
+   * @throws Exception if a benchmark fails or the results cannot be written
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    String include = options.getOrDefault("include", JmhBenchmarks.class.getPackageName() + ".");
+    String label = options.getOrDefault("label", "run");
+    Path out = Path.of(options.getOrDefault("out", "target/bench/jmh-" + label + ".json"));
+    Files.createDirectories(out.toAbsolutePath().getParent());
+
+    ChainedOptionsBuilder builder =
+        new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(out.toString());
+    new Runner(builder.build()).run();
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return options;
+  }
+}
@@ -0,0 +1,88 @@
+package com.douglas.bench.jmh;
+
+import com.douglas.api.service.PrefixIndex;
+import com.douglas.api.service.PrefixIndex.Completion;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures autocomplete lookups in the {@link PrefixIndex} behind {@code GET
+ * /devices/autocomplete}: the ten most used names for a one-letter prefix, which matches a large
+ * share of the index, and for a longer prefix matching a handful of names, plus a frequency update
+ * as done on every device write. Names follow a Zipf-like distribution of device counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixIndexBenchmark {
+
+  private static final String[] KINDS = {
+    "Router", "Switch", "Sensor", "Camera", "Thermostat", "Access Point", "Smart Plug", "Gateway"
+  };
+
+  @Param({"10000", "200000"})
+  private int terms;
+
+  private PrefixIndex index;
+  private String updated;
+
+  /** Builds an index of the current number of distinct names. */
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    Map<String, Long> counts = new HashMap<>();
+    for (int i = 0; i < terms; i++) {
+      String name = KINDS[i % KINDS.length] + " " + Integer.toString(i, 36).toUpperCase();
+      counts.put(name, 1 + (long) (1_000_000 / (1 + i + random.nextInt(10))));
+    }
+    index = PrefixIndex.of(counts);
+    updated = KINDS[0] + " " + Integer.toString(terms / 2, 36).toUpperCase();
+  }
+
+  /**
+   * Completes a one-letter prefix.
+   *
+   * @return the ten most used matching names
+   */
+  @Benchmark
+  public List<Completion> broadPrefix() {
+    return index.complete("s", 10);
+  }
+
+  /**
+   * Completes a prefix that matches few names.
+   *
+   * @return the ten most used matching names
+   */
+  @Benchmark
+  public List<Completion> narrowPrefix() {
+    return index.complete("router 1a", 10);
+  }
+
+  /**
+   * Counts one more device for a name, as a create does.
+   *
+   * @return whether the name was indexed
+   */
+  @Benchmark
+  public boolean increment() {
+    return index.add(updated, 1);
+  }
+}
@@ -0,0 +1,45 @@
+package com.douglas.bench.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyRecorderTest {
+
+  @Test
+  void shouldComputeNearestRankPercentiles() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    for (long i = 100; i >= 1; i--) {
+      recorder.record(i);
+    }
+
+    assertEquals(100, recorder.count());
+    assertEquals(50, recorder.percentile(0.50));
+    assertEquals(99, recorder.percentile(0.99));
+    assertEquals(100, recorder.percentile(1.0));
+  }
+
+  @Test
+  void shouldMergeRecordersAndGrowBeyondInitialCapacity() {
+    LatencyRecorder first = new LatencyRecorder();
+    LatencyRecorder second = new LatencyRecorder();
+    for (int i = 0; i < 2000; i++) {
+      first.record(1);
+      second.record(3);
+    }
+
+    first.merge(second);
+
+    assertEquals(4000, first.count());
+    assertEquals(1, first.percentile(0.5));
+    assertEquals(3, first.percentile(0.51));
+  }
+
+  @Test
+  void shouldRejectInvalidQuantileAndHandleEmptyRecorder() {
+    LatencyRecorder recorder = new LatencyRecorder();
+
+    assertEquals(0, recorder.percentile(0.99));
+    assertThrows(IllegalArgumentException.class, () -> recorder.percentile(0));
+  }
+}
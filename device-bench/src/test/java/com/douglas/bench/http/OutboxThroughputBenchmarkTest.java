@@ -0,0 +1,16 @@
+package com.douglas.bench.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class OutboxThroughputBenchmarkTest {
+
+  @Test
+  void shouldNameDevicesAfterTheirPosition() {
+    assertEquals(
+        "[{\"name\":\"Outbox 10\",\"brand\":\"Bench\",\"state\":\"AVAILABLE\"},"
+            + "{\"name\":\"Outbox 11\",\"brand\":\"Bench\",\"state\":\"AVAILABLE\"}]",
+        OutboxThroughputBenchmark.batchBody(10, 2));
+  }
+}
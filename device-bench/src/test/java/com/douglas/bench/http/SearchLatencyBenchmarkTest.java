@@ -0,0 +1,18 @@
+package com.douglas.bench.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+class SearchLatencyBenchmarkTest {
+
+  @Test
+  void shouldEncodeTheQueryAndLimit() {
+    URI uri =
+        SearchLatencyBenchmark.searchUri(
+            URI.create("http://localhost:8080/devices/search"), "smart plug&x", 20);
+
+    assertEquals("http://localhost:8080/devices/search?q=smart+plug%26x&limit=20", uri.toString());
+  }
+}
@@ -0,0 +1,26 @@
+package com.douglas.bench.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ServerMetricsSamplerTest {
+
+  @Test
+  void shouldReadFirstMeasurementOfActuatorMetric() {
+    String body =
+        """
+        {"name":"jvm.memory.used","baseUnit":"bytes",
+         "measurements":[{"statistic":"VALUE","value":1.234567E8}],
+         "availableTags":[{"tag":"area","values":["heap","nonheap"]}]}
+        """;
+
+    assertEquals(123456700, ServerMetricsSampler.parseValue(body));
+    assertEquals(57, ServerMetricsSampler.parseValue("{\"measurements\":[{\"value\":57.0}]}"));
+  }
+
+  @Test
+  void shouldReportMissingMeasurement() {
+    assertEquals(-1, ServerMetricsSampler.parseValue("{\"measurements\":[]}"));
+  }
+}
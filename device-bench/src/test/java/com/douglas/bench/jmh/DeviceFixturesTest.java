@@ -0,0 +1,32 @@
+package com.douglas.bench.jmh;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.persistence.entity.DeviceEntity;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DeviceFixturesTest {
+
+  @Test
+  void shouldBuildTheSameDatasetOnEveryCall() {
+    List<DeviceEntity> first = DeviceFixtures.entities(100);
+    List<DeviceEntity> second = DeviceFixtures.entities(100);
+
+    assertEquals(100, first.size());
+    for (int i = 0; i < first.size(); i++) {
+      assertEquals(first.get(i).getId(), second.get(i).getId());
+      assertEquals(first.get(i).getBrand(), second.get(i).getBrand());
+      assertEquals(first.get(i).getState(), second.get(i).getState());
+    }
+  }
+
+  @Test
+  void shouldOrderDevicesByCreationTime() {
+    List<DeviceEntity> entities = DeviceFixtures.entities(50);
+
+    for (int i = 1; i < entities.size(); i++) {
+      assertTrue(entities.get(i - 1).getCreationTime().isBefore(entities.get(i).getCreationTime()));
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.douglas.contract.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for the outcome of one device in a bulk creation request. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeviceBatchItemResultDto(
+    @Schema(description = "Position of the device in the request array", example = "0") int index,
+    @Schema(description = "Outcome for this device", example = "CREATED") Status status,
+    @Schema(description = "The created device, when status is CREATED") DeviceResponseDto device,
+    @Schema(description = "Why the device was not created", example = "Name is required")
+        String error) {
+
+  /** Outcome of a single item. */
+  public enum Status {
+    /** The device was inserted. */
+    CREATED,
+    /** The device broke a validation rule and was skipped. */
+    REJECTED,
+    /** The device was valid but its chunk could not be inserted. */
+    FAILED
+  }
+}
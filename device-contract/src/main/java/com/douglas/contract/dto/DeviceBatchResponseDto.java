@@ -0,0 +1,12 @@
+package com.douglas.contract.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/** DTO for returning the outcome of a bulk device creation request. */
+public record DeviceBatchResponseDto(
+    @Schema(description = "Number of devices created", example = "998") int created,
+    @Schema(description = "Number of devices rejected by validation", example = "2") int rejected,
+    @Schema(description = "Number of valid devices whose insert failed", example = "0") int failed,
+    @Schema(description = "Per-item outcomes, in request order")
+        List<DeviceBatchItemResultDto> items) {}
@@ -0,0 +1,11 @@
+package com.douglas.contract.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for returning the outcome of a bulk state change or bulk delete. */
+public record DeviceBulkResultDto(
+    @Schema(description = "Number of devices changed or deleted", example = "120") long affected,
+    @Schema(
+            description = "Number of matching devices skipped because they are in use",
+            example = "3")
+        long skippedInUse) {}
@@ -0,0 +1,9 @@
+package com.douglas.contract.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** DTO for moving every device matching a filter to a new state. */
+public record DeviceBulkStateDto(
+    @Schema(description = "New state of the matching devices", example = "INACTIVE")
+        DeviceState state) {}
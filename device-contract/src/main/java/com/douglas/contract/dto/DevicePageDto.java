@@ -0,0 +1,16 @@
+package com.douglas.contract.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/** DTO for returning one page of a device listing. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DevicePageDto(
+    @Schema(description = "Devices in this page") List<DeviceResponseDto> items,
+    @Schema(
+            description =
+                "Opaque cursor for the next page, to be passed back as the cursor parameter;"
+                    + " absent on the last page",
+            example = "Q1JFQVRJT05fVElNRV9BU0MKM2ZhODVmNjQ")
+        String next) {}
@@ -0,0 +1,21 @@
+package com.douglas.contract.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for partially updating a Device. All fields are optional and only provided ones will be
+ * updated. Provided names and brands follow the {@link DeviceRequestDto} width and content rules.
+ */
+public record DevicePatchDto(
+    @Schema(description = "Device name", example = "Temperature Sensor", maxLength = 255)
+        @Size(max = 255, message = "Name must be at most 255 characters")
+        @Pattern(regexp = "[^\\x00]*", message = "Name must not contain NUL characters")
+        String name,
+    @Schema(description = "Device brand", example = "Acme Corp", maxLength = 255)
+        @Size(max = 255, message = "Brand must be at most 255 characters")
+        @Pattern(regexp = "[^\\x00]*", message = "Brand must not contain NUL characters")
+        String brand,
+    @Schema(description = "Device current state", example = "AVAILABLE") DeviceState state) {}
@@ -0,0 +1,27 @@
+package com.douglas.contract.dto;
+
+import com.douglas.core.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for creating or updating a Device. Names and brands must fit the {@code varchar(255)} columns
+ * and must not contain NUL, which PostgreSQL refuses in text.
+ */
+public record DeviceRequestDto(
+    @Schema(description = "Device name", example = "Temperature Sensor", maxLength = 255)
+        @NotBlank(message = "Name is required")
+        @Size(max = 255, message = "Name must be at most 255 characters")
+        @Pattern(regexp = "[^\\x00]*", message = "Name must not contain NUL characters")
+        String name,
+    @Schema(description = "Device brand", example = "Acme Corp", maxLength = 255)
+        @NotBlank(message = "Brand is required")
+        @Size(max = 255, message = "Brand must be at most 255 characters")
+        @Pattern(regexp = "[^\\x00]*", message = "Brand must not contain NUL characters")
+        String brand,
+    @Schema(description = "Device current state", example = "AVAILABLE")
+        @NotNull(message = "State is required")
+        DeviceState state) {}
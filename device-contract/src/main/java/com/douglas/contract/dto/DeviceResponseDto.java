@@ -1,11 +1,11 @@
-package com.douglas.api.dto;
+package com.douglas.contract.dto;
 
 import com.douglas.core.domain.DeviceState;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.Instant;
 import java.util.UUID;
 
-/** DTO for returning Device information. */
+/** DTO for returning Device information. Its version is also sent as the response's ETag. */
 public record DeviceResponseDto(
     @Schema(
             description = "Unique identifier of the device",
@@ -15,4 +15,6 @@ public record DeviceResponseDto(
     @Schema(description = "Device brand", example = "Acme Corp") String brand,
     @Schema(description = "Device current state", example = "AVAILABLE") DeviceState state,
     @Schema(description = "Creation timestamp in UTC", example = "2025-08-06T20:50:33Z")
-        Instant creationTime) {}
+        Instant creationTime,
+    @Schema(description = "Revision of the device, incremented by every change", example = "3")
+        long version) {}
@@ -1,4 +1,4 @@
-package com.douglas.api.exception;
+package com.douglas.contract.exception;
 
 /** Exception thrown when a device in use is not allowed to be changed or deleted. */
 public class DeviceInUseException extends RuntimeException {
@@ -1,4 +1,4 @@
-package com.douglas.api.exception;
+package com.douglas.contract.exception;
 
 import java.util.UUID;
 
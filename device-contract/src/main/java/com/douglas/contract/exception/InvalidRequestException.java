@@ -0,0 +1,8 @@
+package com.douglas.contract.exception;
+
+/** Exception thrown when a request parameter or body is not acceptable. */
+public class InvalidRequestException extends RuntimeException {
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
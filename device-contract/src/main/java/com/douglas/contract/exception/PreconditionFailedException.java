@@ -0,0 +1,8 @@
+package com.douglas.contract.exception;
+
+/** Exception thrown when a conditional request's {@code If-Match} does not match the device. */
+public class PreconditionFailedException extends RuntimeException {
+  public PreconditionFailedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,45 @@
+package com.douglas.contract.http;
+
+import com.douglas.contract.exception.PreconditionFailedException;
+
+/**
+ * Converts between device versions and the strong entity tags exchanged in the {@code ETag} and
+ * {@code If-Match} headers. A device's tag is its version in quotes, e.g. {@code "3"}.
+ */
+public final class DeviceETags {
+
+  private DeviceETags() {}
+
+  /**
+   * Formats the entity tag of a device version.
+   *
+   * @param version the device version
+   * @return the quoted strong entity tag
+   */
+  public static String of(long version) {
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Parses an {@code If-Match} header into the version the device must have.
+   *
+   * @param ifMatch the header value, or {@code null} when absent
+   * @return the expected version, or {@code null} when the header is absent or {@code *}
+   * @throws PreconditionFailedException if the header is not a single strong device tag, since such
+   *     a value can never match the current device
+   */
+  public static Long parseIfMatch(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException ex) {
+        // fall through
+      }
+    }
+    throw new PreconditionFailedException("If-Match does not match the current device: " + tag);
+  }
+}
@@ -1,14 +1,12 @@
-package com.douglas.api.mapper;
+package com.douglas.contract.mapper;
 
-import com.douglas.api.dto.DeviceResponseDto;
+import com.douglas.contract.dto.DeviceResponseDto;
 import com.douglas.core.domain.Device;
-import org.springframework.stereotype.Component;
 
 /**
  * Mapper responsible for converting a {@link Device} domain object into its corresponding {@link
- * DeviceResponseDto} representation.
+ * DeviceResponseDto} representation. Both APIs register it as a bean.
  */
-@Component
 public class DeviceDtoMapper {
 
   /**
@@ -20,6 +18,11 @@ public class DeviceDtoMapper {
    */
   public DeviceResponseDto toResponseDto(Device device) {
     return new DeviceResponseDto(
-        device.id(), device.name(), device.brand(), device.state(), device.creationTime());
+        device.id(),
+        device.name(),
+        device.brand(),
+        device.state(),
+        device.creationTime(),
+        device.version());
   }
 }
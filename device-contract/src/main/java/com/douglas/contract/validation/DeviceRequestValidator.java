@@ -0,0 +1,56 @@
+package com.douglas.contract.validation;
+
+import com.douglas.contract.dto.DeviceRequestDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks a {@link DeviceRequestDto} against the constraints declared on its fields, for the bulk
+ * paths that validate and report item by item instead of rejecting the whole request. The rules are
+ * those {@code @Valid} applies to single-device requests; only their reporting differs. Both APIs
+ * register it as a bean.
+ */
+public class DeviceRequestValidator {
+
+  /** Fields in declaration order, so that messages come out in a stable order. */
+  private static final List<String> FIELDS =
+      Arrays.stream(DeviceRequestDto.class.getRecordComponents())
+          .map(RecordComponent::getName)
+          .toList();
+
+  private static final Comparator<ConstraintViolation<DeviceRequestDto>> IN_FIELD_ORDER =
+      Comparator.<ConstraintViolation<DeviceRequestDto>>comparingInt(
+              violation -> FIELDS.indexOf(violation.getPropertyPath().toString()))
+          .thenComparing(ConstraintViolation::getMessage);
+
+  private final Validator validator;
+
+  /**
+   * Creates the validator.
+   *
+   * @param validator the Bean Validation validator evaluating the constraints
+   */
+  public DeviceRequestValidator(Validator validator) {
+    this.validator = validator;
+  }
+
+  /**
+   * Lists the constraint violations of a device request.
+   *
+   * @param request the request to check, possibly {@code null}
+   * @return the violation messages in field order, empty if the request is valid
+   */
+  public List<String> violations(DeviceRequestDto request) {
+    if (request == null) {
+      return List.of("Device is required");
+    }
+    return validator.validate(request).stream()
+        .sorted(IN_FIELD_ORDER)
+        .map(ConstraintViolation::getMessage)
+        .toList();
+  }
+}
@@ -11,8 +11,23 @@ import java.util.UUID;
  * @param brand brand of the device
  * @param state current {@link DeviceState} of the device
  * @param creationTime timestamp when the device was created
+ * @param version revision of the device, incremented by every change
  */
-public record Device(UUID id, String name, String brand, DeviceState state, Instant creationTime) {
+public record Device(
+    UUID id, String name, String brand, DeviceState state, Instant creationTime, long version) {
+
+  /**
+   * Creates a device at its first revision.
+   *
+   * @param id unique identifier of the device
+   * @param name name of the device
+   * @param brand brand of the device
+   * @param state current {@link DeviceState} of the device
+   * @param creationTime timestamp when the device was created
+   */
+  public Device(UUID id, String name, String brand, DeviceState state, Instant creationTime) {
+    this(id, name, brand, state, creationTime, 0L);
+  }
 
   /**
    * Checks if the device is currently in use.
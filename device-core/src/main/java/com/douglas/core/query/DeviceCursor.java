@@ -0,0 +1,68 @@
+package com.douglas.core.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of the last device returned in a page. The next page starts strictly after the
+ * pair ({@code key}, {@code id}) in the order given by {@code sort}, which lets the database seek
+ * directly to it through an index instead of skipping rows.
+ *
+ * @param sort the ordering the position belongs to
+ * @param key value of the sort attribute for the last device, an {@link Instant} or a {@link
+ *     String}
+ * @param id identifier of the last device
+ */
+public record DeviceCursor(DeviceSort sort, Object key, UUID id) {
+
+  private static final String SEPARATOR = "\n";
+
+  /**
+   * Builds the position of a device within the given ordering.
+   *
+   * @param sort the ordering of the page
+   * @param id the device id
+   * @param name the device name
+   * @param creationTime the device creation time
+   * @return the keyset position of the device
+   */
+  public static DeviceCursor of(DeviceSort sort, UUID id, String name, Instant creationTime) {
+    return new DeviceCursor(sort, "name".equals(sort.property()) ? name : creationTime, id);
+  }
+
+  /**
+   * Encodes this position into an opaque, URL-safe token.
+   *
+   * @return the token handed to clients as the next page reference
+   */
+  public String encode() {
+    String payload = sort.name() + SEPARATOR + id + SEPARATOR + key;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token previously produced by {@link #encode()}.
+   *
+   * @param token the opaque token
+   * @return the decoded position
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static DeviceCursor decode(String token) {
+    try {
+      String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = payload.split(SEPARATOR, 3);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+      }
+      DeviceSort sort = DeviceSort.valueOf(parts[0]);
+      Object key = "name".equals(sort.property()) ? parts[2] : Instant.parse(parts[2]);
+      return new DeviceCursor(sort, key, UUID.fromString(parts[1]));
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.douglas.core.query;
+
+import com.douglas.core.domain.DeviceState;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of optional filters applied when listing devices. Each attribute accepts several
+ * values, combined with OR inside the attribute and with AND across attributes. Names and brands
+ * are matched case-insensitively, so they are normalized to lower case on construction.
+ *
+ * @param names lower-cased device names to match exactly
+ * @param brands lower-cased device brands to match exactly
+ * @param states device states to match
+ */
+public record DeviceFilter(Set<String> names, Set<String> brands, Set<DeviceState> states) {
+
+  private static final DeviceFilter NONE = new DeviceFilter(Set.of(), Set.of(), Set.of());
+
+  /** Normalizes the given values, dropping blanks and lower-casing names and brands. */
+  public DeviceFilter {
+    names = normalize(names);
+    brands = normalize(brands);
+    states =
+        states == null
+            ? Set.of()
+            : states.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * Creates a filter from raw request values, any of which may be {@code null}.
+   *
+   * @param names device names to match, ignoring case
+   * @param brands device brands to match, ignoring case
+   * @param states device states to match
+   * @return the corresponding filter
+   */
+  public static DeviceFilter of(
+      Collection<String> names, Collection<String> brands, Collection<DeviceState> states) {
+    return new DeviceFilter(copy(names), copy(brands), copy(states));
+  }
+
+  /**
+   * Returns a filter that matches every device.
+   *
+   * @return the empty filter
+   */
+  public static DeviceFilter none() {
+    return NONE;
+  }
+
+  /**
+   * Checks whether this filter restricts the result at all.
+   *
+   * @return {@code true} if no attribute has a value to match, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return names.isEmpty() && brands.isEmpty() && states.isEmpty();
+  }
+
+  private static <T> Set<T> copy(Collection<T> values) {
+    return values == null ? null : new HashSet<>(values);
+  }
+
+  private static Set<String> normalize(Set<String> values) {
+    if (values == null || values.isEmpty()) {
+      return Set.of();
+    }
+    return values.stream()
+        .filter(Objects::nonNull)
+        .filter(value -> !value.isBlank())
+        .map(value -> value.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toUnmodifiableSet());
+  }
+}
@@ -0,0 +1,49 @@
+package com.douglas.core.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last state change returned in a page of a device's history. The next page
+ * starts strictly after the pair ({@code changedAt}, {@code version}), newest first.
+ *
+ * @param changedAt when the last returned change happened
+ * @param version the device version the last returned change produced
+ */
+public record DeviceHistoryCursor(Instant changedAt, long version) {
+
+  private static final String SEPARATOR = "\n";
+
+  /**
+   * Encodes this position into an opaque, URL-safe token.
+   *
+   * @return the token handed to clients as the next page reference
+   */
+  public String encode() {
+    String payload = changedAt + SEPARATOR + version;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token previously produced by {@link #encode()}.
+   *
+   * @param token the opaque token
+   * @return the decoded position
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static DeviceHistoryCursor decode(String token) {
+    try {
+      String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = payload.split(SEPARATOR, 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+      }
+      return new DeviceHistoryCursor(Instant.parse(parts[0]), Long.parseLong(parts[1]));
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.douglas.core.query;
+
+import java.util.Arrays;
+
+/**
+ * Supported orderings for device listings. Every ordering uses the device id as tie-breaker, so
+ * that the pair (sort key, id) is unique and can be used as a keyset cursor.
+ */
+public enum DeviceSort {
+
+  /** Oldest devices first. */
+  CREATION_TIME_ASC("creationTime", false),
+
+  /** Newest devices first. */
+  CREATION_TIME_DESC("creationTime", true),
+
+  /** Devices ordered by name, A to Z. */
+  NAME_ASC("name", false),
+
+  /** Devices ordered by name, Z to A. */
+  NAME_DESC("name", true);
+
+  private final String property;
+  private final boolean descending;
+
+  DeviceSort(String property, boolean descending) {
+    this.property = property;
+    this.descending = descending;
+  }
+
+  /**
+   * Returns the device attribute this ordering is keyed on.
+   *
+   * @return {@code creationTime} or {@code name}
+   */
+  public String property() {
+    return property;
+  }
+
+  /**
+   * Checks whether the ordering is descending.
+   *
+   * @return {@code true} for descending orderings, otherwise {@code false}
+   */
+  public boolean descending() {
+    return descending;
+  }
+
+  /**
+   * Returns the request parameter representation, the property name prefixed with {@code -} when
+   * descending.
+   *
+   * @return the parameter value, e.g. {@code -creationTime}
+   */
+  public String parameter() {
+    return descending ? "-" + property : property;
+  }
+
+  /**
+   * Resolves an ordering from its request parameter representation.
+   *
+   * @param parameter the parameter value, e.g. {@code name} or {@code -creationTime}
+   * @return the matching ordering
+   * @throws IllegalArgumentException if the value does not name a supported ordering
+   */
+  public static DeviceSort fromParameter(String parameter) {
+    return Arrays.stream(values())
+        .filter(sort -> sort.parameter().equals(parameter))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unsupported sort: " + parameter));
+  }
+}
@@ -0,0 +1,94 @@
+package com.douglas.core.query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Width of the time buckets device statistics are reported in. Buckets are aligned on UTC hour or
+ * day boundaries.
+ */
+public enum DeviceStatsGranularity {
+
+  /** One bucket per hour; by default the last 24 hours are reported. */
+  HOUR("hour", ChronoUnit.HOURS, Duration.ofDays(1)),
+
+  /** One bucket per day; by default the last 30 days are reported. */
+  DAY("day", ChronoUnit.DAYS, Duration.ofDays(30));
+
+  private final String parameter;
+  private final ChronoUnit unit;
+  private final Duration defaultRange;
+
+  DeviceStatsGranularity(String parameter, ChronoUnit unit, Duration defaultRange) {
+    this.parameter = parameter;
+    this.unit = unit;
+    this.defaultRange = defaultRange;
+  }
+
+  /**
+   * Returns the request parameter representation, which is also the PostgreSQL {@code date_trunc}
+   * field name.
+   *
+   * @return {@code hour} or {@code day}
+   */
+  public String parameter() {
+    return parameter;
+  }
+
+  /**
+   * Returns the range reported when the client does not give a start.
+   *
+   * @return the default range
+   */
+  public Duration defaultRange() {
+    return defaultRange;
+  }
+
+  /**
+   * Returns the start of the bucket containing the given instant.
+   *
+   * @param instant any instant
+   * @return the instant rounded down to a bucket boundary
+   */
+  public Instant floor(Instant instant) {
+    return instant.truncatedTo(unit);
+  }
+
+  /**
+   * Returns the first bucket boundary at or after the given instant.
+   *
+   * @param instant any instant
+   * @return the instant rounded up to a bucket boundary
+   */
+  public Instant ceil(Instant instant) {
+    Instant floor = floor(instant);
+    return floor.equals(instant) ? floor : floor.plus(1, unit);
+  }
+
+  /**
+   * Counts the buckets between two bucket boundaries.
+   *
+   * @param from the inclusive start
+   * @param to the exclusive end
+   * @return the number of buckets in {@code [from, to)}
+   */
+  public long buckets(Instant from, Instant to) {
+    return unit.between(from, to);
+  }
+
+  /**
+   * Resolves a granularity from its request parameter representation.
+   *
+   * @param parameter the parameter value, {@code hour} or {@code day}
+   * @return the matching granularity
+   * @throws IllegalArgumentException if the value does not name a supported granularity
+   */
+  public static DeviceStatsGranularity fromParameter(String parameter) {
+    return Arrays.stream(values())
+        .filter(granularity -> granularity.parameter.equals(parameter))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unsupported granularity: " + parameter));
+  }
+}
@@ -0,0 +1,46 @@
+package com.douglas.core.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DeviceCursorTest {
+
+  private final UUID id = UUID.randomUUID();
+  private final Instant now = Instant.parse("2025-08-07T10:00:00.123456Z");
+
+  @Test
+  void shouldRoundTripCreationTimeCursor() {
+    DeviceCursor cursor = DeviceCursor.of(DeviceSort.CREATION_TIME_DESC, id, "Router", now);
+
+    DeviceCursor decoded = DeviceCursor.decode(cursor.encode());
+
+    assertEquals(cursor, decoded);
+    assertEquals(now, decoded.key());
+  }
+
+  @Test
+  void shouldRoundTripNameCursorWithSeparatorsInName() {
+    DeviceCursor cursor = DeviceCursor.of(DeviceSort.NAME_ASC, id, "Line\nbreak", now);
+
+    DeviceCursor decoded = DeviceCursor.decode(cursor.encode());
+
+    assertEquals("Line\nbreak", decoded.key());
+    assertEquals(id, decoded.id());
+  }
+
+  @Test
+  void shouldRejectMalformedToken() {
+    assertThrows(IllegalArgumentException.class, () -> DeviceCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> DeviceCursor.decode("Zm9v"));
+  }
+
+  @Test
+  void shouldResolveSortFromParameter() {
+    assertEquals(DeviceSort.CREATION_TIME_ASC, DeviceSort.fromParameter("creationTime"));
+    assertEquals(DeviceSort.NAME_DESC, DeviceSort.fromParameter("-name"));
+    assertThrows(IllegalArgumentException.class, () -> DeviceSort.fromParameter("brand"));
+  }
+}
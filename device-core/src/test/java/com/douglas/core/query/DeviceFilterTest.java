@@ -0,0 +1,40 @@
+package com.douglas.core.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.douglas.core.domain.DeviceState;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DeviceFilterTest {
+
+  @Test
+  void shouldLowerCaseNamesAndBrands() {
+    DeviceFilter filter =
+        DeviceFilter.of(List.of("Router X"), List.of("TP-Link", "ACME"), List.of());
+
+    assertEquals(Set.of("router x"), filter.names());
+    assertEquals(Set.of("tp-link", "acme"), filter.brands());
+    assertTrue(filter.states().isEmpty());
+  }
+
+  @Test
+  void shouldDropNullAndBlankValues() {
+    DeviceFilter filter =
+        DeviceFilter.of(
+            Arrays.asList(null, " ", "Device"), null, Arrays.asList(DeviceState.IN_USE, null));
+
+    assertEquals(Set.of("device"), filter.names());
+    assertTrue(filter.brands().isEmpty());
+    assertEquals(Set.of(DeviceState.IN_USE), filter.states());
+  }
+
+  @Test
+  void shouldBeEmptyWhenNoValuesGiven() {
+    assertTrue(DeviceFilter.of(null, null, null).isEmpty());
+    assertTrue(DeviceFilter.none().isEmpty());
+    assertFalse(DeviceFilter.of(null, null, List.of(DeviceState.AVAILABLE)).isEmpty());
+  }
+}
@@ -0,0 +1,23 @@
+package com.douglas.core.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class DeviceHistoryCursorTest {
+
+  @Test
+  void shouldRoundTrip() {
+    DeviceHistoryCursor cursor =
+        new DeviceHistoryCursor(Instant.parse("2025-08-07T10:00:00.123456Z"), 42);
+
+    assertEquals(cursor, DeviceHistoryCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void shouldRejectMalformedToken() {
+    assertThrows(IllegalArgumentException.class, () -> DeviceHistoryCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> DeviceHistoryCursor.decode("Zm9v"));
+  }
+}
@@ -0,0 +1,33 @@
+package com.douglas.core.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class DeviceStatsGranularityTest {
+
+  @Test
+  void shouldRoundToUtcBucketBoundaries() {
+    Instant instant = Instant.parse("2025-08-07T10:15:30Z");
+
+    assertEquals(Instant.parse("2025-08-07T10:00:00Z"), DeviceStatsGranularity.HOUR.floor(instant));
+    assertEquals(Instant.parse("2025-08-07T11:00:00Z"), DeviceStatsGranularity.HOUR.ceil(instant));
+    assertEquals(Instant.parse("2025-08-07T00:00:00Z"), DeviceStatsGranularity.DAY.floor(instant));
+    assertEquals(Instant.parse("2025-08-08T00:00:00Z"), DeviceStatsGranularity.DAY.ceil(instant));
+    assertEquals(
+        Instant.parse("2025-08-07T00:00:00Z"),
+        DeviceStatsGranularity.DAY.ceil(Instant.parse("2025-08-07T00:00:00Z")));
+  }
+
+  @Test
+  void shouldCountBucketsAndResolveParameters() {
+    assertEquals(
+        48,
+        DeviceStatsGranularity.HOUR.buckets(
+            Instant.parse("2025-08-07T00:00:00Z"), Instant.parse("2025-08-09T00:00:00Z")));
+    assertEquals(DeviceStatsGranularity.DAY, DeviceStatsGranularity.fromParameter("day"));
+    assertThrows(
+        IllegalArgumentException.class, () -> DeviceStatsGranularity.fromParameter("week"));
+  }
+}
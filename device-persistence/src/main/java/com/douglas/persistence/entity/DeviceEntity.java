@@ -6,36 +6,74 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.UUID;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.springframework.data.domain.Persistable;
 
 /**
  * JPA entity representing a device record in the database. Maps to the {@code devices} table and
- * stores details such as name, brand, state, and creation timestamp.
+ * stores details such as name, brand, state, and creation timestamp. The table and its indexes are
+ * owned by the Flyway migrations in {@code db/migration}.
+ *
+ * <p>Ids are assigned by the application, so the entity implements {@link Persistable} to tell
+ * Spring Data that a freshly built instance is new. Saving it then issues a plain {@code INSERT},
+ * which Hibernate can batch, instead of a merge preceded by a {@code SELECT}.
+ *
+ * <p>The {@code version} column is an optimistic-locking counter. Hibernate checks and increments
+ * it on every entity update and delete, and it is exposed to HTTP clients as the device's ETag.
+ *
+ * <p>Devices are soft-deleted: removing the entity stamps {@code deleted_at}, still guarded by the
+ * version, and every query Hibernate generates for the entity, including criteria and bulk
+ * statements, only sees rows where it is {@code null}. Those are the rows covered by the partial
+ * {@code idx_live_devices_*} indexes. Native SQL must filter deleted devices out itself.
  */
 @Entity
 @Table(name = "devices")
-public class DeviceEntity {
+@SQLRestriction("deleted_at IS NULL")
+@SQLDelete(
+    sql = "UPDATE devices SET deleted_at = statement_timestamp() WHERE id = ? AND version = ?")
+public class DeviceEntity implements Persistable<UUID> {
 
   @Id
   @Column(columnDefinition = "uuid", updatable = false, nullable = false)
   private UUID id;
 
+  @Column(nullable = false)
   private String name;
+
+  @Column(nullable = false)
   private String brand;
 
   @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
   private DeviceState state;
 
-  @Column(name = "creation_time", updatable = false)
+  @Column(name = "creation_time", updatable = false, nullable = false)
   private Instant creationTime;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  /** Only written by deletes; loaded entities always have it {@code null}. */
+  @Column(name = "deleted_at")
+  private Instant deletedAt;
+
+  @Transient private boolean isNew = true;
+
   /**
    * Returns the unique identifier of the device.
    *
    * @return the device UUID
    */
+  @Override
   public UUID getId() {
     return id;
   }
@@ -120,4 +158,39 @@ public class DeviceEntity {
   public void setCreationTime(Instant creationTime) {
     this.creationTime = creationTime;
   }
+
+  /**
+   * Returns the revision of the device.
+   *
+   * @return the version, or {@code null} before the device is first persisted
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  /**
+   * Sets the revision of the device.
+   *
+   * @param version the version
+   */
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  /**
+   * Indicates whether the entity has not been persisted yet.
+   *
+   * @return {@code true} until the entity is persisted or when it was built in memory, {@code
+   *     false} once it has been loaded from or written to the database
+   */
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
 }
@@ -24,6 +24,7 @@ public class DeviceMapper {
     entity.setBrand(device.brand());
     entity.setState(device.state());
     entity.setCreationTime(device.creationTime());
+    entity.setVersion(device.version());
     return entity;
   }
 
@@ -39,6 +40,7 @@ public class DeviceMapper {
         entity.getName(),
         entity.getBrand(),
         entity.getState(),
-        entity.getCreationTime());
+        entity.getCreationTime(),
+        entity.getVersion() == null ? 0L : entity.getVersion());
   }
 }
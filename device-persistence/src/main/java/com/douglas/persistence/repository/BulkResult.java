@@ -0,0 +1,9 @@
+package com.douglas.persistence.repository;
+
+/**
+ * Outcome of a statement changing every device that matches a filter.
+ *
+ * @param affected number of devices changed by the statement
+ * @param skippedInUse number of matching devices left untouched because they are in use
+ */
+public record BulkResult(long affected, long skippedInUse) {}
@@ -0,0 +1,14 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import java.time.Instant;
+
+/**
+ * Number of devices of one brand and state registered within one time bucket.
+ *
+ * @param bucket start of the time bucket
+ * @param brand brand of the devices
+ * @param state current state of the devices
+ * @param devices number of devices
+ */
+public record DeviceCreationCount(Instant bucket, String brand, DeviceState state, long devices) {}
@@ -0,0 +1,12 @@
+package com.douglas.persistence.repository;
+
+/**
+ * A slice of the {@code devices} heap read by one export worker: the blocks from {@code fromBlock}
+ * up to, but excluding, {@code toBlock}, as seen by the snapshot the export shares.
+ *
+ * @param snapshot identifier of the exported snapshot every range of the export reads
+ * @param fromBlock first heap block of the range
+ * @param toBlock block the range stops before, or {@code null} for the last range, which also
+ *     covers blocks the table grew by since the snapshot
+ */
+public record DeviceExportRange(String snapshot, long fromBlock, Long toBlock) {}
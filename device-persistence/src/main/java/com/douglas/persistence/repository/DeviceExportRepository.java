@@ -0,0 +1,43 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.query.DeviceFilter;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Custom repository fragment exporting devices through PostgreSQL {@code COPY ... TO STDOUT}, with
+ * the table split into heap block ranges that separate connections read in parallel.
+ *
+ * <p>Every range reads the same exported snapshot, so the ranges together return each device
+ * exactly once and the export is as consistent as a single query, however long it runs and whatever
+ * is written meanwhile. Ranges are read with TID range scans, which need PostgreSQL 14.
+ */
+public interface DeviceExportRepository {
+
+  /**
+   * Opens a read-only snapshot of {@code devices} on a dedicated connection, splits the table into
+   * block ranges of that snapshot and hands them to {@code export}. The snapshot is released once
+   * {@code export} returns or throws, so every range must have been read by then.
+   *
+   * @param ranges the number of ranges to split the table into; small tables get fewer
+   * @param export reads the ranges, typically through {@link #exportRange} on other threads
+   * @param <T> the result of the export
+   * @return what {@code export} returned
+   */
+  <T> T withExportSnapshot(int ranges, Function<List<DeviceExportRange>, T> export);
+
+  /**
+   * Writes the devices of one range that are not deleted and match the filter as CSV rows of {@code
+   * id,name,brand,state,creationTime,version}, without a header. Fields are quoted only when they
+   * contain a comma, a quote or a line break, and creation times are ISO-8601 instants in UTC. Runs
+   * on a connection of its own, which it holds until the range is read.
+   *
+   * @param range the range to read, from {@link #withExportSnapshot}
+   * @param filter names, brands and states to match
+   * @param out receives the rows as UTF-8 text, one row per write
+   * @return the number of devices written
+   * @throws java.io.UncheckedIOException if writing to {@code out} fails; the read is cancelled
+   */
+  long exportRange(DeviceExportRange range, DeviceFilter filter, OutputStream out);
+}
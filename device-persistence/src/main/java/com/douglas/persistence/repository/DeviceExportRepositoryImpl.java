@@ -0,0 +1,179 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Utils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link DeviceExportRepository} on top of pgjdbc's {@code CopyManager}.
+ * Each method runs its own transaction on a connection taken from the pool, so neither may be
+ * called inside a Spring-managed transaction.
+ */
+class DeviceExportRepositoryImpl implements DeviceExportRepository {
+
+  /** Must come first: a snapshot can only be imported before the transaction's first query. */
+  static final String BEGIN_SQL = "SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY";
+
+  /**
+   * Held until the snapshot is released, so that {@code VACUUM FULL} or {@code CLUSTER} cannot
+   * rewrite the table, and move rows between ranges, while the ranges are read.
+   */
+  static final String LOCK_SQL = "LOCK TABLE devices IN ACCESS SHARE MODE";
+
+  static final String SNAPSHOT_SQL =
+      """
+      SELECT pg_export_snapshot() AS snapshot,
+             pg_relation_size('devices') / current_setting('block_size')::int AS blocks
+      """;
+
+  /**
+   * One range of devices, encoded as CSV by the server. {@code COPY} takes no bind parameters, so
+   * the block bounds and the filter are written into the statement as literals.
+   */
+  static final String COPY_SQL =
+      """
+      COPY (SELECT id, name, brand, state,
+                   to_char(creation_time AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"'),
+                   version
+              FROM devices
+             WHERE ctid >= '(%d,0)'::tid%s
+               AND deleted_at IS NULL%s) TO STDOUT WITH (FORMAT csv)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  DeviceExportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public <T> T withExportSnapshot(int ranges, Function<List<DeviceExportRange>, T> export) {
+    return jdbcTemplate.execute(
+        (ConnectionCallback<T>)
+            connection -> {
+              boolean autoCommit = begin(connection, null);
+              try (Statement statement = connection.createStatement()) {
+                statement.execute(LOCK_SQL);
+                List<DeviceExportRange> split;
+                try (ResultSet rs = statement.executeQuery(SNAPSHOT_SQL)) {
+                  rs.next();
+                  split = split(rs.getString("snapshot"), rs.getLong("blocks"), ranges);
+                }
+                return export.apply(split);
+              } finally {
+                end(connection, autoCommit);
+              }
+            });
+  }
+
+  @Override
+  public long exportRange(DeviceExportRange range, DeviceFilter filter, OutputStream out) {
+    Long rows =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection -> {
+                  boolean autoCommit = begin(connection, range.snapshot());
+                  try {
+                    return connection
+                        .unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyOut(copySql(connection, range, filter), out);
+                  } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                  } finally {
+                    end(connection, autoCommit);
+                  }
+                });
+    return rows == null ? 0 : rows;
+  }
+
+  /**
+   * Splits {@code blocks} heap blocks into at most {@code ranges} ranges of nearly equal size. The
+   * last range is left open, and a table without blocks still gets one range.
+   */
+  static List<DeviceExportRange> split(String snapshot, long blocks, int ranges) {
+    int count = (int) Math.max(1, Math.min(ranges, blocks));
+    List<DeviceExportRange> split = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long from = blocks * i / count;
+      Long to = i == count - 1 ? null : blocks * (i + 1) / count;
+      split.add(new DeviceExportRange(snapshot, from, to));
+    }
+    return split;
+  }
+
+  /** Starts a read-only repeatable read transaction, on the given snapshot if there is one. */
+  private static boolean begin(Connection connection, String snapshot) throws SQLException {
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(BEGIN_SQL);
+      if (snapshot != null) {
+        statement.execute("SET TRANSACTION SNAPSHOT " + literal(connection, snapshot));
+      }
+    } catch (SQLException ex) {
+      end(connection, autoCommit);
+      throw ex;
+    }
+    return autoCommit;
+  }
+
+  /** Ends the transaction; it wrote nothing, so rolling back only releases the snapshot. */
+  private static void end(Connection connection, boolean autoCommit) throws SQLException {
+    try {
+      connection.rollback();
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private static String copySql(Connection connection, DeviceExportRange range, DeviceFilter filter)
+      throws SQLException {
+    String upperBound =
+        range.toBlock() == null ? "" : " AND ctid < '(%d,0)'::tid".formatted(range.toBlock());
+    StringBuilder conditions = new StringBuilder();
+    if (!filter.names().isEmpty()) {
+      conditions.append(" AND lower(name) IN ").append(literals(connection, filter.names()));
+    }
+    if (!filter.brands().isEmpty()) {
+      conditions.append(" AND lower(brand) IN ").append(literals(connection, filter.brands()));
+    }
+    if (!filter.states().isEmpty()) {
+      conditions
+          .append(" AND state IN ")
+          .append(literals(connection, filter.states().stream().map(DeviceState::name).toList()));
+    }
+    return COPY_SQL.formatted(range.fromBlock(), upperBound, conditions);
+  }
+
+  private static String literals(Connection connection, Collection<String> values)
+      throws SQLException {
+    List<String> literals = new ArrayList<>(values.size());
+    for (String value : values) {
+      literals.add(literal(connection, value));
+    }
+    return "(" + String.join(", ", literals) + ")";
+  }
+
+  /** Quotes a value as a string literal with pgjdbc's own escaping, which rejects NUL. */
+  private static String literal(Connection connection, String value) throws SQLException {
+    boolean standardConformingStrings =
+        connection.unwrap(BaseConnection.class).getStandardConformingStrings();
+    return "'" + Utils.escapeLiteral(null, value, standardConformingStrings) + "'";
+  }
+}
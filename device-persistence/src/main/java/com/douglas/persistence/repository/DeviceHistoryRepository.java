@@ -0,0 +1,51 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.query.DeviceHistoryCursor;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for the {@code device_state_history} table, which database triggers
+ * append to whenever a device is created or changes state. The table is partitioned by UTC month;
+ * partitions are named {@code device_state_history_pYYYYMM} and must exist before the month starts,
+ * since there is no default partition.
+ */
+public interface DeviceHistoryRepository {
+
+  /**
+   * Reads one page of a device's state history, newest first, with a keyset seek on the primary
+   * key. Partitions older than the cursor are pruned, and the scan stops once the page is full.
+   *
+   * @param id the device, which may have been deleted since
+   * @param after the position of the last change of the previous page, or {@code null} for the
+   *     first page
+   * @param limit the maximum number of changes to return
+   * @return the changes in reverse chronological order
+   */
+  List<DeviceStateChange> findHistory(UUID id, DeviceHistoryCursor after, int limit);
+
+  /**
+   * Creates the partitions of the current month and of the given number of following months that do
+   * not exist yet. Partitions are attached without blocking writers.
+   *
+   * @param monthsAhead the number of months after the current one to prepare
+   */
+  void createHistoryPartitions(int monthsAhead);
+
+  /**
+   * Lists the months that currently have an attached partition.
+   *
+   * @return the months in ascending order
+   */
+  List<YearMonth> findHistoryPartitions();
+
+  /**
+   * Detaches the partition of a month with {@code DETACH PARTITION ... CONCURRENTLY}, which waits
+   * for running queries instead of blocking new ones. The detached table is kept, named as before,
+   * for archiving or dropping. Must not run in a transaction.
+   *
+   * @param month the month to detach
+   */
+  void detachHistoryPartition(YearMonth month);
+}
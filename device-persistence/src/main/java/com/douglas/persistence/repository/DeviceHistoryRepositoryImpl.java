@@ -0,0 +1,105 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceHistoryCursor;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/** JDBC implementation of {@link DeviceHistoryRepository}. */
+class DeviceHistoryRepositoryImpl implements DeviceHistoryRepository {
+
+  /**
+   * Reads the primary key backwards. Ordering by the partition key lets PostgreSQL scan the
+   * partitions newest first and stop at the limit; the row comparison is the keyset seek.
+   */
+  static final String FIND_HISTORY_SQL =
+      """
+      SELECT previous_state, state, version, changed_at
+        FROM device_state_history
+       WHERE device_id = :id%s
+       ORDER BY changed_at DESC, version DESC
+       LIMIT :limit
+      """;
+
+  /**
+   * Seeks past the cursor. The row comparison is what the index scan starts from; the redundant
+   * bound on {@code changed_at} alone is what lets PostgreSQL prune newer partitions.
+   */
+  static final String AFTER_CURSOR =
+      " AND changed_at <= :changedAt AND (changed_at, version) < (:changedAt, :version)";
+
+  static final String FIND_PARTITIONS_SQL =
+      """
+      SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+       WHERE i.inhparent = 'device_state_history'::regclass
+         AND c.relname ~ '^device_state_history_p[0-9]{6}$'
+       ORDER BY c.relname
+      """;
+
+  static final String PARTITION_PREFIX = "device_state_history_p";
+
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  DeviceHistoryRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<DeviceStateChange> findHistory(UUID id, DeviceHistoryCursor after, int limit) {
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource().addValue("id", id).addValue("limit", limit);
+    String conditions = "";
+    if (after != null) {
+      conditions = AFTER_CURSOR;
+      parameters
+          .addValue("changedAt", Timestamp.from(after.changedAt()))
+          .addValue("version", after.version());
+    }
+    return jdbcTemplate.query(
+        FIND_HISTORY_SQL.formatted(conditions),
+        parameters,
+        (rs, rowNum) -> {
+          String previous = rs.getString("previous_state");
+          return new DeviceStateChange(
+              previous == null ? null : DeviceState.valueOf(previous),
+              DeviceState.valueOf(rs.getString("state")),
+              rs.getLong("version"),
+              rs.getObject("changed_at", OffsetDateTime.class).toInstant());
+        });
+  }
+
+  @Override
+  public void createHistoryPartitions(int monthsAhead) {
+    jdbcTemplate
+        .getJdbcTemplate()
+        .queryForList("SELECT device_state_history_create_partitions(?)", monthsAhead);
+  }
+
+  @Override
+  public List<YearMonth> findHistoryPartitions() {
+    return jdbcTemplate.getJdbcTemplate().queryForList(FIND_PARTITIONS_SQL, String.class).stream()
+        .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_MONTH))
+        .toList();
+  }
+
+  @Override
+  public void detachHistoryPartition(YearMonth month) {
+    jdbcTemplate
+        .getJdbcTemplate()
+        .execute(
+            "ALTER TABLE device_state_history DETACH PARTITION "
+                + PARTITION_PREFIX
+                + month.format(PARTITION_MONTH)
+                + " CONCURRENTLY");
+  }
+}
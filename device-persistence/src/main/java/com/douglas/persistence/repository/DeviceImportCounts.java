@@ -0,0 +1,10 @@
+package com.douglas.persistence.repository;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param staged number of devices copied into the staging table
+ * @param inserted number of staged devices inserted into {@code devices}; the others carried the id
+ *     of an existing device
+ */
+public record DeviceImportCounts(long staged, long inserted) {}
@@ -0,0 +1,22 @@
+package com.douglas.persistence.repository;
+
+import java.util.Iterator;
+
+/**
+ * Custom repository fragment loading devices in bulk through PostgreSQL {@code COPY}, for volumes
+ * that batched inserts cannot keep up with.
+ */
+public interface DeviceImportRepository {
+
+  /**
+   * Streams devices into a temporary staging table with {@code COPY}, then inserts them into {@code
+   * devices} with a single statement, all in one transaction: either every staged device is
+   * imported or none is. Devices whose id already exists, deleted ones included, are skipped, so an
+   * interrupted import can be run again. The statement-level triggers on {@code devices} fire once
+   * for the whole import.
+   *
+   * @param rows the devices to import, consumed once and never held in memory together
+   * @return the number of staged and of inserted devices
+   */
+  DeviceImportCounts importDevices(Iterator<DeviceImportRow> rows);
+}
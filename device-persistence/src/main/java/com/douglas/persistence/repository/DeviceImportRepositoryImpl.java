@@ -0,0 +1,126 @@
+package com.douglas.persistence.repository;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/** JDBC implementation of {@link DeviceImportRepository} on top of pgjdbc's {@code CopyManager}. */
+class DeviceImportRepositoryImpl implements DeviceImportRepository {
+
+  /**
+   * Session-local and unlogged, so staging writes no WAL, and dropped with the transaction. It has
+   * no index or constraint: rows are validated before they are copied.
+   */
+  static final String CREATE_STAGING_SQL =
+      """
+      CREATE TEMPORARY TABLE device_import (
+          id    uuid,
+          name  varchar(255) NOT NULL,
+          brand varchar(255) NOT NULL,
+          state varchar(255) NOT NULL
+      ) ON COMMIT DROP
+      """;
+
+  static final String COPY_SQL = "COPY device_import (id, name, brand, state) FROM STDIN";
+
+  /**
+   * Inserts every staged device in one statement, so the triggers on {@code devices} see the whole
+   * import as a single transition table. The primary key covers deleted devices too, so a device
+   * deleted since an earlier run is not brought back.
+   */
+  static final String MERGE_SQL =
+      """
+      INSERT INTO devices (id, name, brand, state, creation_time, version)
+      SELECT coalesce(id, gen_random_uuid()), name, brand, state, statement_timestamp(), 0
+        FROM device_import
+          ON CONFLICT (id) DO NOTHING
+      """;
+
+  /** Bytes sent to the server per {@code CopyData} message. */
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  DeviceImportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  @Transactional
+  public DeviceImportCounts importDevices(Iterator<DeviceImportRow> rows) {
+    return jdbcTemplate.execute(
+        (ConnectionCallback<DeviceImportCounts>)
+            connection -> {
+              try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+                long staged = copy(connection, rows);
+                long inserted = statement.executeLargeUpdate(MERGE_SQL);
+                return new DeviceImportCounts(staged, inserted);
+              }
+            });
+  }
+
+  private static long copy(Connection connection, Iterator<DeviceImportRow> rows)
+      throws SQLException {
+    PGCopyOutputStream out =
+        new PGCopyOutputStream(
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL), COPY_BUFFER_SIZE);
+    try {
+      Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      while (rows.hasNext()) {
+        writeRow(writer, rows.next());
+      }
+      writer.flush();
+      return out.endCopy();
+    } catch (IOException ex) {
+      cancel(out);
+      throw new UncheckedIOException(ex);
+    } catch (RuntimeException ex) {
+      cancel(out);
+      throw ex;
+    }
+  }
+
+  /** Ends a failed {@code COPY}, so that the connection can roll the transaction back. */
+  private static void cancel(PGCopyOutputStream out) throws SQLException {
+    if (out.isActive()) {
+      out.cancelCopy();
+    }
+  }
+
+  /** Writes one row in the {@code COPY} text format: tab-separated, {@code \N} for null. */
+  private static void writeRow(Writer writer, DeviceImportRow row) throws IOException {
+    writer.write(row.id() == null ? "\\N" : row.id().toString());
+    writer.write('\t');
+    writeText(writer, row.name());
+    writer.write('\t');
+    writeText(writer, row.brand());
+    writer.write('\t');
+    writer.write(row.state().name());
+    writer.write('\n');
+  }
+
+  private static void writeText(Writer writer, String text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\' -> writer.write("\\\\");
+        case '\t' -> writer.write("\\t");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        default -> writer.write(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import java.util.UUID;
+
+/**
+ * A validated device to import.
+ *
+ * @param id the id the device must keep, or {@code null} to generate one
+ * @param name the device name
+ * @param brand the device brand
+ * @param state the device state
+ */
+public record DeviceImportRow(UUID id, String name, String brand, DeviceState state) {}
@@ -0,0 +1,40 @@
+package com.douglas.persistence.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Custom repository fragment for the {@code device_outbox} table. Events are appended by database
+ * triggers in the transaction of every insert, update and delete of {@code devices}; this fragment
+ * only reads, acknowledges and prunes them.
+ */
+public interface DeviceOutboxRepository {
+
+  /**
+   * Locks the oldest undelivered events with {@code FOR UPDATE SKIP LOCKED}, so that concurrent
+   * relays take disjoint batches instead of waiting for each other. Must run in a transaction,
+   * which holds the locks until the events are marked delivered.
+   *
+   * @param limit the maximum number of events to lock
+   * @return the locked events in outbox order
+   */
+  List<OutboxEvent> lockUndelivered(int limit);
+
+  /**
+   * Marks events as delivered.
+   *
+   * @param ids the events to acknowledge
+   * @return the number of events marked
+   */
+  int markDelivered(List<Long> ids);
+
+  /**
+   * Deletes up to {@code limit} events delivered before the given time, oldest first, in one
+   * statement and one transaction of its own.
+   *
+   * @param deliveredBefore exclusive upper bound of the delivery time
+   * @param limit the maximum number of events to delete
+   * @return the number of deleted events
+   */
+  int pruneDelivered(Instant deliveredBefore, int limit);
+}
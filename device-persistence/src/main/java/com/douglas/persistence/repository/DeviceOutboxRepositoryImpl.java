@@ -0,0 +1,79 @@
+package com.douglas.persistence.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/** JDBC implementation of {@link DeviceOutboxRepository}. */
+class DeviceOutboxRepositoryImpl implements DeviceOutboxRepository {
+
+  /** Reads {@code idx_device_outbox_undelivered} in order, skipping rows other relays hold. */
+  static final String LOCK_UNDELIVERED_SQL =
+      """
+      SELECT id, device_id, event_type, payload::text AS payload, occurred_at
+        FROM device_outbox
+       WHERE delivered_at IS NULL
+       ORDER BY id
+       LIMIT :limit
+         FOR UPDATE SKIP LOCKED
+      """;
+
+  static final String MARK_DELIVERED_SQL =
+      """
+      UPDATE device_outbox
+         SET delivered_at = statement_timestamp()
+       WHERE id IN (:ids)
+      """;
+
+  /** Deletes one chunk, so that pruning a large backlog never holds long locks or transactions. */
+  static final String PRUNE_DELIVERED_SQL =
+      """
+      DELETE FROM device_outbox
+       WHERE id IN (SELECT id
+                      FROM device_outbox
+                     WHERE delivered_at < :before
+                     ORDER BY delivered_at
+                     LIMIT :limit)
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  DeviceOutboxRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<OutboxEvent> lockUndelivered(int limit) {
+    return jdbcTemplate.query(
+        LOCK_UNDELIVERED_SQL,
+        new MapSqlParameterSource("limit", limit),
+        (rs, rowNum) ->
+            new OutboxEvent(
+                rs.getLong("id"),
+                rs.getObject("device_id", UUID.class),
+                rs.getString("event_type"),
+                rs.getString("payload"),
+                rs.getObject("occurred_at", OffsetDateTime.class).toInstant()));
+  }
+
+  @Override
+  public int markDelivered(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return jdbcTemplate.update(MARK_DELIVERED_SQL, new MapSqlParameterSource("ids", ids));
+  }
+
+  @Override
+  public int pruneDelivered(Instant deliveredBefore, int limit) {
+    return jdbcTemplate.update(
+        PRUNE_DELIVERED_SQL,
+        new MapSqlParameterSource()
+            .addValue("before", Timestamp.from(deliveredBefore))
+            .addValue("limit", limit));
+  }
+}
@@ -0,0 +1,65 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.persistence.entity.DeviceEntity;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository fragment for device read queries that cannot be expressed as derived queries,
+ * such as keyset pagination or cursor streaming over a dynamic filter.
+ *
+ * <p>Read-only lookups can project rows straight into an immutable view through a JPQL constructor
+ * expression, skipping entity hydration and the persistence context. The view type must declare a
+ * constructor taking {@code (UUID id, String name, String brand, DeviceState state, Instant
+ * creationTime, long version)}, as {@link com.douglas.core.domain.Device} does.
+ */
+public interface DeviceQueryRepository {
+
+  /**
+   * Finds a device by id and projects it into the given view type.
+   *
+   * @param id the device's UUID
+   * @param type the view type to construct
+   * @param <T> the view type
+   * @return the device as a view, or empty if no device has this id
+   */
+  <T> Optional<T> findViewById(UUID id, Class<T> type);
+
+  /**
+   * Returns one page of devices matching the filter, in the given ordering, starting right after
+   * the cursor, projected into the given view type. The page is located through an index seek on
+   * the sort key and id, so its cost does not depend on how deep into the result it is.
+   *
+   * @param filter names, brands and states to match
+   * @param sort the ordering of the result
+   * @param after position of the last device of the previous page, or {@code null} for the first
+   *     page
+   * @param limit maximum number of devices to return
+   * @param type the view type to construct
+   * @param <T> the view type
+   * @return the matching devices, at most {@code limit} of them
+   */
+  <T> List<T> findPage(
+      DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit, Class<T> type);
+
+  /**
+   * Streams every device matching the filter through a server-side database cursor, reading {@code
+   * fetchSize} rows per round trip. Entities are loaded read-only and detached as soon as they are
+   * handed out, so memory stays constant regardless of the number of matching rows.
+   *
+   * <p>Must be called inside a transaction, which keeps the cursor open, and the returned stream
+   * must be closed by the caller.
+   *
+   * @param filter names, brands and states to match
+   * @param sort the ordering of the result, or {@code null} to let the database return rows in any
+   *     order
+   * @param fetchSize number of rows fetched per round trip
+   * @return a lazily populated stream of the matching devices
+   */
+  Stream<DeviceEntity> streamAll(DeviceFilter filter, DeviceSort sort, int fetchSize);
+}
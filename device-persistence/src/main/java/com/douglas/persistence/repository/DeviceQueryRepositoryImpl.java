@@ -0,0 +1,100 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceSort;
+import com.douglas.persistence.entity.DeviceEntity;
+import com.douglas.persistence.specification.DeviceSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Criteria API implementation of {@link DeviceQueryRepository}. */
+class DeviceQueryRepositoryImpl implements DeviceQueryRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public <T> Optional<T> findViewById(UUID id, Class<T> type) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<T> query = cb.createQuery(type);
+    Root<DeviceEntity> root = query.from(DeviceEntity.class);
+    query.select(view(cb, root, type)).where(cb.equal(root.get("id"), id));
+
+    return entityManager.createQuery(query).getResultList().stream().findFirst();
+  }
+
+  @Override
+  public <T> List<T> findPage(
+      DeviceFilter filter, DeviceSort sort, DeviceCursor after, int limit, Class<T> type) {
+    Specification<DeviceEntity> specification = DeviceSpecifications.matching(filter);
+    if (after != null) {
+      specification = specification.and(DeviceSpecifications.after(after));
+    }
+
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<T> query = cb.createQuery(type);
+    Root<DeviceEntity> root = query.from(DeviceEntity.class);
+    query.select(view(cb, root, type));
+    restrict(query, root, cb, specification, sort);
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public Stream<DeviceEntity> streamAll(DeviceFilter filter, DeviceSort sort, int fetchSize) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<DeviceEntity> query = cb.createQuery(DeviceEntity.class);
+    Root<DeviceEntity> root = query.from(DeviceEntity.class);
+    restrict(query, root, cb, DeviceSpecifications.matching(filter), sort);
+
+    return entityManager
+        .createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream()
+        .peek(entityManager::detach);
+  }
+
+  /** Selects the device columns as arguments of the view's constructor, in declaration order. */
+  private static <T> CompoundSelection<T> view(
+      CriteriaBuilder cb, Root<DeviceEntity> root, Class<T> type) {
+    return cb.construct(
+        type,
+        root.get("id"),
+        root.get("name"),
+        root.get("brand"),
+        root.get("state"),
+        root.get("creationTime"),
+        root.get("version"));
+  }
+
+  private static void restrict(
+      CriteriaQuery<?> query,
+      Root<DeviceEntity> root,
+      CriteriaBuilder cb,
+      Specification<DeviceEntity> specification,
+      DeviceSort sort) {
+    query.where(specification.toPredicate(root, query, cb));
+    if (sort != null) {
+      query.orderBy(orderBy(cb, root, sort));
+    }
+  }
+
+  private static List<Order> orderBy(CriteriaBuilder cb, Root<DeviceEntity> root, DeviceSort sort) {
+    if (sort.descending()) {
+      return List.of(cb.desc(root.get(sort.property())), cb.desc(root.get("id")));
+    }
+    return List.of(cb.asc(root.get(sort.property())), cb.asc(root.get("id")));
+  }
+}
@@ -5,31 +5,32 @@ import com.douglas.persistence.entity.DeviceEntity;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for accessing and managing {@link DeviceEntity} records. Extends {@link
- * JpaRepository} to provide CRUD operations and adds custom query methods for filtering devices by
- * name, brand, or state.
+ * JpaRepository} to provide CRUD operations, {@link JpaSpecificationExecutor} to run filters built
+ * by {@link com.douglas.persistence.specification.DeviceSpecifications} in the database, {@link
+ * DeviceQueryRepository} for keyset pagination and streaming, {@link DeviceWriteRepository} for
+ * batched writes, {@link DeviceStatsRepository} for creation statistics, {@link
+ * DeviceSearchRepository} for free-text search, {@link DeviceOutboxRepository} for the change
+ * outbox, {@link DeviceHistoryRepository} for state history, {@link DeviceImportRepository} for
+ * bulk imports, {@link DeviceExportRepository} for parallel exports, and adds a custom query method
+ * for filtering devices by state.
  */
 @Repository
-public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID> {
-
-  /**
-   * Finds devices whose name contains the given string (case-insensitive).
-   *
-   * @param name the substring to search for in the device name
-   * @return a list of matching {@link DeviceEntity} objects
-   */
-  List<DeviceEntity> findByNameContainingIgnoreCase(String name);
-
-  /**
-   * Finds devices whose brand contains the given string (case-insensitive).
-   *
-   * @param brand the substring to search for in the device brand
-   * @return a list of matching {@link DeviceEntity} objects
-   */
-  List<DeviceEntity> findByBrandContainingIgnoreCase(String brand);
+public interface DeviceRepository
+    extends JpaRepository<DeviceEntity, UUID>,
+        JpaSpecificationExecutor<DeviceEntity>,
+        DeviceQueryRepository,
+        DeviceWriteRepository,
+        DeviceStatsRepository,
+        DeviceSearchRepository,
+        DeviceOutboxRepository,
+        DeviceHistoryRepository,
+        DeviceImportRepository,
+        DeviceExportRepository {
 
   /**
    * Finds devices by their current state.
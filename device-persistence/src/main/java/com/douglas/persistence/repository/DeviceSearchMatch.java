@@ -0,0 +1,26 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A device found by a search, with how closely it matches the query.
+ *
+ * @param id the device id
+ * @param name the device name
+ * @param brand the device brand
+ * @param state the current state
+ * @param creationTime when the device was registered
+ * @param version the revision of the device
+ * @param score trigram word similarity between the query and the best of name and brand, from 0 to
+ *     1
+ */
+public record DeviceSearchMatch(
+    UUID id,
+    String name,
+    String brand,
+    DeviceState state,
+    Instant creationTime,
+    long version,
+    double score) {}
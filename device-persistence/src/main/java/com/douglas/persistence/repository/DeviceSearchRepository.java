@@ -0,0 +1,26 @@
+package com.douglas.persistence.repository;
+
+/**
+ * Custom repository fragment for free-text device search on name and brand, served by the {@code
+ * pg_trgm} GIN indexes {@code idx_live_devices_name_trgm} and {@code idx_live_devices_brand_trgm}.
+ */
+public interface DeviceSearchRepository {
+
+  /**
+   * Finds the devices whose name or brand contains the query, case-insensitively, ranked by
+   * similarity. When fewer than {@code limit} devices contain it, the query is treated as misspelt:
+   * the words of the {@code device_search_terms} vocabulary closest to its words are searched in
+   * its place and their devices are appended, also ranked by similarity to the original query.
+   *
+   * <p>Each lookup ranks at most {@code candidates} devices, the first ones the index scan finds,
+   * so the cost of a broad query such as a brand shared by millions of devices stays bounded. The
+   * ranking is then among those candidates rather than among every matching device, and the result
+   * says so with {@link DeviceSearchResult#truncated()}.
+   *
+   * @param query the text to look for, at least three characters long
+   * @param limit maximum number of devices to return
+   * @param candidates maximum number of devices ranked per lookup, at least {@code limit}
+   * @return the matching devices, and whether a lookup left matching devices unranked
+   */
+  DeviceSearchResult search(String query, int limit, int candidates);
+}
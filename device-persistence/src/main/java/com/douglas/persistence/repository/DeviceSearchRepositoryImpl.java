@@ -0,0 +1,138 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/** JDBC implementation of {@link DeviceSearchRepository} on top of {@code pg_trgm}. */
+class DeviceSearchRepositoryImpl implements DeviceSearchRepository {
+
+  /** Vocabulary words searched in place of a query that looks misspelt. */
+  static final int MAX_CORRECTIONS = 3;
+
+  /**
+   * Devices containing {@code :pattern}, ranked against {@code :query}. The inner {@code LIMIT}
+   * stops the bitmap heap scan after {@code :candidates} rows plus one, which only tells whether
+   * more devices match, so the first {@code :candidates} rows found are ranked, in no particular
+   * order of similarity. Ordering the scan by similarity would need GiST trigram indexes, which
+   * were 5 to 100 times slower than this scan at a million devices. The {@code deleted_at}
+   * predicate matches the one of the partial trigram indexes.
+   */
+  static final String CONTAINING_SQL =
+      """
+      SELECT id, name, brand, state, creation_time, version,
+             greatest(word_similarity(lower(:query), lower(name)),
+                      word_similarity(lower(:query), lower(brand))) AS score,
+             found > :candidates AS truncated
+        FROM (SELECT *, row_number() OVER () AS position, count(*) OVER () AS found
+                FROM (SELECT id, name, brand, state, creation_time, version
+                        FROM devices
+                       WHERE (lower(name) LIKE lower(:pattern) OR lower(brand) LIKE lower(:pattern))
+                         AND deleted_at IS NULL
+                       LIMIT :candidates + 1) AS matched) AS candidates
+       WHERE position <= :candidates
+       ORDER BY score DESC, id
+       LIMIT :limit
+      """;
+
+  /**
+   * Vocabulary words similar to a word of {@code :query} ({@code pg_trgm.similarity_threshold}, 0.3
+   * by default), closest first. Each query word of three or more characters is corrected on its
+   * own, so one misspelt word does not sink a longer query; words containing it were already found
+   * as substrings.
+   */
+  static final String CORRECTIONS_SQL =
+      """
+      SELECT correction.term
+        FROM regexp_split_to_table(lower(:query), ' ') AS word
+       CROSS JOIN LATERAL (SELECT term, term <-> word AS distance
+                             FROM device_search_terms
+                            WHERE term % word AND strpos(term, word) = 0
+                            ORDER BY distance, term
+                            LIMIT :corrections) AS correction
+       WHERE length(word) >= 3
+       ORDER BY correction.distance, correction.term
+       LIMIT :corrections
+      """;
+
+  private static final RowMapper<DeviceSearchMatch> MATCH_MAPPER =
+      (rs, rowNum) ->
+          new DeviceSearchMatch(
+              rs.getObject("id", UUID.class),
+              rs.getString("name"),
+              rs.getString("brand"),
+              DeviceState.valueOf(rs.getString("state")),
+              rs.getObject("creation_time", OffsetDateTime.class).toInstant(),
+              rs.getLong("version"),
+              rs.getDouble("score"));
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  DeviceSearchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public DeviceSearchResult search(String query, int limit, int candidates) {
+    Map<UUID, DeviceSearchMatch> matches = new LinkedHashMap<>();
+    boolean truncated = addContaining(matches, query, query, limit, candidates);
+    if (matches.size() < limit) {
+      List<String> corrections =
+          jdbcTemplate.queryForList(
+              CORRECTIONS_SQL,
+              new MapSqlParameterSource()
+                  .addValue("query", query)
+                  .addValue("corrections", MAX_CORRECTIONS),
+              String.class);
+      for (String term : corrections) {
+        if (matches.size() >= limit) {
+          break;
+        }
+        truncated |= addContaining(matches, query, term, limit, candidates);
+      }
+    }
+    List<DeviceSearchMatch> result = new ArrayList<>(matches.values());
+    return new DeviceSearchResult(
+        result.size() > limit ? result.subList(0, limit) : result, truncated);
+  }
+
+  /**
+   * Adds the devices containing a term, ranked against the query.
+   *
+   * @return whether more devices contain the term than were ranked
+   */
+  private boolean addContaining(
+      Map<UUID, DeviceSearchMatch> matches, String query, String term, int limit, int candidates) {
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource()
+            .addValue("query", query)
+            .addValue("pattern", "%" + escapeLike(term) + "%")
+            .addValue("candidates", candidates)
+            .addValue("limit", limit);
+    AtomicBoolean truncated = new AtomicBoolean();
+    jdbcTemplate.query(
+        CONTAINING_SQL,
+        parameters,
+        rs -> {
+          DeviceSearchMatch match = MATCH_MAPPER.mapRow(rs, 0);
+          matches.putIfAbsent(match.id(), match);
+          if (rs.getBoolean("truncated")) {
+            truncated.set(true);
+          }
+        });
+    return truncated.get();
+  }
+
+  /** Escapes the LIKE wildcards, so that {@code %} and {@code _} in a query match literally. */
+  static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
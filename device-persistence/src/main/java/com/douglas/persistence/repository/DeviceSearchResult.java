@@ -0,0 +1,12 @@
+package com.douglas.persistence.repository;
+
+import java.util.List;
+
+/**
+ * Devices found by a search.
+ *
+ * @param matches the matching devices, substring matches first, each group by descending score
+ * @param truncated whether a lookup found more devices than it ranks, so that better matches may
+ *     exist among the devices left out
+ */
+public record DeviceSearchResult(List<DeviceSearchMatch> matches, boolean truncated) {}
@@ -0,0 +1,15 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import java.time.Instant;
+
+/**
+ * One entry of a device's state history.
+ *
+ * @param previousState the state before the change, or {@code null} when the device was created
+ * @param state the state after the change
+ * @param version the device version the change produced
+ * @param changedAt when the statement that made the change started
+ */
+public record DeviceStateChange(
+    DeviceState previousState, DeviceState state, long version, Instant changedAt) {}
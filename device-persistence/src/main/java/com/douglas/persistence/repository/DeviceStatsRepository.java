@@ -0,0 +1,53 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceStatsGranularity;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom repository fragment for device statistics. Statistics are read from the {@code
+ * device_creation_rollups} table, which database triggers keep up to date on every insert, update
+ * and delete of {@code devices}, so their cost depends on the length of the range and not on the
+ * number of devices. Names are not tracked by the rollups; counting them reads {@code devices}.
+ */
+public interface DeviceStatsRepository {
+
+  /**
+   * Counts the devices registered within a time range, per time bucket, brand and current state.
+   * Groups without any device are omitted.
+   *
+   * @param from inclusive start of the range, on a bucket boundary
+   * @param to exclusive end of the range, on a bucket boundary
+   * @param granularity width of the time buckets
+   * @param filter brands and states to count; names are not tracked by the rollups and are ignored
+   * @return the counts ordered by bucket, brand and state
+   */
+  List<DeviceCreationCount> countCreations(
+      Instant from, Instant to, DeviceStatsGranularity granularity, DeviceFilter filter);
+
+  /**
+   * Counts the devices currently in each state, summed from the rollups.
+   *
+   * @return the number of devices per state; states without devices map to zero
+   */
+  Map<DeviceState, Long> countByState();
+
+  /**
+   * Counts the devices of each brand, summed from the rollups.
+   *
+   * @param limit the maximum number of brands to return
+   * @return the number of devices per brand, most used first; brands without devices are omitted
+   */
+  Map<String, Long> countByBrand(int limit);
+
+  /**
+   * Counts the devices of each name, read from the counts kept by triggers.
+   *
+   * @param limit the maximum number of names to return
+   * @return the number of devices per name, most used first
+   */
+  Map<String, Long> countByName(int limit);
+}
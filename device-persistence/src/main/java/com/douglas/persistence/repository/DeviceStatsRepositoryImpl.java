@@ -0,0 +1,131 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.core.query.DeviceStatsGranularity;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * JDBC implementation of {@link DeviceStatsRepository}, reading the hourly rollups and, for names,
+ * the per-name counts.
+ */
+class DeviceStatsRepositoryImpl implements DeviceStatsRepository {
+
+  /** Sums the hourly rollups into buckets of the requested width. */
+  static final String COUNT_CREATIONS_SQL =
+      """
+      SELECT date_trunc(:granularity, bucket, 'UTC') AS bucket, brand, state,
+             sum(device_count) AS devices
+        FROM device_creation_rollups
+       WHERE bucket >= :from AND bucket < :to%s
+       GROUP BY 1, 2, 3
+      HAVING sum(device_count) > 0
+       ORDER BY 1, 2, 3
+      """;
+
+  /** Current number of devices per state, across every bucket and brand. */
+  static final String COUNT_BY_STATE_SQL =
+      """
+      SELECT state, sum(device_count) AS devices
+        FROM device_creation_rollups
+       GROUP BY state
+      """;
+
+  /** Current number of devices per brand, across every bucket and state. */
+  static final String COUNT_BY_BRAND_SQL =
+      """
+      SELECT brand, sum(device_count) AS devices
+        FROM device_creation_rollups
+       GROUP BY brand
+      HAVING sum(device_count) > 0
+       ORDER BY devices DESC, brand
+       LIMIT :limit
+      """;
+
+  /** Current number of devices per name, read in order from the counts index. */
+  static final String COUNT_BY_NAME_SQL =
+      """
+      SELECT name, devices
+        FROM device_name_counts
+       ORDER BY devices DESC, name
+       LIMIT :limit
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  DeviceStatsRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public List<DeviceCreationCount> countCreations(
+      Instant from, Instant to, DeviceStatsGranularity granularity, DeviceFilter filter) {
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource()
+            .addValue("granularity", granularity.parameter())
+            .addValue("from", Timestamp.from(from))
+            .addValue("to", Timestamp.from(to));
+    StringBuilder conditions = new StringBuilder();
+    if (!filter.brands().isEmpty()) {
+      conditions.append(" AND lower(brand) IN (:brands)");
+      parameters.addValue("brands", filter.brands());
+    }
+    if (!filter.states().isEmpty()) {
+      conditions.append(" AND state IN (:states)");
+      parameters.addValue("states", filter.states().stream().map(DeviceState::name).toList());
+    }
+
+    return jdbcTemplate.query(
+        COUNT_CREATIONS_SQL.formatted(conditions),
+        parameters,
+        (rs, rowNum) ->
+            new DeviceCreationCount(
+                rs.getObject("bucket", OffsetDateTime.class).toInstant(),
+                rs.getString("brand"),
+                DeviceState.valueOf(rs.getString("state")),
+                rs.getLong("devices")));
+  }
+
+  @Override
+  public Map<DeviceState, Long> countByState() {
+    Map<DeviceState, Long> counts = new EnumMap<>(DeviceState.class);
+    for (DeviceState state : DeviceState.values()) {
+      counts.put(state, 0L);
+    }
+    jdbcTemplate.query(
+        COUNT_BY_STATE_SQL,
+        rs -> {
+          counts.put(DeviceState.valueOf(rs.getString("state")), rs.getLong("devices"));
+        });
+    return counts;
+  }
+
+  @Override
+  public Map<String, Long> countByBrand(int limit) {
+    return countBy(COUNT_BY_BRAND_SQL, "brand", limit);
+  }
+
+  @Override
+  public Map<String, Long> countByName(int limit) {
+    return countBy(COUNT_BY_NAME_SQL, "name", limit);
+  }
+
+  private Map<String, Long> countBy(String sql, String column, int limit) {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        sql,
+        new MapSqlParameterSource("limit", limit),
+        rs -> {
+          counts.put(rs.getString(column), rs.getLong("devices"));
+        });
+    return counts;
+  }
+}
@@ -0,0 +1,15 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.persistence.entity.DeviceEntity;
+
+/**
+ * Outcome of a conditional single-device update.
+ *
+ * @param device the device as updated
+ * @param previousName the name the device had before the update
+ * @param previousBrand the brand the device had before the update
+ * @param previousState the state the device had before the update
+ */
+public record DeviceUpdate(
+    DeviceEntity device, String previousName, String previousBrand, DeviceState previousState) {}
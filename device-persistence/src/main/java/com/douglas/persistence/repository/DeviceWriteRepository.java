@@ -0,0 +1,76 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.entity.DeviceEntity;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for device write operations that need more control over the issued SQL
+ * than {@code save} and {@code delete} offer.
+ */
+public interface DeviceWriteRepository {
+
+  /**
+   * Inserts the given new devices in a single transaction. The inserts are flushed together, so
+   * that Hibernate sends them as JDBC batches of {@code hibernate.jdbc.batch_size} statements, and
+   * the persistence context is cleared afterwards to release the entities.
+   *
+   * @param entities new devices with their ids already assigned
+   */
+  void insertAll(List<DeviceEntity> entities);
+
+  /**
+   * Applies the given changes to a device in one conditional {@code UPDATE ... RETURNING}
+   * statement. The in-use rule of {@link com.douglas.core.domain.Device#canChangeNameOrBrand()} and
+   * the optional version check are part of the statement's predicate, so the guards and the write
+   * are atomic and take a single round trip. {@code null} arguments leave the corresponding column
+   * unchanged; the version is always incremented. The state the device had before the update is
+   * returned as well, read from the row locked by the statement.
+   *
+   * @param id the device to update
+   * @param name the new name, or {@code null}
+   * @param brand the new brand, or {@code null}
+   * @param state the new state, or {@code null}
+   * @param expectedVersion the version the device must still have, or {@code null} to skip the
+   *     check
+   * @return the updated device and its previous state, or empty if the device does not exist, has
+   *     another version, or is in use and the name or brand would change
+   */
+  Optional<DeviceUpdate> updateIfAllowed(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion);
+
+  /**
+   * Moves every device matching the filter to the target state with a single statement. Devices in
+   * use are excluded by the statement itself and counted by it, so the two counts always agree, and
+   * devices already in the target state are left untouched. The version of every changed device is
+   * incremented.
+   *
+   * @param filter names, brands and states of the devices to change
+   * @param target the new state
+   * @return the number of changed devices and of matching devices skipped because they are in use
+   */
+  BulkResult updateStateMatching(DeviceFilter filter, DeviceState target);
+
+  /**
+   * Deletes every device matching the filter with a single statement stamping their deletion time.
+   * Devices in use cannot be deleted; they are excluded by the statement itself and counted by it.
+   *
+   * @param filter names, brands and states of the devices to delete
+   * @return the number of deleted devices and of matching devices skipped because they are in use
+   */
+  BulkResult deleteMatching(DeviceFilter filter);
+
+  /**
+   * Removes the rows of up to {@code limit} devices deleted before the given time, oldest first, in
+   * one short statement. The only device query that sees deleted devices.
+   *
+   * @param deletedBefore devices deleted before this time are removed
+   * @param limit the maximum number of rows to remove
+   * @return the number of rows removed
+   */
+  int purgeDeleted(Instant deletedBefore, int limit);
+}
@@ -0,0 +1,181 @@
+package com.douglas.persistence.repository;
+
+import com.douglas.core.domain.DeviceState;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.entity.DeviceEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+
+/** JPA implementation of {@link DeviceWriteRepository}. */
+class DeviceWriteRepositoryImpl implements DeviceWriteRepository {
+
+  /**
+   * Conditional single-row update. The predicate is evaluated against the row before the update: a
+   * device that is not in use accepts any change, a device in use only accepts changes that keep
+   * its name and brand, and a given version must match. The row is locked by the {@code previous}
+   * subquery, whose name, brand and state are therefore the ones the update replaced; it skips
+   * deleted devices, which native SQL does not do by itself. Parameters are cast so that PostgreSQL
+   * can type bound {@code null}s.
+   */
+  static final String UPDATE_IF_ALLOWED_SQL =
+      """
+      UPDATE devices d
+         SET name  = COALESCE(CAST(:name AS varchar), d.name),
+             brand = COALESCE(CAST(:brand AS varchar), d.brand),
+             state = COALESCE(CAST(:state AS varchar), d.state),
+             version = d.version + 1
+        FROM (SELECT id, name, brand, state
+                FROM devices
+               WHERE id = :id AND deleted_at IS NULL
+                 FOR UPDATE) previous
+       WHERE d.id = previous.id
+         AND (CAST(:version AS bigint) IS NULL OR d.version = CAST(:version AS bigint))
+         AND (d.state <> 'IN_USE'
+              OR ((CAST(:name AS varchar) IS NULL OR d.name = CAST(:name AS varchar))
+                  AND (CAST(:brand AS varchar) IS NULL OR d.brand = CAST(:brand AS varchar))))
+      RETURNING d.id, d.name, d.brand, d.state, d.creation_time, d.version, d.deleted_at,
+                previous.name AS previous_name, previous.brand AS previous_brand,
+                previous.state AS previous_state
+      """;
+
+  /**
+   * Deletes one chunk of devices deleted before {@code :before}, oldest first through {@code
+   * idx_devices_deleted_at}, so that purging a large backlog never holds long locks or
+   * transactions.
+   */
+  static final String PURGE_DELETED_SQL =
+      """
+      DELETE FROM devices
+       WHERE id IN (SELECT id
+                      FROM devices
+                     WHERE deleted_at < :before
+                     ORDER BY deleted_at
+                     LIMIT :limit)
+      """;
+
+  /**
+   * Bulk change of the matching devices that are not in use, reporting the changed devices and the
+   * matching ones skipped because they are in use in one statement. {@code matching} locks every
+   * matching device, reading the latest version of those changed concurrently, so that no device
+   * can enter or leave use between the update and the count. The filter conditions, the assignments
+   * and the extra conditions on the changed devices are filled in by the caller.
+   */
+  static final String UPDATE_MATCHING_SQL =
+      """
+      WITH matching AS (SELECT id, state = 'IN_USE' AS in_use
+                          FROM devices
+                         WHERE deleted_at IS NULL%s
+                           FOR NO KEY UPDATE),
+           changed AS (UPDATE devices d
+                          SET %s
+                         FROM matching m
+                        WHERE d.id = m.id
+                          AND NOT m.in_use%s
+                       RETURNING d.id)
+      SELECT (SELECT count(*) FROM changed) AS affected,
+             (SELECT count(*) FROM matching WHERE in_use) AS skipped_in_use
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public void insertAll(List<DeviceEntity> entities) {
+    entities.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Override
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public Optional<DeviceUpdate> updateIfAllowed(
+      UUID id, String name, String brand, DeviceState state, Long expectedVersion) {
+    List<Object[]> updated =
+        entityManager
+            .createNativeQuery(UPDATE_IF_ALLOWED_SQL)
+            .unwrap(NativeQuery.class)
+            .addEntity(DeviceEntity.class)
+            .addScalar("previous_name", StandardBasicTypes.STRING)
+            .addScalar("previous_brand", StandardBasicTypes.STRING)
+            .addScalar("previous_state", StandardBasicTypes.STRING)
+            .setParameter("id", id)
+            .setParameter("name", name)
+            .setParameter("brand", brand)
+            .setParameter("state", state == null ? null : state.name())
+            .setParameter("version", expectedVersion)
+            .getResultList();
+    return updated.stream()
+        .findFirst()
+        .map(
+            row ->
+                new DeviceUpdate(
+                    (DeviceEntity) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    DeviceState.valueOf((String) row[3])));
+  }
+
+  @Override
+  @Transactional
+  public BulkResult updateStateMatching(DeviceFilter filter, DeviceState target) {
+    BulkResult result =
+        updateMatching(
+            filter,
+            "state = CAST(:target AS varchar), version = d.version + 1",
+            " AND d.state <> CAST(:target AS varchar)",
+            Map.of("target", target.name()));
+    // Devices already in use are in the target state, not skipped.
+    return target == DeviceState.IN_USE ? new BulkResult(result.affected(), 0) : result;
+  }
+
+  @Override
+  @Transactional
+  public BulkResult deleteMatching(DeviceFilter filter) {
+    return updateMatching(filter, "deleted_at = statement_timestamp()", "", Map.of());
+  }
+
+  @Override
+  @Transactional
+  public int purgeDeleted(Instant deletedBefore, int limit) {
+    return entityManager
+        .createNativeQuery(PURGE_DELETED_SQL)
+        .setParameter("before", deletedBefore)
+        .setParameter("limit", limit)
+        .executeUpdate();
+  }
+
+  private BulkResult updateMatching(
+      DeviceFilter filter, String assignments, String conditions, Map<String, Object> parameters) {
+    StringBuilder matching = new StringBuilder();
+    Map<String, Object> bound = new HashMap<>(parameters);
+    if (!filter.names().isEmpty()) {
+      matching.append(" AND lower(name) IN (:names)");
+      bound.put("names", filter.names());
+    }
+    if (!filter.brands().isEmpty()) {
+      matching.append(" AND lower(brand) IN (:brands)");
+      bound.put("brands", filter.brands());
+    }
+    if (!filter.states().isEmpty()) {
+      matching.append(" AND state IN (:states)");
+      bound.put("states", filter.states().stream().map(DeviceState::name).toList());
+    }
+    Query query =
+        entityManager.createNativeQuery(
+            UPDATE_MATCHING_SQL.formatted(matching, assignments, conditions));
+    bound.forEach(query::setParameter);
+    Object[] counts = (Object[]) query.getSingleResult();
+    return new BulkResult(((Number) counts[0]).longValue(), ((Number) counts[1]).longValue());
+  }
+}
@@ -0,0 +1,16 @@
+package com.douglas.persistence.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A device change recorded in the transactional outbox.
+ *
+ * @param id the position of the event in the outbox, increasing in insertion order
+ * @param deviceId the changed device
+ * @param type {@code created}, {@code updated} or {@code deleted}
+ * @param payload the device after the change, or before a delete, as a JSON object
+ * @param occurredAt when the statement that made the change started
+ */
+public record OutboxEvent(
+    long id, UUID deviceId, String type, String payload, Instant occurredAt) {}
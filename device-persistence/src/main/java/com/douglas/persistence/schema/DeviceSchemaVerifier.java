@@ -0,0 +1,79 @@
+package com.douglas.persistence.schema;
+
+import java.util.Set;
+import java.util.TreeSet;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup check that the indexes the device queries rely on exist and are valid. Runs once every
+ * singleton, including the Flyway migration initializer, has been created, and aborts startup
+ * otherwise: a missing index silently turns index seeks into sequential scans, which is far harder
+ * to diagnose in production than a failed deployment.
+ *
+ * <p>Can be disabled with {@code devices.schema.verify-indexes=false}.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "devices.schema",
+    name = "verify-indexes",
+    havingValue = "true",
+    matchIfMissing = true)
+public class DeviceSchemaVerifier implements SmartInitializingSingleton {
+
+  /**
+   * Indexes on the {@code devices} table created by the Flyway migrations. The {@code idx_live_*}
+   * ones only cover devices that are not deleted.
+   */
+  static final Set<String> EXPECTED_INDEXES =
+      Set.of(
+          "idx_live_devices_lower_name",
+          "idx_live_devices_lower_brand",
+          "idx_live_devices_state_creation_time_id",
+          "idx_live_devices_creation_time_id",
+          "idx_live_devices_name_id",
+          "idx_live_devices_name_trgm",
+          "idx_live_devices_brand_trgm",
+          "idx_devices_deleted_at");
+
+  private static final String VALID_INDEXES_QUERY =
+      """
+      SELECT c.relname
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        JOIN pg_class t ON t.oid = i.indrelid
+       WHERE t.relname = 'devices'
+         AND t.relnamespace = current_schema()::regnamespace
+         AND i.indisvalid
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructs a {@code DeviceSchemaVerifier}.
+   *
+   * @param jdbcTemplate template used to read the PostgreSQL catalog
+   */
+  public DeviceSchemaVerifier(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Verifies the indexes once the application context is initialized.
+   *
+   * @throws IllegalStateException if any expected index is missing or invalid
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    Set<String> missing = new TreeSet<>(EXPECTED_INDEXES);
+    missing.removeAll(jdbcTemplate.queryForList(VALID_INDEXES_QUERY, String.class));
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException(
+          "Missing or invalid indexes on table devices: "
+              + missing
+              + ". Run the Flyway migrations or rebuild the indexes before starting.");
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.douglas.persistence.specification;
+
+import com.douglas.core.query.DeviceCursor;
+import com.douglas.core.query.DeviceFilter;
+import com.douglas.persistence.entity.DeviceEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Factory of JPA {@link Specification}s for {@link DeviceEntity}. Translates a {@link
+ * DeviceFilter} into a single SQL predicate so that filtering happens in the database instead of in
+ * memory.
+ */
+public final class DeviceSpecifications {
+
+  static final String ID = "id";
+  static final String NAME = "name";
+  static final String BRAND = "brand";
+  static final String STATE = "state";
+
+  private DeviceSpecifications() {}
+
+  /**
+   * Builds a specification matching every device accepted by the given filter. Names and brands
+   * are compared through {@code lower(...)} so that the case-insensitive lookups can be served by
+   * functional indexes.
+   *
+   * @param filter the filter to translate; an empty filter matches all devices
+   * @return the corresponding specification
+   */
+  public static Specification<DeviceEntity> matching(DeviceFilter filter) {
+    return (root, query, cb) -> toPredicate(filter, root, cb);
+  }
+
+  /**
+   * Builds the predicate of {@link #matching(DeviceFilter)} directly, for bulk {@code UPDATE} and
+   * {@code DELETE} criteria that specifications cannot be applied to.
+   *
+   * @param filter the filter to translate; an empty filter matches all devices
+   * @param root the device root of the query or statement
+   * @param cb the criteria builder
+   * @return the corresponding predicate
+   */
+  public static Predicate toPredicate(
+      DeviceFilter filter, Root<DeviceEntity> root, CriteriaBuilder cb) {
+    List<Predicate> predicates = new ArrayList<>(3);
+    if (!filter.names().isEmpty()) {
+      predicates.add(cb.lower(root.<String>get(NAME)).in(filter.names()));
+    }
+    if (!filter.brands().isEmpty()) {
+      predicates.add(cb.lower(root.<String>get(BRAND)).in(filter.brands()));
+    }
+    if (!filter.states().isEmpty()) {
+      predicates.add(root.get(STATE).in(filter.states()));
+    }
+    return cb.and(predicates.toArray(Predicate[]::new));
+  }
+
+  /**
+   * Builds a keyset seek predicate matching every device positioned strictly after the cursor in
+   * the cursor's ordering. Besides the usual {@code key > k OR (key = k AND id > i)} form, the
+   * predicate repeats {@code key >= k} on its own so that the database can use it as an index
+   * condition and start the scan at the cursor instead of filtering from the first row.
+   *
+   * @param cursor the position of the last device already returned
+   * @return the corresponding specification
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static Specification<DeviceEntity> after(DeviceCursor cursor) {
+    return (root, query, cb) -> {
+      Expression<Comparable> key = root.get(cursor.sort().property());
+      Comparable value = (Comparable) cursor.key();
+      Expression<UUID> id = root.get(ID);
+      if (cursor.sort().descending()) {
+        return cb.and(
+            cb.lessThanOrEqualTo(key, value),
+            cb.or(cb.lessThan(key, value), cb.lessThan(id, cursor.id())));
+      }
+      return cb.and(
+          cb.greaterThanOrEqualTo(key, value),
+          cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.id())));
+    };
+  }
+}
@@ -0,0 +1,34 @@
+-- Replaces the indexes serving the device read paths with partial ones over devices that are not
+-- deleted. Every device query filters on deleted_at IS NULL, which lets the planner use them, and
+-- their size and depth follow the live devices however many deleted ones await purging. Built
+-- CONCURRENTLY under new names, then the full indexes are dropped CONCURRENTLY, so the table stays
+-- writable and the migration can be rerun after a failure; see the .conf file disabling the
+-- migration transaction. The primary key stays complete, as ids must stay unique.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_lower_name
+    ON devices (lower(name)) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_lower_brand
+    ON devices (lower(brand)) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_state_creation_time_id
+    ON devices (state, creation_time, id) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_creation_time_id
+    ON devices (creation_time, id) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_name_id
+    ON devices (name, id) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_name_trgm
+    ON devices USING gin (lower(name) gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_live_devices_brand_trgm
+    ON devices USING gin (lower(brand) gin_trgm_ops) WHERE deleted_at IS NULL;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_lower_name;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_lower_brand;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_state_creation_time_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_creation_time_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_name_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_name_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_devices_brand_trgm;
+
+-- Deleted devices by deletion time, oldest first for the purge job. Only deleted devices are
+-- indexed, so live writes never touch it.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_deleted_at
+    ON devices (deleted_at) WHERE deleted_at IS NOT NULL;
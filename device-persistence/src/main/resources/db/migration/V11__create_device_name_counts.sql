@@ -0,0 +1,80 @@
+-- Number of live devices per name, the name counterpart of device_search_terms, from which
+-- device-api rebuilds its name autocompletion. Reading the most used names is then an index scan
+-- of max-terms rows instead of a GROUP BY over every device, repeated by each instance.
+CREATE TABLE device_name_counts (
+    name    varchar(255) NOT NULL PRIMARY KEY,
+    devices bigint       NOT NULL
+);
+
+CREATE INDEX idx_device_name_counts_devices ON device_name_counts (devices DESC, name);
+
+-- Applies the net change of one statement, like devices_apply_search_terms: one grouped upsert in
+-- name order within the writing transaction, counting only devices that are not deleted. Names no
+-- device uses any more are removed.
+CREATE FUNCTION devices_apply_name_counts() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_name_counts AS c (name, devices)
+        SELECT name, count(*)
+          FROM new_devices
+         WHERE deleted_at IS NULL
+         GROUP BY name
+         ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET devices = c.devices + EXCLUDED.devices;
+        RETURN NULL;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO device_name_counts AS c (name, devices)
+        SELECT name, -count(*)
+          FROM old_devices
+         WHERE deleted_at IS NULL
+         GROUP BY name
+         ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET devices = c.devices + EXCLUDED.devices;
+    ELSE
+        INSERT INTO device_name_counts AS c (name, devices)
+        SELECT name, sum(delta)
+          FROM (SELECT name, 1 AS delta
+                  FROM new_devices
+                 WHERE deleted_at IS NULL
+                UNION ALL
+                SELECT name, -1
+                  FROM old_devices
+                 WHERE deleted_at IS NULL) AS changes
+         GROUP BY name
+        HAVING sum(delta) <> 0
+         ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET devices = c.devices + EXCLUDED.devices;
+    END IF;
+    DELETE FROM device_name_counts
+     WHERE devices <= 0
+       AND name IN (SELECT name FROM old_devices WHERE deleted_at IS NULL);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER devices_name_counts_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_name_counts();
+
+-- Updates that keep the name and deleted_at cancel out in the grouped sum and write nothing.
+CREATE TRIGGER devices_name_counts_update
+    AFTER UPDATE ON devices
+    REFERENCING OLD TABLE AS old_devices NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_name_counts();
+
+CREATE TRIGGER devices_name_counts_delete
+    AFTER DELETE ON devices
+    REFERENCING OLD TABLE AS old_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_name_counts();
+
+-- Backfill from the live devices, with writes blocked until the migration commits.
+LOCK TABLE devices IN SHARE MODE;
+
+INSERT INTO device_name_counts (name, devices)
+SELECT name, count(*)
+  FROM devices
+ WHERE deleted_at IS NULL
+ GROUP BY name;
@@ -0,0 +1,10 @@
+-- Baseline schema of the devices table, as previously generated by Hibernate.
+-- IF NOT EXISTS keeps the migration a no-op on databases created before Flyway was introduced.
+CREATE TABLE IF NOT EXISTS devices (
+    id            uuid                        NOT NULL PRIMARY KEY,
+    name          varchar(255)                NOT NULL,
+    brand         varchar(255)                NOT NULL,
+    state         varchar(255)                NOT NULL
+        CHECK (state IN ('AVAILABLE', 'IN_USE', 'INACTIVE')),
+    creation_time timestamp(6) with time zone NOT NULL
+);
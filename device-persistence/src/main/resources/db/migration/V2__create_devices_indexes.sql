@@ -0,0 +1,15 @@
+-- Indexes serving the device read paths. Built CONCURRENTLY so that existing tables stay
+-- writable while they are created; see the .conf file disabling the migration transaction.
+
+-- Case-insensitive name and brand filters: lower(name) IN (...), lower(brand) IN (...).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_lower_name ON devices (lower(name));
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_lower_brand ON devices (lower(brand));
+
+-- Keyset pages ordered by (creation_time, id), with and without a state filter.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_state_creation_time_id
+    ON devices (state, creation_time, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_creation_time_id
+    ON devices (creation_time, id);
+
+-- Keyset pages ordered by (name, id).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_name_id ON devices (name, id);
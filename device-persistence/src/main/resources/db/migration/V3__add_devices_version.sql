@@ -0,0 +1,2 @@
+-- Optimistic-locking counter, incremented by every update and exposed to clients as the ETag.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
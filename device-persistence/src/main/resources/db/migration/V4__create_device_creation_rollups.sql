@@ -0,0 +1,79 @@
+-- Hourly rollup of device registrations per brand and current state, so that creation statistics
+-- are read from a table whose size depends on elapsed hours, brands and states, not on devices.
+-- Buckets are UTC hours; daily figures are sums of 24 hourly rows.
+CREATE TABLE device_creation_rollups (
+    bucket       timestamp(6) with time zone NOT NULL,
+    brand        varchar(255)                NOT NULL,
+    state        varchar(255)                NOT NULL,
+    device_count bigint                      NOT NULL,
+    PRIMARY KEY (bucket, brand, state)
+);
+
+-- Applies the net change of one statement to the rollups. Statement-level triggers with transition
+-- tables fold a JDBC batch or a bulk UPDATE/DELETE into one grouped upsert instead of one per row,
+-- and run in the writing transaction, so the rollups commit or roll back with the devices.
+-- Rows are upserted in key order, so that concurrent writers lock them in the same order.
+-- Transition tables only exist for the events that declare them, hence one statement per event.
+CREATE FUNCTION devices_apply_creation_rollups() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, count(*)
+          FROM new_devices
+         GROUP BY 1, 2, 3
+         ORDER BY 1, 2, 3
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, -count(*)
+          FROM old_devices
+         GROUP BY 1, 2, 3
+         ORDER BY 1, 2, 3
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    ELSE
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT bucket, brand, state, sum(delta)
+          FROM (SELECT date_trunc('hour', creation_time, 'UTC') AS bucket, brand, state, 1 AS delta
+                  FROM new_devices
+                UNION ALL
+                SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, -1
+                  FROM old_devices) AS changes
+         GROUP BY bucket, brand, state
+        HAVING sum(delta) <> 0
+         ORDER BY bucket, brand, state
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER devices_creation_rollups_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_creation_rollups();
+
+-- Transition tables rule out an UPDATE OF column list; updates that keep brand and state cancel
+-- out in the grouped sum and write nothing.
+CREATE TRIGGER devices_creation_rollups_update
+    AFTER UPDATE ON devices
+    REFERENCING OLD TABLE AS old_devices NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_creation_rollups();
+
+CREATE TRIGGER devices_creation_rollups_delete
+    AFTER DELETE ON devices
+    REFERENCING OLD TABLE AS old_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_creation_rollups();
+
+-- Backfill from the existing devices. Writes are blocked until the migration commits, so no
+-- device is counted both by the backfill and by the triggers.
+LOCK TABLE devices IN SHARE MODE;
+
+INSERT INTO device_creation_rollups (bucket, brand, state, device_count)
+SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, count(*)
+  FROM devices
+ GROUP BY 1, 2, 3;
@@ -0,0 +1,11 @@
+-- Trigram indexes serving GET /devices/search. Built CONCURRENTLY so that existing tables stay
+-- writable while they are created; see the .conf file disabling the migration transaction.
+-- pg_trgm is a trusted extension, so the database owner can create it without superuser rights.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring matches on name and brand: lower(name) LIKE '%...%', lower(brand) LIKE '%...%'.
+-- A B-tree cannot serve a leading wildcard; GIN looks up every trigram of the pattern instead.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_name_trgm
+    ON devices USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_brand_trgm
+    ON devices USING gin (lower(brand) gin_trgm_ops);
@@ -0,0 +1,85 @@
+-- Distinct words of device names and brands, used by GET /devices/search to correct typos.
+-- Fuzzy-matching a misspelt word against millions of names would recheck every device sharing
+-- a common trigram with it; matching it against the vocabulary only rechecks a few words, and
+-- the corrected word is then searched as a substring through idx_devices_*_trgm.
+CREATE TABLE device_search_terms (
+    term        varchar(255) NOT NULL PRIMARY KEY,
+    occurrences bigint       NOT NULL
+);
+
+CREATE INDEX idx_device_search_terms_trgm ON device_search_terms USING gin (term gin_trgm_ops);
+
+-- The words of one device, lower-cased and split on whitespace, as the search matches them.
+CREATE FUNCTION device_search_terms_of(name varchar, brand varchar) RETURNS SETOF varchar
+    LANGUAGE sql IMMUTABLE AS
+$$
+SELECT term
+  FROM regexp_split_to_table(lower(name) || ' ' || lower(brand), '\s+') AS term
+ WHERE term <> ''
+$$;
+
+-- Applies the net change of one statement to the vocabulary, like devices_apply_creation_rollups:
+-- one grouped upsert per statement, in key order, within the writing transaction. Words no
+-- device uses any more are removed.
+CREATE FUNCTION devices_apply_search_terms() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, count(*)
+          FROM new_devices, device_search_terms_of(name, brand) AS term
+         GROUP BY term
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+        RETURN NULL;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, -count(*)
+          FROM old_devices, device_search_terms_of(name, brand) AS term
+         GROUP BY term
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+    ELSE
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, sum(delta)
+          FROM (SELECT term, 1 AS delta
+                  FROM new_devices, device_search_terms_of(name, brand) AS term
+                UNION ALL
+                SELECT term, -1
+                  FROM old_devices, device_search_terms_of(name, brand) AS term) AS changes
+         GROUP BY term
+        HAVING sum(delta) <> 0
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+    END IF;
+    DELETE FROM device_search_terms
+     WHERE occurrences <= 0
+       AND term IN (SELECT device_search_terms_of(name, brand) FROM old_devices);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER devices_search_terms_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_search_terms();
+
+-- Updates that keep name and brand cancel out in the grouped sum and write nothing.
+CREATE TRIGGER devices_search_terms_update
+    AFTER UPDATE ON devices
+    REFERENCING OLD TABLE AS old_devices NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_search_terms();
+
+CREATE TRIGGER devices_search_terms_delete
+    AFTER DELETE ON devices
+    REFERENCING OLD TABLE AS old_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_apply_search_terms();
+
+-- Backfill from the existing devices, with writes blocked until the migration commits.
+LOCK TABLE devices IN SHARE MODE;
+
+INSERT INTO device_search_terms (term, occurrences)
+SELECT term, count(*)
+  FROM devices, device_search_terms_of(name, brand) AS term
+ GROUP BY term;
@@ -0,0 +1,59 @@
+-- Transactional outbox of device changes, relayed to downstream systems by device-api. Rows are
+-- written by the triggers below, in the transaction that changes the devices, so an event exists
+-- if and only if its change committed, whichever deployment or statement made it.
+CREATE TABLE device_outbox (
+    id           bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    device_id    uuid                        NOT NULL,
+    event_type   varchar(16)                 NOT NULL
+        CHECK (event_type IN ('created', 'updated', 'deleted')),
+    payload      jsonb                       NOT NULL,
+    occurred_at  timestamp(6) with time zone NOT NULL DEFAULT statement_timestamp(),
+    delivered_at timestamp(6) with time zone
+);
+
+-- The relay polls the oldest undelivered events; delivered rows drop out of this index, so its
+-- size follows the relay's backlog rather than the table's.
+CREATE INDEX idx_device_outbox_undelivered ON device_outbox (id) WHERE delivered_at IS NULL;
+
+-- The pruning job deletes delivered events past retention, oldest first.
+CREATE INDEX idx_device_outbox_delivered ON device_outbox (delivered_at)
+    WHERE delivered_at IS NOT NULL;
+
+-- Appends one event per changed device, carrying the device as GET /devices/{id} returns it: after
+-- the change, or as it was for deletes. Like devices_apply_creation_rollups, one INSERT ... SELECT
+-- per statement covers a whole JDBC batch or bulk UPDATE/DELETE.
+CREATE FUNCTION devices_write_outbox() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO device_outbox (device_id, event_type, payload)
+        SELECT id, 'deleted',
+               jsonb_build_object('id', id, 'name', name, 'brand', brand, 'state', state,
+                                  'creationTime', creation_time, 'version', version)
+          FROM old_devices;
+    ELSE
+        INSERT INTO device_outbox (device_id, event_type, payload)
+        SELECT id, CASE TG_OP WHEN 'INSERT' THEN 'created' ELSE 'updated' END,
+               jsonb_build_object('id', id, 'name', name, 'brand', brand, 'state', state,
+                                  'creationTime', creation_time, 'version', version)
+          FROM new_devices;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER devices_outbox_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_write_outbox();
+
+CREATE TRIGGER devices_outbox_update
+    AFTER UPDATE ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_write_outbox();
+
+CREATE TRIGGER devices_outbox_delete
+    AFTER DELETE ON devices
+    REFERENCING OLD TABLE AS old_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_write_outbox();
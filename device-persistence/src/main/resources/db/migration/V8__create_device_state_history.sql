@@ -0,0 +1,82 @@
+-- Append-only log of device state changes, for audits and utilisation reports, kept out of the
+-- devices table so that its rows and indexes stay as narrow as before. The table is partitioned by
+-- UTC month: reads of recent history only touch recent partitions, and old months can be detached
+-- with DETACH PARTITION ... CONCURRENTLY, without blocking writers, then archived or dropped.
+-- History starts with this migration; earlier changes were not recorded.
+CREATE TABLE device_state_history (
+    device_id      uuid                        NOT NULL,
+    changed_at     timestamp(6) with time zone NOT NULL,
+    version        bigint                      NOT NULL,
+    previous_state varchar(255),
+    state          varchar(255)                NOT NULL,
+    PRIMARY KEY (device_id, changed_at, version)
+) PARTITION BY RANGE (changed_at);
+
+-- Creates the partitions of the current UTC month and of the given number of months after it,
+-- named device_state_history_pYYYYMM. Each is created as a standalone table and then attached,
+-- which only takes a SHARE UPDATE EXCLUSIVE lock on the parent, so writers are never blocked.
+-- There is no default partition, both because it would prevent concurrent detaching and because
+-- rows landing in it would have to be moved out; device-api runs this ahead of time instead.
+CREATE FUNCTION device_state_history_create_partitions(months_ahead int) RETURNS void
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start timestamp;
+    partition   text;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        month_start := date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i);
+        partition := 'device_state_history_p' || to_char(month_start, 'YYYYMM');
+        CONTINUE WHEN EXISTS (SELECT 1
+                                FROM pg_inherits
+                               WHERE inhparent = 'device_state_history'::regclass
+                                 AND inhrelid = to_regclass(partition));
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I (LIKE device_state_history)', partition);
+        EXECUTE format('ALTER TABLE device_state_history ATTACH PARTITION %I '
+                           || 'FOR VALUES FROM (%L) TO (%L)',
+                       partition,
+                       month_start AT TIME ZONE 'UTC',
+                       (month_start + interval '1 month') AT TIME ZONE 'UTC');
+    END LOOP;
+END;
+$$;
+
+SELECT device_state_history_create_partitions(3);
+
+-- Records the initial state of new devices and every state change, one INSERT ... SELECT per
+-- statement like the other triggers on devices, in the writing transaction. Updates that keep the
+-- state, such as renames, record nothing. Old and new rows are paired by grouping rather than by
+-- a join: PL/pgSQL caches the plan of the first statement it sees, usually a single-row update,
+-- and a nested loop cached for that turns a bulk update of n devices into n * n comparisons.
+CREATE FUNCTION devices_record_state_history() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_state_history (device_id, changed_at, version, previous_state, state)
+        SELECT id, statement_timestamp(), version, NULL, state
+          FROM new_devices;
+    ELSE
+        INSERT INTO device_state_history (device_id, changed_at, version, previous_state, state)
+        SELECT id, statement_timestamp(), max(version), max(previous_state), max(state)
+          FROM (SELECT id, version, NULL AS previous_state, state
+                  FROM new_devices
+                UNION ALL
+                SELECT id, NULL, state, NULL
+                  FROM old_devices) AS changes
+         GROUP BY id
+        HAVING max(previous_state) <> max(state);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER devices_state_history_insert
+    AFTER INSERT ON devices
+    REFERENCING NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_record_state_history();
+
+CREATE TRIGGER devices_state_history_update
+    AFTER UPDATE ON devices
+    REFERENCING OLD TABLE AS old_devices NEW TABLE AS new_devices
+    FOR EACH STATEMENT EXECUTE FUNCTION devices_record_state_history();
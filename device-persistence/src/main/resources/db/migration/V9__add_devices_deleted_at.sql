@@ -0,0 +1,124 @@
+-- Soft delete: deleting a device stamps deleted_at instead of removing the row, and device-api
+-- purges the row once devices.deletion.retention has passed. A nullable column without a default
+-- only changes the catalog, so existing rows are not rewritten.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS deleted_at timestamp(6) with time zone;
+
+-- The triggers below now only see devices that are not deleted: stamping deleted_at counts as a
+-- delete, and purging a deleted device changes nothing, since it was already taken out.
+CREATE OR REPLACE FUNCTION devices_apply_creation_rollups() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, count(*)
+          FROM new_devices
+         WHERE deleted_at IS NULL
+         GROUP BY 1, 2, 3
+         ORDER BY 1, 2, 3
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, -count(*)
+          FROM old_devices
+         WHERE deleted_at IS NULL
+         GROUP BY 1, 2, 3
+         ORDER BY 1, 2, 3
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    ELSE
+        INSERT INTO device_creation_rollups AS r (bucket, brand, state, device_count)
+        SELECT bucket, brand, state, sum(delta)
+          FROM (SELECT date_trunc('hour', creation_time, 'UTC') AS bucket, brand, state, 1 AS delta
+                  FROM new_devices
+                 WHERE deleted_at IS NULL
+                UNION ALL
+                SELECT date_trunc('hour', creation_time, 'UTC'), brand, state, -1
+                  FROM old_devices
+                 WHERE deleted_at IS NULL) AS changes
+         GROUP BY bucket, brand, state
+        HAVING sum(delta) <> 0
+         ORDER BY bucket, brand, state
+        ON CONFLICT (bucket, brand, state)
+            DO UPDATE SET device_count = r.device_count + EXCLUDED.device_count;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION devices_apply_search_terms() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, count(*)
+          FROM new_devices, device_search_terms_of(name, brand) AS term
+         WHERE deleted_at IS NULL
+         GROUP BY term
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+        RETURN NULL;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, -count(*)
+          FROM old_devices, device_search_terms_of(name, brand) AS term
+         WHERE deleted_at IS NULL
+         GROUP BY term
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+    ELSE
+        INSERT INTO device_search_terms AS t (term, occurrences)
+        SELECT term, sum(delta)
+          FROM (SELECT term, 1 AS delta
+                  FROM new_devices, device_search_terms_of(name, brand) AS term
+                 WHERE deleted_at IS NULL
+                UNION ALL
+                SELECT term, -1
+                  FROM old_devices, device_search_terms_of(name, brand) AS term
+                 WHERE deleted_at IS NULL) AS changes
+         GROUP BY term
+        HAVING sum(delta) <> 0
+         ORDER BY term
+        ON CONFLICT (term) DO UPDATE SET occurrences = t.occurrences + EXCLUDED.occurrences;
+    END IF;
+    DELETE FROM device_search_terms
+     WHERE occurrences <= 0
+       AND term IN (SELECT device_search_terms_of(name, brand)
+                      FROM old_devices
+                     WHERE deleted_at IS NULL);
+    RETURN NULL;
+END;
+$$;
+
+-- Stamping deleted_at publishes a deleted event carrying the device as it was, like the hard
+-- delete did; purging the row later publishes nothing. The application never updates a deleted
+-- device, so any update leaving deleted_at set is taken for the delete itself, without pairing
+-- old and new rows.
+CREATE OR REPLACE FUNCTION devices_write_outbox() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO device_outbox (device_id, event_type, payload)
+        SELECT id, 'deleted',
+               jsonb_build_object('id', id, 'name', name, 'brand', brand, 'state', state,
+                                  'creationTime', creation_time, 'version', version)
+          FROM old_devices
+         WHERE deleted_at IS NULL;
+    ELSE
+        INSERT INTO device_outbox (device_id, event_type, payload)
+        SELECT id,
+               CASE
+                   WHEN TG_OP = 'INSERT' THEN 'created'
+                   WHEN deleted_at IS NOT NULL THEN 'deleted'
+                   ELSE 'updated'
+               END,
+               jsonb_build_object('id', id, 'name', name, 'brand', brand, 'state', state,
+                                  'creationTime', creation_time, 'version', version)
+          FROM new_devices;
+    END IF;
+    RETURN NULL;
+END;
+$$;
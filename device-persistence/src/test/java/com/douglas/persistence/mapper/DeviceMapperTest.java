@@ -17,7 +17,7 @@ class DeviceMapperTest {
   void shouldConvertDomainToEntity() {
     UUID id = UUID.randomUUID();
     Instant now = Instant.now();
-    Device domain = new Device(id, "Device X", "Brand A", DeviceState.IN_USE, now);
+    Device domain = new Device(id, "Device X", "Brand A", DeviceState.IN_USE, now, 3L);
 
     DeviceEntity entity = DeviceMapper.toEntity(domain);
 
@@ -27,6 +27,7 @@ class DeviceMapperTest {
     assertEquals(domain.brand(), entity.getBrand());
     assertEquals(domain.state(), entity.getState());
     assertEquals(domain.creationTime(), entity.getCreationTime());
+    assertEquals(3L, entity.getVersion());
   }
 
   @Test
@@ -39,6 +40,7 @@ class DeviceMapperTest {
     entity.setBrand("Brand A");
     entity.setState(DeviceState.AVAILABLE);
     entity.setCreationTime(now);
+    entity.setVersion(7L);
 
     Device domain = mapper.toDomain(entity);
 
@@ -48,5 +50,14 @@ class DeviceMapperTest {
     assertEquals(entity.getBrand(), domain.brand());
     assertEquals(entity.getState(), domain.state());
     assertEquals(entity.getCreationTime(), domain.creationTime());
+    assertEquals(7L, domain.version());
+  }
+
+  @Test
+  void shouldMapUnsavedEntityToFirstVersion() {
+    DeviceEntity entity = new DeviceEntity();
+    entity.setId(UUID.randomUUID());
+
+    assertEquals(0L, mapper.toDomain(entity).version());
   }
 }
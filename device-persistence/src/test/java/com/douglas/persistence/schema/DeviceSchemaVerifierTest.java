@@ -0,0 +1,43 @@
+package com.douglas.persistence.schema;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DeviceSchemaVerifierTest {
+
+  @Test
+  void shouldPassWhenAllExpectedIndexesArePresent() {
+    List<String> present = new ArrayList<>(DeviceSchemaVerifier.EXPECTED_INDEXES);
+    present.add("devices_pkey");
+
+    DeviceSchemaVerifier verifier = new DeviceSchemaVerifier(catalogReturning(present));
+
+    assertDoesNotThrow(verifier::afterSingletonsInstantiated);
+  }
+
+  @Test
+  void shouldFailStartupListingMissingIndexes() {
+    List<String> present = new ArrayList<>(DeviceSchemaVerifier.EXPECTED_INDEXES);
+    present.remove("idx_live_devices_lower_brand");
+
+    DeviceSchemaVerifier verifier = new DeviceSchemaVerifier(catalogReturning(present));
+
+    IllegalStateException ex =
+        assertThrows(IllegalStateException.class, verifier::afterSingletonsInstantiated);
+    assertTrue(ex.getMessage().contains("idx_live_devices_lower_brand"));
+  }
+
+  private static JdbcTemplate catalogReturning(List<String> indexes) {
+    return new JdbcTemplate() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <T> List<T> queryForList(String sql, Class<T> elementType) {
+        return (List<T>) indexes;
+      }
+    };
+  }
+}